@@ -0,0 +1,79 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+import de.vandermeer.skb.interfaces.strategies.collections.list.ArrayListStrategy;
+import de.vandermeer.skb.interfaces.transformers.textformat.Text_To_FormattedText;
+
+/**
+ * Benchmarks for parallel transformations of {@link ClusterElementTransformer}, formatting many short paragraphs (for instance table cells).
+ * The speedup depends on the number of cores, on a single core the parallel variants show the overhead of splitting and merging.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class Bench_ClusterElementTransformer_Parallel {
+
+	/** The number of paragraphs. */
+	@Param({"1000", "100000"})
+	int size;
+
+	/** The paragraphs. */
+	List<String> input;
+
+	/** Compiled formatter, thread safe. */
+	Text_To_FormattedText formatter;
+
+	@Setup
+	public void setup(){
+		LoremIpsum lorem = new LoremIpsum();
+		this.input = new ArrayList<>(this.size);
+		for(int i=0; i<this.size; i++){
+			this.input.add(lorem.getWords(5 + i % 20, i % 40));
+		}
+		this.formatter = Text_To_FormattedText.create(20, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).compile();
+	}
+
+	@Benchmark
+	public List<Collection<StrBuilder>> sequential(){
+		return ClusterElementTransformer.create().transform(this.input, this.formatter, ArrayListStrategy.create());
+	}
+
+	@Benchmark
+	public List<Collection<StrBuilder>> parallel(){
+		return ClusterElementTransformer.create().transformParallel(this.input, this.formatter, ArrayListStrategy.create());
+	}
+}
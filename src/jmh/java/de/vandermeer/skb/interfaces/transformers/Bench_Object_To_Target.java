@@ -0,0 +1,138 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link Object_To_Target} converting strings, for valid input (converted) and invalid input (false value).
+ * The baseline is the former conversion: target class tests with new instances of every standard type and parsers that throw exceptions for invalid input.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Bench_Object_To_Target {
+
+	/** The target class. */
+	@Param({"Boolean", "Integer", "Double", "Long"})
+	String target;
+
+	/** The input, valid or invalid strings for the target class. */
+	@Param({"valid", "invalid"})
+	String input;
+
+	/** The target class. */
+	Class<?> clazz;
+
+	/** The strings to convert. */
+	String[] values;
+
+	/** The transformer. */
+	Object_To_Target<?> tr;
+
+	/** Index of the next string. */
+	int next;
+
+	@Setup
+	public void setup(){
+		boolean valid = "valid".equals(this.input);
+		switch(this.target){
+			case "Boolean":
+				this.clazz = Boolean.class;
+				this.values = (valid)?new String[]{"true", "off", "ON", "False"}:new String[]{"yes", "no", "1", "enabled"};
+				break;
+			case "Integer":
+				this.clazz = Integer.class;
+				this.values = (valid)?new String[]{"1", "-42", "8080", "2147483647"}:new String[]{"x", "1.5", "", "2147483648"};
+				break;
+			case "Double":
+				this.clazz = Double.class;
+				this.values = (valid)?new String[]{"1.5", "-0.25", "3e8", "42"}:new String[]{"x", "1.5.1", "", "1e"};
+				break;
+			default:
+				this.clazz = Long.class;
+				this.values = (valid)?new String[]{"1", "-42", "1500000000000", "9223372036854775807"}:new String[]{"x", "1.5", "", "9223372036854775808"};
+				break;
+		}
+		this.tr = Object_To_Target.create(this.clazz, null, null, false);
+	}
+
+	@Benchmark
+	public Object convert(){
+		this.next = (this.next + 1) & 3;
+		return this.tr.transform(this.values[this.next]);
+	}
+
+	@Benchmark
+	public Object baseline(){
+		this.next = (this.next + 1) & 3;
+		return baseline(this.values[this.next], this.clazz);
+	}
+
+	/**
+	 * The former conversion for a string.
+	 * @param obj the string
+	 * @param clazz the target class
+	 * @return converted value, null if no conversion was successful
+	 */
+	@SuppressWarnings({"deprecation", "removal"})
+	static Object baseline(Object obj, Class<?> clazz){
+		if(clazz.isInstance(new Object[]{})){
+			return obj;
+		}
+		if(clazz.isInstance(obj)){
+			return obj;
+		}
+		if(clazz.isInstance(new Boolean(true))){
+			Object ret = String_To_Boolean.create().transform(obj.toString());
+			if(ret!=null){
+				return ret;
+			}
+		}
+		if(clazz.isInstance(new Integer(0))){
+			try{
+				return Integer.valueOf(obj.toString());
+			}
+			catch(Exception ignore){}
+		}
+		if(clazz.isInstance(new Double(0))){
+			try{
+				return Double.valueOf(obj.toString());
+			}
+			catch(Exception ignore){}
+		}
+		if(clazz.isInstance(new Long(0))){
+			try{
+				return Long.valueOf(obj.toString());
+			}
+			catch(Exception ignore){}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,109 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.vandermeer.skb.interfaces.strategies.collections.list.ArrayListStrategy;
+
+/**
+ * Benchmarks for primitive transformers ({@link ToIntTransformer}, {@link IntToObjTransformer}) against boxed transformers in a {@link ClusterElementTransformer}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_PrimitiveTransformers {
+
+	/** Number of elements. */
+	@Param({"16", "1024"})
+	int size;
+
+	/** Strings with numbers outside the Integer cache. */
+	List<String> strings;
+
+	/** Numbers for Roman literals. */
+	int[] numbers;
+
+	/** Boxed numbers for Roman literals. */
+	Integer[] boxed;
+
+	/** The cluster transformer. */
+	ClusterElementTransformer cet = ClusterElementTransformer.create();
+
+	/** Boxed conversion to Integer. */
+	Object_To_Target<Integer> toInteger = Object_To_Target.create(Integer.class, 0, -1, false);
+
+	/** Primitive conversion to int. */
+	ToIntTransformer<Object> toInt = Object_To_Target.createToInt(0, -1, false);
+
+	/** Roman literals. */
+	Integer_To_RomanLiteral roman = Integer_To_RomanLiteral.create();
+
+	@Setup
+	public void setup(){
+		this.strings = new ArrayList<>(this.size);
+		this.numbers = new int[this.size];
+		this.boxed = new Integer[this.size];
+		for(int i=0; i<this.size; i++){
+			this.strings.add(Integer.toString(1000 + i * 37));
+			this.numbers[i] = 1 + (i * 131) % 3999;
+			this.boxed[i] = this.numbers[i];
+		}
+	}
+
+	@Benchmark
+	public long sumBoxed(){
+		long ret = 0;
+		for(Integer i : this.cet.transform(this.strings, this.toInteger, ArrayListStrategy.create())){
+			ret += i;
+		}
+		return ret;
+	}
+
+	@Benchmark
+	public long sumPrimitive(){
+		long ret = 0;
+		for(int i : this.cet.transformToInt(this.strings, this.toInt)){
+			ret += i;
+		}
+		return ret;
+	}
+
+	@Benchmark
+	public Object romanBoxed(){
+		return this.cet.transform(this.boxed, this.roman, ArrayListStrategy.create());
+	}
+
+	@Benchmark
+	public Object romanPrimitive(){
+		return this.cet.transform(this.numbers, this.roman, ArrayListStrategy.create());
+	}
+}
@@ -0,0 +1,103 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Benchmarks for {@link String_To_ConditionalBreak} on table cells: the array adapter, offset pairs, and slices.
+ * The method `tokenizer` is the former implementation (canonical line breaks plus a tokenizer), for comparison.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Bench_String_To_ConditionalBreak {
+
+	/** The number of cells per invocation. */
+	static final int CELLS = 100;
+
+	/** The cells, plain text only or with some line breaks of all forms. */
+	@Param({"plain", "breaks"})
+	String input;
+
+	/** The cells. */
+	String[] cells;
+
+	@Setup
+	public void setup(){
+		LoremIpsum lorem = new LoremIpsum();
+		String[] breaks = {"\n", "\r\n", "<br>", "<br/>", "<br />"};
+		this.cells = new String[CELLS];
+		for(int i=0; i<CELLS; i++){
+			String cell = lorem.getWords(3 + i % 12, i % 50);
+			if("breaks".equals(this.input)){
+				int at = cell.indexOf(' ', cell.length() / 2);
+				cell = (at<0)?cell + breaks[i % breaks.length]:cell.substring(0, at) + breaks[i % breaks.length] + cell.substring(at + 1);
+			}
+			this.cells[i] = cell;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CELLS)
+	public void tokenizer(Blackhole bh){
+		for(String cell : this.cells){
+			bh.consume(new StrTokenizer(String_To_ConditionalBreak.canonicalize(cell), String_To_ConditionalBreak.CANONICAL_BREAK).setIgnoreEmptyTokens(false).getTokenArray());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CELLS)
+	public void convert(Blackhole bh){
+		for(String cell : this.cells){
+			bh.consume(String_To_ConditionalBreak.convert(cell));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CELLS)
+	public void lineRanges(Blackhole bh){
+		for(String cell : this.cells){
+			bh.consume(String_To_ConditionalBreak.lineRanges(cell));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CELLS)
+	public void split(Blackhole bh){
+		for(String cell : this.cells){
+			bh.consume(String_To_ConditionalBreak.split(cell));
+		}
+	}
+}
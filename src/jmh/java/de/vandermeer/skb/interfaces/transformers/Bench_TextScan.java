@@ -0,0 +1,89 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+import de.vandermeer.skb.interfaces.transformers.textformat.String_To_NoWs;
+import de.vandermeer.skb.interfaces.transformers.textformat.Text_To_WrappedFormat;
+
+/**
+ * Benchmarks for the scanners with implementations per runtime in the multi-release JAR: white space, conditional line breaks, and wrapping.
+ * 
+ * Run from the JAR to use the implementation for the runtime, and with `-jvmArgsAppend -Djdk.util.jar.enableMultiRelease=false` to use the Java 8 implementation on the same runtime:
+ * ----
+ * mvn -P env-jmh package exec:exec -Djmh.classpath=target/skb-interfaces-0.0.2.jar:%classpath -Djmh.args="Bench_TextScan"
+ * ----
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_TextScan {
+
+	/** The input, clean text (nothing to replace) or messy text (tabulators, line breaks, and double spaces). */
+	@Param({"clean", "messy"})
+	String input;
+
+	/** The number of words of the text. */
+	@Param({"100", "2000"})
+	int words;
+
+	/** The text to scan. */
+	String text;
+
+	/** Wrapping transformer. */
+	Text_To_WrappedFormat wrap;
+
+	@Setup
+	public void setup(){
+		this.text = new LoremIpsum().getWords(this.words);
+		if("messy".equals(this.input)){
+			this.text = this.text.replace(". ", ".\n\t").replace(", ", ",  ");
+		}
+		this.wrap = Text_To_WrappedFormat.create(80);
+	}
+
+	@Benchmark
+	public String collapse(){
+		return String_To_NoWs.collapse(this.text);
+	}
+
+	@Benchmark
+	public String canonicalize(){
+		return String_To_ConditionalBreak.canonicalize(this.text);
+	}
+
+	@Benchmark
+	public Pair<ArrayList<String>, ArrayList<String>> wrap(){
+		return this.wrap.transform(this.text);
+	}
+}
@@ -0,0 +1,120 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+import de.vandermeer.skb.interfaces.strategies.collections.list.ArrayListStrategy;
+
+/**
+ * Benchmarks for fused pipelines, see {@link TransformerPipeline}.
+ * The baseline runs one {@link ClusterElementTransformer} call per stage (trim, filter blank, pad), creating a collection per stage.
+ * The limited variants keep the first 10 elements only.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_TransformerPipeline {
+
+	/** Transformer removing leading and trailing white space. */
+	static final Transformer<String, String> TRIM = new Transformer<String, String>() {
+		@Override
+		public String transform(String s){
+			return s.trim();
+		}
+	};
+
+	/** Transformer padding a string to 12 characters. */
+	static final Transformer<String, String> PAD = new Transformer<String, String>() {
+		@Override
+		public String transform(String s){
+			return StringUtils.rightPad(s, 12);
+		}
+	};
+
+	/** Transformer passing a string, for the filter stage of the baseline. */
+	static final Transformer<String, String> IDENTITY = new Transformer<String, String>() {
+		@Override
+		public String transform(String s){
+			return s;
+		}
+	};
+
+	/** The number of input elements. */
+	@Param({"100", "10000"})
+	int size;
+
+	/** The input elements, words with spaces and some blank elements. */
+	List<String> input;
+
+	/** The fused pipeline. */
+	TransformerPipeline<String, String> pipeline;
+
+	/** The fused pipeline with a limit. */
+	TransformerPipeline<String, String> limited;
+
+	@Setup
+	public void setup(){
+		String[] words = StringUtils.split(new LoremIpsum().getWords(this.size));
+		this.input = new ArrayList<>(this.size);
+		for(int i=0; i<this.size; i++){
+			this.input.add((i%5==0)?"  ":" " + words[i % words.length] + " ");
+		}
+		this.pipeline = TransformerPipeline.<String>create().map(TRIM).filter(s -> !s.isEmpty()).map(PAD);
+		this.limited = this.pipeline.limit(10);
+	}
+
+	@Benchmark
+	public List<String> staged(){
+		ClusterElementTransformer cet = ClusterElementTransformer.create();
+		ArrayList<String> trimmed = cet.transform(this.input, TRIM, ArrayListStrategy.create());
+		ArrayList<String> filtered = cet.transform(trimmed, IDENTITY, s -> !s.isEmpty(), ArrayListStrategy.create());
+		return cet.transform(filtered, PAD, ArrayListStrategy.create());
+	}
+
+	@Benchmark
+	public List<String> fused(){
+		return this.pipeline.transform(this.input, ArrayListStrategy.create());
+	}
+
+	@Benchmark
+	public List<String> stagedLimited(){
+		List<String> ret = this.staged();
+		return new ArrayList<>(ret.subList(0, Math.min(10, ret.size())));
+	}
+
+	@Benchmark
+	public List<String> fusedLimited(){
+		return this.limited.transform(this.input, ArrayListStrategy.create());
+	}
+}
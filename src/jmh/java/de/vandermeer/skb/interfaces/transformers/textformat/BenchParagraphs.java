@@ -0,0 +1,90 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Input paragraphs for the text format benchmarks, generated from lorem ipsum, the same for every run.
+ * 
+ * Benchmarks select a paragraph with a parameter of the values {@link #SHORT}, {@link #MEDIUM}, and {@link #LONG}:
+ * a short paragraph is about a table cell or a short note, a medium paragraph a typical text paragraph, a long paragraph a whole document without line breaks.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class BenchParagraphs {
+
+	/** Parameter value for a short paragraph, 25 words. */
+	static final String SHORT = "short";
+
+	/** Parameter value for a medium paragraph, 150 words. */
+	static final String MEDIUM = "medium";
+
+	/** Parameter value for a long paragraph, 6000 words. */
+	static final String LONG = "long";
+
+	/**
+	 * Utility class, no instances.
+	 */
+	private BenchParagraphs(){}
+
+	/**
+	 * Returns the number of words of a paragraph.
+	 * @param size the size of the paragraph, one of {@link #SHORT}, {@link #MEDIUM}, or {@link #LONG}
+	 * @return number of words
+	 * @throws IllegalArgumentException if the size is unknown
+	 */
+	static int words(String size){
+		switch(size){
+			case SHORT:
+				return 25;
+			case MEDIUM:
+				return 150;
+			case LONG:
+				return 6000;
+			default:
+				throw new IllegalArgumentException("unknown paragraph size <" + size + ">");
+		}
+	}
+
+	/**
+	 * Returns a paragraph with single spaces between words.
+	 * @param size the size of the paragraph, one of {@link #SHORT}, {@link #MEDIUM}, or {@link #LONG}
+	 * @return the paragraph
+	 * @throws IllegalArgumentException if the size is unknown
+	 */
+	static String clean(String size){
+		int words = words(size);
+		LoremIpsum li = new LoremIpsum();
+		StringBuilder sb = new StringBuilder(words * 8);
+		for(int i=0; i<words; i+=50){
+			sb.append(li.getWords(Math.min(50, words - i))).append(' ');
+		}
+		return sb.toString().trim();
+	}
+
+	/**
+	 * Returns a paragraph with excessive white space: tabulators and line breaks after sentences and double spaces after commas.
+	 * @param size the size of the paragraph, one of {@link #SHORT}, {@link #MEDIUM}, or {@link #LONG}
+	 * @return the paragraph
+	 * @throws IllegalArgumentException if the size is unknown
+	 */
+	static String messy(String size){
+		return clean(size).replace(". ", ".\n\t").replace(", ", ",  ");
+	}
+}
@@ -0,0 +1,91 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Benchmarks for {@link FormattedTextLayouts}, formatting one text for four widths from one analysis versus four separate {@link Text_To_FormattedText} calls.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_FormattedTextLayouts {
+
+	/** The widths to format for. */
+	static final int[] WIDTHS = new int[]{40, 80, 120, 160};
+
+	/** The alignment. */
+	@Param({"1", "5"})
+	int alignment;
+
+	/** The text to format. */
+	String text;
+
+	/** One transformer per width. */
+	Text_To_FormattedText[] transformers;
+
+	/** Transformer for the layouts. */
+	Text_To_FormattedText settings;
+
+	@Setup
+	public void setup(){
+		this.text = new LoremIpsum().getWords(400);
+		this.transformers = new Text_To_FormattedText[WIDTHS.length];
+		for(int i=0; i<WIDTHS.length; i++){
+			this.transformers[i] = Text_To_FormattedText.create(WIDTHS[i], this.alignment, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null);
+		}
+		this.settings = this.transformers[0];
+	}
+
+	@Benchmark
+	public List<Collection<StrBuilder>> separate(){
+		List<Collection<StrBuilder>> ret = new ArrayList<>(WIDTHS.length);
+		for(Text_To_FormattedText tr : this.transformers){
+			ret.add(tr.transform(this.text));
+		}
+		return ret;
+	}
+
+	@Benchmark
+	public List<Collection<StrBuilder>> layouts(){
+		FormattedTextLayouts layouts = this.settings.layouts(this.text);
+		List<Collection<StrBuilder>> ret = new ArrayList<>(WIDTHS.length);
+		for(int width : WIDTHS){
+			ret.add(layouts.transform(width));
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,117 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Benchmarks for {@link Hyphenator}, the lookup cost per word and greedy wrapping with and without hyphenation.
+ * The patterns are a seeded synthetic set of about the size of a TeX pattern file, built from parts of the words of the text.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Bench_Hyphenator {
+
+	/** The number of words looked up per invocation. */
+	static final int WORDS = 1000;
+
+	/** The number of patterns. */
+	static final int PATTERNS = 4500;
+
+	/** The text to wrap. */
+	String text;
+
+	/** The words to look up. */
+	String[] words;
+
+	/** The hyphenator. */
+	Hyphenator hyphenator;
+
+	/** Wrapping without hyphenation. */
+	Text_To_WrappedFormat wrap;
+
+	/** Wrapping with hyphenation. */
+	Text_To_WrappedFormat wrapHyphenated;
+
+	@Setup
+	public void setup(){
+		this.text = new LoremIpsum().getWords(WORDS);
+		this.words = this.text.split(" ");
+
+		Random random = new Random(42);
+		TreeSet<String> patterns = new TreeSet<>();
+		while(patterns.size()<PATTERNS){
+			String word = this.words[random.nextInt(this.words.length)].toLowerCase();
+			word = "." + word.replaceAll("[^a-z]", "") + ".";
+			int length = 2 + random.nextInt(4);
+			if(word.length()<length){
+				continue;
+			}
+			int start = random.nextInt(word.length() - length + 1);
+			StringBuilder pattern = new StringBuilder();
+			for(int i=start; i<start+length; i++){
+				if(i>start && random.nextInt(3)==0){
+					pattern.append((char)('1' + random.nextInt(5)));
+				}
+				pattern.append(word.charAt(i));
+			}
+			patterns.add(pattern.toString());
+		}
+		this.hyphenator = Hyphenator.create(patterns);
+
+		this.wrap = Text_To_WrappedFormat.create(40, null, Text_To_WrappedFormat.WRAP_GREEDY);
+		this.wrapHyphenated = Text_To_WrappedFormat.create(40, null, Text_To_WrappedFormat.WRAP_GREEDY, this.hyphenator);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(WORDS)
+	public void points(Blackhole bh){
+		for(String word : this.words){
+			bh.consume(this.hyphenator.getPoints(word, 0, word.length()));
+		}
+	}
+
+	@Benchmark
+	public Pair<ArrayList<String>, ArrayList<String>> wrap(){
+		return this.wrap.transform(this.text);
+	}
+
+	@Benchmark
+	public Pair<ArrayList<String>, ArrayList<String>> wrapHyphenated(){
+		return this.wrapHyphenated.transform(this.text);
+	}
+}
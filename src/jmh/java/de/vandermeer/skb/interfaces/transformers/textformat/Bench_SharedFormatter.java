@@ -0,0 +1,86 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Benchmarks for one compiled {@link Text_To_FormattedText} shared by several threads, see {@link FormatScratch}.
+ * Run with `-prof gc` to see the allocation rate per operation (`gc.alloc.rate.norm`) under concurrent load.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class Bench_SharedFormatter {
+
+	/** The number of words of the text. */
+	@Param({"100", "2000"})
+	int words;
+
+	/** The line breaking mode. */
+	@Param({"1", "2"})
+	int wrapMode;
+
+	/** The text. */
+	String text;
+
+	/** The shared plan. */
+	FormattedTextPlan plan;
+
+	@Setup
+	public void setup(){
+		this.text = new LoremIpsum().getWords(this.words);
+		this.plan = (FormattedTextPlan)Text_To_FormattedText.create(
+				60, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH,
+				null, null, null, 4, 0, null, 0, 0, null
+		).withWrapMode(this.wrapMode).compile();
+	}
+
+	@Benchmark
+	public Collection<StrBuilder> transform(){
+		return this.plan.transform(this.text);
+	}
+
+	@Benchmark
+	public List<String> lines(){
+		return this.plan.lines(this.text);
+	}
+
+	@Benchmark
+	public LineBuffer toLineBuffer(){
+		return this.plan.toLineBuffer(this.text);
+	}
+}
@@ -0,0 +1,76 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Benchmarks for {@link String_To_DisplayWidth}, measuring and wrapping ASCII text (fast path) and CJK text (table lookups).
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_String_To_DisplayWidth {
+
+	/** The script of the text, ASCII or CJK. */
+	@Param({"ascii", "cjk"})
+	String script;
+
+	/** The text to measure and wrap. */
+	String text;
+
+	@Setup
+	public void setup(){
+		String words = new LoremIpsum().getWords(200);
+		if("cjk".equals(this.script)){
+			//map every letter to an ideograph, keep the spaces
+			StringBuilder sb = new StringBuilder(words.length());
+			for(int i=0; i<words.length(); i++){
+				char c = words.charAt(i);
+				sb.append((c==' ')?' ':(char)(0x4E00 + c));
+			}
+			words = sb.toString();
+		}
+		this.text = words;
+	}
+
+	@Benchmark
+	public int width(){
+		return String_To_DisplayWidth.width(this.text);
+	}
+
+	@Benchmark
+	public Pair<ArrayList<String>, ArrayList<String>> wrap(){
+		return Text_To_WrappedFormat.convert(this.text, 60);
+	}
+}
@@ -0,0 +1,76 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link String_To_NoWs} and {@link String_To_NoHorWs}, scanners against the regular expressions they replace.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_String_To_NoWs {
+
+	/** The input, clean text (nothing to replace) or messy text (tabulators, line breaks, and double spaces). */
+	@Param({"clean", "messy"})
+	String input;
+
+	/** The paragraph size, see {@link BenchParagraphs}. */
+	@Param({BenchParagraphs.SHORT, BenchParagraphs.MEDIUM, BenchParagraphs.LONG})
+	String paragraph;
+
+	/** The text to normalize. */
+	String text;
+
+	@Setup
+	public void setup(){
+		this.text = ("messy".equals(this.input))?BenchParagraphs.messy(this.paragraph):BenchParagraphs.clean(this.paragraph);
+	}
+
+	@Benchmark
+	public String noWsRegex(){
+		return this.text.replaceAll("\\s+", " ");
+	}
+
+	@Benchmark
+	public String noWsScanner(){
+		return String_To_NoWs.convert(this.text);
+	}
+
+	@Benchmark
+	public String noHorWsRegex(){
+		return this.text.replaceAll("\\h+", " ");
+	}
+
+	@Benchmark
+	public String noHorWsScanner(){
+		return String_To_NoHorWs.convert(this.text);
+	}
+}
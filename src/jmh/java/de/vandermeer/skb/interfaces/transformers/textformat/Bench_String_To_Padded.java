@@ -0,0 +1,94 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for the padding transformers {@link String_To_LeftPadded}, {@link String_To_RightPadded}, {@link String_To_Centered}, and {@link String_To_Justified}.
+ * The whole paragraph is padded as one line, to its length plus {@link #PADDING} characters, with a non-blank inner white space character.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_String_To_Padded {
+
+	/** Number of padding characters added to the length of the paragraph. */
+	static final int PADDING = 16;
+
+	/** The paragraph size, see {@link BenchParagraphs}. */
+	@Param({BenchParagraphs.SHORT, BenchParagraphs.MEDIUM, BenchParagraphs.LONG})
+	String paragraph;
+
+	/** The line to pad. */
+	String line;
+
+	/** Left aligned, padded on the right. */
+	String_To_LeftPadded left;
+
+	/** Right aligned, padded on the left. */
+	String_To_RightPadded right;
+
+	/** Centered. */
+	String_To_Centered centered;
+
+	/** Justified. */
+	String_To_Justified justified;
+
+	@Setup
+	public void setup(){
+		this.line = BenchParagraphs.clean(this.paragraph);
+		int length = this.line.length() + PADDING;
+		this.left = String_To_LeftPadded.create(length, '.', '_', null);
+		this.right = String_To_RightPadded.create(length, '.', '_', null);
+		this.centered = String_To_Centered.create(length, '.', '.', '_', null);
+		this.justified = String_To_Justified.create(length, '_', null);
+	}
+
+	@Benchmark
+	public StrBuilder left(){
+		return this.left.transform(this.line);
+	}
+
+	@Benchmark
+	public StrBuilder right(){
+		return this.right.transform(this.line);
+	}
+
+	@Benchmark
+	public StrBuilder centered(){
+		return this.centered.transform(this.line);
+	}
+
+	@Benchmark
+	public StrBuilder justified(){
+		return this.justified.transform(this.line);
+	}
+}
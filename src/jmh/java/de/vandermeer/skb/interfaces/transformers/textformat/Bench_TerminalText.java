@@ -0,0 +1,99 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for terminal text (see {@link Text_To_FormattedText#MEASURE_TERMINAL}): formatting in display and terminal mode, and measuring with {@link TerminalText} against stripping escape sequences with a regular expression.
+ * The colored input has every fifth word in a color and a tabulator after every sentence.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_TerminalText {
+
+	/** Escape sequences as a regular expression, the usual way to strip them before measuring. */
+	static final Pattern ESCAPES = Pattern.compile("\u001B\\[[0-?]*[ -/]*[@-~]");
+
+	/** The paragraph size, see {@link BenchParagraphs}. */
+	@Param({BenchParagraphs.SHORT, BenchParagraphs.MEDIUM, BenchParagraphs.LONG})
+	String paragraph;
+
+	/** The input, plain text or colored text with tabulators. */
+	@Param({"plain", "colored"})
+	String input;
+
+	/** The text to format. */
+	String text;
+
+	/** Formatter measuring display width. */
+	Text_To_FormattedText display;
+
+	/** Formatter measuring width on a terminal. */
+	Text_To_FormattedText terminal;
+
+	@Setup
+	public void setup(){
+		this.text = BenchParagraphs.clean(this.paragraph);
+		if("colored".equals(this.input)){
+			String[] words = this.text.split(" ");
+			StringBuilder sb = new StringBuilder(this.text.length() * 2);
+			for(int i=0; i<words.length; i++){
+				sb.append((i%5==0)?"\u001B[1;31m" + words[i] + "\u001B[0m":words[i]).append((words[i].endsWith("."))?'\t':' ');
+			}
+			this.text = sb.toString().trim();
+		}
+		this.display = Text_To_FormattedText.create(60, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).compile();
+		this.terminal = Text_To_FormattedText.create(60, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).withMeasureMode(Text_To_FormattedText.MEASURE_TERMINAL).compile();
+	}
+
+	@Benchmark
+	public Collection<StrBuilder> display(){
+		return this.display.transform(this.text);
+	}
+
+	@Benchmark
+	public Collection<StrBuilder> terminal(){
+		return this.terminal.transform(this.text);
+	}
+
+	@Benchmark
+	public int widthScan(){
+		return TerminalText.width(this.text, 0, this.text.length());
+	}
+
+	@Benchmark
+	public int widthRegex(){
+		return String_To_DisplayWidth.width(ESCAPES.matcher(this.text).replaceAll(""));
+	}
+}
@@ -0,0 +1,78 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Benchmarks for {@link Text_To_FormattedText}, settings validated per call versus a compiled layout plan.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_Text_To_FormattedText {
+
+	/** Number of words in the formatted text, table cell size to paragraph size. */
+	@Param({"5", "50"})
+	int words;
+
+	/** The alignment. */
+	@Param({"1", "2", "5"})
+	int alignment;
+
+	/** Text to format. */
+	String text;
+
+	/** Transformer validating settings on every call. */
+	Text_To_FormattedText perCall;
+
+	/** Compiled transformer. */
+	Text_To_FormattedText compiled;
+
+	@Setup
+	public void setup(){
+		this.text = new LoremIpsum().getWords(this.words);
+		this.perCall = Text_To_FormattedText.create(30, this.alignment, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null);
+		this.compiled = this.perCall.compile();
+	}
+
+	@Benchmark
+	public Collection<StrBuilder> perCall(){
+		return this.perCall.transform(this.text);
+	}
+
+	@Benchmark
+	public Collection<StrBuilder> compiled(){
+		return this.compiled.transform(this.text);
+	}
+}
@@ -0,0 +1,95 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Benchmarks for batch formatting with {@link Text_To_FormattedText}, sequential versus parallel with a growing number of threads.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_Text_To_FormattedText_Batch {
+
+	/** Number of paragraphs in the batch. */
+	@Param({"10000"})
+	int paragraphs;
+
+	/** Number of threads for parallel formatting. */
+	@Param({"1", "2", "4", "8"})
+	int parallelism;
+
+	/** The paragraphs to format. */
+	List<String> batch;
+
+	/** Compiled transformer. */
+	Text_To_FormattedText formatter;
+
+	/** Pool for parallel formatting. */
+	ForkJoinPool pool;
+
+	@Setup
+	public void setup(){
+		LoremIpsum li = new LoremIpsum();
+		this.batch = new ArrayList<>(this.paragraphs);
+		for(int i=0; i<this.paragraphs; i++){
+			this.batch.add(li.getWords(5 + i % 46, i % 50));
+		}
+		this.formatter = Text_To_FormattedText.create(60, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).compile();
+		this.pool = new ForkJoinPool(this.parallelism);
+	}
+
+	@TearDown
+	public void tearDown(){
+		this.pool.shutdown();
+	}
+
+	@Benchmark
+	public List<Collection<StrBuilder>> sequential(){
+		List<Collection<StrBuilder>> ret = new ArrayList<>(this.batch.size());
+		for(String p : this.batch){
+			ret.add(this.formatter.transform(p));
+		}
+		return ret;
+	}
+
+	@Benchmark
+	public List<Collection<StrBuilder>> parallel(){
+		return this.formatter.transformAll(this.batch, this.pool, Text_To_FormattedText.DEFAULT_BATCH_THRESHOLD);
+	}
+}
@@ -0,0 +1,99 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for multi-column text, see {@link Text_To_FormattedText#toColumns(String, int, int)}.
+ * The baseline formats the text to a collection and joins the lines of the columns into new string builders per row.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_Text_To_FormattedText_Columns {
+
+	/** Width of a column. */
+	static final int WIDTH = 30;
+
+	/** Spaces between columns. */
+	static final int GUTTER = 3;
+
+	/** The paragraph size, see {@link BenchParagraphs}. */
+	@Param({BenchParagraphs.MEDIUM, BenchParagraphs.LONG})
+	String paragraph;
+
+	/** Number of columns. */
+	@Param({"2", "4"})
+	int columns;
+
+	/** The text to format. */
+	String text;
+
+	/** Compiled transformer with the column width. */
+	Text_To_FormattedText tr;
+
+	@Setup
+	public void setup(){
+		this.text = BenchParagraphs.clean(this.paragraph);
+		this.tr = Text_To_FormattedText.create(WIDTH, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).compile();
+	}
+
+	@Benchmark
+	public LineBuffer toColumns(){
+		return this.tr.toColumns(this.text, this.columns, GUTTER);
+	}
+
+	@Benchmark
+	public List<StrBuilder> joined(){
+		List<StrBuilder> lines = new ArrayList<>(this.tr.transform(this.text));
+		int rows = (lines.size() + this.columns - 1) / this.columns;
+		List<StrBuilder> ret = new ArrayList<>(rows);
+		for(int r=0; r<rows; r++){
+			StrBuilder row = new StrBuilder();
+			for(int c=0; c<this.columns; c++){
+				if(c>0){
+					row.appendPadding(GUTTER, ' ');
+				}
+				int index = c * rows + r;
+				if(index<lines.size()){
+					row.append(lines.get(index));
+				}
+				else{
+					row.appendPadding(WIDTH, ' ');
+				}
+			}
+			ret.add(row);
+		}
+		return ret;
+	}
+}
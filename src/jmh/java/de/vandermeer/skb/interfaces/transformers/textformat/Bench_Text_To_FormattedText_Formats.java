@@ -0,0 +1,82 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link Text_To_FormattedText} for every combination of alignment and format, on short, medium, and long paragraphs.
+ * Each combination is measured with a compiled plan, once formatting into builders and once into a line buffer.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_Text_To_FormattedText_Formats {
+
+	/** The text width. */
+	static final int WIDTH = 60;
+
+	/** The alignment, all ALIGN_* values. */
+	@Param({"1", "2", "3", "4", "5", "6"})
+	int alignment;
+
+	/** The format, all FORMAT_* values. */
+	@Param({"100", "101", "102", "103", "120", "121"})
+	int format;
+
+	/** The paragraph size, see {@link BenchParagraphs}. */
+	@Param({BenchParagraphs.SHORT, BenchParagraphs.MEDIUM, BenchParagraphs.LONG})
+	String paragraph;
+
+	/** The text to format. */
+	String text;
+
+	/** The compiled transformer. */
+	Text_To_FormattedText plan;
+
+	@Setup
+	public void setup(){
+		this.text = BenchParagraphs.clean(this.paragraph);
+		this.plan = Text_To_FormattedText.create(
+				WIDTH, this.alignment, this.format, null, null, null, 4, 4, new String[]{"###", "# #"}, 2, 1, null
+		).compile();
+	}
+
+	@Benchmark
+	public Collection<StrBuilder> transform(){
+		return this.plan.transform(this.text);
+	}
+
+	@Benchmark
+	public LineBuffer toLineBuffer(){
+		return this.plan.toLineBuffer(this.text);
+	}
+}
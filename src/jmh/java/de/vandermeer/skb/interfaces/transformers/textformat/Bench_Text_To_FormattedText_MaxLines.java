@@ -0,0 +1,82 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for a limited number of formatted lines, see {@link Text_To_FormattedText#getMaxLines()}.
+ * The baseline formats the whole text and keeps the first lines, the limited transformer should have the same cost for all paragraph sizes.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_Text_To_FormattedText_MaxLines {
+
+	/** Width of the formatted text. */
+	static final int WIDTH = 40;
+
+	/** Maximum number of lines. */
+	static final int MAX_LINES = 3;
+
+	/** The paragraph size, see {@link BenchParagraphs}. */
+	@Param({BenchParagraphs.SHORT, BenchParagraphs.MEDIUM, BenchParagraphs.LONG})
+	String paragraph;
+
+	/** The text to format. */
+	String text;
+
+	/** Compiled transformer without a limit. */
+	Text_To_FormattedText full;
+
+	/** Compiled transformer with a limit and an ellipsis. */
+	Text_To_FormattedText limited;
+
+	@Setup
+	public void setup(){
+		this.text = BenchParagraphs.clean(this.paragraph);
+		this.full = Text_To_FormattedText.create(WIDTH, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).compile();
+		this.limited = Text_To_FormattedText.create(WIDTH, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).withMaxLines(MAX_LINES).withEllipsis("...").compile();
+	}
+
+	@Benchmark
+	public Collection<StrBuilder> limited(){
+		return this.limited.transform(this.text);
+	}
+
+	@Benchmark
+	public List<StrBuilder> fullThenCut(){
+		List<StrBuilder> ret = new ArrayList<>(this.full.transform(this.text));
+		return ret.subList(0, Math.min(MAX_LINES, ret.size()));
+	}
+}
@@ -0,0 +1,76 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link Text_To_WrappedFormat}, greedy versus optimal line breaking.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Bench_Text_To_WrappedFormat {
+
+	/** The paragraph size, see {@link BenchParagraphs}. */
+	@Param({BenchParagraphs.SHORT, BenchParagraphs.MEDIUM, BenchParagraphs.LONG})
+	String paragraph;
+
+	/** The wrap width. */
+	@Param({"30", "80"})
+	int width;
+
+	/** The paragraph to wrap. */
+	String text;
+
+	/** Greedy line breaking. */
+	Text_To_WrappedFormat greedy;
+
+	/** Optimal line breaking. */
+	Text_To_WrappedFormat optimal;
+
+	@Setup
+	public void setup(){
+		this.text = BenchParagraphs.clean(this.paragraph);
+		this.greedy = Text_To_WrappedFormat.create(this.width, null, Text_To_WrappedFormat.WRAP_GREEDY);
+		this.optimal = Text_To_WrappedFormat.create(this.width, null, Text_To_WrappedFormat.WRAP_OPTIMAL);
+	}
+
+	@Benchmark
+	public Pair<ArrayList<String>, ArrayList<String>> greedy(){
+		return this.greedy.transform(this.text);
+	}
+
+	@Benchmark
+	public Pair<ArrayList<String>, ArrayList<String>> optimal(){
+		return this.optimal.transform(this.text);
+	}
+}
@@ -15,7 +15,10 @@
 
 package de.vandermeer.skb.interfaces.antlr;
 
+import org.apache.commons.lang3.Validate;
+
 import de.vandermeer.skb.interfaces.transformers.IsTransformer;
+import de.vandermeer.skb.interfaces.transformers.ToIntTransformer;
 
 /**
  * A transformer that takes an ANTLR runtime object and returns an integer for the line (of the first token).
@@ -24,11 +27,11 @@ import de.vandermeer.skb.interfaces.transformers.IsTransformer;
  * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
  * @since      v0.0.1
  */
-public interface Antlr_To_Line extends IsTransformer<Object, Integer> {
+public interface Antlr_To_Line extends IsTransformer<Object, Integer>, ToIntTransformer<Object> {
 
 	@Override
-	default Integer transform(Object obj){
-		IsTransformer.super.transform(obj);
+	default int transformToInt(Object obj){
+		Validate.notNull(obj);
 		if(obj instanceof IsAntlrRuntimeObject){
 			return ((IsAntlrRuntimeObject)obj).getLine();
 		}
@@ -32,6 +32,7 @@ import org.stringtemplate.v4.STGroupFile;
 
 import de.vandermeer.skb.interfaces.categories.CategoryIs;
 import de.vandermeer.skb.interfaces.categories.has.HasDescription;
+import de.vandermeer.skb.interfaces.transformers.textformat.FormattedTextCache;
 import de.vandermeer.skb.interfaces.transformers.textformat.Text_To_FormattedText;
 
 /**
@@ -132,7 +133,7 @@ public interface IsApplication extends CategoryIs, HasDescription {
 		st.add("appName", this.getAppName());
 		st.add("appDisplayName", this.getAppDisplayName());
 		st.add("appVersion", this.getAppVersion());
-		st.add("appDescription", Text_To_FormattedText.left(this.getAppDescription(), this.getConsoleWidth()));
+		st.add("appDescription", Text_To_FormattedText.left(this.getAppDescription(), this.getConsoleWidth(), this.getFormattedTextCache()));
 		st.add("required", CliOptionList.getRequired(getCLiALlOptions()));
 		for(StrBuilder sb : this.getCliParser().usage(this.getConsoleWidth())){
 			st.add("cliOptions", sb);
@@ -156,7 +157,7 @@ public interface IsApplication extends CategoryIs, HasDescription {
 				StrBuilder padLine = new StrBuilder();
 				padLine.appendPadding(length+4, ' ');
 
-				Collection<StrBuilder> text = Text_To_FormattedText.left(entry.getValue(), this.getConsoleWidth()-length);
+				Collection<StrBuilder> text = Text_To_FormattedText.left(entry.getValue(), this.getConsoleWidth()-length, this.getFormattedTextCache());
 				int i = 0;
 				for(StrBuilder b : text){
 					if(i==0){
@@ -188,7 +189,7 @@ public interface IsApplication extends CategoryIs, HasDescription {
 				StrBuilder padLine = new StrBuilder();
 				padLine.appendPadding(length+4, ' ');
 
-				Collection<StrBuilder> text = Text_To_FormattedText.left(entry.getValue(), this.getConsoleWidth()-length);
+				Collection<StrBuilder> text = Text_To_FormattedText.left(entry.getValue(), this.getConsoleWidth()-length, this.getFormattedTextCache());
 				int i = 0;
 				for(StrBuilder b : text){
 					if(i==0){
@@ -403,6 +404,14 @@ public interface IsApplication extends CategoryIs, HasDescription {
 		return 80;
 	}
 
+	/**
+	 * Returns a cache for text formatted in the help screen, for applications that print the help screen repeatedly.
+	 * @return cache for formatted text, default is null (no cache)
+	 */
+	default FormattedTextCache getFormattedTextCache(){
+		return null;
+	}
+
 	@Override
 	default String getDescription(){
 		return this.getAppDescription();
@@ -0,0 +1,62 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+/**
+ * Finds the conditional line breaks of a string, for indexes that increase from call to call.
+ * 
+ * This is the implementation for Java 8, testing every character once.
+ * The artifact is a multi-release JAR, Java 17 and newer runtimes use the implementation in `src/main/java17`,
+ * which searches for line break characters with `String.indexOf`, vectorized by newer runtimes.
+ * Both implementations have the same methods and the same results.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class BreakScan {
+
+	/** The string to scan. */
+	private final String s;
+
+	/** The index of the last call, a call with a smaller index scans again. */
+	private int from = Integer.MAX_VALUE;
+
+	/** The first line break at or after the index of the last call, -1 if there is none. */
+	private int next;
+
+	/**
+	 * Creates a new scanner.
+	 * @param s the string to scan, must not be null
+	 */
+	BreakScan(String s){
+		this.s = s;
+	}
+
+	/**
+	 * Returns the index of the first conditional line break at or after an index.
+	 * @param from first index to test, must not be negative
+	 * @return index of the first line break, -1 if there is none
+	 * @see String_To_ConditionalBreak#breakLength(CharSequence, int)
+	 */
+	int next(int from){
+		if(from<this.from || (this.next>=0 && this.next<from)){
+			this.next = String_To_ConditionalBreak.indexOfBreak(this.s, from, this.s.length());
+		}
+		this.from = from;
+		return this.next;
+	}
+}
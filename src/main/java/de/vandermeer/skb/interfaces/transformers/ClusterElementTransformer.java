@@ -15,8 +15,11 @@
 
 package de.vandermeer.skb.interfaces.transformers;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 import org.apache.commons.lang3.Validate;
@@ -25,6 +28,12 @@ import de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy;
 
 /**
  * A transformer for clusters (iterable, iterator, array) to collections with transformations on each element of the input group.
+ * Several transformations, predicates, and limits can be fused into a single pass over the input with a {@link TransformerPipeline}.
+ * 
+ * Collections, arrays, and spliterators can also be transformed in parallel on a {@link ForkJoinPool}.
+ * The input is split into parts of at most a sequential threshold of elements, each part is transformed into its own list by one task.
+ * The lists are added to the returned collection in encounter order once all tasks are done, a list strategy returns the elements in the order of the input.
+ * Transformers and predicates for parallel transformations must be thread safe.
  *
  * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
  * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
@@ -32,6 +41,9 @@ import de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy;
  */
 public interface ClusterElementTransformer {
 
+	/** Default for the maximum number of elements transformed by one task of a parallel transformation. */
+	static int DEFAULT_PARALLEL_THRESHOLD = 256;
+
 	/**
 	 * Converts the input `iterable` to a collection applying a transformation for each input element.
 	 * @param <T1> the from/source of the transformer (also the type for `iterable`)
@@ -171,6 +183,270 @@ public interface ClusterElementTransformer {
 		return ret;
 	}
 
+	/**
+	 * Converts the input `iterable` to a collection running a pipeline of transformations, predicates, and limits for each input element in a single pass, see {@link TransformerPipeline}.
+	 * @param <T1> the from/source of the pipeline (also the type for `iterable`)
+	 * @param <T2> the to/target of the pipeline and the type of objects in the return collection
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param <S> the type of collection that should be returned
+	 * @param input `iterable` of input elements
+	 * @param pipeline the pipeline to run for each input element before copying to the output
+	 * @param strategy a strategy determining the type of output collection
+	 * @return an empty collection of type T2 or a collection of type T2 with the output elements of the pipeline
+	 * @throws NullPointerException if `input`, `pipeline`, or `strategy` was null
+	 */
+	default <T1, T2, T3 extends T1, S extends Collection<T2>> S transform(Iterable<T3> input, TransformerPipeline<T1, T2> pipeline, IsCollectionStrategy<S, T2> strategy) {
+		Validate.notNull(pipeline);
+		return pipeline.transform(input, strategy);
+	}
+
+	/**
+	 * Converts the input `iterator` to a collection running a pipeline of transformations, predicates, and limits for each input element in a single pass, see {@link TransformerPipeline}.
+	 * @param <T1> the from/source of the pipeline (also the type for the `iterator`)
+	 * @param <T2> the to/target of the pipeline and the type of objects in the return collection
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param <S> the type of collection that should be returned
+	 * @param input `iterator` of input elements, elements after a reached limit are not read
+	 * @param pipeline the pipeline to run for each input element before copying to the output
+	 * @param strategy a strategy determining the type of output collection
+	 * @return an empty collection of type T2 or a collection of type T2 with the output elements of the pipeline
+	 * @throws NullPointerException if `input`, `pipeline`, or `strategy` was null
+	 */
+	default <T1, T2, T3 extends T1, S extends Collection<T2>> S transform(Iterator<T3> input, TransformerPipeline<T1, T2> pipeline, IsCollectionStrategy<S, T2> strategy) {
+		Validate.notNull(pipeline);
+		return pipeline.transform(input, strategy);
+	}
+
+	/**
+	 * Converts the input `array` to a collection running a pipeline of transformations, predicates, and limits for each input element in a single pass, see {@link TransformerPipeline}.
+	 * @param <T1> the from/source of the pipeline (also the type for the `array`)
+	 * @param <T2> the to/target of the pipeline and the type of objects in the return collection
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param <S> the type of collection that should be returned
+	 * @param input `array` of input elements
+	 * @param pipeline the pipeline to run for each input element before copying to the output
+	 * @param strategy a strategy determining the type of output collection
+	 * @return an empty collection of type T2 or a collection of type T2 with the output elements of the pipeline
+	 * @throws NullPointerException if `input`, `pipeline`, or `strategy` was null
+	 */
+	default <T1, T2, T3 extends T1, S extends Collection<T2>> S transform(T3[] input, TransformerPipeline<T1, T2> pipeline, IsCollectionStrategy<S, T2> strategy) {
+		Validate.notNull(pipeline);
+		return pipeline.transform(input, strategy);
+	}
+
+	/**
+	 * Converts the input `iterable` to an `int` array applying a transformation for each input element, no result is boxed.
+	 * @param <T1> the from/source of the transformer (also the type for `iterable`)
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param input `iterable` of input elements
+	 * @param transformer a transformer to apply for each input element
+	 * @return an array with the transformed elements in input order, empty if the input had no elements
+	 * @throws NullPointerException if `input` or `transformer` was null
+	 */
+	default <T1, T3 extends T1> int[] transformToInt(Iterable<T3> input, ToIntTransformer<T1> transformer) {
+		Validate.notNull(input);
+		Validate.notNull(transformer);
+
+		int[] ret = new int[(input instanceof Collection)?((Collection<?>)input).size():16];
+		int size = 0;
+		for(T3 t3 : input){
+			if(size==ret.length){
+				ret = Arrays.copyOf(ret, Math.max(16, ret.length * 2));
+			}
+			ret[size++] = transformer.transformToInt(t3);
+		}
+		return (size==ret.length)?ret:Arrays.copyOf(ret, size);
+	}
+
+	/**
+	 * Converts the input `iterable` to a `long` array applying a transformation for each input element, no result is boxed.
+	 * @param <T1> the from/source of the transformer (also the type for `iterable`)
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param input `iterable` of input elements
+	 * @param transformer a transformer to apply for each input element
+	 * @return an array with the transformed elements in input order, empty if the input had no elements
+	 * @throws NullPointerException if `input` or `transformer` was null
+	 */
+	default <T1, T3 extends T1> long[] transformToLong(Iterable<T3> input, ToLongTransformer<T1> transformer) {
+		Validate.notNull(input);
+		Validate.notNull(transformer);
+
+		long[] ret = new long[(input instanceof Collection)?((Collection<?>)input).size():16];
+		int size = 0;
+		for(T3 t3 : input){
+			if(size==ret.length){
+				ret = Arrays.copyOf(ret, Math.max(16, ret.length * 2));
+			}
+			ret[size++] = transformer.transformToLong(t3);
+		}
+		return (size==ret.length)?ret:Arrays.copyOf(ret, size);
+	}
+
+	/**
+	 * Converts the input `iterable` to a `double` array applying a transformation for each input element, no result is boxed.
+	 * @param <T1> the from/source of the transformer (also the type for `iterable`)
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param input `iterable` of input elements
+	 * @param transformer a transformer to apply for each input element
+	 * @return an array with the transformed elements in input order, empty if the input had no elements
+	 * @throws NullPointerException if `input` or `transformer` was null
+	 */
+	default <T1, T3 extends T1> double[] transformToDouble(Iterable<T3> input, ToDoubleTransformer<T1> transformer) {
+		Validate.notNull(input);
+		Validate.notNull(transformer);
+
+		double[] ret = new double[(input instanceof Collection)?((Collection<?>)input).size():16];
+		int size = 0;
+		for(T3 t3 : input){
+			if(size==ret.length){
+				ret = Arrays.copyOf(ret, Math.max(16, ret.length * 2));
+			}
+			ret[size++] = transformer.transformToDouble(t3);
+		}
+		return (size==ret.length)?ret:Arrays.copyOf(ret, size);
+	}
+
+	/**
+	 * Converts the input `int` array to a collection applying a transformation for each input element, no input element is boxed.
+	 * @param <T2> the to/target of the transformer and the type of objects in the return collection
+	 * @param <S> the type of collection that should be returned
+	 * @param input `array` of input elements
+	 * @param transformer a transformer to apply for each input element before copying to the output
+	 * @param strategy a strategy determining the type of output collection
+	 * @return an empty collection of type T2 or a collection of type T2 with transformed objects from the input array
+	 * @throws NullPointerException if `input`, `transformer`, or `strategy` was null
+	 */
+	default <T2, S extends Collection<T2>> S transform(int[] input, IntToObjTransformer<T2> transformer, IsCollectionStrategy<S, T2> strategy) {
+		Validate.notNull(input);
+		Validate.notNull(transformer);
+		Validate.notNull(strategy);
+
+		S ret = strategy.get();
+		for(int i : input){
+			ret.add(transformer.transform(i));
+		}
+		return ret;
+	}
+
+	/**
+	 * Converts the input `collection` to a collection applying a transformation for each input element, in parallel on the common pool with the default threshold.
+	 * @param <T1> the from/source of the transformer (also the type for the `collection`)
+	 * @param <T2> the to/target of the transformer and the type of objects in the return collection
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param <S> the type of collection that should be returned
+	 * @param input `collection` of input elements
+	 * @param transformer a thread safe transformer to apply for each input element before copying to the output
+	 * @param strategy a strategy determining the type of output collection
+	 * @return an empty collection of type T2 or a collection of type T2 with transformed objects from the input collection, in encounter order
+	 * @throws NullPointerException if `input`, `transformer`, or `strategy` was null
+	 * @see #DEFAULT_PARALLEL_THRESHOLD
+	 */
+	default <T1, T2, T3 extends T1, S extends Collection<T2>> S transformParallel(Collection<T3> input, Transformer<T1, T2> transformer, IsCollectionStrategy<S, T2> strategy) {
+		return this.transformParallel(input, transformer, null, strategy, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Converts the input `collection` to a collection applying a predicate and a transformation for each input element, in parallel.
+	 * A collection with no more elements than the threshold, or a pool with a parallelism of 1, is transformed sequentially by the calling thread.
+	 * @param <T1> the from/source of the transformer (also the type for the `collection`)
+	 * @param <T2> the to/target of the transformer and the type of objects in the return collection
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param <S> the type of collection that should be returned
+	 * @param input `collection` of input elements
+	 * @param transformer a thread safe transformer to apply for each input element before copying to the output
+	 * @param predicate a thread safe predicate to apply before transformation and copy of each input element (ignored if null)
+	 * @param strategy a strategy determining the type of output collection
+	 * @param pool the pool for the tasks
+	 * @param threshold maximum number of elements transformed by one task, must be larger than 0
+	 * @return an empty collection of type T2 or a collection of type T2 with transformed objects from the input collection, in encounter order
+	 * @throws NullPointerException if `input`, `transformer`, `strategy`, or `pool` was null
+	 * @throws IllegalArgumentException if `threshold` was less than 1
+	 */
+	default <T1, T2, T3 extends T1, S extends Collection<T2>> S transformParallel(Collection<T3> input, Transformer<T1, T2> transformer, Predicate<T3> predicate, IsCollectionStrategy<S, T2> strategy, ForkJoinPool pool, int threshold) {
+		Validate.notNull(input);
+		Validate.notNull(pool);
+		Validate.isTrue(threshold>0, "parallel threshold must be larger than 0, was <%d>", threshold);
+		if(input.size()<=threshold || pool.getParallelism()<2){
+			return this.transform(input, transformer, predicate, strategy);
+		}
+		return this.transformParallel(input.spliterator(), transformer, predicate, strategy, pool, threshold);
+	}
+
+	/**
+	 * Converts the input `array` to a collection applying a transformation for each input element, in parallel on the common pool with the default threshold.
+	 * @param <T1> the from/source of the transformer (also the type for the `array`)
+	 * @param <T2> the to/target of the transformer and the type of objects in the return collection
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param <S> the type of collection that should be returned
+	 * @param input `array` of input elements
+	 * @param transformer a thread safe transformer to apply for each input element before copying to the output
+	 * @param strategy a strategy determining the type of output collection
+	 * @return an empty collection of type T2 or a collection of type T2 with transformed objects from the input array, in encounter order
+	 * @throws NullPointerException if `input`, `transformer`, or `strategy` was null
+	 * @see #DEFAULT_PARALLEL_THRESHOLD
+	 */
+	default <T1, T2, T3 extends T1, S extends Collection<T2>> S transformParallel(T3[] input, Transformer<T1, T2> transformer, IsCollectionStrategy<S, T2> strategy) {
+		return this.transformParallel(input, transformer, null, strategy, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Converts the input `array` to a collection applying a predicate and a transformation for each input element, in parallel.
+	 * An array with no more elements than the threshold, or a pool with a parallelism of 1, is transformed sequentially by the calling thread.
+	 * @param <T1> the from/source of the transformer (also the type for the `array`)
+	 * @param <T2> the to/target of the transformer and the type of objects in the return collection
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param <S> the type of collection that should be returned
+	 * @param input `array` of input elements
+	 * @param transformer a thread safe transformer to apply for each input element before copying to the output
+	 * @param predicate a thread safe predicate to apply before transformation and copy of each input element (ignored if null)
+	 * @param strategy a strategy determining the type of output collection
+	 * @param pool the pool for the tasks
+	 * @param threshold maximum number of elements transformed by one task, must be larger than 0
+	 * @return an empty collection of type T2 or a collection of type T2 with transformed objects from the input array, in encounter order
+	 * @throws NullPointerException if `input`, `transformer`, `strategy`, or `pool` was null
+	 * @throws IllegalArgumentException if `threshold` was less than 1
+	 */
+	default <T1, T2, T3 extends T1, S extends Collection<T2>> S transformParallel(T3[] input, Transformer<T1, T2> transformer, Predicate<T3> predicate, IsCollectionStrategy<S, T2> strategy, ForkJoinPool pool, int threshold) {
+		Validate.notNull(input);
+		Validate.notNull(pool);
+		Validate.isTrue(threshold>0, "parallel threshold must be larger than 0, was <%d>", threshold);
+		if(input.length<=threshold || pool.getParallelism()<2){
+			return this.transform(input, transformer, predicate, strategy);
+		}
+		return this.transformParallel(Arrays.spliterator(input), transformer, predicate, strategy, pool, threshold);
+	}
+
+	/**
+	 * Converts the elements of the input `spliterator` to a collection applying a predicate and a transformation for each input element, in parallel.
+	 * The spliterator is split while its estimated size is larger than the threshold, a spliterator that cannot be split is transformed by a single task.
+	 * @param <T1> the from/source of the transformer (also the type for the `spliterator`)
+	 * @param <T2> the to/target of the transformer and the type of objects in the return collection
+	 * @param <T3> any type that extends T1 to no limit conversion to a single type
+	 * @param <S> the type of collection that should be returned
+	 * @param input `spliterator` of input elements, not used after the call
+	 * @param transformer a thread safe transformer to apply for each input element before copying to the output
+	 * @param predicate a thread safe predicate to apply before transformation and copy of each input element (ignored if null)
+	 * @param strategy a strategy determining the type of output collection
+	 * @param pool the pool for the tasks
+	 * @param threshold maximum number of elements transformed by one task, must be larger than 0
+	 * @return an empty collection of type T2 or a collection of type T2 with transformed objects from the input spliterator, in encounter order
+	 * @throws NullPointerException if `input`, `transformer`, `strategy`, or `pool` was null
+	 * @throws IllegalArgumentException if `threshold` was less than 1
+	 */
+	default <T1, T2, T3 extends T1, S extends Collection<T2>> S transformParallel(Spliterator<T3> input, Transformer<T1, T2> transformer, Predicate<T3> predicate, IsCollectionStrategy<S, T2> strategy, ForkJoinPool pool, int threshold) {
+		Validate.notNull(input);
+		Validate.notNull(transformer);
+		Validate.notNull(strategy);
+		Validate.notNull(pool);
+		Validate.isTrue(threshold>0, "parallel threshold must be larger than 0, was <%d>", threshold);
+
+		ClusterTransformTask<T1, T2, T3> task = new ClusterTransformTask<>(input, transformer, predicate, threshold);
+		pool.invoke(task);
+		S ret = strategy.get();
+		task.addTo(ret);
+		return ret;
+	}
+
 	/**
 	 * Creates a new transformer.
 	 * @return new transformer
@@ -0,0 +1,110 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * A task transforming the elements of a spliterator in parallel, for {@link ClusterElementTransformer}.
+ * 
+ * The task splits its spliterator until the estimated size is not larger than the sequential threshold or it cannot be split any further.
+ * Every leaf task transforms its elements into its own list, so tasks share no collection and need no lock.
+ * The task tree keeps the encounter order (the prefix of a split is the left child), the lists of all leaves are added to the returned collection in that order after all tasks are done.
+ * 
+ * @param <T1> the from/source of the transformer
+ * @param <T2> the to/target of the transformer
+ * @param <T3> the type of input elements
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class ClusterTransformTask<T1, T2, T3 extends T1> extends RecursiveAction {
+
+	/** Serial version. */
+	private static final long serialVersionUID = 1L;
+
+	/** The input elements of this task. */
+	private final Spliterator<T3> spliterator;
+
+	/** The transformer for each element. */
+	private final Transformer<T1, T2> transformer;
+
+	/** The predicate for each element, null for none. */
+	private final Predicate<T3> predicate;
+
+	/** Maximum number of elements transformed by one task without splitting. */
+	private final int threshold;
+
+	/** Task for the first part of a split input, null for a leaf task. */
+	private ClusterTransformTask<T1, T2, T3> left;
+
+	/** Task for the second part of a split input, null for a leaf task. */
+	private ClusterTransformTask<T1, T2, T3> right;
+
+	/** The transformed elements of a leaf task, null for a split task. */
+	private ArrayList<T2> partial;
+
+	/**
+	 * Creates a new task.
+	 * @param spliterator the input elements of the task
+	 * @param transformer the transformer for each element
+	 * @param predicate the predicate for each element, null for none
+	 * @param threshold maximum number of elements transformed by one task without splitting, larger than 0
+	 */
+	ClusterTransformTask(Spliterator<T3> spliterator, Transformer<T1, T2> transformer, Predicate<T3> predicate, int threshold){
+		this.spliterator = spliterator;
+		this.transformer = transformer;
+		this.predicate = predicate;
+		this.threshold = threshold;
+	}
+
+	@Override
+	protected void compute(){
+		Spliterator<T3> prefix;
+		if(this.spliterator.estimateSize()>this.threshold && (prefix = this.spliterator.trySplit())!=null){
+			this.left = new ClusterTransformTask<>(prefix, this.transformer, this.predicate, this.threshold);
+			this.right = new ClusterTransformTask<>(this.spliterator, this.transformer, this.predicate, this.threshold);
+			invokeAll(this.left, this.right);
+			return;
+		}
+
+		long size = this.spliterator.estimateSize();
+		this.partial = new ArrayList<>((size<this.threshold)?(int)size:this.threshold);
+		this.spliterator.forEachRemaining(t3 -> {
+			if(this.predicate==null || this.predicate.test(t3)){
+				this.partial.add(this.transformer.transform(t3));
+			}
+		});
+	}
+
+	/**
+	 * Adds the transformed elements of this task and all its sub-tasks to a collection, in encounter order.
+	 * @param ret the collection to add to
+	 */
+	void addTo(Collection<T2> ret){
+		if(this.partial!=null){
+			ret.addAll(this.partial);
+			return;
+		}
+		this.left.addTo(ret);
+		this.right.addTo(ret);
+	}
+}
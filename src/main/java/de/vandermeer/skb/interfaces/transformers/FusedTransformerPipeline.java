@@ -0,0 +1,299 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.Validate;
+
+import de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy;
+
+/**
+ * The implementation of {@link TransformerPipeline}: a chain of stages, each with a link to the stage before it.
+ * 
+ * For every run the stages are turned into a chain of sinks, starting with a sink that adds elements to the returned collection and wrapping it stage by stage back to the first one.
+ * Every input element is then pushed into the first sink.
+ * A sink returns false once no more elements are wanted (a limit is reached), the run then stops reading the input.
+ * 
+ * @param <FROM> the type of input elements
+ * @param <TO> the type of output elements
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class FusedTransformerPipeline<FROM, TO> implements TransformerPipeline<FROM, TO> {
+
+	/** Stage kind for the start of a pipeline, passing every element. */
+	static final int SOURCE = 0;
+
+	/** Stage kind for a transformer. */
+	static final int MAP = 1;
+
+	/** Stage kind for a predicate. */
+	static final int FILTER = 2;
+
+	/** Stage kind for a maximum number of elements. */
+	static final int LIMIT = 3;
+
+	/** Stage kind for a transformer to zero or more elements. */
+	static final int FLAT_MAP = 4;
+
+	/** The pipeline without stages. */
+	private static final FusedTransformerPipeline<?, ?> IDENTITY = new FusedTransformerPipeline<>(null, SOURCE, null, null, 0);
+
+	/** The stage before this stage, null for the start of a pipeline. */
+	private final FusedTransformerPipeline<FROM, ?> upstream;
+
+	/** The kind of this stage. */
+	private final int kind;
+
+	/** The function of a map or flat map stage, null otherwise. */
+	private final Function<Object, Object> function;
+
+	/** The predicate of a filter stage, null otherwise. */
+	private final Predicate<Object> predicate;
+
+	/** The limit of a limit stage, 0 otherwise. */
+	private final int limit;
+
+	/** Flag for a limit of 0 in this or an earlier stage, then nothing is read. */
+	private final boolean empty;
+
+	/**
+	 * Creates a new stage.
+	 * @param upstream the stage before the new stage, null for the start of a pipeline
+	 * @param kind the kind of the new stage
+	 * @param function the function of a map or flat map stage, null otherwise
+	 * @param predicate the predicate of a filter stage, null otherwise
+	 * @param limit the limit of a limit stage, 0 otherwise
+	 */
+	private FusedTransformerPipeline(FusedTransformerPipeline<FROM, ?> upstream, int kind, Function<Object, Object> function, Predicate<Object> predicate, int limit){
+		this.upstream = upstream;
+		this.kind = kind;
+		this.function = function;
+		this.predicate = predicate;
+		this.limit = limit;
+		this.empty = (kind==LIMIT && limit==0) || (upstream!=null && upstream.empty);
+	}
+
+	/**
+	 * Returns the pipeline without stages.
+	 * @param <T> the type of input elements
+	 * @return pipeline passing every element
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> FusedTransformerPipeline<T, T> create(){
+		return (FusedTransformerPipeline<T, T>)IDENTITY;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <R> TransformerPipeline<FROM, R> map(Transformer<? super TO, ? extends R> transformer){
+		Validate.notNull(transformer);
+		Function<Object, Object> f = (Function<Object, Object>)transformer;
+		if(this.kind==MAP){
+			return new FusedTransformerPipeline<>(this.upstream, MAP, this.function.andThen(f), null, 0);
+		}
+		return new FusedTransformerPipeline<>(this, MAP, f, null, 0);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public TransformerPipeline<FROM, TO> filter(Predicate<? super TO> predicate){
+		Validate.notNull(predicate);
+		Predicate<Object> p = (Predicate<Object>)predicate;
+		if(this.kind==FILTER){
+			return new FusedTransformerPipeline<>(this.upstream, FILTER, null, this.predicate.and(p), 0);
+		}
+		return new FusedTransformerPipeline<>(this, FILTER, null, p, 0);
+	}
+
+	@Override
+	public TransformerPipeline<FROM, TO> limit(int maxElements){
+		Validate.isTrue(maxElements>=0, "limit must not be negative, was <%d>", maxElements);
+		if(this.kind==LIMIT){
+			return new FusedTransformerPipeline<>(this.upstream, LIMIT, null, null, Math.min(this.limit, maxElements));
+		}
+		return new FusedTransformerPipeline<>(this, LIMIT, null, null, maxElements);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <R> TransformerPipeline<FROM, R> flatMap(Transformer<? super TO, ? extends Iterable<? extends R>> transformer){
+		Validate.notNull(transformer);
+		return new FusedTransformerPipeline<>(this, FLAT_MAP, (Function<Object, Object>)(Function<?, ?>)transformer, null, 0);
+	}
+
+	@Override
+	public <S extends Collection<TO>> S transform(Iterable<? extends FROM> input, IsCollectionStrategy<S, TO> strategy){
+		Validate.notNull(input);
+		Validate.notNull(strategy);
+
+		S ret = strategy.get();
+		if(this.empty){
+			return ret;
+		}
+		Sink sink = this.sink(ret);
+		if(input instanceof List && input instanceof RandomAccess){
+			List<? extends FROM> list = (List<? extends FROM>)input;
+			for(int i=0; i<list.size(); i++){
+				if(!sink.accept(list.get(i))){
+					break;
+				}
+			}
+			return ret;
+		}
+		for(FROM from : input){
+			if(!sink.accept(from)){
+				break;
+			}
+		}
+		return ret;
+	}
+
+	@Override
+	public <S extends Collection<TO>> S transform(Iterator<? extends FROM> input, IsCollectionStrategy<S, TO> strategy){
+		Validate.notNull(input);
+		Validate.notNull(strategy);
+
+		S ret = strategy.get();
+		if(this.empty){
+			return ret;
+		}
+		Sink sink = this.sink(ret);
+		while(input.hasNext()){
+			if(!sink.accept(input.next())){
+				break;
+			}
+		}
+		return ret;
+	}
+
+	@Override
+	public <S extends Collection<TO>> S transform(FROM[] input, IsCollectionStrategy<S, TO> strategy){
+		Validate.notNull(input);
+		Validate.notNull(strategy);
+
+		S ret = strategy.get();
+		if(this.empty){
+			return ret;
+		}
+		Sink sink = this.sink(ret);
+		for(FROM from : input){
+			if(!sink.accept(from)){
+				break;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Creates the chain of sinks for a run, state of the run (counters of limits) is held by the sinks.
+	 * @param ret the collection for the output elements
+	 * @return the sink of the first stage
+	 */
+	@SuppressWarnings("unchecked")
+	private Sink sink(Collection<TO> ret){
+		Sink sink = t -> {
+			ret.add((TO)t);
+			return true;
+		};
+		for(FusedTransformerPipeline<FROM, ?> stage=this; stage.kind!=SOURCE; stage=stage.upstream){
+			sink = stage.wrap(sink);
+		}
+		return sink;
+	}
+
+	/**
+	 * Returns a sink for this stage.
+	 * @param downstream the sink of the next stage
+	 * @return new sink
+	 */
+	private Sink wrap(Sink downstream){
+		switch(this.kind){
+			case MAP:
+				return t -> downstream.accept(this.function.apply(t));
+			case FILTER:
+				return t -> !this.predicate.test(t) || downstream.accept(t);
+			case LIMIT:
+				return new LimitSink(this.limit, downstream);
+			case FLAT_MAP:
+				return t -> {
+					Iterable<?> elements = (Iterable<?>)this.function.apply(t);
+					if(elements!=null){
+						for(Object element : elements){
+							if(!downstream.accept(element)){
+								return false;
+							}
+						}
+					}
+					return true;
+				};
+			default:
+				return downstream;
+		}
+	}
+
+	/**
+	 * A stage of a run taking elements.
+	 */
+	private interface Sink {
+
+		/**
+		 * Takes an element.
+		 * @param t the element
+		 * @return true if more elements are wanted, false otherwise
+		 */
+		boolean accept(Object t);
+	}
+
+	/**
+	 * A sink passing elements up to a limit.
+	 */
+	private static final class LimitSink implements Sink {
+
+		/** The limit, larger than 0. */
+		private final int limit;
+
+		/** The sink of the next stage. */
+		private final Sink downstream;
+
+		/** Number of elements passed. */
+		private int count;
+
+		/**
+		 * Creates a new sink.
+		 * @param limit the limit, larger than 0
+		 * @param downstream the sink of the next stage
+		 */
+		LimitSink(int limit, Sink downstream){
+			this.limit = limit;
+			this.downstream = downstream;
+		}
+
+		@Override
+		public boolean accept(Object t){
+			this.count++;
+			return this.downstream.accept(t) && this.count<this.limit;
+		}
+	}
+}
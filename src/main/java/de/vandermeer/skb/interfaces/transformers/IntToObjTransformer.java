@@ -0,0 +1,61 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.function.IntFunction;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A transformer from a primitive `int` to TO, for numeric work without boxing.
+ * 
+ * Implementations provide {@link #transform(int)}, a lambda can be used as well.
+ * The transformer can be used wherever a {@link Transformer} for Integer or an {@link IntFunction} is expected, {@link #transform(Integer)} unboxes its input.
+ * Use {@link ClusterElementTransformer#transform(int[], IntToObjTransformer, de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy)} to transform all elements of an `int` array.
+ * 
+ * @param <TO> the type of output objects
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@FunctionalInterface
+public interface IntToObjTransformer<TO> extends Transformer<Integer, TO>, IntFunction<TO> {
+
+	/**
+	 * Transforms an `int` to another representation.
+	 * @param value input value
+	 * @return output representation
+	 */
+	TO transform(int value);
+
+	/**
+	 * Transforms a boxed `int` to another representation, see {@link #transform(int)}.
+	 * @param from input value
+	 * @return output representation
+	 * @throws NullPointerException if the argument was null
+	 */
+	@Override
+	default TO transform(Integer from){
+		Validate.notNull(from);
+		return this.transform(from.intValue());
+	}
+
+	@Override
+	default TO apply(int value){
+		return this.transform(value);
+	}
+}
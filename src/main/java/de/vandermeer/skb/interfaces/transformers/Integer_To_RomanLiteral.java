@@ -25,7 +25,7 @@ import org.apache.commons.lang3.Validate;
  * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
  * @since      v0.0.1
  */
-public interface Integer_To_RomanLiteral extends IsTransformer<Integer, String> {
+public interface Integer_To_RomanLiteral extends IsTransformer<Integer, String>, IntToObjTransformer<String> {
 
 	/** Array to convert numbers. */
 	public final static int[] NUMBERS = {1000, 900, 500, 400, 100, 90, 50, 40, 10, 9, 5, 4, 1};
@@ -34,18 +34,17 @@ public interface Integer_To_RomanLiteral extends IsTransformer<Integer, String>
 	public final static String[] LETTERS = {"M", "CM", "D", "CD", "C", "XC", "L", "XL", "X", "IX", "V", "IV", "I"};
 
 	@Override
-	default String transform(Integer number){
-		Validate.notNull(number);
+	default String transform(int number){
 		Validate.validState(-1<number && number<4001, "Roman literals are only supported between 0 and 4000, number was: " + number);
 
-		String ret = "";
+		StringBuilder ret = new StringBuilder(16);
 		for(int i=0; i<NUMBERS.length; i++){
 			while(number>=NUMBERS[i]){
-				ret += LETTERS[i];
+				ret.append(LETTERS[i]);
 				number -= NUMBERS[i];
 			}
 		}
-		return ret;
+		return ret.toString();
 	}
 
 	/**
@@ -64,4 +63,13 @@ public interface Integer_To_RomanLiteral extends IsTransformer<Integer, String>
 	static String convert(Integer number){
 		return StringUtils.join(Integer_To_RomanLiteral.create().transform(number), "");
 	}
+
+	/**
+	 * Takes an integer and returns a Roman number literal using upper case ASCII characters, without boxing the number.
+	 * @param number input number
+	 * @return Roman number literal using upper case ASCII characters
+	 */
+	static String convert(int number){
+		return Integer_To_RomanLiteral.create().transform(number);
+	}
 }
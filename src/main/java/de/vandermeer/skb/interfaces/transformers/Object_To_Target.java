@@ -17,8 +17,6 @@ package de.vandermeer.skb.interfaces.transformers;
 
 import java.util.Collection;
 
-import org.apache.commons.lang3.ClassUtils;
-
 /**
  * Converts an Object to a target type with several settings, for instance for null value and false value.
  *
@@ -72,6 +70,8 @@ public interface Object_To_Target<T> extends IsTransformer<Object, T> {
 	 *       ** If {@link #getClazzT()} is an instance of `Long` then try to return `Long.valueOf(value.toString)`
 	 *     * The last option is to return `valueFalse` to indicate that no test was successful
 	 * 
+	 * The tests for the target class are done once per class and cached (see {@link TargetConversion}), the conversions do not create objects or throw exceptions for values that cannot be converted.
+	 * 
 	 * This method does suppress warnings for "`unchecked`" castings, because a casting from any concrete return type to `T` is unsafe.
 	 * Because all actual castings follow an explicit type check, this suppression should have not negative impact (i.e. there are no {@link ClassCastException}).
 	 * 
@@ -86,7 +86,9 @@ public interface Object_To_Target<T> extends IsTransformer<Object, T> {
 		}
 
 		//next check for Object[], because here we want collections unchanged
-		if(this.getClazzT().isInstance(new Object[]{})){
+		Class<T> clazz = this.getClazzT();
+		TargetConversion conversion = TargetConversion.of(clazz);
+		if(conversion.isObjectArray()){
 			if(obj instanceof Object[]){
 				return (T)obj;
 			}
@@ -96,7 +98,7 @@ public interface Object_To_Target<T> extends IsTransformer<Object, T> {
 		}
 
 		//now, if collection use the first value
-		if(this.getCollFirstFlag()==true && ClassUtils.isAssignable(obj.getClass(), Collection.class)){
+		if(this.getCollFirstFlag()==true && obj instanceof Collection){
 			Collection_To_FirstElement<Object> tr = Collection_To_FirstElement.create();
 			obj = tr.transform((Collection<Object>)obj);
 		}
@@ -107,33 +109,14 @@ public interface Object_To_Target<T> extends IsTransformer<Object, T> {
 		}
 
 		//if value is T, return caste to T
-		if(this.getClazzT().isInstance(obj)){
+		if(clazz.isInstance(obj)){
 			return (T)obj;
 		}
 
-		if(this.getClazzT().isInstance(new Boolean(true))){
-			Object ret = String_To_Boolean.create().transform(obj.toString());
-			if(ret!=null){
-				return (T) ret;
-			}
-		}
-		if(this.getClazzT().isInstance(new Integer(0))){
-			try{
-				return (T)Integer.valueOf(obj.toString());
-			}
-			catch(Exception ignore){}
-		}
-		if(this.getClazzT().isInstance(new Double(0))){
-			try{
-				return (T)Double.valueOf(obj.toString());
-			}
-			catch(Exception ignore){}
-		}
-		if(this.getClazzT().isInstance(new Long(0))){
-			try{
-				return (T)Long.valueOf(obj.toString());
-			}
-			catch(Exception ignore){}
+		//standard conversions from the string value: Boolean, Integer, Double, Long
+		Object ret = conversion.convert(obj.toString());
+		if(ret!=null){
+			return (T)ret;
 		}
 
 		//no other option, return falseValue
@@ -216,4 +199,70 @@ public interface Object_To_Target<T> extends IsTransformer<Object, T> {
 	static <T> T convert(Object value, Class<T> clazz, T nullValue, T falseValue, boolean collFirst){
 		return Object_To_Target.create(clazz, nullValue, falseValue, collFirst).transform(value);
 	}
+
+	/**
+	 * Creates a transformer that takes an Object and returns a `int`, the same conversion as {@link #create(Class, Object, Object, boolean)} for the class Integer without boxing the result.
+	 * @param nullValue the value to be used if a null test succeeds
+	 * @param falseValue the value to be used in case no test succeeds
+	 * @param collFirst if set true, collections will be processed and the first element returned, no special collection processing otherwise
+	 * @return new transformer that returns the converted value if a conversion was successful, `nullValue` if `null` was tested successfully, `falseValue` in all other cases
+	 */
+	static ToIntTransformer<Object> createToInt(final int nullValue, final int falseValue, final boolean collFirst){
+		return obj -> TargetConversion.toInt(obj, nullValue, falseValue, collFirst);
+	}
+
+	/**
+	 * Creates a transformer that takes an Object and returns a `long`, the same conversion as {@link #create(Class, Object, Object, boolean)} for the class Long without boxing the result.
+	 * @param nullValue the value to be used if a null test succeeds
+	 * @param falseValue the value to be used in case no test succeeds
+	 * @param collFirst if set true, collections will be processed and the first element returned, no special collection processing otherwise
+	 * @return new transformer that returns the converted value if a conversion was successful, `nullValue` if `null` was tested successfully, `falseValue` in all other cases
+	 */
+	static ToLongTransformer<Object> createToLong(final long nullValue, final long falseValue, final boolean collFirst){
+		return obj -> TargetConversion.toLong(obj, nullValue, falseValue, collFirst);
+	}
+
+	/**
+	 * Creates a transformer that takes an Object and returns a `double`, the same conversion as {@link #create(Class, Object, Object, boolean)} for the class Double without boxing the result.
+	 * @param nullValue the value to be used if a null test succeeds
+	 * @param falseValue the value to be used in case no test succeeds
+	 * @param collFirst if set true, collections will be processed and the first element returned, no special collection processing otherwise
+	 * @return new transformer that returns the converted value if a conversion was successful, `nullValue` if `null` was tested successfully, `falseValue` in all other cases
+	 */
+	static ToDoubleTransformer<Object> createToDouble(final double nullValue, final double falseValue, final boolean collFirst){
+		return obj -> TargetConversion.toDouble(obj, nullValue, falseValue, collFirst);
+	}
+
+	/**
+	 * Conversion from Object to a `int` with special processing for Collections, the same conversion as {@link #convert(Object, Class, Object, Object)} for the class Integer without boxing the result.
+	 * @param value the value that should be converted
+	 * @param nullValue the value to be used if a null test succeeds
+	 * @param falseValue the value to be used in case no test succeeds
+	 * @return the converted value if a conversion was successful, `nullValue` if `null` was tested successfully, `falseValue` in all other cases
+	 */
+	static int convertToInt(Object value, int nullValue, int falseValue){
+		return TargetConversion.toInt(value, nullValue, falseValue, true);
+	}
+
+	/**
+	 * Conversion from Object to a `long` with special processing for Collections, the same conversion as {@link #convert(Object, Class, Object, Object)} for the class Long without boxing the result.
+	 * @param value the value that should be converted
+	 * @param nullValue the value to be used if a null test succeeds
+	 * @param falseValue the value to be used in case no test succeeds
+	 * @return the converted value if a conversion was successful, `nullValue` if `null` was tested successfully, `falseValue` in all other cases
+	 */
+	static long convertToLong(Object value, long nullValue, long falseValue){
+		return TargetConversion.toLong(value, nullValue, falseValue, true);
+	}
+
+	/**
+	 * Conversion from Object to a `double` with special processing for Collections, the same conversion as {@link #convert(Object, Class, Object, Object)} for the class Double without boxing the result.
+	 * @param value the value that should be converted
+	 * @param nullValue the value to be used if a null test succeeds
+	 * @param falseValue the value to be used in case no test succeeds
+	 * @return the converted value if a conversion was successful, `nullValue` if `null` was tested successfully, `falseValue` in all other cases
+	 */
+	static double convertToDouble(Object value, double nullValue, double falseValue){
+		return TargetConversion.toDouble(value, nullValue, falseValue, true);
+	}
 }
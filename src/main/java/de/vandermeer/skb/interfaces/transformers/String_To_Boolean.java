@@ -34,10 +34,10 @@ public interface String_To_Boolean extends IsTransformer<String, Boolean> {
 	default Boolean transform(String s) {
 		if(s!=null){
 			if("true".equalsIgnoreCase(s) || "on".equalsIgnoreCase(s)){
-				return new Boolean(true);
+				return Boolean.TRUE;
 			}
 			if("false".equalsIgnoreCase(s) || "off".equalsIgnoreCase(s)){
-				return new Boolean(false);
+				return Boolean.FALSE;
 			}
 		}
 		return null;
@@ -15,8 +15,10 @@
 
 package de.vandermeer.skb.interfaces.transformers;
 
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.text.StrTokenizer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Converts a String to a String array processing conditional line breaks.
@@ -28,16 +30,18 @@ import org.apache.commons.lang3.text.StrTokenizer;
  */
 public interface String_To_ConditionalBreak extends IsTransformer<String, String[]> {
 
+	/** The canonical conditional line break, all other line breaks are replaced by it. */
+	static String CANONICAL_BREAK = "<br />";
+
 	/**
 	 * Transforms a String to a String[] processing conditional line breaks.
 	 * Conditional line breaks are CR LF, CR, LF, &lt;br&gt;, and &lt;br/&gt;.
 	 * 
-	 * The method proceeds as follows:
-	 * 
-	 *     . replace all line breaks (CR LF, CR, LF) into HTML4 line break entity &lt;br&gt;
-	 *     . replace all HTML4 line break entities to HTML5 entities (as in self-closing &lt;br/&gt; entity).
-	 *     . use a `tokenizer` to process the resulting string (not ignoring empty tokens, since they mark required line breaks).
-	 *     . return the array of the `tokenizer`
+	 * The string is split in a single pass at all line breaks (CR LF, CR, LF, &lt;br&gt;, &lt;br/&gt;, &lt;br /&gt;), see {@link #lineRanges(String)},
+	 * no canonical string is created and no tokenizer is used.
+	 * Empty lines are kept, since they mark required line breaks.
+	 * This method is an adapter for the array contract, it copies every line into a new string.
+	 * Use {@link #lineRanges(String)} or {@link #split(String)} to process lines without copies.
 	 * 
 	 * As a result, a string containing 1 line break will be converted into an array length 2:
 	 * ----
@@ -57,15 +61,12 @@ public interface String_To_ConditionalBreak extends IsTransformer<String, String
 	@Override
 	default String[] transform(String s) {
 		IsTransformer.super.transform(s);
-		if("".equals(s)){
-			return new String[]{""};
+		int[] ranges = lineRanges(s);
+		String[] ret = new String[ranges.length / 2];
+		for(int i=0; i<ret.length; i++){
+			ret[i] = s.substring(ranges[2*i], ranges[2*i+1]);
 		}
-
-		String lfRep = StringUtils.replacePattern(s.toString(), "\\r\\n|\\r|\\n", "<br>");
-		lfRep = StringUtils.replace(lfRep, "<br>", "<br/>");
-		lfRep = StringUtils.replace(lfRep, "<br/>", "<br />");
-		StrTokenizer tok = new StrTokenizer(lfRep, "<br />").setIgnoreEmptyTokens(false);
-		return tok.getTokenArray();
+		return ret;
 	}
 
 	/**
@@ -87,4 +88,138 @@ public interface String_To_ConditionalBreak extends IsTransformer<String, String
 		return String_To_ConditionalBreak.create().transform(s);
 	}
 
+	/**
+	 * Returns the length of the conditional line break starting at the given index.
+	 * Recognized are CR LF, CR, LF, &lt;br&gt;, &lt;br/&gt;, and &lt;br /&gt;, no replacement or copy of the input is done.
+	 * @param s input sequence, must not be null
+	 * @param index index to test, must be within the sequence
+	 * @return length of the line break at `index`, 0 if there is no line break at `index`
+	 */
+	static int breakLength(CharSequence s, int index){
+		char c = s.charAt(index);
+		if(c=='\r'){
+			return (index+1<s.length() && s.charAt(index+1)=='\n')?2:1;
+		}
+		if(c=='\n'){
+			return 1;
+		}
+		if(c!='<' || index+3>=s.length() || s.charAt(index+1)!='b' || s.charAt(index+2)!='r'){
+			return 0;
+		}
+		switch(s.charAt(index+3)){
+			case '>':
+				return 4;
+			case '/':
+				return (index+4<s.length() && s.charAt(index+4)=='>')?5:0;
+			case ' ':
+				return (index+5<s.length() && s.charAt(index+4)=='/' && s.charAt(index+5)=='>')?6:0;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Replaces all conditional line breaks (CR LF, CR, LF, &lt;br&gt;, &lt;br/&gt;) by the canonical line break {@link #CANONICAL_BREAK}.
+	 * The string is scanned once, no regular expression is used, see {@link #breakScanner(String)}.
+	 * If the string has no line breaks other than canonical ones, the input instance is returned.
+	 * @param s input string, must not be null
+	 * @return string with canonical line breaks, the input if it had no other line breaks
+	 */
+	static String canonicalize(String s){
+		BreakScan scan = new BreakScan(s);
+		int from = 0;
+		int i = scan.next(0);
+		StringBuilder ret = null;
+		while(i>=0){
+			int bl = breakLength(s, i);
+			if(bl!=CANONICAL_BREAK.length()){
+				if(ret==null){
+					ret = new StringBuilder(s.length() + 16);
+				}
+				ret.append(s, from, i).append(CANONICAL_BREAK);
+				from = i + bl;
+			}
+			i = scan.next(i + bl);
+		}
+		if(ret==null){
+			return s;
+		}
+		return ret.append(s, from, s.length()).toString();
+	}
+
+	/**
+	 * Returns a scanner for the conditional line breaks of a string.
+	 * The scanner returns the index of the first line break at or after a given index, or -1 if there is none.
+	 * If the given indexes do not decrease from call to call, the string is scanned only once.
+	 * On Java 17 and newer runtimes line break characters are searched with vectorized `String.indexOf` (the artifact is a multi-release JAR).
+	 * @param s input string, must not be null
+	 * @return scanner for line breaks
+	 * @see #breakLength(CharSequence, int)
+	 */
+	static IntUnaryOperator breakScanner(String s){
+		return new BreakScan(s)::next;
+	}
+
+	/**
+	 * Splits a string at conditional line breaks into lines, returned as ranges of the string.
+	 * The string is scanned once, line breaks (CR LF, CR, LF, &lt;br&gt;, &lt;br/&gt;, &lt;br /&gt;) are recognized in place, nothing is copied.
+	 * A string with n line breaks has n+1 lines, empty lines are kept (an empty string has one empty line).
+	 * @param s input string, must not be null
+	 * @return start index (inclusive) and end index (exclusive) of each line, two entries per line
+	 */
+	static int[] lineRanges(String s){
+		BreakScan scan = new BreakScan(s);
+		int[] ret = new int[8];
+		int size = 0;
+		int from = 0;
+		int i = scan.next(0);
+		while(true){
+			if(size+2>ret.length){
+				ret = Arrays.copyOf(ret, ret.length * 2);
+			}
+			ret[size++] = from;
+			ret[size++] = (i<0)?s.length():i;
+			if(i<0){
+				return (size==ret.length)?ret:Arrays.copyOf(ret, size);
+			}
+			from = i + breakLength(s, i);
+			i = scan.next(from);
+		}
+	}
+
+	/**
+	 * Splits a string at conditional line breaks into lines, returned as slices of the string.
+	 * Each slice is a read-only view of the string (a {@link CharBuffer}), no characters are copied.
+	 * Slices must be compared by content, for instance with `toString()` or {@link org.apache.commons.lang3.StringUtils#equals(CharSequence, CharSequence)}.
+	 * @param s input string, must not be null
+	 * @return lines of the string, empty lines are kept
+	 * @see #lineRanges(String)
+	 */
+	static List<CharSequence> split(String s){
+		int[] ranges = lineRanges(s);
+		CharSequence[] ret = new CharSequence[ranges.length / 2];
+		for(int i=0; i<ret.length; i++){
+			ret[i] = CharBuffer.wrap(s, ranges[2*i], ranges[2*i+1]);
+		}
+		return Arrays.asList(ret);
+	}
+
+	/**
+	 * Returns the index of the first conditional line break in the given range.
+	 * @param s input sequence, must not be null
+	 * @param from first index to test (inclusive)
+	 * @param to last index to test (exclusive)
+	 * @return index of the first line break in the range, -1 if there is none
+	 * @see #breakLength(CharSequence, int)
+	 */
+	static int indexOfBreak(CharSequence s, int from, int to){
+		for(int i=from; i<to; i++){
+			char c = s.charAt(i);
+			if((c=='\r' || c=='\n' || c=='<') && breakLength(s, i)>0){
+				return i;
+			}
+		}
+		return -1;
+	}
+
 }
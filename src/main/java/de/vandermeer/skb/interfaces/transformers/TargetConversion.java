@@ -0,0 +1,368 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.Collection;
+
+/**
+ * The standard conversions of {@link Object_To_Target} for a target class, with parsers that do not throw exceptions.
+ * 
+ * Which conversions apply to a target class (Object array, Boolean, Integer, Double, Long) is tested once per class and cached in a {@link ClassValue}.
+ * The parsers accept the same strings as {@link Integer#valueOf(String)}, {@link Double#valueOf(String)}, and {@link Long#valueOf(String)}.
+ * They return null for all other strings, no exception is thrown and nothing is allocated for invalid input.
+ * The primitive conversions ({@link #toInt(Object, int, int, boolean)}, {@link #toLong(Object, long, long, boolean)}, {@link #toDouble(Object, double, double, boolean)}) do not box their results.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class TargetConversion {
+
+	/** Conversions per target class. */
+	private static final ClassValue<TargetConversion> CONVERSIONS = new ClassValue<TargetConversion>() {
+		@Override
+		protected TargetConversion computeValue(Class<?> type){
+			return new TargetConversion(type);
+		}
+	};
+
+	/** Flag for a target class that takes an Object array. */
+	private final boolean objectArray;
+
+	/** Flag for a target class that takes a Boolean. */
+	private final boolean bool;
+
+	/** Flag for a target class that takes an Integer. */
+	private final boolean integer;
+
+	/** Flag for a target class that takes a Double. */
+	private final boolean dbl;
+
+	/** Flag for a target class that takes a Long. */
+	private final boolean lng;
+
+	/**
+	 * Creates the conversions for a target class.
+	 * @param type the target class
+	 */
+	private TargetConversion(Class<?> type){
+		this.objectArray = type.isAssignableFrom(Object[].class);
+		this.bool = type.isAssignableFrom(Boolean.class);
+		this.integer = type.isAssignableFrom(Integer.class);
+		this.dbl = type.isAssignableFrom(Double.class);
+		this.lng = type.isAssignableFrom(Long.class);
+	}
+
+	/**
+	 * Returns the conversions for a target class.
+	 * @param type the target class, must not be null
+	 * @return conversions for the class
+	 */
+	static TargetConversion of(Class<?> type){
+		return CONVERSIONS.get(type);
+	}
+
+	/**
+	 * Tests if the target class takes an Object array.
+	 * @return true if an Object array is an instance of the target class, false otherwise
+	 */
+	boolean isObjectArray(){
+		return this.objectArray;
+	}
+
+	/**
+	 * Converts a string to the target class, trying Boolean, Integer, Double, and Long in that sequence for all of them the target class takes.
+	 * @param s the string, must not be null
+	 * @return the converted value, null if no conversion was successful
+	 */
+	Object convert(String s){
+		if(this.bool){
+			Boolean ret = parseBoolean(s);
+			if(ret!=null){
+				return ret;
+			}
+		}
+		if(this.integer){
+			Number ret = parseInteger(s, true);
+			if(ret!=null){
+				return ret;
+			}
+		}
+		if(this.dbl){
+			Double ret = parseDouble(s);
+			if(ret!=null){
+				return ret;
+			}
+		}
+		if(this.lng){
+			return parseInteger(s, false);
+		}
+		return null;
+	}
+
+	/**
+	 * Parses a Boolean the same way as {@link String_To_Boolean}.
+	 * @param s the string, must not be null
+	 * @return true for `true` or `on`, false for `false` or `off` (ignoring case), null otherwise
+	 */
+	static Boolean parseBoolean(String s){
+		if("true".equalsIgnoreCase(s) || "on".equalsIgnoreCase(s)){
+			return Boolean.TRUE;
+		}
+		if("false".equalsIgnoreCase(s) || "off".equalsIgnoreCase(s)){
+			return Boolean.FALSE;
+		}
+		return null;
+	}
+
+	/**
+	 * Parses a decimal integer the same way as {@link Integer#valueOf(String)} or {@link Long#valueOf(String)}, without throwing an exception.
+	 * @param s the string, must not be null
+	 * @param isInt true to parse an Integer, false to parse a Long
+	 * @return the Integer or Long, null if the string is not a decimal integer or out of range
+	 */
+	static Number parseInteger(String s, boolean isInt){
+		long ret = parseInteger(s, isInt, Long.MIN_VALUE);
+		if(ret==Long.MIN_VALUE && (isInt || parseInteger(s, false, 0)!=Long.MIN_VALUE)){
+			//the fail value, unless the string is the smallest long value
+			return null;
+		}
+		return (isInt)?(Number)Integer.valueOf((int)ret):(Number)Long.valueOf(ret);
+	}
+
+	/**
+	 * Parses a decimal integer the same way as {@link Integer#parseInt(String)} or {@link Long#parseLong(String)}, without throwing an exception.
+	 * @param s the string, must not be null
+	 * @param isInt true to parse an int, false to parse a long
+	 * @param fail the value to return if the string is not a decimal integer or out of range
+	 * @return the int or long value, `fail` if the string is not a decimal integer or out of range
+	 */
+	static long parseInteger(String s, boolean isInt, long fail){
+		int length = s.length();
+		if(length==0){
+			return fail;
+		}
+
+		//accumulate negatively, the negative range is the larger one
+		int i = 0;
+		boolean negative = false;
+		long limit = (isInt)?-Integer.MAX_VALUE:-Long.MAX_VALUE;
+		char first = s.charAt(0);
+		if(first=='-' || first=='+'){
+			if(length==1){
+				return fail;
+			}
+			if(first=='-'){
+				negative = true;
+				limit = (isInt)?Integer.MIN_VALUE:Long.MIN_VALUE;
+			}
+			i++;
+		}
+		long multmin = limit / 10;
+		long ret = 0;
+		for(; i<length; i++){
+			int digit = Character.digit(s.charAt(i), 10);
+			if(digit<0 || ret<multmin){
+				return fail;
+			}
+			ret *= 10;
+			if(ret<limit + digit){
+				return fail;
+			}
+			ret -= digit;
+		}
+		if(!negative){
+			ret = -ret;
+		}
+		return ret;
+	}
+
+	/**
+	 * Parses a Double the same way as {@link Double#valueOf(String)}, without throwing an exception for invalid strings.
+	 * The string is tested against the grammar of {@link Double#valueOf(String)} first, only valid strings are parsed.
+	 * @param s the string, must not be null
+	 * @return the Double, null if the string is not a valid floating point value
+	 */
+	static Double parseDouble(String s){
+		return (isDouble(s))?Double.valueOf(s):null;
+	}
+
+	/**
+	 * Parses a double the same way as {@link Double#parseDouble(String)}, without throwing an exception for invalid strings.
+	 * @param s the string, must not be null
+	 * @param fail the value to return if the string is not a valid floating point value
+	 * @return the double value, `fail` if the string is not a valid floating point value
+	 */
+	static double parseDouble(String s, double fail){
+		return (isDouble(s))?Double.parseDouble(s):fail;
+	}
+
+	/**
+	 * Tests a string against the grammar of {@link Double#valueOf(String)}, without throwing an exception for invalid strings.
+	 * @param s the string, must not be null
+	 * @return true if the string is a valid floating point value, false otherwise
+	 */
+	static boolean isDouble(String s){
+		//leading and trailing characters up to a space are ignored
+		int from = 0;
+		int to = s.length();
+		while(from<to && s.charAt(from)<=' '){
+			from++;
+		}
+		while(to>from && s.charAt(to-1)<=' '){
+			to--;
+		}
+
+		int i = from;
+		if(i<to && (s.charAt(i)=='-' || s.charAt(i)=='+')){
+			i++;
+		}
+		if(s.startsWith("NaN", i)){
+			return i+3==to;
+		}
+		if(s.startsWith("Infinity", i)){
+			return i+8==to;
+		}
+		if(i+1<to && s.charAt(i)=='0' && (s.charAt(i+1)=='x' || s.charAt(i+1)=='X')){
+			//hexadecimal values are rare, they are parsed directly
+			try{
+				Double.parseDouble(s);
+				return true;
+			}
+			catch(NumberFormatException ignore){
+				return false;
+			}
+		}
+
+		//digits with an optional fraction, at least one digit, then an optional exponent and type suffix
+		int digits = 0;
+		while(i<to && isDigit(s.charAt(i))){
+			i++;
+			digits++;
+		}
+		if(i<to && s.charAt(i)=='.'){
+			i++;
+			while(i<to && isDigit(s.charAt(i))){
+				i++;
+				digits++;
+			}
+		}
+		if(digits==0){
+			return false;
+		}
+		if(i<to && (s.charAt(i)=='e' || s.charAt(i)=='E')){
+			i++;
+			if(i<to && (s.charAt(i)=='-' || s.charAt(i)=='+')){
+				i++;
+			}
+			int exponent = i;
+			while(i<to && isDigit(s.charAt(i))){
+				i++;
+			}
+			if(i==exponent){
+				return false;
+			}
+		}
+		if(i<to && "fFdD".indexOf(s.charAt(i))>=0){
+			i++;
+		}
+		return i==to;
+	}
+
+	/**
+	 * Returns the value to convert, the first non-null element of a collection if `collFirst` is set.
+	 * @param obj the object, can be null
+	 * @param collFirst true to use the first non-null element of a collection
+	 * @return the value to convert, can be null
+	 */
+	private static Object value(Object obj, boolean collFirst){
+		if(collFirst && obj instanceof Collection){
+			for(Object o : (Collection<?>)obj){
+				if(o!=null){
+					return o;
+				}
+			}
+			return null;
+		}
+		return obj;
+	}
+
+	/**
+	 * Converts an object to an int the same way as {@link Object_To_Target} for the target class Integer, without boxing the result.
+	 * @param obj the object, can be null
+	 * @param nullValue the value for a null object
+	 * @param falseValue the value if no conversion was successful
+	 * @param collFirst true to convert the first non-null element of a collection
+	 * @return the converted value, `nullValue` or `falseValue`
+	 */
+	static int toInt(Object obj, int nullValue, int falseValue, boolean collFirst){
+		Object value = value(obj, collFirst);
+		if(value==null){
+			return nullValue;
+		}
+		if(value instanceof Integer){
+			return ((Integer)value).intValue();
+		}
+		return (int)parseInteger(value.toString(), true, falseValue);
+	}
+
+	/**
+	 * Converts an object to a long the same way as {@link Object_To_Target} for the target class Long, without boxing the result.
+	 * @param obj the object, can be null
+	 * @param nullValue the value for a null object
+	 * @param falseValue the value if no conversion was successful
+	 * @param collFirst true to convert the first non-null element of a collection
+	 * @return the converted value, `nullValue` or `falseValue`
+	 */
+	static long toLong(Object obj, long nullValue, long falseValue, boolean collFirst){
+		Object value = value(obj, collFirst);
+		if(value==null){
+			return nullValue;
+		}
+		if(value instanceof Long){
+			return ((Long)value).longValue();
+		}
+		return parseInteger(value.toString(), false, falseValue);
+	}
+
+	/**
+	 * Converts an object to a double the same way as {@link Object_To_Target} for the target class Double, without boxing the result.
+	 * @param obj the object, can be null
+	 * @param nullValue the value for a null object
+	 * @param falseValue the value if no conversion was successful
+	 * @param collFirst true to convert the first non-null element of a collection
+	 * @return the converted value, `nullValue` or `falseValue`
+	 */
+	static double toDouble(Object obj, double nullValue, double falseValue, boolean collFirst){
+		Object value = value(obj, collFirst);
+		if(value==null){
+			return nullValue;
+		}
+		if(value instanceof Double){
+			return ((Double)value).doubleValue();
+		}
+		return parseDouble(value.toString(), falseValue);
+	}
+
+	/**
+	 * Tests for an ASCII digit, the only digits of floating point values.
+	 * @param c the character
+	 * @return true if the character is an ASCII digit, false otherwise
+	 */
+	private static boolean isDigit(char c){
+		return c>='0' && c<='9';
+	}
+}
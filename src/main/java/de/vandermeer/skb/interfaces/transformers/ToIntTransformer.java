@@ -0,0 +1,57 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * A transformer from FROM to a primitive `int`, for numeric work without boxing.
+ * 
+ * Implementations provide {@link #transformToInt(Object)}, a lambda can be used as well.
+ * The transformer can be used wherever a {@link Transformer} or a {@link ToIntFunction} is expected, {@link #transform(Object)} returns the boxed value.
+ * Use {@link ClusterElementTransformer#transformToInt(Iterable, ToIntTransformer)} to transform all elements of a cluster into a `int` array.
+ * 
+ * @param <FROM> the type of input objects
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@FunctionalInterface
+public interface ToIntTransformer<FROM> extends Transformer<FROM, Integer>, ToIntFunction<FROM> {
+
+	/**
+	 * Transforms from one representation to a `int`.
+	 * @param from input representation
+	 * @return output value
+	 */
+	int transformToInt(FROM from);
+
+	/**
+	 * Transforms from one representation to a boxed `int`, see {@link #transformToInt(Object)}.
+	 * @param from input representation
+	 * @return boxed output value
+	 */
+	@Override
+	default Integer transform(FROM from){
+		return this.transformToInt(from);
+	}
+
+	@Override
+	default int applyAsInt(FROM from){
+		return this.transformToInt(from);
+	}
+}
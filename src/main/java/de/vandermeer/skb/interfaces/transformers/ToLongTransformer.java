@@ -0,0 +1,57 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * A transformer from FROM to a primitive `long`, for numeric work without boxing.
+ * 
+ * Implementations provide {@link #transformToLong(Object)}, a lambda can be used as well.
+ * The transformer can be used wherever a {@link Transformer} or a {@link ToLongFunction} is expected, {@link #transform(Object)} returns the boxed value.
+ * Use {@link ClusterElementTransformer#transformToLong(Iterable, ToLongTransformer)} to transform all elements of a cluster into a `long` array.
+ * 
+ * @param <FROM> the type of input objects
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+@FunctionalInterface
+public interface ToLongTransformer<FROM> extends Transformer<FROM, Long>, ToLongFunction<FROM> {
+
+	/**
+	 * Transforms from one representation to a `long`.
+	 * @param from input representation
+	 * @return output value
+	 */
+	long transformToLong(FROM from);
+
+	/**
+	 * Transforms from one representation to a boxed `long`, see {@link #transformToLong(Object)}.
+	 * @param from input representation
+	 * @return boxed output value
+	 */
+	@Override
+	default Long transform(FROM from){
+		return this.transformToLong(from);
+	}
+
+	@Override
+	default long applyAsLong(FROM from){
+		return this.transformToLong(from);
+	}
+}
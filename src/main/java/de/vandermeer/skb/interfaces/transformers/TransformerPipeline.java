@@ -0,0 +1,120 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+import de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy;
+
+/**
+ * A pipeline of transformations on the elements of a cluster (iterable, iterator, array), fused into a single pass over the input.
+ * 
+ * A pipeline starts with {@link #create()} and adds stages: a transformer for each element ({@link #map(Transformer)}), a predicate ({@link #filter(Predicate)}),
+ * a maximum number of elements ({@link #limit(int)}), or a transformer to zero or more elements ({@link #flatMap(Transformer)}).
+ * Each input element is pushed through all stages before the next element is read, no intermediate collection is created.
+ * Only the final collection is created, by the collection strategy of the terminal call.
+ * 
+ * Elements removed by a predicate are not processed by any later stage.
+ * A limit stops reading the input once it is reached, a limit of 0 does not read the input at all.
+ * Adjacent stages are merged when the pipeline is built: transformers are composed, predicates combined, and the smaller limit is used.
+ * 
+ * A pipeline is immutable, adding a stage returns a new pipeline.
+ * It can be used from many threads as long as its transformers and predicates can, state of a run (for instance counters of limits) is created for every run.
+ * 
+ * @param <FROM> the type of input elements
+ * @param <TO> the type of output elements
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public interface TransformerPipeline<FROM, TO> {
+
+	/**
+	 * Returns a pipeline with a stage that transforms each element.
+	 * @param <R> the type of the transformed elements
+	 * @param transformer the transformer for each element
+	 * @return new pipeline
+	 * @throws NullPointerException if `transformer` was null
+	 */
+	<R> TransformerPipeline<FROM, R> map(Transformer<? super TO, ? extends R> transformer);
+
+	/**
+	 * Returns a pipeline with a stage that removes all elements for which a predicate tests false.
+	 * @param predicate the predicate for each element
+	 * @return new pipeline
+	 * @throws NullPointerException if `predicate` was null
+	 */
+	TransformerPipeline<FROM, TO> filter(Predicate<? super TO> predicate);
+
+	/**
+	 * Returns a pipeline with a stage that passes at most the given number of elements, reading of the input stops when the limit is reached.
+	 * @param maxElements maximum number of elements, must not be negative
+	 * @return new pipeline
+	 * @throws IllegalArgumentException if `maxElements` was negative
+	 */
+	TransformerPipeline<FROM, TO> limit(int maxElements);
+
+	/**
+	 * Returns a pipeline with a stage that transforms each element into zero or more elements, each of them is processed by the following stages in order.
+	 * @param <R> the type of the transformed elements
+	 * @param transformer the transformer for each element, a null result is treated as no elements
+	 * @return new pipeline
+	 * @throws NullPointerException if `transformer` was null
+	 */
+	<R> TransformerPipeline<FROM, R> flatMap(Transformer<? super TO, ? extends Iterable<? extends R>> transformer);
+
+	/**
+	 * Runs the pipeline for all elements of an `iterable`.
+	 * @param <S> the type of collection that should be returned
+	 * @param input `iterable` of input elements
+	 * @param strategy a strategy determining the type of output collection
+	 * @return collection with the output elements, empty if no element passed all stages
+	 * @throws NullPointerException if `input` or `strategy` was null
+	 */
+	<S extends Collection<TO>> S transform(Iterable<? extends FROM> input, IsCollectionStrategy<S, TO> strategy);
+
+	/**
+	 * Runs the pipeline for all elements of an `iterator`.
+	 * @param <S> the type of collection that should be returned
+	 * @param input `iterator` of input elements, elements after a reached limit are not read
+	 * @param strategy a strategy determining the type of output collection
+	 * @return collection with the output elements, empty if no element passed all stages
+	 * @throws NullPointerException if `input` or `strategy` was null
+	 */
+	<S extends Collection<TO>> S transform(Iterator<? extends FROM> input, IsCollectionStrategy<S, TO> strategy);
+
+	/**
+	 * Runs the pipeline for all elements of an `array`.
+	 * @param <S> the type of collection that should be returned
+	 * @param input `array` of input elements
+	 * @param strategy a strategy determining the type of output collection
+	 * @return collection with the output elements, empty if no element passed all stages
+	 * @throws NullPointerException if `input` or `strategy` was null
+	 */
+	<S extends Collection<TO>> S transform(FROM[] input, IsCollectionStrategy<S, TO> strategy);
+
+	/**
+	 * Creates a new pipeline without stages, passing every element.
+	 * @param <T> the type of input elements
+	 * @return new pipeline
+	 */
+	static <T> TransformerPipeline<T, T> create(){
+		return FusedTransformerPipeline.create();
+	}
+}
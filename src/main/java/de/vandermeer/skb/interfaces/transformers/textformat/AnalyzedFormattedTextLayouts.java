@@ -0,0 +1,201 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.text.StrBuilder;
+import org.apache.commons.lang3.tuple.Pair;
+
+import de.vandermeer.skb.interfaces.transformers.String_To_ConditionalBreak;
+
+/**
+ * Formatted text for many widths on a compiled layout plan, with the normalized text and its break candidates computed once.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class AnalyzedFormattedTextLayouts implements FormattedTextLayouts {
+
+	/** The layout plan, its text width is replaced for every layout. */
+	private final FormattedTextPlan plan;
+
+	/** The text. */
+	private final String text;
+
+	/** The normalized text (see {@link FormattedTextPlan#normalize(String)}), null if the text is blank or the number of lines is limited (only the visible part is then normalized). */
+	private final String wrapped;
+
+	/** Index of every space in the normalized text, null if the text is wrapped by the wrapping transformer. */
+	private final int[] spaces;
+
+	/**
+	 * Creates new formatted text for many widths.
+	 * @param plan the layout plan
+	 * @param text the text
+	 */
+	AnalyzedFormattedTextLayouts(FormattedTextPlan plan, String text){
+		this.plan = plan;
+		this.text = text;
+		this.wrapped = (StringUtils.isBlank(text) || plan.getMaxLines()>0)?null:plan.normalize(text);
+		this.spaces = (plan.getWrapMode()==Text_To_WrappedFormat.WRAP_GREEDY && plan.getHyphenator()==null && plan.getMeasureMode()==Text_To_FormattedText.MEASURE_DISPLAY && !StringUtils.isBlank(this.wrapped))?breakCandidates(this.wrapped):null;
+	}
+
+	@Override
+	public String getText(){
+		return this.text;
+	}
+
+	@Override
+	public List<String> lines(int textWidth){
+		ArrayList<String> ret = new ArrayList<>();
+		this.format(textWidth, ret, null);
+		return Collections.unmodifiableList(ret);
+	}
+
+	@Override
+	public Collection<StrBuilder> transform(int textWidth){
+		Collection<StrBuilder> ret = this.plan.getCollectionStrategy().get();
+		this.format(textWidth, null, ret);
+		return ret;
+	}
+
+	/**
+	 * Formats the text for a width.
+	 * @param textWidth the text width
+	 * @param lines list for formatted lines as strings, null if not used
+	 * @param builders collection for formatted lines as builders, null if not used
+	 */
+	private void format(int textWidth, List<String> lines, Collection<StrBuilder> builders){
+		FormattedTextPlan p = this.plan.withTextWidth(textWidth);
+		if(this.wrapped==null){
+			if(lines!=null){
+				lines.addAll(p.lines(this.text));
+			}
+			else{
+				builders.addAll(p.transform(this.text));
+			}
+			return;
+		}
+
+		List<String> top;
+		List<String> bottom;
+		if(this.spaces==null){
+			Pair<ArrayList<String>, ArrayList<String>> pair = p.wrap(this.wrapped);
+			top = pair.getLeft();
+			bottom = pair.getRight();
+		}
+		else{
+			top = new ArrayList<>(p.getExpectedTopLines());
+			bottom = new ArrayList<>();
+			int offset = 0;
+			for(int i=0; i<p.getTopLines() && offset>=0; i++){
+				offset = this.line(offset, p.getTopWidth(), i==0, top);
+			}
+			for(boolean first=true; offset>=0; first=false){
+				offset = this.line(offset, p.getBottomWidth(), first, bottom);
+			}
+		}
+		if(lines!=null){
+			p.format(top, bottom, b -> lines.add(b.toString()));
+		}
+		else{
+			p.format(top, bottom, builders::add);
+		}
+	}
+
+	/**
+	 * Wraps a single line at the last break candidate within the width, the same as a greedy line of {@link WrapScanner} for this text.
+	 * @param offset start of the line, before leading spaces are skipped
+	 * @param width the width to wrap the line for
+	 * @param first true for the first line of the paragraph (an empty last line is not added for the first line), false otherwise
+	 * @param lines list for the line
+	 * @return start of the next line, -1 if this line was the last line
+	 */
+	private int line(int offset, int width, boolean first, List<String> lines){
+		String s = this.wrapped;
+		int length = s.length();
+		while(offset<length && s.charAt(offset)==' '){
+			offset++;
+		}
+		int lookahead = (width>Integer.MAX_VALUE-offset)?Integer.MAX_VALUE:offset+width;
+		if(length<=lookahead){
+			if(offset<length || !first){
+				lines.add(trim(s, offset, length));
+			}
+			return -1;
+		}
+
+		//last space at or before the lookahead, the line is split there if it is after the start
+		int k = Arrays.binarySearch(this.spaces, lookahead);
+		int space = (k>=0)?lookahead:((-k-2>=0)?this.spaces[-k-2]:-1);
+		if(space>offset){
+			lines.add(trim(s, offset, space));
+			return space + 1;
+		}
+		lines.add(trim(s, offset, lookahead));
+		return lookahead;
+	}
+
+	/**
+	 * Returns the indexes of all spaces of a text, if it has only printable ASCII characters and no conditional line breaks.
+	 * @param s the text
+	 * @return indexes of spaces in increasing order, null if the text has other characters or conditional line breaks
+	 */
+	private static int[] breakCandidates(String s){
+		int[] ret = new int[16];
+		int count = 0;
+		for(int i=0; i<s.length(); i++){
+			char c = s.charAt(i);
+			if(c<' ' || c>'~'){
+				return null;
+			}
+			if(c==' '){
+				if(count==ret.length){
+					ret = Arrays.copyOf(ret, count * 2);
+				}
+				ret[count++] = i;
+			}
+		}
+		if(String_To_ConditionalBreak.breakScanner(s).applyAsInt(0)>=0){
+			return null;
+		}
+		return Arrays.copyOf(ret, count);
+	}
+
+	/**
+	 * Returns a range of a text without leading and trailing spaces.
+	 * @param s the text
+	 * @param from start of the range (inclusive)
+	 * @param to end of the range (exclusive)
+	 * @return trimmed range
+	 */
+	private static String trim(String s, int from, int to){
+		while(from<to && s.charAt(from)==' '){
+			from++;
+		}
+		while(to>from && s.charAt(to-1)==' '){
+			to--;
+		}
+		return s.substring(from, to);
+	}
+}
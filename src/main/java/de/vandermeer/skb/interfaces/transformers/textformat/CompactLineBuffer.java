@@ -0,0 +1,252 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrBuilder;
+
+/**
+ * A line buffer with a single byte or char array for all lines and an offset table, implementation of {@link LineBuffer}.
+ * 
+ * The buffer starts with byte storage and is inflated to char storage when the first character outside of Latin-1 is added.
+ * Line views read from the current storage, so they stay valid when the buffer grows or is inflated.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class CompactLineBuffer implements LineBuffer {
+
+	/** Latin-1 storage, null if the buffer uses char storage. */
+	private byte[] latin1;
+
+	/** Char storage, null while the buffer uses Latin-1 storage. */
+	private char[] chars;
+
+	/** Start offset of each line, the entry after the last line is the end of the last line. */
+	private int[] offsets;
+
+	/** Number of lines. */
+	private int size;
+
+	/** Number of characters of all lines. */
+	private int count;
+
+	/**
+	 * Creates a new buffer.
+	 * @param lines initial capacity for lines
+	 * @param chars initial capacity for characters
+	 */
+	CompactLineBuffer(int lines, int chars){
+		this.latin1 = new byte[chars];
+		this.offsets = new int[lines + 1];
+	}
+
+	@Override
+	public int size(){
+		return this.size;
+	}
+
+	@Override
+	public CharSequence get(int index){
+		this.check(index);
+		return new Line(this.offsets[index], this.offsets[index+1]);
+	}
+
+	@Override
+	public int length(int index){
+		this.check(index);
+		return this.offsets[index+1] - this.offsets[index];
+	}
+
+	@Override
+	public LineBuffer add(CharSequence line){
+		Validate.notNull(line);
+		int n = line.length();
+		if(this.size+2>this.offsets.length){
+			this.offsets = Arrays.copyOf(this.offsets, Math.max(this.size + 2, this.offsets.length * 2));
+		}
+		this.ensureCapacity(this.count + n);
+
+		int i = 0;
+		if(this.latin1!=null){
+			for(; i<n; i++){
+				char c = line.charAt(i);
+				if(c>0xFF){
+					this.inflate(this.count + i);
+					break;
+				}
+				this.latin1[this.count + i] = (byte)c;
+			}
+		}
+		if(this.chars!=null && i<n){
+			if(line instanceof String){
+				((String)line).getChars(i, n, this.chars, this.count + i);
+			}
+			else if(line instanceof StrBuilder){
+				((StrBuilder)line).getChars(i, n, this.chars, this.count + i);
+			}
+			else{
+				for(; i<n; i++){
+					this.chars[this.count + i] = line.charAt(i);
+				}
+			}
+		}
+
+		this.count += n;
+		this.offsets[++this.size] = this.count;
+		return this;
+	}
+
+	@Override
+	public StrBuilder appendTo(int index, StrBuilder sb){
+		this.check(index);
+		Validate.notNull(sb);
+		int start = this.offsets[index];
+		int end = this.offsets[index+1];
+		if(this.chars!=null){
+			return sb.append(this.chars, start, end - start);
+		}
+		sb.ensureCapacity(sb.length() + end - start);
+		for(int i=start; i<end; i++){
+			sb.append((char)(this.latin1[i] & 0xFF));
+		}
+		return sb;
+	}
+
+	@Override
+	public boolean isLatin1(){
+		return this.latin1!=null;
+	}
+
+	@Override
+	public LineBuffer trimToSize(){
+		if(this.latin1!=null){
+			this.latin1 = Arrays.copyOf(this.latin1, this.count);
+		}
+		else{
+			this.chars = Arrays.copyOf(this.chars, this.count);
+		}
+		this.offsets = Arrays.copyOf(this.offsets, this.size + 1);
+		return this;
+	}
+
+	@Override
+	public String toString(){
+		StrBuilder ret = new StrBuilder(this.count + this.size + 2).append('[');
+		for(int i=0; i<this.size; i++){
+			if(i>0){
+				ret.append(", ");
+			}
+			this.appendTo(i, ret);
+		}
+		return ret.append(']').toString();
+	}
+
+	/**
+	 * Tests a line index.
+	 * @param index the index to test
+	 * @throws IndexOutOfBoundsException if the index was out of range
+	 */
+	private void check(int index){
+		if(index<0 || index>=this.size){
+			throw new IndexOutOfBoundsException("line index <" + index + "> out of range, size is <" + this.size + ">");
+		}
+	}
+
+	/**
+	 * Grows the storage to hold at least the given number of characters.
+	 * @param capacity number of characters required
+	 */
+	private void ensureCapacity(int capacity){
+		if(this.latin1!=null && capacity>this.latin1.length){
+			this.latin1 = Arrays.copyOf(this.latin1, Math.max(capacity, this.latin1.length * 2));
+		}
+		else if(this.chars!=null && capacity>this.chars.length){
+			this.chars = Arrays.copyOf(this.chars, Math.max(capacity, this.chars.length * 2));
+		}
+	}
+
+	/**
+	 * Changes the storage from Latin-1 to chars.
+	 * @param used number of bytes to copy, all characters of complete lines plus characters of the line being added
+	 */
+	private void inflate(int used){
+		char[] inflated = new char[this.latin1.length];
+		for(int i=0; i<used; i++){
+			inflated[i] = (char)(this.latin1[i] & 0xFF);
+		}
+		this.chars = inflated;
+		this.latin1 = null;
+	}
+
+	/**
+	 * A line as view into the buffer.
+	 */
+	private final class Line implements CharSequence {
+
+		/** Start of the line in the buffer. */
+		private final int start;
+
+		/** End of the line in the buffer. */
+		private final int end;
+
+		/**
+		 * Creates a new view.
+		 * @param start start of the line in the buffer
+		 * @param end end of the line in the buffer
+		 */
+		Line(int start, int end){
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length(){
+			return this.end - this.start;
+		}
+
+		@Override
+		public char charAt(int index){
+			if(index<0 || index>=this.end-this.start){
+				throw new IndexOutOfBoundsException("index <" + index + "> out of range, length is <" + (this.end - this.start) + ">");
+			}
+			if(CompactLineBuffer.this.chars!=null){
+				return CompactLineBuffer.this.chars[this.start + index];
+			}
+			return (char)(CompactLineBuffer.this.latin1[this.start + index] & 0xFF);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to){
+			if(from<0 || to>this.end-this.start || from>to){
+				throw new IndexOutOfBoundsException("range <" + from + ", " + to + "> out of range, length is <" + (this.end - this.start) + ">");
+			}
+			return new Line(this.start + from, this.start + to);
+		}
+
+		@Override
+		public String toString(){
+			if(CompactLineBuffer.this.chars!=null){
+				return new String(CompactLineBuffer.this.chars, this.start, this.end - this.start);
+			}
+			return new String(CompactLineBuffer.this.latin1, this.start, this.end - this.start, StandardCharsets.ISO_8859_1);
+		}
+	}
+}
@@ -0,0 +1,215 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.text.StrBuilder;
+
+/**
+ * Scratch memory for formatting text, reused by all formatting calls of a thread.
+ * 
+ * A formatting call acquires the scratch memory of its thread (see {@link #acquire()}), uses it for intermediate results, and releases it at the end (see {@link #release()}).
+ * The scratch memory holds:
+ * 
+ *     * the wrapped lines of a text as ranges (start and end index, hyphen flag) rather than strings
+ *     * the word and cost arrays of the optimal line breaking
+ *     * a string builder for a formatted line that is copied by the caller
+ * 
+ * Ownership rules: scratch memory is only used by the thread that acquired it and only until it is released.
+ * Nothing that is returned from a formatting call refers to scratch memory, every result is a new string, a new string builder, or a copy in a line buffer.
+ * A nested formatting call on the same thread (for instance from a consumer of lines) gets new scratch memory, which is not reused.
+ * Buffers that grew larger than {@link #MAX_RETAINED} elements are dropped on release, so a thread does not keep the memory of one very long text.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class FormatScratch implements WrapScanner.LineRanges {
+
+	/** Maximum number of elements of a buffer kept after release, set to 16384. */
+	static final int MAX_RETAINED = 16384;
+
+	/** The scratch memory of each thread. */
+	private static final ThreadLocal<FormatScratch> SCRATCH = ThreadLocal.withInitial(FormatScratch::new);
+
+	/** Flag for scratch memory acquired by a formatting call. */
+	private boolean inUse;
+
+	/** Wrapped lines, as triples of start index, end index, and hyphen flag (1 for a hyphen, 0 otherwise). */
+	private int[] lines;
+
+	/** Number of wrapped lines. */
+	private int lineCount;
+
+	/** Builder for a formatted line that is copied by the caller. */
+	private StrBuilder line;
+
+	/** Start index of words in a window, for optimal line breaking. */
+	int[] wordStart;
+
+	/** End index of words in a window, for optimal line breaking. */
+	int[] wordEnd;
+
+	/** Start column of words in a window, for optimal line breaking. */
+	int[] wordColStart;
+
+	/** End column of words in a window, for optimal line breaking. */
+	int[] wordColEnd;
+
+	/** First word of the last line in the best breaking up to a word, for optimal line breaking. */
+	int[] lineStart;
+
+	/** Cost of the best breaking up to a word, for optimal line breaking. */
+	double[] cost;
+
+	/** End word of each line of a window, for optimal line breaking. */
+	int[] lineEnd;
+
+	/**
+	 * Returns the scratch memory of the calling thread, or new scratch memory if the one of the thread is in use.
+	 * @return scratch memory, must be released after use
+	 */
+	static FormatScratch acquire(){
+		FormatScratch ret = SCRATCH.get();
+		if(ret.inUse){
+			return new FormatScratch();
+		}
+		ret.inUse = true;
+		return ret;
+	}
+
+	/**
+	 * Releases the scratch memory, dropping buffers that grew too large.
+	 */
+	void release(){
+		this.inUse = false;
+		this.lineCount = 0;
+		if(this.lines!=null && this.lines.length>MAX_RETAINED){
+			this.lines = null;
+		}
+		if(this.line!=null && this.line.capacity()>MAX_RETAINED){
+			this.line = null;
+		}
+		if(this.wordStart!=null && this.wordStart.length>MAX_RETAINED){
+			this.wordStart = null;
+			this.wordEnd = null;
+			this.wordColStart = null;
+			this.wordColEnd = null;
+			this.lineStart = null;
+			this.cost = null;
+		}
+		if(this.lineEnd!=null && this.lineEnd.length>MAX_RETAINED){
+			this.lineEnd = null;
+		}
+	}
+
+	@Override
+	public void line(CharSequence text, int from, int to, boolean hyphen){
+		if(this.lines==null){
+			this.lines = new int[3 * 64];
+		}
+		else if(this.lineCount*3+3>this.lines.length){
+			this.lines = Arrays.copyOf(this.lines, this.lines.length * 2);
+		}
+		int i = this.lineCount * 3;
+		this.lines[i] = from;
+		this.lines[i+1] = to;
+		this.lines[i+2] = (hyphen)?1:0;
+		this.lineCount++;
+	}
+
+	/**
+	 * Returns the number of wrapped lines.
+	 * @return number of lines
+	 */
+	int getLineCount(){
+		return this.lineCount;
+	}
+
+	/**
+	 * Returns the start of a wrapped line.
+	 * @param index the index of the line
+	 * @return start index of the line in the text (inclusive)
+	 */
+	int getLineFrom(int index){
+		return this.lines[index * 3];
+	}
+
+	/**
+	 * Returns the end of a wrapped line.
+	 * @param index the index of the line
+	 * @return end index of the line in the text (exclusive)
+	 */
+	int getLineTo(int index){
+		return this.lines[index * 3 + 1];
+	}
+
+	/**
+	 * Tests if a hyphen must be added to a wrapped line.
+	 * @param index the index of the line
+	 * @return true if the line was split at a hyphenation point, false otherwise
+	 */
+	boolean isLineHyphenated(int index){
+		return this.lines[index * 3 + 2]!=0;
+	}
+
+	/**
+	 * Returns the builder for a formatted line that is copied by the caller, cleared.
+	 * @param capacity the capacity required
+	 * @return empty builder
+	 */
+	StrBuilder getLineBuilder(int capacity){
+		if(this.line==null){
+			this.line = new StrBuilder(capacity);
+		}
+		this.line.clear();
+		this.line.ensureCapacity(capacity);
+		return this.line;
+	}
+
+	/**
+	 * Makes sure the arrays for optimal line breaking have room for a number of words.
+	 * @param size the number of words (plus one for the cost of no words)
+	 */
+	void ensureWords(int size){
+		if(this.wordStart!=null && size<=this.wordStart.length){
+			return;
+		}
+		int length = (this.wordStart==null)?64:this.wordStart.length;
+		while(length<size){
+			length *= 2;
+		}
+		this.wordStart = (this.wordStart==null)?new int[length]:Arrays.copyOf(this.wordStart, length);
+		this.wordEnd = (this.wordEnd==null)?new int[length]:Arrays.copyOf(this.wordEnd, length);
+		this.wordColStart = (this.wordColStart==null)?new int[length]:Arrays.copyOf(this.wordColStart, length);
+		this.wordColEnd = (this.wordColEnd==null)?new int[length]:Arrays.copyOf(this.wordColEnd, length);
+		this.lineStart = new int[length];
+		this.cost = new double[length];
+	}
+
+	/**
+	 * Returns the array for the end word of each line of a window, for optimal line breaking.
+	 * @param size the number of lines
+	 * @return array with room for the lines
+	 */
+	int[] getLineEnds(int size){
+		if(this.lineEnd==null || this.lineEnd.length<size){
+			this.lineEnd = new int[Math.max(size, 32)];
+		}
+		return this.lineEnd;
+	}
+}
@@ -0,0 +1,123 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrBuilder;
+
+/**
+ * A size-bounded, thread safe cache of formatted text, used in front of {@link Text_To_FormattedText}.
+ * 
+ * The cache key is the text plus all layout settings of the transformer (alignment, format, width, wrap mode, padding and white space characters, indentations, dropped capital letter).
+ * The collection strategy is not part of the key, cached results are immutable lists of lines and each call creates a new collection with new builders.
+ * When the cache is full, the least recently used entry is evicted.
+ * 
+ * A cache is opt-in: use {@link Text_To_FormattedText#cached(FormattedTextCache)} to get a transformer that uses a cache.
+ * One cache can be shared by many transformers with different settings.
+ * Hits, misses, and evictions are counted for monitoring.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public interface FormattedTextCache {
+
+	/** The default maximum number of cached texts, set to 512. */
+	static int DEFAULT_MAX_SIZE = 512;
+
+	/**
+	 * Returns the formatted lines for a text, from the cache or formatted and added to the cache.
+	 * A compiled transformer (see {@link Text_To_FormattedText#compile()}) is used as it is, other settings are compiled for each call.
+	 * @param settings transformer with the layout settings, must not be null
+	 * @param text the text to format, must not be null
+	 * @return formatted lines, immutable
+	 * @throws NullPointerException if an argument or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	List<String> lines(Text_To_FormattedText settings, String text);
+
+	/**
+	 * Returns the formatted text, from the cache or formatted and added to the cache.
+	 * A compiled transformer (see {@link Text_To_FormattedText#compile()}) is used as it is, other settings are compiled for each call.
+	 * @param settings transformer with the layout settings, must not be null
+	 * @param text the text to format, must not be null
+	 * @return formatted text as a new collection (using the collection strategy of the settings) of new string builders
+	 * @throws NullPointerException if an argument or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	default Collection<StrBuilder> transform(Text_To_FormattedText settings, String text){
+		Validate.notNull(settings);
+		FormattedTextPlan plan = (settings instanceof FormattedTextPlan)?(FormattedTextPlan)settings:new FormattedTextPlan(settings);
+		return plan.transform(text, this);
+	}
+
+	/**
+	 * Returns the maximum number of cached texts.
+	 * @return maximum size
+	 */
+	int getMaxSize();
+
+	/**
+	 * Returns the current number of cached texts.
+	 * @return size
+	 */
+	int size();
+
+	/**
+	 * Returns the number of lookups that found a cached text.
+	 * @return number of hits
+	 */
+	long getHits();
+
+	/**
+	 * Returns the number of lookups that did not find a cached text.
+	 * @return number of misses
+	 */
+	long getMisses();
+
+	/**
+	 * Returns the number of cached texts removed to keep the cache size bounded.
+	 * @return number of evictions
+	 */
+	long getEvictions();
+
+	/**
+	 * Removes all cached texts, counters are not changed.
+	 */
+	void clear();
+
+	/**
+	 * Creates a new cache with the default maximum size.
+	 * @return new cache
+	 */
+	static FormattedTextCache create(){
+		return create(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Creates a new cache.
+	 * @param maxSize maximum number of cached texts, must be larger than 0
+	 * @return new cache
+	 * @throws IllegalArgumentException if the maximum size was less than 1
+	 */
+	static FormattedTextCache create(int maxSize){
+		Validate.isTrue(maxSize>0, "maximum cache size must be larger than 0, was <%d>", maxSize);
+		return new LruFormattedTextCache(maxSize);
+	}
+}
@@ -0,0 +1,106 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrBuilder;
+
+import de.vandermeer.skb.interfaces.render.RendersToClusterWidth;
+
+/**
+ * Formatted text for many widths, analyzed once.
+ * 
+ * Renderers are often asked for the same content at several widths (a narrow terminal, 80 and 120 columns, a file export).
+ * Calling {@link Text_To_FormattedText} for every width normalizes white spaces and scans the text for line breaks and break candidates every time.
+ * Here the text is normalized once and the break candidates (the spaces of the normalized text) are kept,
+ * every layout then only finds the last break candidate within the width for each line and does the alignment.
+ * The lines for a width are always the same as the lines of {@link Text_To_FormattedText} with the same settings and that width.
+ * 
+ * Break candidates are kept for text of printable ASCII characters without conditional line breaks, wrapped greedily without hyphenation and measured in display columns.
+ * Other text is wrapped by the wrapping transformer for every width, still sharing the normalized text.
+ * An instance is immutable and thread safe.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public interface FormattedTextLayouts extends RendersToClusterWidth {
+
+	/**
+	 * Returns the text.
+	 * @return text
+	 */
+	String getText();
+
+	/**
+	 * Returns the formatted lines of the text for a width.
+	 * @param textWidth the text width
+	 * @return formatted lines, immutable
+	 * @throws IllegalStateException if the width was not valid for the settings
+	 * @throws IllegalArgumentException if the text cannot be formatted with the width
+	 */
+	List<String> lines(int textWidth);
+
+	/**
+	 * Returns the formatted lines of the text for several widths.
+	 * @param textWidths the text widths
+	 * @return map from width to formatted lines, in the order of the widths
+	 * @throws NullPointerException if the widths were null
+	 * @throws IllegalStateException if a width was not valid for the settings
+	 * @throws IllegalArgumentException if the text cannot be formatted with a width
+	 */
+	default Map<Integer, List<String>> lines(int ... textWidths){
+		Validate.notNull(textWidths);
+		Map<Integer, List<String>> ret = new LinkedHashMap<>();
+		for(int width : textWidths){
+			ret.put(width, this.lines(width));
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the formatted text for a width, using the collection strategy of the settings.
+	 * @param textWidth the text width
+	 * @return new collection of new string builders
+	 * @throws IllegalStateException if the width was not valid for the settings
+	 * @throws IllegalArgumentException if the text cannot be formatted with the width
+	 */
+	Collection<StrBuilder> transform(int textWidth);
+
+	@Override
+	default Collection<String> renderAsCollection(int width){
+		return this.lines(width);
+	}
+
+	/**
+	 * Creates new formatted text for many widths.
+	 * @param settings transformer with the settings, the text width of the settings is not used, must not be null
+	 * @param text the text, must not be null
+	 * @return new formatted text for many widths
+	 * @throws NullPointerException if an argument or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	static FormattedTextLayouts create(Text_To_FormattedText settings, String text){
+		Validate.notNull(settings);
+		Validate.notNull(text);
+		return new AnalyzedFormattedTextLayouts(new FormattedTextPlan(settings), text);
+	}
+}
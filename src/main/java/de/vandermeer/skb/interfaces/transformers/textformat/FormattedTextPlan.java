@@ -0,0 +1,1128 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrBuilder;
+import org.apache.commons.lang3.tuple.Pair;
+
+import de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy;
+
+/**
+ * A compiled layout plan for {@link Text_To_FormattedText}.
+ * 
+ * All settings are read and validated once when the plan is created.
+ * Derived values (top and bottom width, wrap transformer) are created once as well.
+ * Each call of {@link #transform(String)} then only does the wrapping, alignment, and format post processing.
+ * 
+ * A plan is immutable and thread safe, as long as the collection strategy returns a new collection for each call of `get()`.
+ * This is used for batch transformations, where one plan formats many paragraphs in parallel.
+ * Intermediate results (wrapped lines as ranges of the text, arrays of optimal line breaking, lines that are copied anyway) use the scratch memory of the calling thread,
+ * see {@link FormatScratch}, lines are aligned directly from the text into their builders.
+ * Returned collections, builders, strings, and line buffers never refer to scratch memory.
+ * 
+ * With {@link #MEASURE_TERMINAL} text is normalized with tabulators expanded (see {@link TerminalText#normalize(String, int)}), wrapped with escape sequences of no width,
+ * and lines with escape sequences are padded by their width on a terminal (see {@link TerminalText#width(CharSequence, int, int)}), never truncated.
+ * Lines without escape sequences are aligned as in the default mode.
+ * 
+ * With a maximum number of lines the text is read through a {@link ReaderWrapScanner} (a {@link WrapScanner} for terminal text), which normalizes and wraps only the text of the returned lines.
+ * Wrapping stops at the limit, so the cost depends on the returned lines and not on the length of the text.
+ * 
+ * A plan can be created with a {@link FormattedTextCache}, it then looks up formatted lines in the cache before formatting text.
+ * The cache key is the text plus the layout key of the plan, a string with all settings that influence the formatted lines.
+ * Plain left aligned plans for widths up to {@link #LEFT_PLAN_WIDTHS} are compiled once and shared (see {@link #left(int)}), so cached lookups of such text do not compile settings.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class FormattedTextPlan implements Text_To_FormattedText {
+
+	/** Largest text width with a shared left aligned plan. */
+	static final int LEFT_PLAN_WIDTHS = 256;
+
+	/** Shared left aligned plans without a cache, index is text width minus 1, compiled on first use. */
+	private static final AtomicReferenceArray<FormattedTextPlan> LEFT_PLANS = new AtomicReferenceArray<>(LEFT_PLAN_WIDTHS);
+
+	/** The alignment. */
+	private final int alignment;
+
+	/** The format. */
+	private final int format;
+
+	/** The text width. */
+	private final int textWidth;
+
+	/** The line breaking mode. */
+	private final int wrapMode;
+
+	/** The hyphenator, null for no hyphenation. */
+	private final Hyphenator hyphenator;
+
+	/** The measure option. */
+	private final int measureMode;
+
+	/** Distance of tab stops for terminal text. */
+	private final int tabSize;
+
+	/** Maximum number of formatted lines, 0 for no limit. */
+	private final int maxLines;
+
+	/** Marker ending the last line if text was left out, null for none. */
+	private final String ellipsis;
+
+	/** Width of the ellipsis marker, 0 if there is none. */
+	private final int ellipsisWidth;
+
+	/** The inner white space character. */
+	private final char innerWsChar;
+
+	/** The left padding character. */
+	private final char leftPaddingChar;
+
+	/** The right padding character. */
+	private final char rightPaddingChar;
+
+	/** The collection strategy for returned collections. */
+	private final IsCollectionStrategy<?, StrBuilder> strategy;
+
+	/** Indentation for hanging paragraphs. */
+	private final int hangingIndentation;
+
+	/** Indentation for the first line. */
+	private final int firstlineIndentation;
+
+	/** Characters between a dropped capital letter and text. */
+	private final int charsBetweenDropcapAndText;
+
+	/** Lines added after a dropped capital letter. */
+	private final int linesAfterDropcap;
+
+	/** The dropped capital letter, copy of the original setting, null if not set. */
+	private final String[] dropCap;
+
+	/** Number of lines expected in the top part of wrapped text, 0 if there is no top part. */
+	private final int expectedTopLines;
+
+	/** Maximum number of lines wrapped for the top part, 0 if there is no top part. */
+	private final int topLines;
+
+	/** Width of lines in the top part. */
+	private final int topWidth;
+
+	/** Width of lines in the bottom part. */
+	private final int bottomWidth;
+
+	/** Wrapping transformer. */
+	private final Text_To_WrappedFormat wrapper;
+
+	/** Cache for formatted lines, null if no cache is used. */
+	private final FormattedTextCache cache;
+
+	/** All settings that influence formatted lines, as key for a cache. */
+	private final String layoutKey;
+
+	/**
+	 * Creates a new plan from the settings of a transformer.
+	 * @param settings transformer with settings for the plan
+	 * @throws NullPointerException if a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	FormattedTextPlan(Text_To_FormattedText settings){
+		this(settings, null);
+	}
+
+	/**
+	 * Creates a new plan from the settings of a transformer, using a cache for formatted lines.
+	 * @param settings transformer with settings for the plan
+	 * @param cache the cache for formatted lines, null for no cache
+	 * @throws NullPointerException if a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	FormattedTextPlan(Text_To_FormattedText settings, FormattedTextCache cache){
+		Validate.notNull(settings);
+		this.cache = cache;
+		this.alignment = settings.getAlignment();
+		this.format = settings.getFormat();
+		this.textWidth = settings.getTextWidth();
+		this.wrapMode = settings.getWrapMode();
+		this.hyphenator = settings.getHyphenator();
+		this.measureMode = settings.getMeasureMode();
+		this.tabSize = settings.getTabSize();
+		this.maxLines = settings.getMaxLines();
+		this.ellipsis = settings.getEllipsis();
+		this.hangingIndentation = settings.getHangingIndentation();
+		this.firstlineIndentation = settings.getFirstlineIndentation();
+		this.charsBetweenDropcapAndText = settings.getCharsBetweenDroppcapAndText();
+		this.linesAfterDropcap = settings.getLinesAfterDropcap();
+
+		Validate.validState(Text_To_FormattedText.isValidAlignment(this.alignment), "unknown alignment <" + this.alignment + ">");
+		Validate.validState(Text_To_FormattedText.isValidFormat(this.format), "unknown format <" + this.format + ">");
+		Validate.validState(this.textWidth>0, "text width is less than 1, was <" + this.textWidth + ">");
+		Validate.validState(Text_To_WrappedFormat.isValidWrapMode(this.wrapMode), "unknown wrap mode <" + this.wrapMode + ">");
+		Validate.validState(Text_To_FormattedText.isValidMeasureMode(this.measureMode), "unknown measure mode <" + this.measureMode + ">");
+		Validate.validState(this.tabSize>0, "tab size is less than 1, was <" + this.tabSize + ">");
+		Validate.validState(this.maxLines>=0, "maximum number of lines is less than 0, was <" + this.maxLines + ">");
+		this.innerWsChar = Validate.notNull(settings.getInnerWsChar());
+		this.leftPaddingChar = Validate.notNull(settings.getLeftPaddingChar());
+		this.rightPaddingChar = Validate.notNull(settings.getRightPaddingChar());
+		this.strategy = Validate.notNull(settings.getCollectionStrategy());
+		Validate.validState(this.hangingIndentation>0, "hanging paragraph indentation was less than null, setting was <" + this.hangingIndentation + ">");
+		Validate.validState(this.firstlineIndentation>0, "first line indentation was less than null, setting was <" + this.firstlineIndentation + ">");
+		Validate.validState(this.charsBetweenDropcapAndText>0, "characters between dropped capital letter and text lines was less than 1, setting was <" + this.charsBetweenDropcapAndText + ">");
+		Validate.validState(this.linesAfterDropcap>0, "lines added after a dropped capital letter was less than 1, setting was <" + this.linesAfterDropcap + ">");
+
+		if(this.format==FORMAT_DROPCAP || this.format==FORMAT_DROPCAP_WITH_PADDING){
+			Validate.notNull(settings.getDropCap());
+			Validate.noNullElements(settings.getDropCap());
+			int l = 0;
+			for(String ds : settings.getDropCap()){
+				if(l!=0){
+					Validate.validState(l==ds.length(), "dropped capital letter has some variations in length in the array, not alowed");
+				}
+				l = ds.length();
+			}
+			this.dropCap = settings.getDropCap().clone();
+		}
+		else{
+			this.dropCap = (settings.getDropCap()==null)?null:settings.getDropCap().clone();
+		}
+
+		//derive widths and wrapping from the format
+		switch(this.format){
+			case FORMAT_HANGING_PARAGRAPH:
+				this.topWidth = this.textWidth;
+				this.bottomWidth = this.textWidth - this.hangingIndentation;
+				this.expectedTopLines = 1;
+				this.topLines = 1;
+				this.wrapper = Text_To_WrappedFormat.create(this.bottomWidth, Pair.of(this.topLines, this.topWidth), this.wrapMode, this.hyphenator);
+				break;
+			case FORMAT_FIRST_LINE:
+				this.topWidth = this.textWidth - this.firstlineIndentation;
+				this.bottomWidth = this.textWidth;
+				this.expectedTopLines = 1;
+				this.topLines = 1;
+				this.wrapper = Text_To_WrappedFormat.create(this.bottomWidth, Pair.of(this.topLines, this.topWidth), this.wrapMode, this.hyphenator);
+				break;
+			case FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH:
+				this.topWidth = this.textWidth - this.firstlineIndentation;
+				this.bottomWidth = this.textWidth - this.hangingIndentation;
+				this.expectedTopLines = 1;
+				this.topLines = 1;
+				this.wrapper = Text_To_WrappedFormat.create(this.bottomWidth, Pair.of(this.topLines, this.topWidth), this.wrapMode, this.hyphenator);
+				break;
+			case FORMAT_DROPCAP:
+				this.topWidth = this.textWidth - this.dropCap[0].length() - 1;
+				this.bottomWidth = this.textWidth;
+				this.expectedTopLines = this.dropCap.length + 1;
+				this.topLines = this.dropCap.length + this.linesAfterDropcap;
+				this.wrapper = Text_To_WrappedFormat.create(this.bottomWidth, Pair.of(this.topLines, this.topWidth), this.wrapMode, this.hyphenator);
+				break;
+			case FORMAT_DROPCAP_WITH_PADDING:
+				this.topWidth = this.textWidth - this.dropCap[0].length() - this.charsBetweenDropcapAndText;
+				this.bottomWidth = this.textWidth;
+				this.expectedTopLines = this.dropCap.length + 1;
+				this.topLines = this.dropCap.length + this.linesAfterDropcap;
+				this.wrapper = Text_To_WrappedFormat.create(this.bottomWidth, Pair.of(this.topLines, this.topWidth), this.wrapMode, this.hyphenator);
+				break;
+			case FORMAT_NONE:
+			default:
+				this.topWidth = this.textWidth;
+				this.bottomWidth = this.textWidth;
+				this.expectedTopLines = 0;
+				this.topLines = 0;
+				this.wrapper = Text_To_WrappedFormat.create(this.bottomWidth, null, this.wrapMode, this.hyphenator);
+				break;
+		}
+
+		Validate.validState(this.topWidth>0, "width of top lines is less than 1, was <" + this.topWidth + ">");
+		Validate.validState(this.bottomWidth>0, "width of bottom lines is less than 1, was <" + this.bottomWidth + ">");
+		if(this.ellipsis==null){
+			this.ellipsisWidth = 0;
+		}
+		else{
+			this.ellipsisWidth = (this.measureMode==MEASURE_TERMINAL)?TerminalText.width(this.ellipsis, 0, this.ellipsis.length()):String_To_DisplayWidth.width(this.ellipsis);
+			Validate.validState(this.ellipsisWidth<=Math.min(this.topWidth, this.bottomWidth), "ellipsis is wider than a line, width was <" + this.ellipsisWidth + ">");
+		}
+
+		StrBuilder key = new StrBuilder(64)
+				.append(this.alignment).append(',').append(this.format).append(',').append(this.textWidth).append(',').append(this.wrapMode).append(',')
+				.append(this.measureMode).append(',').append(this.tabSize).append(',')
+				.append(this.innerWsChar).append(this.leftPaddingChar).append(this.rightPaddingChar).append(',')
+				.append(this.hangingIndentation).append(',').append(this.firstlineIndentation).append(',')
+				.append(this.charsBetweenDropcapAndText).append(',').append(this.linesAfterDropcap).append(',').append(this.maxLines);
+		if(this.ellipsis!=null){
+			key.append('\u0001').append(this.ellipsis);
+		}
+		if(this.dropCap!=null){
+			for(String ds : this.dropCap){
+				key.append('\0').append(ds);
+			}
+		}
+		this.layoutKey = key.toString();
+	}
+
+	@Override
+	public int getAlignment(){
+		return this.alignment;
+	}
+
+	@Override
+	public int getFormat(){
+		return this.format;
+	}
+
+	@Override
+	public int getWrapMode(){
+		return this.wrapMode;
+	}
+
+	@Override
+	public Hyphenator getHyphenator(){
+		return this.hyphenator;
+	}
+
+	@Override
+	public int getMeasureMode(){
+		return this.measureMode;
+	}
+
+	@Override
+	public int getTabSize(){
+		return this.tabSize;
+	}
+
+	@Override
+	public int getMaxLines(){
+		return this.maxLines;
+	}
+
+	@Override
+	public String getEllipsis(){
+		return this.ellipsis;
+	}
+
+	@Override
+	public Character getInnerWsChar(){
+		return this.innerWsChar;
+	}
+
+	@Override
+	public Character getLeftPaddingChar(){
+		return this.leftPaddingChar;
+	}
+
+	@Override
+	public Character getRightPaddingChar(){
+		return this.rightPaddingChar;
+	}
+
+	@Override
+	public int getTextWidth(){
+		return this.textWidth;
+	}
+
+	@Override
+	public IsCollectionStrategy<?, StrBuilder> getCollectionStrategy(){
+		return this.strategy;
+	}
+
+	@Override
+	public int getHangingIndentation(){
+		return this.hangingIndentation;
+	}
+
+	@Override
+	public int getFirstlineIndentation(){
+		return this.firstlineIndentation;
+	}
+
+	@Override
+	public int getCharsBetweenDroppcapAndText(){
+		return this.charsBetweenDropcapAndText;
+	}
+
+	@Override
+	public int getLinesAfterDropcap(){
+		return this.linesAfterDropcap;
+	}
+
+	@Override
+	public String[] getDropCap(){
+		return (this.dropCap==null)?null:this.dropCap.clone();
+	}
+
+	@Override
+	public Text_To_FormattedText compile(){
+		return this;
+	}
+
+	@Override
+	public Collection<StrBuilder> transform(String s){
+		return this.transform(s, this.cache);
+	}
+
+	/**
+	 * Formats text using a cache, which can be different from the cache of this plan.
+	 * @param s input text, must not be null
+	 * @param cache the cache for formatted lines, null for no cache
+	 * @return formatted text as a new collection of new string builders
+	 */
+	Collection<StrBuilder> transform(String s, FormattedTextCache cache){
+		Validate.notNull(s);
+		Collection<StrBuilder> ret = this.strategy.get();
+		if(cache==null){
+			this.format(s, ret::add, false);
+			return ret;
+		}
+
+		for(String line : cache.lines(this, s)){
+			ret.add(new StrBuilder(line));
+		}
+		return ret;
+	}
+
+	@Override
+	public LineBuffer toLineBuffer(String s){
+		Validate.notNull(s);
+		LineBuffer ret = LineBuffer.create(16, s.length() + this.textWidth);
+		if(this.cache==null){
+			this.format(s, ret::add, true);
+			return ret;
+		}
+
+		for(String line : this.cache.lines(this, s)){
+			ret.add(line);
+		}
+		return ret;
+	}
+
+	@Override
+	public LineBuffer toColumns(String s, int columns, int gutter){
+		Validate.notNull(s);
+		Validate.isTrue(columns>0, "number of columns must be larger than 0, was <%d>", columns);
+		Validate.isTrue(gutter>=0, "gutter must not be negative, was <%d>", gutter);
+		LineBuffer lines = this.toLineBuffer(s);
+
+		//column heights: the first columns take the remainder, one line each
+		int count = lines.size();
+		int height = count / columns;
+		int remainder = count % columns;
+		int rows = height + ((remainder>0)?1:0);
+		int rowWidth = columns * this.textWidth + (columns - 1) * gutter;
+		LineBuffer ret = LineBuffer.create(rows, rows * rowWidth);
+		StrBuilder row = new StrBuilder(rowWidth);
+		for(int r=0; r<rows; r++){
+			row.clear();
+			int start = 0;
+			for(int c=0; c<columns; c++){
+				int size = height + ((c<remainder)?1:0);
+				if(c>0){
+					TextPadding.appendPadding(row, gutter, ' ');
+				}
+				if(r<size){
+					lines.appendTo(start + r, row);
+				}
+				else{
+					TextPadding.appendPadding(row, this.textWidth, ' ');
+				}
+				start += size;
+			}
+			ret.add(row);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns a plan for left aligned text without a format, as used by {@link Text_To_FormattedText#left(String, int, FormattedTextCache)}.
+	 * Plans for widths up to {@link #LEFT_PLAN_WIDTHS} are compiled once and shared, other widths are compiled for each call.
+	 * @param textWidth the text width
+	 * @return plan without a cache
+	 * @throws IllegalStateException if the text width was less than 1
+	 */
+	static FormattedTextPlan left(int textWidth){
+		if(textWidth<1 || textWidth>LEFT_PLAN_WIDTHS){
+			return new FormattedTextPlan(Text_To_FormattedText.create(textWidth, ALIGN_LEFT, FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null));
+		}
+		FormattedTextPlan ret = LEFT_PLANS.get(textWidth - 1);
+		if(ret==null){
+			//plans are immutable, if two threads compile the same width the first one is kept
+			LEFT_PLANS.compareAndSet(textWidth - 1, null, new FormattedTextPlan(Text_To_FormattedText.create(textWidth, ALIGN_LEFT, FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null)));
+			ret = LEFT_PLANS.get(textWidth - 1);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the key with all settings that influence formatted lines.
+	 * @return layout key
+	 */
+	String getLayoutKey(){
+		return this.layoutKey;
+	}
+
+	/**
+	 * Formats text to immutable lines, without using the cache.
+	 * @param s input text, must not be null
+	 * @return formatted lines
+	 */
+	List<String> lines(String s){
+		ArrayList<String> ret = new ArrayList<>();
+		this.format(s, b -> ret.add(b.toString()), true);
+		return Collections.unmodifiableList(ret);
+	}
+
+	/**
+	 * Formats text, without using the cache.
+	 * The text is wrapped into line ranges in the scratch memory of the calling thread, each range is then aligned directly into the builder of its line.
+	 * @param s input text, must not be null
+	 * @param ret consumer for the formatted lines
+	 * @param copied true if the consumer copies each line before it returns (the lines then use one builder of the scratch memory), false if it keeps the builders
+	 */
+	private void format(String s, Consumer<StrBuilder> ret, boolean copied){
+		//if nothing is to be done return string with blanks
+		if(StringUtils.isBlank(s)){
+			ret.accept(new StrBuilder().appendPadding(this.textWidth, ' '));
+			return;
+		}
+		if(this.maxLines>0){
+			this.formatLimited(s, ret);
+			return;
+		}
+
+		//first remove all excessive whitespaces from the string, then wrap
+		String text = this.normalize(s);
+		FormatScratch scratch = FormatScratch.acquire();
+		try{
+			WrapScanner scanner = new WrapScanner(text, this.wrapMode==Text_To_WrappedFormat.WRAP_OPTIMAL, this.hyphenator, this.measureMode==MEASURE_TERMINAL, scratch);
+			if(this.topLines>0){
+				scanner.next(this.topWidth, this.topLines, scratch);
+			}
+			int top = scratch.getLineCount();
+			while(scanner.hasMore()){
+				scanner.next(this.bottomWidth, Integer.MAX_VALUE, scratch);
+			}
+			Validate.isTrue(top==this.expectedTopLines);
+
+			int count = scratch.getLineCount();
+			for(int i=0; i<count; i++){
+				String line = text;
+				int from = scratch.getLineFrom(i);
+				int to = scratch.getLineTo(i);
+				if(scratch.isLineHyphenated(i)){
+					line = new StrBuilder(to - from + 1).append(text, from, to - from).append(Hyphenator.HYPHEN).toString();
+					from = 0;
+					to = line.length();
+				}
+				//escape sequences of terminal text add characters but no columns
+				int capacity = (this.measureMode==MEASURE_TERMINAL)?this.textWidth + to - from:this.textWidth;
+				StrBuilder target = (copied)?scratch.getLineBuilder(capacity):new StrBuilder(capacity);
+				ret.accept((i<top)?this.formatTop(target, line, from, to, i):this.formatBottom(target, line, from, to, i==count-1));
+			}
+		}
+		finally{
+			scratch.release();
+		}
+	}
+
+	/**
+	 * Formats text up to the maximum number of lines.
+	 * Only the text of the returned lines is normalized and wrapped, terminal text is normalized completely since tab stops depend on all columns before a tabulator.
+	 * @param s input text, must not be blank
+	 * @param ret consumer for the formatted lines
+	 */
+	private void formatLimited(String s, Consumer<StrBuilder> ret){
+		FormatScratch scratch = FormatScratch.acquire();
+		try{
+			boolean optimal = this.wrapMode==Text_To_WrappedFormat.WRAP_OPTIMAL;
+			if(this.measureMode==MEASURE_TERMINAL){
+				this.formatLimited(new WrapScanner(this.normalize(s), optimal, this.hyphenator, true, scratch), ret);
+			}
+			else{
+				//read about the text of the returned lines at a time, not a full buffer
+				boolean dropCap = (this.format==FORMAT_DROPCAP || this.format==FORMAT_DROPCAP_WITH_PADDING);
+				int bufferSize = (int)Math.min(ReaderWrapScanner.BUFFER_SIZE, Math.max(64L, (long)(this.maxLines + this.topLines + 1) * this.textWidth));
+				this.formatLimited(new ReaderWrapScanner(new StringReader(s), (dropCap)?1:0, optimal, this.hyphenator, scratch, bufferSize), ret);
+			}
+		}
+		finally{
+			scratch.release();
+		}
+	}
+
+	/**
+	 * Wraps lines from a scanner up to the maximum number of lines and formats them.
+	 * All top lines are wrapped to validate them, then bottom lines up to the limit and one more line to find out if the text has more lines.
+	 * If the text has more lines, the last line is formatted as an inner line (the lines are the first lines of the text formatted without a limit).
+	 * With an ellipsis and more text (not only empty lines), the last line is shortened to end with the ellipsis and formatted as the last line.
+	 * @param scanner the scanner over the text, must not be blank
+	 * @param ret consumer for the formatted lines
+	 * @throws IllegalArgumentException if the number of top lines is not the expected number
+	 */
+	private void formatLimited(WrapScanner scanner, Consumer<StrBuilder> ret){
+		ArrayList<String> lines = new ArrayList<>(Math.min(this.maxLines, 64) + this.topLines);
+		BitSet hyphens = new BitSet();
+		WrapScanner.LineRanges collect = (text, from, to, hyphen) -> {
+			hyphens.set(lines.size(), hyphen);
+			lines.add(text.subSequence(from, to).toString());
+		};
+		if(this.topLines>0){
+			scanner.next(this.topWidth, this.topLines, collect);
+		}
+		int top = lines.size();
+		Validate.isTrue(top==this.expectedTopLines);
+		//one line more than the limit, wrapped in the same calls as without a limit (a paragraph continued in a new call can end without the empty line of trailing white space)
+		while(lines.size()<=this.maxLines && scanner.hasMore()){
+			scanner.next(this.bottomWidth, this.maxLines + 1 - lines.size(), collect);
+		}
+		boolean truncated = lines.size()>this.maxLines;
+
+		//for the ellipsis text is left out only if more text follows, not only empty lines
+		boolean ellipsized = false;
+		if(truncated && this.ellipsis!=null){
+			while(StringUtils.isBlank(lines.get(lines.size()-1)) && scanner.hasMore()){
+				scanner.next(this.bottomWidth, 1, collect);
+			}
+			ellipsized = !StringUtils.isBlank(lines.get(lines.size()-1));
+		}
+
+		int count = Math.min(lines.size(), this.maxLines);
+		for(int i=0; i<count; i++){
+			boolean last = (i==count-1);
+			String line = lines.get(i);
+			if(last && ellipsized){
+				line = this.ellipsize(line, (i<top)?this.topWidth:this.bottomWidth);
+			}
+			else if(hyphens.get(i)){
+				line = line + Hyphenator.HYPHEN;
+			}
+			ret.accept((i<top)?this.formatTop(line, i):this.formatBottom(line, last && (!truncated || ellipsized)));
+		}
+	}
+
+	/**
+	 * Shortens a wrapped line so that it ends with the ellipsis within a width.
+	 * @param line the wrapped line, without a hyphen
+	 * @param width the width of the line
+	 * @return the line with the ellipsis appended, trailing spaces before the ellipsis are removed
+	 */
+	private String ellipsize(String line, int width){
+		int end = (this.measureMode==MEASURE_TERMINAL)?TerminalText.indexOfColumn(line, 0, width - this.ellipsisWidth):String_To_DisplayWidth.indexOfColumn(line, 0, width - this.ellipsisWidth);
+		while(end>0 && line.charAt(end-1)==' '){
+			end--;
+		}
+		return new StrBuilder(end + this.ellipsis.length()).append(line, 0, end).append(this.ellipsis).toString();
+	}
+
+	/**
+	 * Wraps normalized text into top and bottom lines.
+	 * @param text the normalized text, see {@link #normalize(String)}, must not be blank
+	 * @return pair of top lines (left) and bottom lines (right)
+	 */
+	Pair<ArrayList<String>, ArrayList<String>> wrap(String text){
+		if(this.measureMode!=MEASURE_TERMINAL){
+			return this.wrapper.transform(text);
+		}
+
+		//the wrap transformer measures display width, terminal text is wrapped directly
+		Validate.notBlank(text);
+		ArrayList<String> top = new ArrayList<>();
+		ArrayList<String> bottom = new ArrayList<>();
+		WrapScanner scanner = new WrapScanner(text, this.wrapMode==Text_To_WrappedFormat.WRAP_OPTIMAL, this.hyphenator, true, null);
+		if(this.topLines>0){
+			scanner.next(this.topWidth, this.topLines, top::add);
+		}
+		while(scanner.hasMore()){
+			scanner.next(this.bottomWidth, Integer.MAX_VALUE, bottom::add);
+		}
+		return Pair.of(top, bottom);
+	}
+
+	/**
+	 * Aligns and formats wrapped lines.
+	 * @param top the wrapped top lines
+	 * @param bottom the wrapped bottom lines
+	 * @param ret consumer for the formatted lines
+	 * @throws IllegalArgumentException if the number of top lines is not the expected number
+	 */
+	void format(List<String> top, List<String> bottom, Consumer<StrBuilder> ret){
+		Validate.isTrue(top.size()==this.expectedTopLines);
+		for(int i=0; i<top.size(); i++){
+			ret.accept(this.formatTop(top.get(i), i));
+		}
+		for(int i=0; i<bottom.size(); i++){
+			ret.accept(this.formatBottom(bottom.get(i), i==bottom.size()-1));
+		}
+	}
+
+	/**
+	 * Returns a plan with the same settings as this plan, but a different text width.
+	 * @param width the text width
+	 * @return this plan if the width is the same, a new plan otherwise
+	 * @throws IllegalStateException if the width was not valid for the settings
+	 */
+	FormattedTextPlan withTextWidth(int width){
+		if(width==this.textWidth){
+			return this;
+		}
+		return new FormattedTextPlan(new FormattedTextSettings(
+				Text_To_FormattedText.create(
+						width, this.alignment, this.format, this.leftPaddingChar, this.rightPaddingChar, this.innerWsChar,
+						this.hangingIndentation, this.firstlineIndentation, this.dropCap, this.charsBetweenDropcapAndText, this.linesAfterDropcap, this.strategy
+				),
+				this.wrapMode, this.hyphenator, this.measureMode, this.tabSize, this.maxLines, this.ellipsis
+		));
+	}
+
+	/**
+	 * Returns the text that is wrapped for an input text: excessive white spaces removed (tabulators expanded for terminal text) and the first character removed for a dropped capital letter.
+	 * @param s input text, must not be blank
+	 * @return text to wrap
+	 */
+	String normalize(String s){
+		String text = (this.measureMode==MEASURE_TERMINAL)?TerminalText.normalize(s, this.tabSize):String_To_NoWs.collapse(s);
+		if(this.format==FORMAT_DROPCAP || this.format==FORMAT_DROPCAP_WITH_PADDING){
+			text = text.substring(1);
+		}
+		return text;
+	}
+
+	/**
+	 * Returns the number of lines wrapped for the top part.
+	 * @return maximum number of top lines, 0 if there is no top part
+	 */
+	int getTopLines(){
+		return this.topLines;
+	}
+
+	/**
+	 * Returns the number of lines the top part must have.
+	 * @return expected number of top lines, 0 if there is no top part
+	 */
+	int getExpectedTopLines(){
+		return this.expectedTopLines;
+	}
+
+	/**
+	 * Returns the width of lines in the top part.
+	 * @return top width
+	 */
+	int getTopWidth(){
+		return this.topWidth;
+	}
+
+	/**
+	 * Returns the width of lines in the bottom part.
+	 * @return bottom width
+	 */
+	int getBottomWidth(){
+		return this.bottomWidth;
+	}
+
+	@Override
+	public void transform(Reader reader, Appendable out, String lineSeparator) throws IOException{
+		Validate.notNull(reader);
+		Validate.notNull(out);
+		Validate.notNull(lineSeparator);
+
+		if(this.measureMode==MEASURE_TERMINAL){
+			//tab stops depend on the columns before a tabulator, terminal text is read completely
+			StrBuilder text = new StrBuilder(1024);
+			text.readFrom(reader);
+			this.format(text.toString(), line -> {
+				try{
+					out.append(line).append(lineSeparator);
+				}
+				catch(IOException ex){
+					throw new UncheckedIOException(ex);
+				}
+			}, true);
+			return;
+		}
+
+		boolean dropCap = (this.format==FORMAT_DROPCAP || this.format==FORMAT_DROPCAP_WITH_PADDING);
+		FormatScratch scratch = FormatScratch.acquire();
+		ReaderWrapScanner scanner = new ReaderWrapScanner(reader, (dropCap)?1:0, this.wrapMode==Text_To_WrappedFormat.WRAP_OPTIMAL, this.hyphenator, scratch);
+		try{
+			//if nothing is to be done write string with blanks
+			if(scanner.isBlank()){
+				out.append(new StrBuilder().appendPadding(this.textWidth, ' ')).append(lineSeparator);
+				return;
+			}
+			if(this.maxLines>0){
+				this.formatLimited(scanner, line -> {
+					try{
+						out.append(line).append(lineSeparator);
+					}
+					catch(IOException ex){
+						throw new UncheckedIOException(ex);
+					}
+				});
+				return;
+			}
+
+			//top lines are collected first to validate them, there are only a few
+			ArrayList<String> top = new ArrayList<>(this.expectedTopLines);
+			if(this.topLines>0){
+				scanner.next(this.topWidth, this.topLines, top::add);
+			}
+			Validate.isTrue(top.size()==this.expectedTopLines);
+			for(int i=0; i<top.size(); i++){
+				out.append(this.formatTop(top.get(i), i)).append(lineSeparator);
+			}
+
+			BottomWriter writer = new BottomWriter(out, lineSeparator);
+			while(scanner.hasMore()){
+				scanner.next(this.bottomWidth, Integer.MAX_VALUE, writer);
+			}
+			writer.finish();
+		}
+		catch(UncheckedIOException ex){
+			throw ex.getCause();
+		}
+		finally{
+			scratch.release();
+		}
+	}
+
+	@Override
+	public List<Collection<StrBuilder>> transformAll(List<String> paragraphs, Executor executor, int threshold){
+		Validate.noNullElements(paragraphs);
+		Validate.notNull(executor);
+		Validate.isTrue(threshold>0, "batch threshold must be larger than 0, was <%d>", threshold);
+		List<String> input = (paragraphs instanceof RandomAccess)?paragraphs:new ArrayList<>(paragraphs);
+
+		int size = input.size();
+		@SuppressWarnings("unchecked")
+		Collection<StrBuilder>[] ret = new Collection[size];
+		int parallelism = (executor instanceof ForkJoinPool)?((ForkJoinPool)executor).getParallelism():Runtime.getRuntime().availableProcessors();
+		int chunks = Math.min((size + threshold - 1) / threshold, parallelism * 4);
+		if(chunks<=1){
+			this.transformRange(input, ret, 0, size, new AtomicBoolean());
+			return Arrays.asList(ret);
+		}
+
+		//submit all chunks but the first, which is done by the calling thread
+		//after an exception, also if a chunk could not be submitted, all chunks stop at their next paragraph
+		//no chunk is running once the exception leaves this method
+		int chunkSize = (size + chunks - 1) / chunks;
+		AtomicBoolean failed = new AtomicBoolean();
+		List<CompletableFuture<Void>> futures = new ArrayList<>(chunks);
+		try{
+			for(int from=chunkSize; from<size; from+=chunkSize){
+				int start = from;
+				int end = Math.min(from + chunkSize, size);
+				futures.add(CompletableFuture.runAsync(() -> this.transformRange(input, ret, start, end, failed), executor));
+			}
+			this.transformRange(input, ret, 0, chunkSize, failed);
+		}
+		catch(RuntimeException | Error ex){
+			failed.set(true);
+			try{
+				this.join(futures);
+			}
+			catch(RuntimeException | Error other){
+				ex.addSuppressed(other);
+			}
+			throw ex;
+		}
+
+		this.join(futures);
+		return Arrays.asList(ret);
+	}
+
+	/**
+	 * Waits for all chunks of a batch.
+	 * @param futures the submitted chunks
+	 * @throws RuntimeException the exception of a failed chunk
+	 * @throws Error the error of a failed chunk
+	 */
+	private void join(List<CompletableFuture<Void>> futures){
+		try{
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+		}
+		catch(CompletionException ex){
+			if(ex.getCause() instanceof RuntimeException){
+				throw (RuntimeException)ex.getCause();
+			}
+			if(ex.getCause() instanceof Error){
+				throw (Error)ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Transforms a range of paragraphs, storing each result at the index of its paragraph.
+	 * The range stops at the next paragraph once any range failed, an exception sets the failed flag for all other ranges.
+	 * @param paragraphs the paragraphs
+	 * @param ret array for the results
+	 * @param from first index of the range (inclusive)
+	 * @param to last index of the range (exclusive)
+	 * @param failed flag shared by all ranges of a batch, set if a range failed
+	 */
+	private void transformRange(List<String> paragraphs, Collection<StrBuilder>[] ret, int from, int to, AtomicBoolean failed){
+		try{
+			for(int i=from; i<to && !failed.get(); i++){
+				ret[i] = this.transform(paragraphs.get(i));
+			}
+		}
+		catch(RuntimeException | Error ex){
+			failed.set(true);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Aligns a line of the top part and adds the format specific start of the line.
+	 * @param line the wrapped line
+	 * @param index the index of the line in the top part
+	 * @return formatted line
+	 */
+	StrBuilder formatTop(String line, int index){
+		return this.formatTop(new StrBuilder(this.textWidth), line, 0, line.length(), index);
+	}
+
+	/**
+	 * Appends the format specific start of a line of the top part and the aligned line to a builder.
+	 * @param target the builder to append to
+	 * @param text the text with the wrapped line
+	 * @param from first index of the line in the text (inclusive)
+	 * @param to last index of the line in the text (exclusive)
+	 * @param index the index of the line in the top part
+	 * @return the target builder
+	 */
+	private StrBuilder formatTop(StrBuilder target, String text, int from, int to, int index){
+		switch(this.format){
+			case FORMAT_FIRST_LINE:
+			case FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH:
+				TextPadding.appendPadding(target, this.firstlineIndentation, this.leftPaddingChar);
+				break;
+			case FORMAT_DROPCAP:
+				if(index<this.dropCap.length){
+					target.append(this.dropCap[index]);
+				}
+				else{
+					TextPadding.appendPadding(target, this.dropCap[0].length(), ' ');
+				}
+				target.append(' ');
+				break;
+			case FORMAT_DROPCAP_WITH_PADDING:
+				if(index<this.dropCap.length){
+					target.append(this.dropCap[index]);
+				}
+				else{
+					TextPadding.appendPadding(target, this.dropCap[0].length(), ' ');
+				}
+				TextPadding.appendPadding(target, this.charsBetweenDropcapAndText, ' ');
+				break;
+			default:
+				break;
+		}
+		return this.align(target, text, from, to, this.topWidth);
+	}
+
+	/**
+	 * Aligns a line of the bottom part and adds the format specific start of the line.
+	 * @param line the wrapped line
+	 * @param last true if the line is the last line of the text, false otherwise
+	 * @return formatted line
+	 */
+	StrBuilder formatBottom(String line, boolean last){
+		return this.formatBottom(new StrBuilder(this.textWidth), line, 0, line.length(), last);
+	}
+
+	/**
+	 * Appends the format specific start of a line of the bottom part and the aligned line to a builder.
+	 * @param target the builder to append to
+	 * @param text the text with the wrapped line
+	 * @param from first index of the line in the text (inclusive)
+	 * @param to last index of the line in the text (exclusive)
+	 * @param last true if the line is the last line of the text, false otherwise
+	 * @return the target builder
+	 */
+	private StrBuilder formatBottom(StrBuilder target, String text, int from, int to, boolean last){
+		if(this.format==FORMAT_HANGING_PARAGRAPH || this.format==FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH){
+			TextPadding.appendPadding(target, this.hangingIndentation, this.leftPaddingChar);
+		}
+		if(last && (this.alignment==ALIGN_JUSTIFIED_LEFT || this.alignment==ALIGN_JUSTIFIED_RIGHT)){
+			return target.append(this.alignLast(this.align(new StrBuilder(this.bottomWidth), text, from, to, this.bottomWidth)));
+		}
+		return this.align(target, text, from, to, this.bottomWidth);
+	}
+
+	/**
+	 * Appends a range of text aligned to a width, using the alignment of the plan.
+	 * @param target the builder to append to
+	 * @param text the text
+	 * @param from first index of the range (inclusive)
+	 * @param to last index of the range (exclusive)
+	 * @param width the width to align to
+	 * @return the target builder
+	 */
+	private StrBuilder align(StrBuilder target, String text, int from, int to, int width){
+		if(this.measureMode==MEASURE_TERMINAL && TerminalText.hasEscape(text, from, to)){
+			return this.alignTerminal(target, text, from, to, width);
+		}
+		switch(this.alignment){
+			case ALIGN_LEFT:
+				TextPadding.left(target, text, from, to, width, this.innerWsChar, this.rightPaddingChar);
+				break;
+			case ALIGN_RIGHT:
+				TextPadding.right(target, text, from, to, width, this.innerWsChar, this.leftPaddingChar);
+				break;
+			case ALIGN_CENTER:
+				TextPadding.centered(target, text, from, to, width, this.innerWsChar, this.leftPaddingChar, this.rightPaddingChar);
+				break;
+			default:
+				TextPadding.justified(target, text, from, to, width, this.innerWsChar, target.length());
+				break;
+		}
+		return target;
+	}
+
+	/**
+	 * Appends a range of terminal text with escape sequences aligned to a width, using the alignment of the plan.
+	 * The range is measured once by its width on a terminal, it is padded but never truncated (wrapped lines fit the width).
+	 * @param target the builder to append to
+	 * @param text the text
+	 * @param from first index of the range (inclusive)
+	 * @param to last index of the range (exclusive)
+	 * @param width the width to align to
+	 * @return the target builder
+	 */
+	private StrBuilder alignTerminal(StrBuilder target, String text, int from, int to, int width){
+		if(this.alignment==ALIGN_JUSTIFIED || this.alignment==ALIGN_JUSTIFIED_LEFT || this.alignment==ALIGN_JUSTIFIED_RIGHT){
+			TextPadding.justified(target, text, from, to, width, this.innerWsChar, target.length(), true);
+			return target;
+		}
+
+		int columns = TerminalText.width(text, from, to);
+		if(this.innerWsChar!=' '){
+			int ws = String_To_DisplayWidth.width(this.innerWsChar);
+			for(int i=from; i<to; i++){
+				columns += (text.charAt(i)==' ')?ws-1:0;
+			}
+		}
+		int pads = Math.max(width - columns, 0);
+		if(this.alignment==ALIGN_LEFT){
+			TextPadding.pad(target, text, from, to, this.innerWsChar, 0, ' ', pads, this.rightPaddingChar);
+		}
+		else if(this.alignment==ALIGN_RIGHT){
+			TextPadding.pad(target, text, from, to, this.innerWsChar, pads, this.leftPaddingChar, 0, ' ');
+		}
+		else{
+			TextPadding.pad(target, text, from, to, this.innerWsChar, pads / 2, this.leftPaddingChar, pads - pads / 2, this.rightPaddingChar);
+		}
+		return target;
+	}
+
+	/**
+	 * Re-aligns the last line of the bottom part for the special justified alignments.
+	 * @param b the aligned last line
+	 * @return the line with left or right alignment for justified left or right alignment, the line otherwise
+	 */
+	private StrBuilder alignLast(StrBuilder b){
+		if(this.alignment!=ALIGN_JUSTIFIED_LEFT && this.alignment!=ALIGN_JUSTIFIED_RIGHT){
+			return b;
+		}
+
+		//get the string back to a normal string
+		String lineString = String_To_NoHorWs.collapse(b.toString().replace(this.innerWsChar, ' '));
+		if(this.measureMode==MEASURE_TERMINAL && TerminalText.hasEscape(lineString, 0, lineString.length())){
+			int pads = Math.max(this.bottomWidth - TerminalText.width(lineString, 0, lineString.length()), 0);
+			StrBuilder ret = new StrBuilder(lineString.length() + pads);
+			if(this.alignment==ALIGN_JUSTIFIED_LEFT){
+				return ret.append(lineString).appendPadding(pads, this.rightPaddingChar);
+			}
+			return ret.appendPadding(pads, this.leftPaddingChar).append(lineString);
+		}
+
+		// now replace the last line with the requested alignment
+		if(this.alignment==ALIGN_JUSTIFIED_LEFT){
+			return String_To_LeftPadded.convert(lineString, this.bottomWidth, this.rightPaddingChar);
+		}
+		return String_To_RightPadded.convert(lineString, this.bottomWidth, this.leftPaddingChar);
+	}
+
+	/**
+	 * Writes lines of the bottom part, holding back one line to format the last line.
+	 */
+	private final class BottomWriter implements Consumer<String> {
+
+		/** The appendable to write to. */
+		private final Appendable out;
+
+		/** The line separator. */
+		private final String lineSeparator;
+
+		/** The last wrapped line, not yet written. */
+		private String last;
+
+		/**
+		 * Creates a new writer.
+		 * @param out the appendable to write to
+		 * @param lineSeparator the line separator
+		 */
+		BottomWriter(Appendable out, String lineSeparator){
+			this.out = out;
+			this.lineSeparator = lineSeparator;
+		}
+
+		@Override
+		public void accept(String line){
+			if(this.last!=null){
+				try{
+					this.out.append(FormattedTextPlan.this.formatBottom(this.last, false)).append(this.lineSeparator);
+				}
+				catch(IOException ex){
+					throw new UncheckedIOException(ex);
+				}
+			}
+			this.last = line;
+		}
+
+		/**
+		 * Writes the last line.
+		 * @throws IOException if writing failed
+		 */
+		void finish() throws IOException{
+			if(this.last!=null){
+				this.out.append(FormattedTextPlan.this.formatBottom(this.last, true)).append(this.lineSeparator);
+			}
+		}
+	}
+}
@@ -0,0 +1,208 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import org.apache.commons.lang3.text.StrBuilder;
+
+import de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy;
+
+/**
+ * An immutable copy of the settings of a {@link Text_To_FormattedText}, created by its `with...` methods.
+ * 
+ * The settings of the factory (text width to collection strategy) are copied from the source transformer,
+ * the settings for wrapping, measuring, and limiting lines are given explicitly.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class FormattedTextSettings implements Text_To_FormattedText {
+
+	/** The text width. */
+	private final int textWidth;
+
+	/** The alignment option. */
+	private final int alignment;
+
+	/** The format option. */
+	private final int format;
+
+	/** Character for padding on the left side. */
+	private final Character leftPaddingChar;
+
+	/** Character for padding on the right side. */
+	private final Character rightPaddingChar;
+
+	/** Character for white spaces within a line. */
+	private final Character innerWsChar;
+
+	/** Indentation for a hanging paragraph. */
+	private final int hangingIndentation;
+
+	/** Indentation for the first line. */
+	private final int firstlineIndentation;
+
+	/** The dropped capital letter. */
+	private final String[] dropCap;
+
+	/** Characters between the dropped capital letter and text. */
+	private final int charsBetweenDroppcapAndText;
+
+	/** Lines added after the dropped capital letter. */
+	private final int linesAfterDropcap;
+
+	/** The collection strategy. */
+	private final IsCollectionStrategy<?, StrBuilder> strategy;
+
+	/** The line breaking mode. */
+	private final int wrapMode;
+
+	/** The hyphenator, null for none. */
+	private final Hyphenator hyphenator;
+
+	/** The measure option. */
+	private final int measureMode;
+
+	/** The distance of tab stops. */
+	private final int tabSize;
+
+	/** The maximum number of lines, 0 for no limit. */
+	private final int maxLines;
+
+	/** The ellipsis marker, null for none. */
+	private final String ellipsis;
+
+	/**
+	 * Creates a copy of the settings of a transformer with new settings for wrapping, measuring, and limiting lines.
+	 * @param source the transformer to copy the other settings from
+	 * @param wrapMode the line breaking mode
+	 * @param hyphenator the hyphenator, null for none
+	 * @param measureMode the measure option
+	 * @param tabSize the distance of tab stops, less than 1 for the default
+	 * @param maxLines the maximum number of lines, 0 for no limit
+	 * @param ellipsis the ellipsis marker, null for none
+	 */
+	FormattedTextSettings(Text_To_FormattedText source, int wrapMode, Hyphenator hyphenator, int measureMode, int tabSize, int maxLines, String ellipsis){
+		this.textWidth = source.getTextWidth();
+		this.alignment = source.getAlignment();
+		this.format = source.getFormat();
+		this.leftPaddingChar = source.getLeftPaddingChar();
+		this.rightPaddingChar = source.getRightPaddingChar();
+		this.innerWsChar = source.getInnerWsChar();
+		this.hangingIndentation = source.getHangingIndentation();
+		this.firstlineIndentation = source.getFirstlineIndentation();
+		this.dropCap = source.getDropCap();
+		this.charsBetweenDroppcapAndText = source.getCharsBetweenDroppcapAndText();
+		this.linesAfterDropcap = source.getLinesAfterDropcap();
+		this.strategy = source.getCollectionStrategy();
+		this.wrapMode = wrapMode;
+		this.hyphenator = hyphenator;
+		this.measureMode = measureMode;
+		this.tabSize = (tabSize<1)?DEFAULT_TAB_SIZE:tabSize;
+		this.maxLines = maxLines;
+		this.ellipsis = ellipsis;
+	}
+
+	@Override
+	public int getTextWidth(){
+		return this.textWidth;
+	}
+
+	@Override
+	public int getAlignment(){
+		return this.alignment;
+	}
+
+	@Override
+	public int getFormat(){
+		return this.format;
+	}
+
+	@Override
+	public Character getLeftPaddingChar(){
+		return this.leftPaddingChar;
+	}
+
+	@Override
+	public Character getRightPaddingChar(){
+		return this.rightPaddingChar;
+	}
+
+	@Override
+	public Character getInnerWsChar(){
+		return this.innerWsChar;
+	}
+
+	@Override
+	public int getHangingIndentation(){
+		return this.hangingIndentation;
+	}
+
+	@Override
+	public int getFirstlineIndentation(){
+		return this.firstlineIndentation;
+	}
+
+	@Override
+	public String[] getDropCap(){
+		return this.dropCap;
+	}
+
+	@Override
+	public int getCharsBetweenDroppcapAndText(){
+		return this.charsBetweenDroppcapAndText;
+	}
+
+	@Override
+	public int getLinesAfterDropcap(){
+		return this.linesAfterDropcap;
+	}
+
+	@Override
+	public IsCollectionStrategy<?, StrBuilder> getCollectionStrategy(){
+		return this.strategy;
+	}
+
+	@Override
+	public int getWrapMode(){
+		return this.wrapMode;
+	}
+
+	@Override
+	public Hyphenator getHyphenator(){
+		return this.hyphenator;
+	}
+
+	@Override
+	public int getMeasureMode(){
+		return this.measureMode;
+	}
+
+	@Override
+	public int getTabSize(){
+		return this.tabSize;
+	}
+
+	@Override
+	public int getMaxLines(){
+		return this.maxLines;
+	}
+
+	@Override
+	public String getEllipsis(){
+		return this.ellipsis;
+	}
+}
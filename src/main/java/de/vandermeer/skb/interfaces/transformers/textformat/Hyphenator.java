@@ -0,0 +1,184 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrBuilder;
+
+/**
+ * Hyphenation of words using Liang's algorithm (as used by TeX) with a set of hyphenation patterns.
+ * 
+ * Patterns are letters with digits between them, for instance `hen5at` or `1tio`, a dot marks the start or end of a word.
+ * For every position in a word the highest digit of all matching patterns is taken, odd digits allow a hyphen, even digits forbid it.
+ * Hyphens are never placed closer to the start or end of a word than the minimum left and right number of letters.
+ * Exceptions are words with explicit hyphens, for instance `ta-ble`, they replace the patterns for that word.
+ * 
+ * The patterns are compiled once into a compact trie encoded in arrays, a hyphenator is immutable and can be shared by any number of threads.
+ * No patterns are built in, they are usually loaded from a TeX pattern file for a language, see {@link #create(Reader)}.
+ * 
+ * A hyphenator is used for wrapping by {@link Text_To_WrappedFormat#getHyphenator()} and {@link Text_To_FormattedText#getHyphenator()}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public interface Hyphenator {
+
+	/** The default minimum number of letters before a hyphen, set to 2. */
+	static int DEFAULT_LEFT_MIN = 2;
+
+	/** The default minimum number of letters after a hyphen, set to 3. */
+	static int DEFAULT_RIGHT_MIN = 3;
+
+	/** The hyphen added to a line if a word is hyphenated, set to '-'. */
+	static char HYPHEN = '-';
+
+	/**
+	 * Returns the positions where a hyphen can be inserted into a word.
+	 * @param s sequence with the word, must not be null
+	 * @param from start of the word in the sequence (inclusive)
+	 * @param to end of the word in the sequence (exclusive)
+	 * @return positions (indexes of the sequence, a hyphen goes before the character at the index) in increasing order, empty if the word cannot be hyphenated
+	 */
+	int[] getPoints(CharSequence s, int from, int to);
+
+	/**
+	 * Returns the last position where a hyphen can be inserted into a word, up to a limit.
+	 * @param s sequence with the word, must not be null
+	 * @param from start of the word in the sequence (inclusive)
+	 * @param to end of the word in the sequence (exclusive)
+	 * @param limit the largest position that can be used
+	 * @return the largest position not after the limit, -1 if there is none
+	 */
+	default int lastPoint(CharSequence s, int from, int to, int limit){
+		int[] points = this.getPoints(s, from, to);
+		for(int i=points.length-1; i>=0; i--){
+			if(points[i]<=limit){
+				return points[i];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns a word with hyphens at all positions where a hyphen can be inserted.
+	 * @param word the word, must not be null
+	 * @return hyphenated word
+	 */
+	default String hyphenate(String word){
+		Validate.notNull(word);
+		int[] points = this.getPoints(word, 0, word.length());
+		StrBuilder ret = new StrBuilder(word.length() + points.length);
+		int from = 0;
+		for(int point : points){
+			ret.append(word, from, point - from).append(HYPHEN);
+			from = point;
+		}
+		return ret.append(word, from, word.length() - from).toString();
+	}
+
+	/**
+	 * Creates a new hyphenator with the default minimum number of letters before and after a hyphen.
+	 * @param patterns the hyphenation patterns, must not have null elements
+	 * @return new hyphenator
+	 * @throws NullPointerException if the patterns were null
+	 * @throws IllegalArgumentException if a pattern was not valid
+	 */
+	static Hyphenator create(Collection<String> patterns){
+		return create(patterns, Collections.emptyList(), DEFAULT_LEFT_MIN, DEFAULT_RIGHT_MIN);
+	}
+
+	/**
+	 * Creates a new hyphenator.
+	 * @param patterns the hyphenation patterns, must not have null elements
+	 * @param exceptions words with explicit hyphens, must not have null elements
+	 * @param leftMin minimum number of letters before a hyphen, must be larger than 0
+	 * @param rightMin minimum number of letters after a hyphen, must be larger than 0
+	 * @return new hyphenator
+	 * @throws NullPointerException if the patterns or exceptions were null
+	 * @throws IllegalArgumentException if a pattern or a minimum was not valid
+	 */
+	static Hyphenator create(Collection<String> patterns, Collection<String> exceptions, int leftMin, int rightMin){
+		Validate.noNullElements(patterns);
+		Validate.noNullElements(exceptions);
+		Validate.isTrue(leftMin>0, "left minimum must be larger than 0, was <%d>", leftMin);
+		Validate.isTrue(rightMin>0, "right minimum must be larger than 0, was <%d>", rightMin);
+		return new PatternTrieHyphenator(patterns, exceptions, leftMin, rightMin);
+	}
+
+	/**
+	 * Creates a new hyphenator from a TeX pattern file, with the default minimum number of letters before and after a hyphen.
+	 * 
+	 * Patterns are read from a `\patterns{...}` group and exceptions from a `\hyphenation{...}` group.
+	 * Comments start with `%` and end with the line, other commands are ignored.
+	 * Without groups all words of the file are patterns.
+	 * The reader is read to the end, but not closed.
+	 * 
+	 * @param reader the reader for the pattern file, must not be null
+	 * @return new hyphenator
+	 * @throws IOException if reading failed
+	 * @throws NullPointerException if the reader was null
+	 * @throws IllegalArgumentException if a pattern was not valid
+	 */
+	static Hyphenator create(Reader reader) throws IOException{
+		Validate.notNull(reader);
+		List<String> patterns = new ArrayList<>();
+		List<String> exceptions = new ArrayList<>();
+		List<String> target = patterns;
+		StrBuilder token = new StrBuilder(16);
+		boolean comment = false;
+		boolean command = false;
+		for(int c=reader.read(); ; c=reader.read()){
+			if(c<0 || c=='%' || c=='{' || c=='}' || c=='\\' || Character.isWhitespace(c)){
+				if(command){
+					String name = token.toString();
+					target = ("hyphenation".equals(name))?exceptions:("patterns".equals(name))?patterns:null;
+				}
+				else if(token.length()>0 && target!=null){
+					target.add(token.toString());
+				}
+				token.clear();
+				command = false;
+			}
+			if(c<0){
+				break;
+			}
+			if(comment){
+				comment = (c!='\n' && c!='\r');
+			}
+			else if(c=='%'){
+				comment = true;
+			}
+			else if(c=='\\'){
+				command = true;
+			}
+			else if(c=='}'){
+				target = null;
+			}
+			else if(c!='{' && !Character.isWhitespace(c)){
+				token.append((char)c);
+			}
+		}
+		return create(patterns, exceptions, DEFAULT_LEFT_MIN, DEFAULT_RIGHT_MIN);
+	}
+}
@@ -0,0 +1,110 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrBuilder;
+
+/**
+ * Formatted text that is kept up to date while the text is edited, used for {@link Text_To_FormattedText} in editors and live previews.
+ * 
+ * The break positions of the current layout are kept.
+ * After an edit, wrapping restarts at the first line that depends on changed text and stops as soon as a new line starts at the same position (in the unchanged end of the text) as a line of the old layout.
+ * All following lines are taken from the old layout without wrapping or formatting them again.
+ * The lines are always the same as the lines of a full transformation of the current text with the same settings.
+ * 
+ * Changing the text width changes every line (all lines are padded to the width), it results in a new layout of the whole text.
+ * Text with conditional line breaks, blank text, optimal line breaking, hyphenation, and terminal text (see {@link Text_To_FormattedText#MEASURE_TERMINAL}) are always formatted as a whole as well.
+ * 
+ * An instance is not thread safe.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public interface IncrementalFormattedText {
+
+	/**
+	 * Returns the current text.
+	 * @return text
+	 */
+	String getText();
+
+	/**
+	 * Returns the formatted lines of the current text.
+	 * @return formatted lines, immutable
+	 */
+	List<String> getLines();
+
+	/**
+	 * Returns the number of lines that were wrapped and formatted by the last change, all other lines were taken from the previous layout.
+	 * @return number of reflowed lines
+	 */
+	int getReflowedLines();
+
+	/**
+	 * Replaces a range of the current text and reflows the affected lines.
+	 * @param start start of the range (inclusive)
+	 * @param end end of the range (exclusive)
+	 * @param replacement the replacement for the range, must not be null
+	 * @return self to allow for chaining
+	 * @throws NullPointerException if the replacement was null
+	 * @throws IllegalArgumentException if the range was not within the text or the new text cannot be formatted
+	 */
+	IncrementalFormattedText edit(int start, int end, String replacement);
+
+	/**
+	 * Sets a new text, reflowing only the lines that differ from the current layout.
+	 * @param text the new text, must not be null
+	 * @return self to allow for chaining
+	 * @throws NullPointerException if the text was null
+	 * @throws IllegalArgumentException if the new text cannot be formatted
+	 */
+	IncrementalFormattedText setText(String text);
+
+	/**
+	 * Sets a new text width, this results in a new layout of the whole text.
+	 * @param textWidth the new text width, must be larger than 0
+	 * @return self to allow for chaining
+	 * @throws IllegalStateException if the width was not valid for the settings
+	 * @throws IllegalArgumentException if the text cannot be formatted with the width
+	 */
+	IncrementalFormattedText setTextWidth(int textWidth);
+
+	/**
+	 * Returns the formatted lines of the current text as a collection, using the collection strategy of the settings.
+	 * @return new collection of new string builders
+	 */
+	Collection<StrBuilder> toCollection();
+
+	/**
+	 * Creates new incremental formatted text.
+	 * @param settings transformer with the settings, compiled once, must not be null
+	 * @param text the initial text, must not be null
+	 * @return new incremental formatted text
+	 * @throws NullPointerException if an argument or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 * @throws IllegalArgumentException if the text cannot be formatted
+	 */
+	static IncrementalFormattedText create(Text_To_FormattedText settings, String text){
+		Validate.notNull(settings);
+		Validate.notNull(text);
+		return new ReflowFormattedText(new FormattedTextPlan(settings), text);
+	}
+}
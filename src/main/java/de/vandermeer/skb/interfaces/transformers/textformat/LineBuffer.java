@@ -0,0 +1,170 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrBuilder;
+
+import de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy;
+
+/**
+ * A compact buffer of text lines, the compact result type of {@link Text_To_FormattedText}.
+ * 
+ * All lines are stored in one contiguous buffer with a table of line offsets.
+ * As long as all characters are Latin-1 characters, the buffer stores one byte per character, otherwise two.
+ * There is no object per line: lines are returned as character sequence views into the buffer, created on request.
+ * 
+ * For compatibility with the collection results of {@link Text_To_FormattedText}, a buffer can be converted into a collection of string builders.
+ * 
+ * A buffer is not thread safe, lines can only be added at the end.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public interface LineBuffer extends Iterable<CharSequence> {
+
+	/**
+	 * Returns the number of lines in the buffer.
+	 * @return number of lines
+	 */
+	int size();
+
+	/**
+	 * Returns a line of the buffer.
+	 * @param index index of the line
+	 * @return the line as a view into the buffer
+	 * @throws IndexOutOfBoundsException if the index was out of range
+	 */
+	CharSequence get(int index);
+
+	/**
+	 * Returns the length of a line of the buffer.
+	 * @param index index of the line
+	 * @return length of the line
+	 * @throws IndexOutOfBoundsException if the index was out of range
+	 */
+	int length(int index);
+
+	/**
+	 * Adds a line at the end of the buffer, the characters are copied into the buffer.
+	 * @param line the line to add, must not be null
+	 * @return self to allow chaining
+	 */
+	LineBuffer add(CharSequence line);
+
+	/**
+	 * Appends a line of the buffer to a string builder, without creating an intermediate string.
+	 * @param index index of the line
+	 * @param sb the builder to append to, must not be null
+	 * @return the builder
+	 * @throws IndexOutOfBoundsException if the index was out of range
+	 */
+	StrBuilder appendTo(int index, StrBuilder sb);
+
+	/**
+	 * Tests if the buffer stores one byte per character, that is if all characters so far are Latin-1 characters.
+	 * @return true if the buffer stores Latin-1 characters, false otherwise
+	 */
+	boolean isLatin1();
+
+	/**
+	 * Reduces the storage of the buffer to the lines in it.
+	 * @return self to allow chaining
+	 */
+	LineBuffer trimToSize();
+
+	@Override
+	default Iterator<CharSequence> iterator(){
+		return new Iterator<CharSequence>() {
+			int index = 0;
+
+			@Override
+			public boolean hasNext(){
+				return this.index<LineBuffer.this.size();
+			}
+
+			@Override
+			public CharSequence next(){
+				if(!this.hasNext()){
+					throw new NoSuchElementException();
+				}
+				return LineBuffer.this.get(this.index++);
+			}
+		};
+	}
+
+	/**
+	 * Writes all lines to an appendable, each line followed by a line separator.
+	 * @param out the appendable to write to, must not be null
+	 * @param lineSeparator the line separator, must not be null
+	 * @throws IOException if writing failed
+	 */
+	default void writeTo(Appendable out, String lineSeparator) throws IOException{
+		Validate.notNull(out);
+		Validate.notNull(lineSeparator);
+		for(int i=0; i<this.size(); i++){
+			out.append(this.get(i)).append(lineSeparator);
+		}
+	}
+
+	/**
+	 * Returns all lines as a collection of new string builders, using the default collection strategy of {@link Text_To_FormattedText}.
+	 * @return collection of string builders, one per line
+	 */
+	default Collection<StrBuilder> toCollection(){
+		return this.toCollection(Text_To_FormattedText.DEFAULT_COLLECTION_STRATEGY);
+	}
+
+	/**
+	 * Returns all lines as a collection of new string builders.
+	 * @param strategy the collection strategy for the returned collection, must not be null
+	 * @return collection of string builders, one per line
+	 */
+	default Collection<StrBuilder> toCollection(IsCollectionStrategy<?, StrBuilder> strategy){
+		Validate.notNull(strategy);
+		Collection<StrBuilder> ret = strategy.get();
+		for(int i=0; i<this.size(); i++){
+			ret.add(this.appendTo(i, new StrBuilder(this.length(i))));
+		}
+		return ret;
+	}
+
+	/**
+	 * Creates a new, empty buffer.
+	 * @return new buffer
+	 */
+	static LineBuffer create(){
+		return new CompactLineBuffer(16, 1024);
+	}
+
+	/**
+	 * Creates a new, empty buffer with an initial capacity.
+	 * @param lines initial capacity for lines
+	 * @param chars initial capacity for characters of all lines
+	 * @return new buffer
+	 */
+	static LineBuffer create(int lines, int chars){
+		Validate.isTrue(lines>=0, "line capacity must not be negative, was <%d>", lines);
+		Validate.isTrue(chars>=0, "character capacity must not be negative, was <%d>", chars);
+		return new CompactLineBuffer(lines, chars);
+	}
+}
@@ -0,0 +1,172 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A least recently used cache of formatted text, implementation of {@link FormattedTextCache}.
+ * 
+ * Entries are kept in an access ordered map, guarded by the cache instance.
+ * Text is formatted outside of the lock, so concurrent misses do not block lookups of other texts.
+ * If two threads format the same text concurrently, both results are equal and the first one stays in the cache.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class LruFormattedTextCache implements FormattedTextCache {
+
+	/** The maximum number of entries. */
+	private final int maxSize;
+
+	/** The cached lines, in access order. */
+	private final LinkedHashMap<Key, List<String>> map;
+
+	/** Number of hits. */
+	private long hits;
+
+	/** Number of misses. */
+	private long misses;
+
+	/** Number of evictions. */
+	private long evictions;
+
+	/**
+	 * Creates a new cache.
+	 * @param maxSize maximum number of entries
+	 */
+	LruFormattedTextCache(int maxSize){
+		this.maxSize = maxSize;
+		this.map = new LinkedHashMap<Key, List<String>>(16, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, List<String>> eldest){
+				if(this.size()>LruFormattedTextCache.this.maxSize){
+					LruFormattedTextCache.this.evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public List<String> lines(Text_To_FormattedText settings, String text){
+		Validate.notNull(settings);
+		Validate.notNull(text);
+		FormattedTextPlan plan = (settings instanceof FormattedTextPlan)?(FormattedTextPlan)settings:new FormattedTextPlan(settings);
+		Key key = new Key(plan.getLayoutKey(), plan.getHyphenator(), text);
+
+		synchronized(this){
+			List<String> ret = this.map.get(key);
+			if(ret!=null){
+				this.hits++;
+				return ret;
+			}
+			this.misses++;
+		}
+
+		List<String> ret = plan.lines(text);
+		synchronized(this){
+			List<String> cached = this.map.putIfAbsent(key, ret);
+			return (cached==null)?ret:cached;
+		}
+	}
+
+	@Override
+	public int getMaxSize(){
+		return this.maxSize;
+	}
+
+	@Override
+	public synchronized int size(){
+		return this.map.size();
+	}
+
+	@Override
+	public synchronized long getHits(){
+		return this.hits;
+	}
+
+	@Override
+	public synchronized long getMisses(){
+		return this.misses;
+	}
+
+	@Override
+	public synchronized long getEvictions(){
+		return this.evictions;
+	}
+
+	@Override
+	public synchronized void clear(){
+		this.map.clear();
+	}
+
+	/**
+	 * Key of a cache entry, layout key and text with a precomputed hash code.
+	 */
+	private static final class Key {
+
+		/** The layout key of the settings. */
+		private final String layout;
+
+		/** The hyphenator of the settings, compared by identity, null for no hyphenation. */
+		private final Hyphenator hyphenator;
+
+		/** The text. */
+		private final String text;
+
+		/** The hash code. */
+		private final int hash;
+
+		/**
+		 * Creates a new key.
+		 * @param layout layout key of the settings
+		 * @param hyphenator hyphenator of the settings, null for no hyphenation
+		 * @param text the text
+		 */
+		Key(String layout, Hyphenator hyphenator, String text){
+			this.layout = layout;
+			this.hyphenator = hyphenator;
+			this.text = text;
+			this.hash = 31 * layout.hashCode() + text.hashCode();
+		}
+
+		@Override
+		public int hashCode(){
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj){
+			if(this==obj){
+				return true;
+			}
+			if(!(obj instanceof Key)){
+				return false;
+			}
+			Key other = (Key)obj;
+			return this.hash==other.hash && this.hyphenator==other.hyphenator && this.text.equals(other.text) && this.layout.equals(other.layout);
+		}
+	}
+}
@@ -0,0 +1,256 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A hyphenator with the patterns in a trie encoded in arrays.
+ * 
+ * Nodes are numbered in breadth first order, so the children of a node are consecutive and sorted by their character.
+ * For each node the trie stores the character, the index of the first child (the children of node `i` are `childStart[i]` to `childStart[i+1]`), and the start of the digits of a pattern ending in the node.
+ * The digits of all patterns are stored in one byte array, a pattern of `n` letters has `n+1` digits.
+ * Children are found by binary search, no objects are created for the trie.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class PatternTrieHyphenator implements Hyphenator {
+
+	/** Empty array of positions. */
+	private static final int[] NONE = new int[0];
+
+	/** Character of each node, unused for the root. */
+	private final char[] labels;
+
+	/** Index of the first child of each node, with one more entry for the end of the children of the last node. */
+	private final int[] childStart;
+
+	/** Start of the digits of the pattern ending in each node, -1 if no pattern ends in the node. */
+	private final int[] valueStart;
+
+	/** Digits of all patterns. */
+	private final byte[] values;
+
+	/** Exceptions, lower case words without hyphens mapped to the hyphen positions. */
+	private final Map<String, int[]> exceptions;
+
+	/** Minimum number of letters before a hyphen. */
+	private final int leftMin;
+
+	/** Minimum number of letters after a hyphen. */
+	private final int rightMin;
+
+	/**
+	 * Creates a new hyphenator.
+	 * @param patterns the hyphenation patterns
+	 * @param exceptions words with explicit hyphens
+	 * @param leftMin minimum number of letters before a hyphen
+	 * @param rightMin minimum number of letters after a hyphen
+	 * @throws IllegalArgumentException if a pattern was not valid
+	 */
+	PatternTrieHyphenator(Collection<String> patterns, Collection<String> exceptions, int leftMin, int rightMin){
+		this.leftMin = leftMin;
+		this.rightMin = rightMin;
+
+		//build a temporary trie of objects, then number the nodes breadth first
+		BuildNode root = new BuildNode();
+		int nodes = 1;
+		int digits = 0;
+		for(String pattern : patterns){
+			StringBuilder letters = new StringBuilder(pattern.length());
+			byte[] value = new byte[pattern.length() + 1];
+			for(int i=0; i<pattern.length(); i++){
+				char c = pattern.charAt(i);
+				if(c>='0' && c<='9'){
+					value[letters.length()] = (byte)(c - '0');
+				}
+				else{
+					letters.append(Character.toLowerCase(c));
+				}
+			}
+			Validate.isTrue(letters.length()>0, "hyphenation pattern without letters <%s>", pattern);
+			BuildNode node = root;
+			for(int i=0; i<letters.length(); i++){
+				BuildNode child = node.children.get(letters.charAt(i));
+				if(child==null){
+					child = new BuildNode();
+					node.children.put(letters.charAt(i), child);
+					nodes++;
+				}
+				node = child;
+			}
+			if(node.value==null){
+				digits += letters.length() + 1;
+			}
+			node.value = Arrays.copyOf(value, letters.length() + 1);
+		}
+
+		this.labels = new char[nodes];
+		this.childStart = new int[nodes + 1];
+		this.valueStart = new int[nodes];
+		this.values = new byte[digits];
+		ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+		queue.add(root);
+		int index = 0;
+		int next = 1;
+		int digit = 0;
+		while(!queue.isEmpty()){
+			BuildNode node = queue.poll();
+			this.childStart[index] = next;
+			if(node.value==null){
+				this.valueStart[index] = -1;
+			}
+			else{
+				this.valueStart[index] = digit;
+				System.arraycopy(node.value, 0, this.values, digit, node.value.length);
+				digit += node.value.length;
+			}
+			for(Map.Entry<Character, BuildNode> child : node.children.entrySet()){
+				this.labels[next++] = child.getKey();
+				queue.add(child.getValue());
+			}
+			index++;
+		}
+		this.childStart[nodes] = next;
+
+		this.exceptions = new HashMap<>();
+		for(String exception : exceptions){
+			StringBuilder word = new StringBuilder(exception.length());
+			int[] points = new int[exception.length()];
+			int count = 0;
+			for(int i=0; i<exception.length(); i++){
+				char c = exception.charAt(i);
+				if(c==HYPHEN){
+					points[count++] = word.length();
+				}
+				else{
+					word.append(Character.toLowerCase(c));
+				}
+			}
+			this.exceptions.put(word.toString(), Arrays.copyOf(points, count));
+		}
+	}
+
+	@Override
+	public int[] getPoints(CharSequence s, int from, int to){
+		int n = to - from;
+		if(n<this.leftMin+this.rightMin){
+			return NONE;
+		}
+
+		//the word in lower case with a dot at start and end
+		char[] word = new char[n + 2];
+		word[0] = '.';
+		word[n+1] = '.';
+		for(int i=0; i<n; i++){
+			word[i+1] = Character.toLowerCase(s.charAt(from + i));
+		}
+		if(!this.exceptions.isEmpty()){
+			int[] points = this.exceptions.get(new String(word, 1, n));
+			if(points!=null){
+				int[] ret = new int[points.length];
+				for(int i=0; i<points.length; i++){
+					ret[i] = from + points[i];
+				}
+				return ret;
+			}
+		}
+
+		//highest digit of all patterns matching at each position
+		byte[] digits = new byte[n + 3];
+		for(int i=0; i<n+2; i++){
+			int node = 0;
+			for(int j=i; j<n+2; j++){
+				node = this.child(node, word[j]);
+				if(node<0){
+					break;
+				}
+				int v = this.valueStart[node];
+				if(v>=0){
+					for(int k=0; k<=j-i+1; k++){
+						if(this.values[v+k]>digits[i+k]){
+							digits[i+k] = this.values[v+k];
+						}
+					}
+				}
+			}
+		}
+
+		int count = 0;
+		for(int m=this.leftMin; m<=n-this.rightMin; m++){
+			if((digits[m+1] & 1)==1){
+				count++;
+			}
+		}
+		if(count==0){
+			return NONE;
+		}
+		int[] ret = new int[count];
+		count = 0;
+		for(int m=this.leftMin; m<=n-this.rightMin; m++){
+			if((digits[m+1] & 1)==1){
+				ret[count++] = from + m;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the child of a node for a character.
+	 * @param node the node
+	 * @param c the character
+	 * @return index of the child, -1 if the node has no child for the character
+	 */
+	private int child(int node, char c){
+		int low = this.childStart[node];
+		int high = this.childStart[node+1] - 1;
+		while(low<=high){
+			int mid = (low + high) >>> 1;
+			char label = this.labels[mid];
+			if(label<c){
+				low = mid + 1;
+			}
+			else if(label>c){
+				high = mid - 1;
+			}
+			else{
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * A node of the temporary trie used to build the arrays.
+	 */
+	private static final class BuildNode {
+
+		/** Children by character, sorted. */
+		final TreeMap<Character, BuildNode> children = new TreeMap<>();
+
+		/** Digits of the pattern ending in this node, null if none. */
+		byte[] value;
+	}
+}
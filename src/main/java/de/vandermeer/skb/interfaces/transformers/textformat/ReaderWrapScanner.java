@@ -0,0 +1,173 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * A wrap scanner reading text from a reader, used for streaming {@link Text_To_FormattedText}.
+ * 
+ * The text is read in chunks into a window, which is filled when the scanner looks ahead and cleared of scanned text at the start of lines.
+ * The window does not grow beyond one line (one window of lines for optimal line breaking) plus one read buffer, independent of the length of the text.
+ * 
+ * While reading, excessive white spaces are removed the same way as {@link String_To_NoWs} does (every sequence of white space characters becomes a single space).
+ * A number of characters at the start of the normalized text can be skipped, for instance for a dropped capital letter.
+ * 
+ * Read errors are thrown as {@link UncheckedIOException}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class ReaderWrapScanner extends WrapScanner {
+
+	/** Size of the read buffer, also the minimum number of scanned characters before the window is cleared. */
+	static final int BUFFER_SIZE = 4096;
+
+	/** The reader to read text from. */
+	private final Reader reader;
+
+	/** The window holding the normalized text. */
+	private final StringBuilder window;
+
+	/** Buffer for reading. */
+	private final char[] buffer;
+
+	/** Number of normalized characters still to skip. */
+	private int skip;
+
+	/** Flag for the last read character being white space. */
+	private boolean whitespace;
+
+	/** Flag for non-blank text being read. */
+	private boolean hasText;
+
+	/** Flag for the end of the reader. */
+	private boolean eof;
+
+	/**
+	 * Creates a new scanner.
+	 * @param reader the reader to read text from, must not be null
+	 * @param skip number of characters to skip at the start of the normalized text
+	 * @param optimal true for optimal line breaking, false for greedy line breaking
+	 * @param hyphenator hyphenator for words at the end of greedy lines, null for no hyphenation
+	 * @param scratch scratch memory for the arrays of optimal line breaking, null to use memory of the scanner
+	 */
+	ReaderWrapScanner(Reader reader, int skip, boolean optimal, Hyphenator hyphenator, FormatScratch scratch){
+		this(reader, skip, optimal, hyphenator, scratch, BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new scanner with a smaller read buffer, for text of which only the first lines are wrapped.
+	 * @param reader the reader to read text from, must not be null
+	 * @param skip number of characters to skip at the start of the normalized text
+	 * @param optimal true for optimal line breaking, false for greedy line breaking
+	 * @param hyphenator hyphenator for words at the end of greedy lines, null for no hyphenation
+	 * @param scratch scratch memory for the arrays of optimal line breaking, null to use memory of the scanner
+	 * @param bufferSize size of the read buffer, at most {@link #BUFFER_SIZE}
+	 */
+	ReaderWrapScanner(Reader reader, int skip, boolean optimal, Hyphenator hyphenator, FormatScratch scratch, int bufferSize){
+		this(reader, skip, optimal, hyphenator, scratch, new StringBuilder(bufferSize), new char[bufferSize]);
+	}
+
+	/**
+	 * Creates a new scanner.
+	 * @param reader the reader to read text from, must not be null
+	 * @param skip number of characters to skip at the start of the normalized text
+	 * @param optimal true for optimal line breaking, false for greedy line breaking
+	 * @param hyphenator hyphenator for words at the end of greedy lines, null for no hyphenation
+	 * @param scratch scratch memory for the arrays of optimal line breaking, null to use memory of the scanner
+	 * @param window the window for the normalized text
+	 * @param buffer the read buffer
+	 */
+	private ReaderWrapScanner(Reader reader, int skip, boolean optimal, Hyphenator hyphenator, FormatScratch scratch, StringBuilder window, char[] buffer){
+		super(window, optimal, hyphenator, scratch);
+		this.reader = reader;
+		this.window = window;
+		this.buffer = buffer;
+		this.skip = skip;
+	}
+
+	/**
+	 * Tests if the text is blank, reading until the first non-blank character or the end of the reader.
+	 * @return true if the text is blank, false otherwise
+	 */
+	boolean isBlank(){
+		while(!this.hasText && !this.eof){
+			this.read();
+		}
+		return !this.hasText;
+	}
+
+	@Override
+	void fill(int to){
+		while(this.length<to && !this.eof){
+			this.read();
+		}
+	}
+
+	@Override
+	int discard(int from){
+		if(from<BUFFER_SIZE){
+			return 0;
+		}
+		this.window.delete(0, from);
+		this.length = this.window.length();
+		return from;
+	}
+
+	/**
+	 * Reads the next chunk from the reader and adds the normalized characters to the window.
+	 */
+	private void read(){
+		int n;
+		try{
+			n = this.reader.read(this.buffer);
+		}
+		catch(IOException ex){
+			throw new UncheckedIOException(ex);
+		}
+		if(n<0){
+			this.eof = true;
+			return;
+		}
+
+		for(int i=0; i<n; i++){
+			char c = this.buffer[i];
+			if(!Character.isWhitespace(c)){
+				this.hasText = true;
+			}
+			if(String_To_NoWs.isWhitespace(c)){
+				if(this.whitespace){
+					continue;
+				}
+				this.whitespace = true;
+				c = ' ';
+			}
+			else{
+				this.whitespace = false;
+			}
+			if(this.skip>0){
+				this.skip--;
+				continue;
+			}
+			this.window.append(c);
+		}
+		this.length = this.window.length();
+	}
+}
@@ -0,0 +1,265 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.text.StrBuilder;
+
+import de.vandermeer.skb.interfaces.transformers.String_To_ConditionalBreak;
+
+/**
+ * Incremental formatted text on a compiled layout plan, keeping the break positions of the bottom lines.
+ * 
+ * For every bottom line the start in the wrapped text and the index up to which wrapping read the text are kept.
+ * A line that read only text before the first changed character is unchanged.
+ * A line that starts in the unchanged end of the text at the same position (relative to the end) as an old line is the same as that old line, and so are all following lines.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class ReflowFormattedText implements IncrementalFormattedText {
+
+	/** The layout plan. */
+	private FormattedTextPlan plan;
+
+	/** The current text. */
+	private String text;
+
+	/** The current wrapped text (see {@link FormattedTextPlan#normalize(String)}), null if the text was formatted as a whole. */
+	private String wrapped;
+
+	/** The formatted lines, top lines first. */
+	private List<String> lines;
+
+	/** Number of top lines. */
+	private int topCount;
+
+	/** Index up to which wrapping of the top lines read the wrapped text (exclusive). */
+	private int topRead;
+
+	/** Start of the bottom lines in the wrapped text, -1 if the text ends in the top lines. */
+	private int bottomStart;
+
+	/** Number of bottom lines with break positions. */
+	private int bottomCount;
+
+	/** Start of bottom lines in the wrapped text, before leading spaces are skipped. */
+	private int[] starts;
+
+	/** Index up to which wrapping of bottom lines read the wrapped text (exclusive). */
+	private int[] reads;
+
+	/** Number of lines wrapped and formatted by the last change. */
+	private int reflowed;
+
+	/**
+	 * Creates new incremental formatted text.
+	 * @param plan the layout plan
+	 * @param text the initial text
+	 */
+	ReflowFormattedText(FormattedTextPlan plan, String text){
+		this.plan = plan;
+		this.starts = new int[16];
+		this.reads = new int[16];
+		this.lines = Collections.emptyList();
+		this.update(text);
+	}
+
+	@Override
+	public String getText(){
+		return this.text;
+	}
+
+	@Override
+	public List<String> getLines(){
+		return this.lines;
+	}
+
+	@Override
+	public int getReflowedLines(){
+		return this.reflowed;
+	}
+
+	@Override
+	public IncrementalFormattedText edit(int start, int end, String replacement){
+		Validate.notNull(replacement);
+		Validate.isTrue(start>=0 && start<=end && end<=this.text.length(), "edit range <%d, %d> not within text of length <%d>", start, end, this.text.length());
+		return this.setText(new StrBuilder(this.text.length() - end + start + replacement.length()).append(this.text, 0, start).append(replacement).append(this.text, end, this.text.length() - end).toString());
+	}
+
+	@Override
+	public IncrementalFormattedText setText(String text){
+		Validate.notNull(text);
+		this.update(text);
+		return this;
+	}
+
+	@Override
+	public IncrementalFormattedText setTextWidth(int textWidth){
+		this.plan = this.plan.withTextWidth(textWidth);
+		this.wrapped = null;
+		this.update(this.text);
+		return this;
+	}
+
+	@Override
+	public Collection<StrBuilder> toCollection(){
+		Collection<StrBuilder> ret = this.plan.getCollectionStrategy().get();
+		for(String line : this.lines){
+			ret.add(new StrBuilder(line));
+		}
+		return ret;
+	}
+
+	/**
+	 * Updates the layout for a new text, reflowing what changed if possible, formatting the whole text otherwise.
+	 * @param newText the new text
+	 */
+	private void update(String newText){
+		String newWrapped = null;
+		if(this.plan.getWrapMode()==Text_To_WrappedFormat.WRAP_GREEDY && this.plan.getHyphenator()==null && this.plan.getMeasureMode()==Text_To_FormattedText.MEASURE_DISPLAY && this.plan.getMaxLines()==0 && !StringUtils.isBlank(newText)){
+			newWrapped = this.plan.normalize(newText);
+			if(StringUtils.isBlank(newWrapped) || String_To_ConditionalBreak.breakScanner(newWrapped).applyAsInt(0)>=0){
+				newWrapped = null;
+			}
+		}
+
+		if(newWrapped==null){
+			this.lines = this.plan.lines(newText);
+			this.reflowed = this.lines.size();
+		}
+		else{
+			this.reflow(newWrapped);
+		}
+		this.text = newText;
+		this.wrapped = newWrapped;
+	}
+
+	/**
+	 * Reflows the lines for a new wrapped text, all lines are wrapped if there is no current wrapped text.
+	 * @param newWrapped the new wrapped text
+	 */
+	private void reflow(String newWrapped){
+		String old = (this.wrapped==null)?"":this.wrapped;
+		int oldTop = this.topCount;
+		int oldCount = (this.wrapped==null)?0:this.bottomCount;
+		int oldLength = old.length();
+		int newLength = newWrapped.length();
+
+		//common prefix and suffix of old and new text, not overlapping
+		int prefix = 0;
+		int max = Math.min(oldLength, newLength);
+		while(prefix<max && old.charAt(prefix)==newWrapped.charAt(prefix)){
+			prefix++;
+		}
+		int suffix = 0;
+		while(suffix<max-prefix && old.charAt(oldLength-suffix-1)==newWrapped.charAt(newLength-suffix-1)){
+			suffix++;
+		}
+		if(this.wrapped==null){
+			prefix = 0;
+			suffix = 0;
+		}
+
+		WrapScanner scanner = new WrapScanner(newWrapped);
+		ArrayList<String> ret = new ArrayList<>(this.lines.size() + 4);
+		int count = 0;
+		int restart = 0;
+		int offset;
+		if(this.wrapped!=null && this.topRead<=prefix){
+			//top lines read only unchanged text, keep them and all bottom lines that did the same
+			ret.addAll(this.lines.subList(0, oldTop));
+			while(restart<oldCount && this.reads[restart]<=prefix){
+				restart++;
+			}
+			ret.addAll(this.lines.subList(oldTop, oldTop + restart));
+			offset = (restart<oldCount)?this.starts[restart]:this.bottomStart;
+		}
+		else{
+			ArrayList<String> top = new ArrayList<>(this.plan.getExpectedTopLines());
+			int read = 0;
+			offset = 0;
+			for(int i=0; i<this.plan.getTopLines() && offset>=0; i++){
+				offset = scanner.greedyLine(offset, this.plan.getTopWidth(), i==0, top::add);
+				read = Math.max(read, scanner.getScanEnd());
+			}
+			Validate.isTrue(top.size()==this.plan.getExpectedTopLines());
+			for(int i=0; i<top.size(); i++){
+				ret.add(this.plan.formatTop(top.get(i), i).toString());
+			}
+			count = top.size();
+			this.topCount = top.size();
+			this.topRead = read;
+			this.bottomStart = offset;
+		}
+
+		int[] newStarts = (restart>0)?Arrays.copyOf(this.starts, Math.max(this.starts.length, restart + 16)):new int[Math.max(16, oldCount + 16)];
+		int[] newReads = (restart>0)?Arrays.copyOf(this.reads, newStarts.length):new int[newStarts.length];
+		int delta = newLength - oldLength;
+		int line = restart;
+		String[] wrappedLine = new String[1];
+		while(offset>=0){
+			if(line>0 && offset>=newLength-suffix){
+				//converged if an old line (not the first) started at the same position of the unchanged end
+				int m = (oldCount>1)?Arrays.binarySearch(this.starts, 1, oldCount, offset - delta):-1;
+				if(m>0 && this.starts[m]>=oldLength-suffix){
+					int keep = oldCount - m;
+					if(newStarts.length<line+keep){
+						newStarts = Arrays.copyOf(newStarts, line + keep);
+						newReads = Arrays.copyOf(newReads, line + keep);
+					}
+					for(int i=0; i<keep; i++){
+						newStarts[line+i] = this.starts[m+i] + delta;
+						newReads[line+i] = this.reads[m+i] + delta;
+					}
+					ret.addAll(this.lines.subList(oldTop + m, this.lines.size()));
+					line += keep;
+					break;
+				}
+			}
+
+			wrappedLine[0] = null;
+			int next = scanner.greedyLine(offset, this.plan.getBottomWidth(), line==0, l -> wrappedLine[0] = l);
+			if(wrappedLine[0]==null){
+				break;
+			}
+			if(line==newStarts.length){
+				newStarts = Arrays.copyOf(newStarts, line * 2);
+				newReads = Arrays.copyOf(newReads, line * 2);
+			}
+			newStarts[line] = offset;
+			newReads[line] = scanner.getScanEnd();
+			ret.add(this.plan.formatBottom(wrappedLine[0], next<0).toString());
+			line++;
+			count++;
+			offset = next;
+		}
+
+		this.starts = newStarts;
+		this.reads = newReads;
+		this.bottomCount = line;
+		this.lines = Collections.unmodifiableList(ret);
+		this.reflowed = count;
+	}
+}
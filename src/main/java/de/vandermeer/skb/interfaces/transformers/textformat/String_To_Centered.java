@@ -15,7 +15,6 @@
 
 package de.vandermeer.skb.interfaces.transformers.textformat;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.text.StrBuilder;
 
@@ -24,6 +23,7 @@ import de.vandermeer.skb.interfaces.transformers.IsTransformer;
 /**
  * Converts a string to a centered string of given length.
  * If the given string length is less than the required length, padding characters will be added to the right and to the left.
+ * Length is measured as display width, so wide characters count two columns and combining characters none.
  * By default, the returned string will be of the required length, blank strings will have only left padding characters.
  * 
  * The method can be further customized by
@@ -100,35 +100,7 @@ public interface String_To_Centered extends IsTransformer<String, StrBuilder> {
 		IsTransformer.super.transform(s);
 		StrBuilder ret = (this.getBuilderForAppend()==null)?new StrBuilder(this.getLength()):this.getBuilderForAppend();
 
-		// set string and replace all inner ws with required character
-		String center = (s==null)?"":s;
-		center = center.replace(' ', this.getInnerWsChar());
-
-		//get a char[] with a centered string, using paddingLedft in left and right side
-		char[] car = StringUtils.center(center, this.getLength()).toCharArray();
-
-		//change all right padding chars to the actual right padding char
-		for(int i = car.length-1; i>0; i--){
-			if(car[i]==' '){
-				car[i] = this.getRightPaddingChar();
-			}
-			else{
-				break;
-			}
-		}
-
-		//change all remaining tmp padding chars to the actual left padding char
-		for(int i = 0; i<car.length; i++){
-			if(car[i]==' '){
-				car[i] = this.getLeftPaddingChar();
-			}
-			else{
-				break;
-			}
-		}
-
-		//add this new string to the render object
-		ret.append(car);
+		TextPadding.centered(ret, (s==null)?"":s, this.getLength(), this.getInnerWsChar(), this.getLeftPaddingChar(), this.getRightPaddingChar());
 		return ret;
 	}
 
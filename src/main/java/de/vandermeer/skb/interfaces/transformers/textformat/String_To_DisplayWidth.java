@@ -0,0 +1,186 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import de.vandermeer.skb.interfaces.transformers.IsTransformer;
+
+/**
+ * Converts a string to its display width, the number of columns the string occupies in a console.
+ * 
+ * Wide and full width characters (for instance CJK ideographs, Hangul, full width forms, wide emoji) have width 2,
+ * combining marks, format characters, and the zero width space have width 0, all other characters have width 1.
+ * Surrogate pairs are measured as a single code point.
+ * Pure ASCII input is detected and measured by its length, without any table lookup.
+ * 
+ * The static methods of this interface are used by all padding and wrapping transformers of this package to count columns rather than characters.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public interface String_To_DisplayWidth extends IsTransformer<String, Integer> {
+
+	@Override
+	default Integer transform(String s) {
+		IsTransformer.super.transform(s);
+		return width(s);
+	}
+
+	/**
+	 * Creates a transformer that converts a string to its display width.
+	 * @return new transformer
+	 */
+	static String_To_DisplayWidth create(){
+		return new String_To_DisplayWidth() {};
+	}
+
+	/**
+	 * Returns the display width of a string.
+	 * @param s input string
+	 * @return display width
+	 */
+	static int convert(String s){
+		return String_To_DisplayWidth.create().transform(s);
+	}
+
+	/**
+	 * Returns the display width of a code point.
+	 * @param codePoint the code point
+	 * @return 0 for combining and zero width characters, 2 for wide and full width characters, 1 otherwise
+	 */
+	static int width(int codePoint){
+		return UnicodeTables.width(codePoint);
+	}
+
+	/**
+	 * Returns the display width of a character sequence.
+	 * @param s input sequence, must not be null
+	 * @return display width
+	 */
+	static int width(CharSequence s){
+		return width(s, 0, s.length());
+	}
+
+	/**
+	 * Returns the display width of a range of a character sequence.
+	 * @param s input sequence, must not be null
+	 * @param from first index (inclusive)
+	 * @param to last index (exclusive)
+	 * @return display width
+	 */
+	static int width(CharSequence s, int from, int to){
+		int i = from;
+		while(i<to && s.charAt(i)<0x80){
+			i++;
+		}
+		int ret = i - from;
+		while(i<to){
+			char c = s.charAt(i);
+			if(c<0x80){
+				ret++;
+				i++;
+			}
+			else{
+				int cp = codePointAt(s, i, to);
+				ret += UnicodeTables.width(cp);
+				i += Character.charCount(cp);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Tests if a range of a character sequence contains only ASCII characters, in which case width and length are the same.
+	 * @param s input sequence, must not be null
+	 * @param from first index (inclusive)
+	 * @param to last index (exclusive)
+	 * @return true if all characters in the range are ASCII characters, false otherwise
+	 */
+	static boolean isAscii(CharSequence s, int from, int to){
+		for(int i=from; i<to; i++){
+			if(s.charAt(i)>=0x80){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the end index of the longest range starting at `from` that fits into the given number of columns.
+	 * Ranges never end inside a surrogate pair and include combining characters of the last fitting character.
+	 * @param s input sequence, must not be null
+	 * @param from first index (inclusive)
+	 * @param columns number of columns available
+	 * @return end index (exclusive) of the range
+	 */
+	static int indexOfColumn(CharSequence s, int from, int columns){
+		int cols = 0;
+		int i = from;
+		while(i<s.length()){
+			int cp = codePointAt(s, i, s.length());
+			int w = UnicodeTables.width(cp);
+			if(cols+w>columns){
+				break;
+			}
+			cols += w;
+			i += Character.charCount(cp);
+		}
+		return i;
+	}
+
+	/**
+	 * Returns the start index of the longest range ending at the end of the sequence that fits into the given number of columns.
+	 * Ranges never start inside a surrogate pair or with a combining character separated from its base.
+	 * @param s input sequence, must not be null
+	 * @param columns number of columns available
+	 * @return start index (inclusive) of the range
+	 */
+	static int lastIndexOfColumn(CharSequence s, int columns){
+		int cols = width(s);
+		int i = 0;
+		while(cols>columns && i<s.length()){
+			int cp = codePointAt(s, i, s.length());
+			cols -= UnicodeTables.width(cp);
+			i += Character.charCount(cp);
+			while(i<s.length()){
+				cp = codePointAt(s, i, s.length());
+				if(UnicodeTables.width(cp)!=0){
+					break;
+				}
+				i += Character.charCount(cp);
+			}
+		}
+		return i;
+	}
+
+	/**
+	 * Returns the code point at an index, combining a surrogate pair if it is completely in the range.
+	 * @param s input sequence
+	 * @param index index of the first character
+	 * @param to last index of the range (exclusive)
+	 * @return code point
+	 */
+	static int codePointAt(CharSequence s, int index, int to){
+		char c = s.charAt(index);
+		if(Character.isHighSurrogate(c) && index+1<to){
+			char low = s.charAt(index+1);
+			if(Character.isLowSurrogate(low)){
+				return Character.toCodePoint(c, low);
+			}
+		}
+		return c;
+	}
+}
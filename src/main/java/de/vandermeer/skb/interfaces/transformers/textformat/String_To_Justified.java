@@ -15,7 +15,6 @@
 
 package de.vandermeer.skb.interfaces.transformers.textformat;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.text.StrBuilder;
 
@@ -71,47 +70,32 @@ public interface String_To_Justified extends IsTransformer<String, StrBuilder> {
 		return null;
 	}
 
+	/**
+	 * Transforms a string to a justified string.
+	 * 
+	 * Words are the sequences of non-white space characters of the input, their length is measured as display width (wide characters count two columns, combining characters none).
+	 * The gaps between words are computed arithmetically: every gap gets an equal share of the missing characters,
+	 * the remaining characters are added to the inner gaps from the last gap towards the second gap (never the first gap).
+	 * Words and gaps are then written directly into the target builder, no intermediate strings are created (see {@link TextPadding}).
+	 * Finally the target builder is padded with blanks to the required length.
+	 * 
+	 * If the words are longer than the required length, they are written without gaps.
+	 * Blank input results in blanks only.
+	 * 
+	 * @param s input string
+	 * @return justified string
+	 */
 	@Override
 	default StrBuilder transform(String s) {
 		IsTransformer.super.transform(s);
-		StrBuilder ret = (this.getBuilderForAppend()==null)?new StrBuilder(this.getLength()):this.getBuilderForAppend();
-
-		// set string and replace all inner ws with required character
-		String[] ar = StringUtils.split((s==null)?"":s);
-		int length = 0;
-		for(String str : ar){
-			length += str.length();
+		int length = this.getLength();
+		char innerWsChar = this.getInnerWsChar();
+		StrBuilder ret = this.getBuilderForAppend();
+		if(ret==null){
+			ret = new StrBuilder(length);
 		}
 
-		//first spaces to distributed (even)
-		//do that until all firsts have been consumed
-		int l = ((ar.length-1)==0)?1:(ar.length-1); // null safe dividend
-		int first = ((this.getLength() - length) / l) * (ar.length-1);
-		while(first>0){
-			for(int i=0; i<ar.length-1; i++){
-				if(first!=0){
-					ar[i] += this.getInnerWsChar();
-					first--;
-				}
-			}
-		}
-
-		//second space to distributed (leftovers, as many as there are)
-		//do seconds from the back to front, until all seconds have been consumed
-		//reverse means do not append to the last array element!
-		int second = (this.getLength() - length) % l;
-		while(second>0){
-			for(int i=ar.length-2; i>0; i--){
-				if(second!=0){
-					ar[i] += this.getInnerWsChar();
-					second--;
-				}
-			}
-		}
-		ret.append(StringUtils.join(ar));
-		while(ret.length()<this.getLength()){
-			ret.append(' ');
-		}
+		TextPadding.justified(ret, s, 0, s.length(), length, innerWsChar, 0);
 		return ret;
 	}
 
@@ -23,6 +23,7 @@ import de.vandermeer.skb.interfaces.transformers.IsTransformer;
 /**
  * Converts a string to a left-padded string of given length.
  * If the given string length is less than the required length, padding characters will be added to the left.
+ * Length is measured as display width, so wide characters count two columns and combining characters none.
  * The returned string will be of the required length, blank strings will have only padding characters.
  * 
  * The method can be further customized by
@@ -87,9 +88,7 @@ public interface String_To_LeftPadded extends IsTransformer<String, StrBuilder>
 		IsTransformer.super.transform(s);
 		StrBuilder ret = (this.getBuilderForAppend()==null)?new StrBuilder(this.getLength()):this.getBuilderForAppend();
 
-		String left = (s==null)?"":s;
-		left = left.replace(' ', this.getInnerWsChar());
-		ret.appendFixedWidthPadRight(left, this.getLength(), this.getPaddingChar());
+		TextPadding.left(ret, (s==null)?"":s, this.getLength(), this.getInnerWsChar(), this.getPaddingChar());
 		return ret;
 	}
 
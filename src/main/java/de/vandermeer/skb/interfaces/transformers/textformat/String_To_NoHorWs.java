@@ -35,7 +35,7 @@ public interface String_To_NoHorWs extends IsTransformer<String, String> {
 	@Override
 	default String transform(String s) {
 		IsTransformer.super.transform(s);
-		return s.replaceAll("\\h+", " ");
+		return collapse(s);
 	}
 
 	/**
@@ -54,4 +54,55 @@ public interface String_To_NoHorWs extends IsTransformer<String, String> {
 	static String convert(String s){
 		return String_To_NoHorWs.create().transform(s);
 	}
+
+	/**
+	 * Tests for a horizontal white space character, the characters of the regular expression class `\h`.
+	 * @param c character to test
+	 * @return true for space, tabulator, no-break space, and the Unicode space separators, false otherwise
+	 */
+	static boolean isHorizontalWhitespace(char c){
+		if(c<0x80){
+			return c==' ' || c=='\t';
+		}
+		return c=='\u00A0' || c=='\u1680' || c=='\u180E' || (c>='\u2000' && c<='\u200A') || c=='\u202F' || c=='\u205F' || c=='\u3000';
+	}
+
+	/**
+	 * Returns a string with every sequence of horizontal white space characters replaced by a single space.
+	 * The string is scanned once, no regular expression is used.
+	 * If nothing needs to be replaced (no horizontal white space character other than single spaces), the input instance is returned.
+	 * @param s input string, must not be null
+	 * @return string with excessive horizontal white spaces removed, the input if it had none
+	 */
+	static String collapse(String s){
+		int length = s.length();
+		int i = 0;
+		while(i<length){
+			char c = s.charAt(i);
+			if(isHorizontalWhitespace(c) && (c!=' ' || (i+1<length && isHorizontalWhitespace(s.charAt(i+1))))){
+				break;
+			}
+			i++;
+		}
+		if(i==length){
+			return s;
+		}
+
+		StringBuilder ret = new StringBuilder(length);
+		ret.append(s, 0, i);
+		while(i<length){
+			char c = s.charAt(i);
+			if(isHorizontalWhitespace(c)){
+				ret.append(' ');
+				do{
+					i++;
+				}while(i<length && isHorizontalWhitespace(s.charAt(i)));
+			}
+			else{
+				ret.append(c);
+				i++;
+			}
+		}
+		return ret.toString();
+	}
 }
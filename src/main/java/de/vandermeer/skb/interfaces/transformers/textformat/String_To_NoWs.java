@@ -35,7 +35,7 @@ public interface String_To_NoWs extends IsTransformer<String, String> {
 	@Override
 	default String transform(String s) {
 		IsTransformer.super.transform(s);
-		return s.replaceAll("\\s+", " ");
+		return collapse(s);
 	}
 
 	/**
@@ -54,4 +54,25 @@ public interface String_To_NoWs extends IsTransformer<String, String> {
 	static String convert(String s){
 		return String_To_NoWs.create().transform(s);
 	}
+
+	/**
+	 * Tests for a white space character, the characters of the regular expression class `\s`.
+	 * @param c character to test
+	 * @return true for space, tabulator, line feed, vertical tabulator, form feed, and carriage return, false otherwise
+	 */
+	static boolean isWhitespace(char c){
+		return c==' ' || c=='\t' || c=='\n' || c=='\u000B' || c=='\f' || c=='\r';
+	}
+
+	/**
+	 * Returns a string with every sequence of white space characters replaced by a single space.
+	 * The string is scanned once, no regular expression is used.
+	 * On Java 17 and newer runtimes white space characters are searched with vectorized `String.indexOf` (the artifact is a multi-release JAR).
+	 * If nothing needs to be replaced (no white space character other than single spaces), the input instance is returned.
+	 * @param s input string, must not be null
+	 * @return string with excessive white spaces removed, the input if it had none
+	 */
+	static String collapse(String s){
+		return WhitespaceScan.collapse(s);
+	}
 }
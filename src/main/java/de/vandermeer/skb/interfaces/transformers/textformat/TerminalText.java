@@ -0,0 +1,222 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import de.vandermeer.skb.interfaces.transformers.String_To_ConditionalBreak;
+
+/**
+ * Measures text shown on a terminal, used by {@link Text_To_FormattedText#MEASURE_TERMINAL}.
+ * 
+ * ANSI escape sequences (ECMA-48) have no width on a terminal, they are recognized in place by a single scan of the text (no regular expression is used):
+ * 
+ *     * control sequences: ESC `[`, parameter bytes (0x30 to 0x3F), intermediate bytes (0x21 to 0x2F), and a final byte (0x40 to 0x7E), for instance colors as `ESC[1;31m`
+ *     * operating system commands: ESC `]` up to BEL or ESC `\`, without white space, for instance hyperlinks
+ *     * all other sequences of ESC and one character (0x30 to 0x7E)
+ * 
+ * An ESC that does not start a complete sequence is a sequence of its own, of length 1.
+ * Escape sequences never contain spaces, so wrapping at spaces keeps them attached to their words.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class TerminalText {
+
+	/** The escape character, starting every escape sequence. */
+	static final char ESC = '\u001B';
+
+	/** The bell character, ending an operating system command. */
+	static final char BEL = '\u0007';
+
+	/**
+	 * Utility class, no instances.
+	 */
+	private TerminalText(){}
+
+	/**
+	 * Returns the length of the escape sequence starting at an index.
+	 * @param s input sequence, must not be null
+	 * @param index index to test, must be within the sequence
+	 * @return length of the escape sequence at `index`, 1 for an ESC that does not start a complete sequence, 0 if there is no ESC at `index`
+	 */
+	static int escapeLength(CharSequence s, int index){
+		if(s.charAt(index)!=ESC){
+			return 0;
+		}
+		int length = s.length();
+		if(index+1>=length){
+			return 1;
+		}
+		char c = s.charAt(index+1);
+		if(c=='['){
+			int i = index + 2;
+			while(i<length && s.charAt(i)>=0x30 && s.charAt(i)<=0x3F){
+				i++;
+			}
+			while(i<length && s.charAt(i)>=0x21 && s.charAt(i)<=0x2F){
+				i++;
+			}
+			return (i<length && s.charAt(i)>=0x40 && s.charAt(i)<=0x7E)?i+1-index:1;
+		}
+		if(c==']'){
+			for(int i=index+2; i<length; i++){
+				char d = s.charAt(i);
+				if(d==BEL){
+					return i + 1 - index;
+				}
+				if(d==ESC){
+					return (i+1<length && s.charAt(i+1)=='\\')?i+2-index:1;
+				}
+				if(String_To_NoWs.isWhitespace(d)){
+					return 1;
+				}
+			}
+			return 1;
+		}
+		return (c>=0x30 && c<=0x7E)?2:1;
+	}
+
+	/**
+	 * Tests if a range of a string contains an escape character.
+	 * @param s input string, must not be null
+	 * @param from first index (inclusive)
+	 * @param to last index (exclusive)
+	 * @return true if the range contains an ESC, false otherwise
+	 */
+	static boolean hasEscape(String s, int from, int to){
+		int i = s.indexOf(ESC, from);
+		return i>=0 && i<to;
+	}
+
+	/**
+	 * Returns the width of a range of a character sequence on a terminal, escape sequences count zero columns, all other characters their display width.
+	 * @param s input sequence, must not be null
+	 * @param from first index (inclusive)
+	 * @param to last index (exclusive)
+	 * @return width in columns
+	 */
+	static int width(CharSequence s, int from, int to){
+		int ret = 0;
+		int i = from;
+		while(i<to){
+			char c = s.charAt(i);
+			if(c==ESC){
+				i += Math.min(escapeLength(s, i), to - i);
+			}
+			else if(c<0x80){
+				ret++;
+				i++;
+			}
+			else{
+				int cp = String_To_DisplayWidth.codePointAt(s, i, to);
+				ret += UnicodeTables.width(cp);
+				i += Character.charCount(cp);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the end index of the longest range starting at `from` that fits into the given number of columns on a terminal.
+	 * Escape sequences directly after the last fitting character are part of the range, see {@link String_To_DisplayWidth#indexOfColumn(CharSequence, int, int)}.
+	 * @param s input sequence, must not be null
+	 * @param from first index (inclusive)
+	 * @param columns number of columns available
+	 * @return end index (exclusive) of the range
+	 */
+	static int indexOfColumn(CharSequence s, int from, int columns){
+		int cols = 0;
+		int i = from;
+		while(i<s.length()){
+			if(s.charAt(i)==ESC){
+				i += escapeLength(s, i);
+				continue;
+			}
+			int cp = String_To_DisplayWidth.codePointAt(s, i, s.length());
+			int w = UnicodeTables.width(cp);
+			if(cols+w>columns){
+				break;
+			}
+			cols += w;
+			i += Character.charCount(cp);
+		}
+		return i;
+	}
+
+	/**
+	 * Returns a string with white space collapsed and tabulators expanded to tab stops.
+	 * 
+	 * Every sequence of white space characters without a tabulator is replaced by a single space, as in {@link String_To_NoWs#collapse(String)}.
+	 * A sequence with a tabulator is replaced by spaces up to the next tab stop, at least one.
+	 * Columns are counted in the returned string from its start or the last &lt;br&gt; line break (CR and LF are white space), escape sequences count zero columns.
+	 * The string is scanned once, a string without tabulators is collapsed with {@link String_To_NoWs#collapse(String)}.
+	 * 
+	 * @param s input string, must not be null
+	 * @param tabSize distance of tab stops, must be larger than 0
+	 * @return string with white space collapsed and tabulators expanded
+	 */
+	static String normalize(String s, int tabSize){
+		if(s.indexOf('\t')<0){
+			return String_To_NoWs.collapse(s);
+		}
+
+		int length = s.length();
+		StringBuilder ret = new StringBuilder(length + (length >> 3) + tabSize);
+		int column = 0;
+		int copied = 0;
+		int i = 0;
+		while(i<length){
+			char c = s.charAt(i);
+			if(c==' ' && (i+1==length || !String_To_NoWs.isWhitespace(s.charAt(i+1)))){
+				//single space, copied with the text
+				column++;
+				i++;
+			}
+			else if(String_To_NoWs.isWhitespace(c)){
+				ret.append(s, copied, i);
+				boolean tab = false;
+				while(i<length && String_To_NoWs.isWhitespace(s.charAt(i))){
+					tab |= (s.charAt(i)=='\t');
+					i++;
+				}
+				int spaces = (tab)?tabSize - column % tabSize:1;
+				for(int k=0; k<spaces; k++){
+					ret.append(' ');
+				}
+				column += spaces;
+				copied = i;
+			}
+			else if(c==ESC){
+				i += escapeLength(s, i);
+			}
+			else if(c=='<' && String_To_ConditionalBreak.breakLength(s, i)>0){
+				i += String_To_ConditionalBreak.breakLength(s, i);
+				column = 0;
+			}
+			else if(c<0x80){
+				column++;
+				i++;
+			}
+			else{
+				int cp = String_To_DisplayWidth.codePointAt(s, i, length);
+				column += UnicodeTables.width(cp);
+				i += Character.charCount(cp);
+			}
+		}
+		ret.append(s, copied, length);
+		return ret.toString();
+	}
+}
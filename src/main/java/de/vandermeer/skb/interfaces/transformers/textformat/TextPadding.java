@@ -0,0 +1,408 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.text.StrBuilder;
+
+/**
+ * The padding engine of {@link String_To_LeftPadded}, {@link String_To_RightPadded}, {@link String_To_Centered}, and {@link String_To_Justified}.
+ * 
+ * Text, inner white space replacement, and left and right padding are written directly into a target (a builder or a character array) in a single pass,
+ * no intermediate strings or character arrays are created.
+ * Padding is appended in bulk from cached runs of padding characters (for printable ASCII padding characters).
+ * Length and truncation are computed by display width for text with non-ASCII characters, see {@link String_To_DisplayWidth}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class TextPadding {
+
+	/** Length of cached padding runs. */
+	static final int RUN_LENGTH = 80;
+
+	/** Cached padding runs for printable ASCII characters, null for other characters. */
+	private static final char[][] RUNS = new char[0x7F][];
+
+	static{
+		for(char c=' '; c<RUNS.length; c++){
+			RUNS[c] = new char[RUN_LENGTH];
+			Arrays.fill(RUNS[c], c);
+		}
+	}
+
+	/**
+	 * Utility class, no instances.
+	 */
+	private TextPadding(){}
+
+	/**
+	 * Appends padding characters to a builder, in bulk from a cached run for printable ASCII characters.
+	 * @param target the builder to append to
+	 * @param count number of padding characters, nothing is appended if less than 1
+	 * @param c the padding character
+	 */
+	static void appendPadding(StrBuilder target, int count, char c){
+		if(count<=0){
+			return;
+		}
+		char[] run = (c<RUNS.length)?RUNS[c]:null;
+		if(run==null){
+			target.appendPadding(count, c);
+			return;
+		}
+		target.ensureCapacity(target.length() + count);
+		while(count>0){
+			int n = Math.min(count, RUN_LENGTH);
+			target.append(run, 0, n);
+			count -= n;
+		}
+	}
+
+	/**
+	 * Appends left padding, a range of text with spaces replaced, and right padding to a builder.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param from first index of the text range (inclusive)
+	 * @param to last index of the text range (exclusive)
+	 * @param innerWsChar replacement for spaces in the text
+	 * @param left number of left padding characters
+	 * @param leftChar left padding character
+	 * @param right number of right padding characters
+	 * @param rightChar right padding character
+	 */
+	static void pad(StrBuilder target, String s, int from, int to, char innerWsChar, int left, char leftChar, int right, char rightChar){
+		target.ensureCapacity(target.length() + Math.max(left, 0) + (to - from) + Math.max(right, 0));
+		appendPadding(target, left, leftChar);
+		int start = target.length();
+		target.append(s, from, to - from);
+		if(innerWsChar!=' '){
+			//replace spaces in place, the text was appended in bulk
+			for(int i=from; i<to; i++){
+				if(s.charAt(i)==' '){
+					target.setCharAt(start + i - from, innerWsChar);
+				}
+			}
+		}
+		appendPadding(target, right, rightChar);
+	}
+
+	/**
+	 * Writes left padding, a range of text with spaces replaced, and right padding into a character array.
+	 * @param target the array to write to, must have room for all characters
+	 * @param offset index of the array to start writing at
+	 * @param s the text
+	 * @param from first index of the text range (inclusive)
+	 * @param to last index of the text range (exclusive)
+	 * @param innerWsChar replacement for spaces in the text
+	 * @param left number of left padding characters
+	 * @param leftChar left padding character
+	 * @param right number of right padding characters
+	 * @param rightChar right padding character
+	 * @return index of the array after the last written character
+	 */
+	static int pad(char[] target, int offset, String s, int from, int to, char innerWsChar, int left, char leftChar, int right, char rightChar){
+		if(left>0){
+			Arrays.fill(target, offset, offset + left, leftChar);
+			offset += left;
+		}
+		s.getChars(from, to, target, offset);
+		if(innerWsChar!=' '){
+			for(int i=offset; i<offset+to-from; i++){
+				if(target[i]==' '){
+					target[i] = innerWsChar;
+				}
+			}
+		}
+		offset += to - from;
+		if(right>0){
+			Arrays.fill(target, offset, offset + right, rightChar);
+			offset += right;
+		}
+		return offset;
+	}
+
+	/**
+	 * Appends a left aligned text, padded on the right or truncated at the end to a length.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param length the length (display width) to pad to
+	 * @param innerWsChar replacement for spaces in the text
+	 * @param paddingChar the padding character
+	 */
+	static void left(StrBuilder target, String s, int length, char innerWsChar, char paddingChar){
+		left(target, s, 0, s.length(), length, innerWsChar, paddingChar);
+	}
+
+	/**
+	 * Appends a range of text left aligned, padded on the right or truncated at the end to a length.
+	 * Only text with non-ASCII characters is copied out of the range.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param from first index of the text range (inclusive)
+	 * @param to last index of the text range (exclusive)
+	 * @param length the length (display width) to pad to
+	 * @param innerWsChar replacement for spaces in the text
+	 * @param paddingChar the padding character
+	 */
+	static void left(StrBuilder target, String s, int from, int to, int length, char innerWsChar, char paddingChar){
+		if(isAscii(s, from, to, innerWsChar)){
+			int end = Math.min(to, from + length);
+			pad(target, s, from, end, innerWsChar, 0, ' ', length - end + from, paddingChar);
+			return;
+		}
+		s = s.substring(from, to);
+		if(!isNarrow(innerWsChar)){
+			s = s.replace(' ', innerWsChar);
+			innerWsChar = ' ';
+		}
+		int end = String_To_DisplayWidth.indexOfColumn(s, 0, length);
+		pad(target, s, 0, end, innerWsChar, 0, ' ', length - String_To_DisplayWidth.width(s, 0, end), paddingChar);
+	}
+
+	/**
+	 * Appends a right aligned text, padded on the left or truncated at the start to a length.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param length the length (display width) to pad to
+	 * @param innerWsChar replacement for spaces in the text
+	 * @param paddingChar the padding character
+	 */
+	static void right(StrBuilder target, String s, int length, char innerWsChar, char paddingChar){
+		right(target, s, 0, s.length(), length, innerWsChar, paddingChar);
+	}
+
+	/**
+	 * Appends a range of text right aligned, padded on the left or truncated at the start to a length.
+	 * Only text with non-ASCII characters is copied out of the range.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param from first index of the text range (inclusive)
+	 * @param to last index of the text range (exclusive)
+	 * @param length the length (display width) to pad to
+	 * @param innerWsChar replacement for spaces in the text
+	 * @param paddingChar the padding character
+	 */
+	static void right(StrBuilder target, String s, int from, int to, int length, char innerWsChar, char paddingChar){
+		if(isAscii(s, from, to, innerWsChar)){
+			int start = Math.max(to - length, from);
+			pad(target, s, start, to, innerWsChar, length - to + start, paddingChar, 0, ' ');
+			return;
+		}
+		s = s.substring(from, to);
+		if(!isNarrow(innerWsChar)){
+			s = s.replace(' ', innerWsChar);
+			innerWsChar = ' ';
+		}
+		int start = String_To_DisplayWidth.lastIndexOfColumn(s, length);
+		pad(target, s, start, s.length(), innerWsChar, length - String_To_DisplayWidth.width(s, start, s.length()), paddingChar, 0, ' ');
+	}
+
+	/**
+	 * Appends a centered text, padded on both sides to a length, never truncated.
+	 * The left side gets half of the padding (rounded down), the right side the rest.
+	 * Spaces at the start and the end of the text (if the inner white space character is a space) are replaced by padding characters as well.
+	 * A text of spaces only results in one left padding character followed by right padding characters, or in left padding characters only if the right padding character is a space.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param length the length (display width) to pad to
+	 * @param innerWsChar replacement for spaces in the text
+	 * @param leftChar the left padding character
+	 * @param rightChar the right padding character
+	 */
+	static void centered(StrBuilder target, String s, int length, char innerWsChar, char leftChar, char rightChar){
+		centered(target, s, 0, s.length(), length, innerWsChar, leftChar, rightChar);
+	}
+
+	/**
+	 * Appends a range of text centered, padded on both sides to a length, never truncated, see {@link #centered(StrBuilder, String, int, char, char, char)}.
+	 * Only text with non-ASCII characters is copied out of the range.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param from first index of the text range (inclusive)
+	 * @param to last index of the text range (exclusive)
+	 * @param length the length (display width) to pad to
+	 * @param innerWsChar replacement for spaces in the text
+	 * @param leftChar the left padding character
+	 * @param rightChar the right padding character
+	 */
+	static void centered(StrBuilder target, String s, int from, int to, int length, char innerWsChar, char leftChar, char rightChar){
+		int pads;
+		if(isAscii(s, from, to, innerWsChar)){
+			pads = Math.max(length - to + from, 0);
+		}
+		else{
+			s = s.substring(from, to);
+			from = 0;
+			to = s.length();
+			if(!isNarrow(innerWsChar)){
+				s = s.replace(' ', innerWsChar);
+				innerWsChar = ' ';
+			}
+			pads = Math.max(length - String_To_DisplayWidth.width(s), 0);
+		}
+
+		//spaces at start and end of the text are padding as well
+		int start = from;
+		int end = to;
+		if(innerWsChar==' '){
+			while(start<end && s.charAt(start)==' '){
+				start++;
+			}
+			while(end>start && s.charAt(end-1)==' '){
+				end--;
+			}
+		}
+
+		if(start==end){
+			int total = pads + to - from;
+			if(total>0){
+				if(rightChar==' '){
+					appendPadding(target, total, leftChar);
+				}
+				else{
+					target.append(leftChar);
+					appendPadding(target, total - 1, rightChar);
+				}
+			}
+			return;
+		}
+		pad(target, s, start, end, innerWsChar, pads / 2 + start - from, leftChar, pads - pads / 2 + to - end, rightChar);
+	}
+
+	/**
+	 * Appends a range of text justified to a length, see {@link String_To_Justified#transform(String)}.
+	 * Characters of the target after the start of the line count towards the length, they are not part of the gaps.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param from first index of the text range (inclusive)
+	 * @param to last index of the text range (exclusive)
+	 * @param length the length (display width) to justify to
+	 * @param innerWsChar replacement for spaces in the gaps between words
+	 * @param lineStart index of the target where the line starts, the line is padded to the length with blanks
+	 */
+	static void justified(StrBuilder target, String s, int from, int to, int length, char innerWsChar, int lineStart){
+		justified(target, s, from, to, length, innerWsChar, lineStart, false);
+	}
+
+	/**
+	 * Appends a range of text justified to a length, see {@link #justified(StrBuilder, String, int, int, int, char, int)}, optionally with escape sequences of no width.
+	 * @param target the builder to append to
+	 * @param s the text
+	 * @param from first index of the text range (inclusive)
+	 * @param to last index of the text range (exclusive)
+	 * @param length the length (display width) to justify to
+	 * @param innerWsChar replacement for spaces in the gaps between words
+	 * @param lineStart index of the target where the line starts, the line is padded to the length with blanks
+	 * @param escapes true if escape sequences (see {@link TerminalText}) are part of words with no width, false otherwise
+	 */
+	static void justified(StrBuilder target, String s, int from, int to, int length, char innerWsChar, int lineStart, boolean escapes){
+		//count words, characters, and columns of words, ASCII characters are one column each
+		int words = 0;
+		int letters = 0;
+		int chars = 0;
+		boolean inWord = false;
+		for(int i=from; i<to; i++){
+			char c = s.charAt(i);
+			if(Character.isWhitespace(c)){
+				inWord = false;
+			}
+			else{
+				if(!inWord){
+					words++;
+					inWord = true;
+				}
+				letters++;
+				if(escapes && c==TerminalText.ESC){
+					int el = Math.min(TerminalText.escapeLength(s, i), to - i);
+					letters += el - 1;
+					i += el - 1;
+				}
+				else if(c<0x80){
+					chars++;
+				}
+				else if(!Character.isLowSurrogate(c) || i==from || !Character.isHighSurrogate(s.charAt(i-1))){
+					chars += String_To_DisplayWidth.width(String_To_DisplayWidth.codePointAt(s, i, to));
+				}
+			}
+		}
+
+		//first spaces distributed evenly to all gaps
+		//second spaces (leftovers) to the gaps from the back, but never the first gap
+		int gaps = words - 1;
+		int first = 0;
+		int second = 0;
+		if(gaps>0){
+			first = Math.max((length - chars) / gaps, 0);
+			second = Math.max((length - chars) % gaps, 0);
+		}
+		int start = target.length();
+		target.ensureCapacity(start + Math.max(length, letters + gaps * first + second));
+
+		//write words and gaps
+		int gap = 0;
+		int columns = chars;
+		int word = -1;
+		for(int i=from; i<=to; i++){
+			if(i==to || Character.isWhitespace(s.charAt(i))){
+				if(word>=0){
+					target.append(s, word, i - word);
+					if(gap<gaps){
+						int pad = (gap<gaps-second)?first:first+1;
+						target.appendPadding(pad, innerWsChar);
+						columns += pad;
+						gap++;
+					}
+					word = -1;
+				}
+			}
+			else if(word<0){
+				word = i;
+			}
+		}
+		target.appendPadding(length - start + lineStart - columns, ' ');
+	}
+
+	/**
+	 * Tests if a text with spaces replaced has only ASCII characters, then length is measured in characters.
+	 * @param s the text
+	 * @param from first index of the text range (inclusive)
+	 * @param to last index of the text range (exclusive)
+	 * @param innerWsChar replacement for spaces in the text
+	 * @return true if the text range with replaced spaces has only ASCII characters, false otherwise
+	 */
+	private static boolean isAscii(String s, int from, int to, char innerWsChar){
+		if(!String_To_DisplayWidth.isAscii(s, from, to)){
+			return false;
+		}
+		if(innerWsChar<0x80){
+			return true;
+		}
+		int space = s.indexOf(' ', from);
+		return space<0 || space>=to;
+	}
+
+	/**
+	 * Tests if a replacement for spaces has the same display width as a space, then widths can be measured on the text without replacement.
+	 * @param innerWsChar replacement for spaces
+	 * @return true if the replacement has a width of 1 column and is not a surrogate, false otherwise
+	 */
+	private static boolean isNarrow(char innerWsChar){
+		return !Character.isSurrogate(innerWsChar) && String_To_DisplayWidth.width(innerWsChar)==1;
+	}
+}
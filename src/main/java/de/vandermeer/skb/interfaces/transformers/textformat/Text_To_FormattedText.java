@@ -15,24 +15,30 @@
 
 package de.vandermeer.skb.interfaces.transformers.textformat;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.text.StrBuilder;
-import org.apache.commons.lang3.tuple.Pair;
 
 import de.vandermeer.skb.interfaces.strategies.IsCollectionStrategy;
 import de.vandermeer.skb.interfaces.strategies.collections.list.ArrayListStrategy;
-import de.vandermeer.skb.interfaces.transformers.ClusterElementTransformer;
 import de.vandermeer.skb.interfaces.transformers.IsTransformer;
-import de.vandermeer.skb.interfaces.transformers.Transformer;
 
 /**
  * Swiss army knife for formatting text, with several options for alignments, formats, inserted characters, and variable width.
  * 
+ * Settings for wrapping, measuring, and limiting lines are set on copies of a transformer,
+ * for instance `create(...).withWrapMode(Text_To_WrappedFormat.WRAP_OPTIMAL).withMaxLines(3)`.
+ * 
  * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
  * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
  * @since      v0.0.1
@@ -75,6 +81,12 @@ public interface Text_To_FormattedText extends IsTransformer<String, Collection<
 	/** Format option for text with a dropped capital letter using a padding. */
 	static int FORMAT_DROPCAP_WITH_PADDING = 121;
 
+	/** Measure option for text measured in display columns, the default. */
+	static int MEASURE_DISPLAY = 1;
+
+	/** Measure option for text shown on a terminal: ANSI escape sequences have no width and stay with their words, tabulators expand to tab stops. */
+	static int MEASURE_TERMINAL = 2;
+
 	/** The default width, set to 80. */
 	static int DEFAULT_TEXT_WIDTH = 80;
 
@@ -99,6 +111,12 @@ public interface Text_To_FormattedText extends IsTransformer<String, Collection<
 	/** Empty lines to be added after the drop cap, set to 1. */
 	static int DEFAULT_LINES_AFTER_DROPCAP = 1;
 
+	/** Default distance of tab stops for terminal text, set to 8. */
+	static int DEFAULT_TAB_SIZE = 8;
+
+	/** Number of paragraphs below which batch formatting stays sequential, set to 64. */
+	static int DEFAULT_BATCH_THRESHOLD = 64;
+
 	/** Default collection strategy for the returned collection, defaults to an array list strategy. */
 	static IsCollectionStrategy<?, StrBuilder> DEFAULT_COLLECTION_STRATEGY = ArrayListStrategy.create();
 
@@ -182,6 +200,61 @@ public interface Text_To_FormattedText extends IsTransformer<String, Collection<
 		return DEFAULT_CHARS_BETWEEN_DROPCAP_AND_TEXT;
 	}
 
+	/**
+	 * Returns the line breaking mode used for wrapping, defaults to {@link Text_To_WrappedFormat#WRAP_GREEDY}.
+	 * @return line breaking mode, one of {@link Text_To_WrappedFormat#WRAP_GREEDY} or {@link Text_To_WrappedFormat#WRAP_OPTIMAL}
+	 */
+	default int getWrapMode(){
+		return Text_To_WrappedFormat.WRAP_GREEDY;
+	}
+
+	/**
+	 * Returns the hyphenator used for wrapping, defaults to null (no hyphenation).
+	 * Hyphenation is used for greedy line breaking only, see {@link Text_To_WrappedFormat#getHyphenator()}.
+	 * @return hyphenator, null for no hyphenation
+	 */
+	default Hyphenator getHyphenator(){
+		return null;
+	}
+
+	/**
+	 * Returns the option for measuring text, defaults to {@link #MEASURE_DISPLAY}.
+	 * With {@link #MEASURE_TERMINAL} ANSI escape sequences (for instance colors) count zero columns and are never split from the text they are attached to,
+	 * and tabulators are expanded to spaces up to the next tab stop (see {@link #getTabSize()}) instead of being collapsed to a single space.
+	 * @return measure option, one of {@link #MEASURE_DISPLAY} or {@link #MEASURE_TERMINAL}
+	 */
+	default int getMeasureMode(){
+		return MEASURE_DISPLAY;
+	}
+
+	/**
+	 * Returns the distance of tab stops for terminal text, defaults to {@link #DEFAULT_TAB_SIZE}.
+	 * The setting is only used with {@link #MEASURE_TERMINAL}.
+	 * @return distance of tab stops in columns
+	 */
+	default int getTabSize(){
+		return DEFAULT_TAB_SIZE;
+	}
+
+	/**
+	 * Returns the maximum number of formatted lines, defaults to 0 (no limit).
+	 * With a limit, wrapping stops once the limit is reached, the cost then depends on the returned lines rather than on the length of the text.
+	 * The returned lines are the first lines of the text formatted without a limit, unless an ellipsis is set (see {@link #getEllipsis()}).
+	 * @return maximum number of lines, 0 for no limit
+	 */
+	default int getMaxLines(){
+		return 0;
+	}
+
+	/**
+	 * Returns the marker that ends the last line if text was left out because of the maximum number of lines, defaults to null (no marker).
+	 * The last line is shortened to make room for the marker if required and aligned as the last line of the text.
+	 * @return ellipsis marker, null for none
+	 */
+	default String getEllipsis(){
+		return null;
+	}
+
 	/**
 	 * Returns the lines added after a dropped capital letter, defaults to {@link #DEFAULT_LINES_AFTER_DROPCAP}.
 	 * @return lines added after a dropped capital letter
@@ -206,187 +279,280 @@ public interface Text_To_FormattedText extends IsTransformer<String, Collection<
 	 */
 	String[] getDropCap();
 
+	/**
+	 * Returns a copy of this transformer with a different line breaking mode, all other settings are copied.
+	 * @param wrapMode the line breaking mode, one of {@link Text_To_WrappedFormat#WRAP_GREEDY} or {@link Text_To_WrappedFormat#WRAP_OPTIMAL}
+	 * @return new transformer
+	 * @see #getWrapMode()
+	 */
+	default Text_To_FormattedText withWrapMode(int wrapMode){
+		return new FormattedTextSettings(this, wrapMode, this.getHyphenator(), this.getMeasureMode(), this.getTabSize(), this.getMaxLines(), this.getEllipsis());
+	}
+
+	/**
+	 * Returns a copy of this transformer with a different hyphenator, all other settings are copied.
+	 * @param hyphenator hyphenator for words at the end of greedy lines, null for no hyphenation
+	 * @return new transformer
+	 * @see #getHyphenator()
+	 */
+	default Text_To_FormattedText withHyphenator(Hyphenator hyphenator){
+		return new FormattedTextSettings(this, this.getWrapMode(), hyphenator, this.getMeasureMode(), this.getTabSize(), this.getMaxLines(), this.getEllipsis());
+	}
+
+	/**
+	 * Returns a copy of this transformer with a different option for measuring text, all other settings are copied.
+	 * @param measureMode the option for measuring text, one of {@link #MEASURE_DISPLAY} or {@link #MEASURE_TERMINAL}
+	 * @return new transformer
+	 * @see #getMeasureMode()
+	 */
+	default Text_To_FormattedText withMeasureMode(int measureMode){
+		return new FormattedTextSettings(this, this.getWrapMode(), this.getHyphenator(), measureMode, this.getTabSize(), this.getMaxLines(), this.getEllipsis());
+	}
+
+	/**
+	 * Returns a copy of this transformer with a different distance of tab stops for terminal text, all other settings are copied.
+	 * @param tabSize distance of tab stops for terminal text, 0 will result in default being used
+	 * @return new transformer
+	 * @see #getTabSize()
+	 */
+	default Text_To_FormattedText withTabSize(int tabSize){
+		return new FormattedTextSettings(this, this.getWrapMode(), this.getHyphenator(), this.getMeasureMode(), tabSize, this.getMaxLines(), this.getEllipsis());
+	}
+
+	/**
+	 * Returns a copy of this transformer with a different maximum number of formatted lines, all other settings are copied.
+	 * @param maxLines maximum number of formatted lines, 0 for no limit
+	 * @return new transformer
+	 * @see #getMaxLines()
+	 */
+	default Text_To_FormattedText withMaxLines(int maxLines){
+		return new FormattedTextSettings(this, this.getWrapMode(), this.getHyphenator(), this.getMeasureMode(), this.getTabSize(), maxLines, this.getEllipsis());
+	}
+
+	/**
+	 * Returns a copy of this transformer with a different marker for the last line if text was left out, all other settings are copied.
+	 * @param ellipsis marker ending the last line if text was left out because of the maximum number of lines, null for none
+	 * @return new transformer
+	 * @see #getEllipsis()
+	 */
+	default Text_To_FormattedText withEllipsis(String ellipsis){
+		return new FormattedTextSettings(this, this.getWrapMode(), this.getHyphenator(), this.getMeasureMode(), this.getTabSize(), this.getMaxLines(), ellipsis);
+	}
+
+	/**
+	 * Compiles the settings of this transformer into an immutable, thread safe layout plan.
+	 * All settings are read and validated once, all transformers required for wrapping and alignment are created once.
+	 * The returned transformer should be used whenever the same settings are applied to many texts, it can be shared by many threads.
+	 * Each thread reuses its own scratch memory for intermediate results, returned lines never refer to it.
+	 * Changes of the settings of this transformer after compilation are not reflected in the plan.
+	 * @return compiled transformer with the same settings and the same results as this transformer
+	 * @throws NullPointerException if a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	default Text_To_FormattedText compile(){
+		return new FormattedTextPlan(this);
+	}
+
+	/**
+	 * Compiles the settings of this transformer into a layout plan (see {@link #compile()}) that looks up formatted text in a cache.
+	 * Text already formatted with the same settings is taken from the cache, other text is formatted and added to the cache.
+	 * Every call returns a new collection with new string builders, cached lines are never exposed for modification.
+	 * @param cache the cache to use, must not be null
+	 * @return compiled transformer with the same settings and the same results as this transformer
+	 * @throws NullPointerException if the cache or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	default Text_To_FormattedText cached(FormattedTextCache cache){
+		Validate.notNull(cache);
+		return new FormattedTextPlan(this, cache);
+	}
+
+	/**
+	 * Formats text with the settings of this transformer, keeping the layout to reflow only affected lines when the text is edited later.
+	 * @param text the initial text, must not be null
+	 * @return incremental formatted text with the same lines as this transformer for every text
+	 * @throws NullPointerException if the text or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 * @see IncrementalFormattedText
+	 */
+	default IncrementalFormattedText incremental(String text){
+		return IncrementalFormattedText.create(this, text);
+	}
+
+	/**
+	 * Analyzes text once for formatting with the settings of this transformer at many widths.
+	 * @param text the text, must not be null
+	 * @return formatted text for many widths, with the same lines as this transformer with the respective text width
+	 * @throws NullPointerException if the text or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 * @see FormattedTextLayouts
+	 */
+	default FormattedTextLayouts layouts(String text){
+		return FormattedTextLayouts.create(this, text);
+	}
+
+	/**
+	 * Transforms text to formatted text.
+	 * All settings are validated for every call, use {@link #compile()} to validate settings only once.
+	 * @param s input text, must not be null
+	 * @return formatted text as a collection of string builders
+	 * @throws NullPointerException if the input or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
 	@Override
 	default Collection<StrBuilder> transform(String s) {
-		//check all settings for being valid, throw exceptions if not
 		IsTransformer.super.transform(s);
-		Validate.validState(ArrayUtils.contains(new int[]{ALIGN_LEFT, ALIGN_RIGHT, ALIGN_CENTER, ALIGN_JUSTIFIED, ALIGN_JUSTIFIED_LEFT, ALIGN_JUSTIFIED_RIGHT}, this.getAlignment()), "unknown alignment <" + this.getAlignment() + ">");
-		Validate.validState(ArrayUtils.contains(new int[]{FORMAT_NONE, FORMAT_HANGING_PARAGRAPH, FORMAT_FIRST_LINE, FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH, FORMAT_DROPCAP, FORMAT_DROPCAP_WITH_PADDING}, this.getFormat()), "unknown format <" + this.getFormat() + ">");
-		Validate.validState(this.getTextWidth()>0, "text width is less than 1, was <" + this.getTextWidth() + ">");
-		Validate.notNull(this.getInnerWsChar());
-		Validate.notNull(this.getLeftPaddingChar());
-		Validate.notNull(this.getRightPaddingChar());
-		Validate.notNull(this.getCollectionStrategy());
-		Validate.validState(this.getHangingIndentation()>0, "hanging paragraph indentation was less than null, setting was <" + this.getHangingIndentation() + ">");
-		Validate.validState(this.getFirstlineIndentation()>0, "first line indentation was less than null, setting was <" + this.getFirstlineIndentation() + ">");
-		Validate.validState(this.getCharsBetweenDroppcapAndText()>0, "characters between dropped capital letter and text lines was less than 1, setting was <" + this.getCharsBetweenDroppcapAndText() + ">");
-		Validate.validState(this.getLinesAfterDropcap()>0, "lines added after a dropped capital letter was less than 1, setting was <" + this.getLinesAfterDropcap() + ">");
-
-		Collection<StrBuilder> ret = this.getCollectionStrategy().get();
-
-		//if nothing is to be done return string with blanks
-		if(StringUtils.isBlank(s)){
-			ret.add(new StrBuilder().appendPadding(this.getTextWidth(), ' '));
-			return ret;
-		}
+		return this.compile().transform(s);
+	}
 
-		if(this.getFormat()==FORMAT_DROPCAP || this.getFormat()==FORMAT_DROPCAP_WITH_PADDING){
-			Validate.notNull(this.getDropCap());
-			Validate.noNullElements(this.getDropCap());
-			int l = 0;
-			for(String ds : this.getDropCap()){
-				if(l!=0){
-					Validate.validState(l==ds.length(), "dropped capital letter has some variations in length in the array, not alowed");
-				}
-				l = ds.length();
-			}
-		}
+	/**
+	 * Transforms text to formatted text in a compact line buffer.
+	 * The lines are the same as the ones returned by {@link #transform(String)}, but stored in a single buffer rather than one string builder per line.
+	 * Use {@link LineBuffer#toCollection(IsCollectionStrategy)} where a collection of string builders is required.
+	 * @param s input text, must not be null
+	 * @return formatted text as a line buffer
+	 * @throws NullPointerException if the input or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	default LineBuffer toLineBuffer(String s){
+		Validate.notNull(s);
+		return this.compile().toLineBuffer(s);
+	}
 
-		//all validated, start the transformation
-		//first remove all excessive whitespaces from the string
-		String text = String_To_NoWs.convert(s);
-
-		//create a string array from the input text according to the format settings
-		Pair<ArrayList<String>, ArrayList<String>> pair = null;
-		int topWidth = 0;
-		int bottomWidth = 0;
-		switch(this.getFormat()){
-			case FORMAT_NONE:
-				topWidth = bottomWidth = this.getTextWidth();
-				pair = Text_To_WrappedFormat.convert(text, topWidth);
-				Validate.isTrue(pair.getLeft().size()==0);
-				break;
-			case FORMAT_HANGING_PARAGRAPH:
-				topWidth = this.getTextWidth();
-				bottomWidth = this.getTextWidth()-this.getHangingIndentation();
-				pair = Text_To_WrappedFormat.convert(text, bottomWidth, Pair.of(1, topWidth));
-				Validate.isTrue(pair.getLeft().size()==1);
-				break;
-			case FORMAT_FIRST_LINE:
-				topWidth = this.getTextWidth()-this.getFirstlineIndentation();
-				bottomWidth = this.getTextWidth();
-				pair = Text_To_WrappedFormat.convert(text, bottomWidth, Pair.of(1, topWidth));
-				Validate.isTrue(pair.getLeft().size()==1);
-				break;
-			case FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH:
-				topWidth = this.getTextWidth()-this.getFirstlineIndentation();
-				bottomWidth = this.getTextWidth()-this.getHangingIndentation();
-				pair = Text_To_WrappedFormat.convert(text, bottomWidth, Pair.of(1, topWidth));
-				Validate.isTrue(pair.getLeft().size()==1);
-				break;
-			case FORMAT_DROPCAP:
-				topWidth = this.getTextWidth()-this.getDropCap()[0].length()-1;
-				bottomWidth = this.getTextWidth();
-				pair = Text_To_WrappedFormat.convert(text.substring(1), bottomWidth, Pair.of(this.getDropCap().length+this.getLinesAfterDropcap(), topWidth));
-				Validate.isTrue(pair.getLeft().size()==this.getDropCap().length+1);
-				break;
-			case FORMAT_DROPCAP_WITH_PADDING:
-				topWidth = this.getTextWidth()-this.getDropCap()[0].length()-this.getCharsBetweenDroppcapAndText();
-				bottomWidth = this.getTextWidth();
-				pair = Text_To_WrappedFormat.convert(text.substring(1), bottomWidth, Pair.of(this.getDropCap().length+this.getLinesAfterDropcap(), topWidth));
-				Validate.isTrue(pair.getLeft().size()==this.getDropCap().length+1);
-		}
+	/**
+	 * Transforms text to formatted text flowed into balanced columns (newspaper style), rows in a compact line buffer.
+	 * 
+	 * The text is wrapped and formatted once, with the text width of this transformer as the width of each column.
+	 * The lines are then distributed to the columns in order, top to bottom and left to right, with column heights computed directly:
+	 * for n lines in c columns the first n mod c columns get one line more than the others, so heights differ by at most one line.
+	 * Each row is the lines of all columns side by side, separated by a gutter of spaces, with blank lines for columns that are shorter.
+	 * Rows are assembled from the formatted lines into the buffer, nothing is formatted again.
+	 * 
+	 * @param s input text, must not be null
+	 * @param columns number of columns, must be larger than 0
+	 * @param gutter number of spaces between columns, must not be negative
+	 * @return rows of the columns as a line buffer
+	 * @throws NullPointerException if the input or a required setting was null
+	 * @throws IllegalArgumentException if the number of columns or the gutter was not valid
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	default LineBuffer toColumns(String s, int columns, int gutter){
+		Validate.notNull(s);
+		return this.compile().toColumns(s, columns, gutter);
+	}
 
-		//we have a pair of wrapped lines (top and bottom), apply alignment
-		Transformer<String, StrBuilder> topTr = null;
-		Transformer<String, StrBuilder> bottomTr = null;
-		switch(this.getAlignment()){
-			case ALIGN_LEFT:
-				topTr = String_To_LeftPadded.create(topWidth, this.getRightPaddingChar(), this.getInnerWsChar(), null);
-				bottomTr = String_To_LeftPadded.create(bottomWidth, this.getRightPaddingChar(), this.getInnerWsChar(), null);
-				break;
-			case ALIGN_RIGHT:
-				topTr = String_To_RightPadded.create(topWidth, this.getLeftPaddingChar(), this.getInnerWsChar(), null);
-				bottomTr = String_To_RightPadded.create(bottomWidth, this.getLeftPaddingChar(), this.getInnerWsChar(), null);
-				break;
-			case ALIGN_CENTER:
-				topTr = String_To_Centered.create(topWidth, this.getLeftPaddingChar(), this.getRightPaddingChar(), this.getInnerWsChar(), null);
-				bottomTr = String_To_Centered.create(bottomWidth, this.getLeftPaddingChar(), this.getRightPaddingChar(), this.getInnerWsChar(), null);
-				break;
-			case ALIGN_JUSTIFIED:
-			case ALIGN_JUSTIFIED_LEFT:
-			case ALIGN_JUSTIFIED_RIGHT:
-				topTr = String_To_Justified.create(topWidth, this.getInnerWsChar(), null);
-				bottomTr = String_To_Justified.create(bottomWidth, this.getInnerWsChar(), null);
-				break;
-		}
+	/**
+	 * Transforms text read from a reader to formatted text written to an appendable, each line followed by the system line separator.
+	 * @param reader the reader for the input text, must not be null
+	 * @param out the appendable to write formatted lines to, must not be null
+	 * @throws IOException if reading or writing failed
+	 * @see #transform(Reader, Appendable, String)
+	 */
+	default void transform(Reader reader, Appendable out) throws IOException {
+		this.transform(reader, out, System.lineSeparator());
+	}
 
-		Collection<StrBuilder> top = ClusterElementTransformer.create().transform(pair.getLeft(), topTr, this.getCollectionStrategy());
-		Collection<StrBuilder> bottom = ClusterElementTransformer.create().transform(pair.getRight(), bottomTr, this.getCollectionStrategy());
+	/**
+	 * Transforms text read from a reader to formatted text written to an appendable.
+	 * 
+	 * The text is processed as a stream: it is read in chunks, wrapped, aligned, and formatted lines are written as soon as they are complete.
+	 * Memory use is bounded by the text width and the read buffer size, not by the length of the text.
+	 * The written lines are the same as the ones returned by {@link #transform(String)} for the whole text, for all alignments and formats.
+	 * Lines written before an error are not revoked.
+	 * 
+	 * @param reader the reader for the input text, must not be null
+	 * @param out the appendable to write formatted lines to, must not be null
+	 * @param lineSeparator string written after each line, must not be null
+	 * @throws IOException if reading or writing failed
+	 * @throws NullPointerException if an argument or a required setting was null
+	 * @throws IllegalStateException if a setting was not valid
+	 */
+	default void transform(Reader reader, Appendable out, String lineSeparator) throws IOException {
+		this.compile().transform(reader, out, lineSeparator);
+	}
 
-		//adjust the last line of we had the special justified alignments
-		if(bottom.size()>0 && (this.getAlignment()==ALIGN_JUSTIFIED_LEFT || this.getAlignment()==ALIGN_JUSTIFIED_RIGHT)){
-			// remove last entry in the collection, we want to replace that one
-			Object[] objAr = bottom.toArray();
-			Object line = objAr[objAr.length-1];
-			bottom.remove(objAr[objAr.length-1]);
+	/**
+	 * Transforms a batch of independent paragraphs in parallel, using the common fork/join pool and the default threshold.
+	 * @param paragraphs the paragraphs to transform, must not be null or have null elements
+	 * @return list of formatted paragraphs in the order of the input
+	 * @see #transformAll(List, Executor, int)
+	 */
+	default List<Collection<StrBuilder>> transformAll(List<String> paragraphs){
+		return this.transformAll(paragraphs, ForkJoinPool.commonPool(), DEFAULT_BATCH_THRESHOLD);
+	}
 
-			//get the string back to a normal string
-			String lineString = line.toString().replaceAll(this.getInnerWsChar().toString(), " ").replaceAll("\\h+", " ");
+	/**
+	 * Transforms a batch of independent paragraphs in parallel, using the common fork/join pool and the default threshold.
+	 * @param paragraphs the paragraphs to transform, must not be null or have null elements
+	 * @return list of formatted paragraphs in the order of the input
+	 * @see #transformAll(List, Executor, int)
+	 */
+	default List<Collection<StrBuilder>> transformAll(String[] paragraphs){
+		Validate.notNull(paragraphs);
+		return this.transformAll(Arrays.asList(paragraphs));
+	}
 
-			// now add a new one with the requested alignment
-			if(this.getAlignment()==ALIGN_JUSTIFIED_LEFT){
-				bottom.add(String_To_LeftPadded.convert(lineString, bottomWidth, this.getRightPaddingChar()));
-			}
-			if(this.getAlignment()==ALIGN_JUSTIFIED_RIGHT){
-				bottom.add(String_To_RightPadded.convert(lineString, bottomWidth, this.getLeftPaddingChar()));
-			}
-		}
+	/**
+	 * Transforms a batch of independent paragraphs in parallel, using the common fork/join pool and the default threshold.
+	 * The stream is collected before the transformation starts.
+	 * @param paragraphs the paragraphs to transform, must not be null or have null elements
+	 * @return list of formatted paragraphs in the order of the input
+	 * @see #transformAll(List, Executor, int)
+	 */
+	default List<Collection<StrBuilder>> transformAll(Stream<String> paragraphs){
+		Validate.notNull(paragraphs);
+		return this.transformAll(paragraphs.collect(Collectors.toList()));
+	}
 
-		//do the format post processing
-		switch(this.getFormat()){
-			case FORMAT_NONE:
-				ret.addAll(top);
-				ret.addAll(bottom);
-				break;
-			case FORMAT_HANGING_PARAGRAPH:
-				ret.addAll(top);
-				for(StrBuilder b : bottom){
-					ret.add(new StrBuilder().appendPadding(this.getHangingIndentation(), this.getLeftPaddingChar()).append(b));
-				}
-				break;
-			case FORMAT_FIRST_LINE:
-				for(StrBuilder t : top){
-					ret.add(new StrBuilder().appendPadding(this.getFirstlineIndentation(), this.getLeftPaddingChar()).append(t));
-				}
-				ret.addAll(bottom);
-				break;
-			case FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH:
-				for(StrBuilder t : top){
-					ret.add(new StrBuilder().appendPadding(this.getFirstlineIndentation(), this.getLeftPaddingChar()).append(t));
-				}
-				for(StrBuilder b : bottom){
-					ret.add(new StrBuilder().appendPadding(this.getHangingIndentation(), this.getLeftPaddingChar()).append(b));
-				}
-				break;
-			case FORMAT_DROPCAP:
-				int count = 0;
-				for(StrBuilder t : top){
-					if(count<this.getDropCap().length){
-						ret.add(new StrBuilder().append(this.getDropCap()[count]).append(' ').append(t));
-					}
-					else{
-						ret.add(new StrBuilder().appendPadding(this.getDropCap()[0].length(), ' ').append(' ').append(t));
-					}
-					count++;
-				}
-				ret.addAll(bottom);
-				break;
-			case FORMAT_DROPCAP_WITH_PADDING:
-				count = 0;
-				for(StrBuilder t : top){
-					if(count<this.getDropCap().length){
-						ret.add(new StrBuilder().append(this.getDropCap()[count]).appendPadding(this.getCharsBetweenDroppcapAndText(), ' ').append(t));
-					}
-					else{
-						ret.add(new StrBuilder().appendPadding(this.getDropCap()[0].length(), ' ').appendPadding(this.getCharsBetweenDroppcapAndText(), ' ').append(t));
-					}
-					count++;
-				}
-				ret.addAll(bottom);
-		}
+	/**
+	 * Transforms a batch of independent paragraphs in parallel.
+	 * 
+	 * The settings are compiled once (see {@link #compile()}) and shared by all tasks.
+	 * The paragraphs are split into contiguous chunks of at least `threshold` paragraphs, the calling thread formats the first chunk itself.
+	 * Each result is stored at the index of its paragraph, so the returned list is in the order of the input independent of the execution order.
+	 * If there are fewer paragraphs than `threshold` (or only one chunk), all paragraphs are formatted sequentially in the calling thread.
+	 * If a paragraph fails or a chunk cannot be submitted, all chunks stop at their next paragraph and the exception or error is thrown as it is once no chunk is running.
+	 * 
+	 * The collection strategy must return a new collection for every call, otherwise the results are not independent.
+	 * 
+	 * @param paragraphs the paragraphs to transform, must not be null or have null elements
+	 * @param executor the executor for parallel chunks, must not be null
+	 * @param threshold minimum number of paragraphs per chunk, must be larger than 0
+	 * @return list of formatted paragraphs in the order of the input
+	 * @throws NullPointerException if an argument or a required setting was null
+	 * @throws IllegalArgumentException if a paragraph was null or the threshold was less than 1
+	 * @throws IllegalStateException if a setting was not valid
+	 * @throws RejectedExecutionException if the executor did not accept a chunk
+	 */
+	default List<Collection<StrBuilder>> transformAll(List<String> paragraphs, Executor executor, int threshold){
+		return this.compile().transformAll(paragraphs, executor, threshold);
+	}
+
+	/**
+	 * Tests if an alignment option is valid.
+	 * @param alignment the alignment option to test
+	 * @return true if the option is a valid alignment option, false otherwise
+	 */
+	static boolean isValidAlignment(int alignment){
+		return alignment>=ALIGN_LEFT && alignment<=ALIGN_JUSTIFIED_RIGHT;
+	}
+
+	/**
+	 * Tests if a format option is valid.
+	 * @param format the format option to test
+	 * @return true if the option is a valid format option, false otherwise
+	 */
+	static boolean isValidFormat(int format){
+		return (format>=FORMAT_NONE && format<=FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH) || format==FORMAT_DROPCAP || format==FORMAT_DROPCAP_WITH_PADDING;
+	}
 
-		return ret;
+	/**
+	 * Tests if a measure option is valid.
+	 * @param measureMode the measure option to test
+	 * @return true if the option is a valid measure option, false otherwise
+	 */
+	static boolean isValidMeasureMode(int measureMode){
+		return measureMode==MEASURE_DISPLAY || measureMode==MEASURE_TERMINAL;
 	}
 
 	/**
@@ -532,6 +698,20 @@ public interface Text_To_FormattedText extends IsTransformer<String, Collection<
 		).transform(text);
 	}
 
+	/**
+	 * Transforms text to left aligned lines, using a cache.
+	 * @param text the input text
+	 * @param textWidth the width of each line
+	 * @param cache the cache for formatted text, no cache is used if null
+	 * @return transformed text
+	 */
+	static Collection<StrBuilder> left(String text, int textWidth, FormattedTextCache cache){
+		if(cache==null){
+			return left(text, textWidth);
+		}
+		return cache.transform(FormattedTextPlan.left(textWidth), text);
+	}
+
 	/**
 	 * Transforms text to centered lines.
 	 * @param text the input text
@@ -17,11 +17,7 @@ package de.vandermeer.skb.interfaces.transformers.textformat;
 
 import java.util.ArrayList;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.text.StrBuilder;
-import org.apache.commons.lang3.text.StrTokenizer;
-import org.apache.commons.lang3.text.WordUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import de.vandermeer.skb.interfaces.transformers.IsTransformer;
@@ -38,6 +34,12 @@ public interface Text_To_WrappedFormat extends IsTransformer<String, Pair<ArrayL
 	/** The line break used for conditional line breaks. */
 	static String LINEBREAK = "<br />";
 
+	/** Option for greedy line breaking, every line takes as many words as fit. */
+	static int WRAP_GREEDY = 1;
+
+	/** Option for optimal (total-fit) line breaking, minimizing the free space of all lines of a paragraph but the last one. */
+	static int WRAP_OPTIMAL = 2;
+
 	/**
 	 * Returns the width for the overall wrapping, defaults to 80.
 	 * @return overall wrapping width
@@ -54,102 +56,67 @@ public interface Text_To_WrappedFormat extends IsTransformer<String, Pair<ArrayL
 		return null;
 	}
 
+	/**
+	 * Returns the line breaking mode, defaults to {@link #WRAP_GREEDY}.
+	 * @return line breaking mode, one of {@link #WRAP_GREEDY} or {@link #WRAP_OPTIMAL}
+	 */
+	default int getWrapMode(){
+		return WRAP_GREEDY;
+	}
+
+	/**
+	 * Returns the hyphenator for words at the end of lines, defaults to null (no hyphenation).
+	 * Hyphenation is used for greedy line breaking only.
+	 * @return hyphenator, null for no hyphenation
+	 */
+	default Hyphenator getHyphenator(){
+		return null;
+	}
+
+	/**
+	 * Tests if a line breaking mode is valid.
+	 * @param wrapMode the mode to test
+	 * @return true if the mode is a valid line breaking mode, false otherwise
+	 */
+	static boolean isValidWrapMode(int wrapMode){
+		return wrapMode==WRAP_GREEDY || wrapMode==WRAP_OPTIMAL;
+	}
+
+	/**
+	 * Transforms the input text into wrapped lines for top and bottom.
+	 * 
+	 * The text is scanned once: conditional line breaks (CR LF, CR, LF, &lt;br&gt;, &lt;br/&gt;, &lt;br /&gt;) are recognized in place,
+	 * each paragraph is wrapped at spaces (words longer than the width are split), and lines are added directly to the returned lists.
+	 * Paragraphs are wrapped greedily, or with optimal line breaking in a bounded window if the wrap mode is {@link #WRAP_OPTIMAL}.
+	 * If a hyphenator is set, greedy lines can end in a hyphenated word, see {@link Hyphenator}.
+	 * If top settings are provided, the first lines (up to the number of top lines) are wrapped using the top width and the rest of the text continues in the bottom list.
+	 * There is no limit on the number of paragraphs or lines.
+	 * 
+	 * @param input the text to wrap, must not be blank
+	 * @return pair of top lines (left) and bottom lines (right), top lines are empty if no top settings are provided
+	 */
 	@Override
 	default Pair<ArrayList<String>, ArrayList<String>> transform(String input) {
 		Validate.notBlank(input);
 		Validate.isTrue(this.getWidth()>0);
+		Validate.isTrue(isValidWrapMode(this.getWrapMode()), "unknown wrap mode <%d>", this.getWrapMode());
 
 		ArrayList<String> topList = new ArrayList<>();
 		ArrayList<String> bottomList = new ArrayList<>();
 
-		//an emergency break, counting loops to avoid endless loops
-		int count;
-
-		String text = StringUtils.replacePattern(input, "\\r\\n|\\r|\\n", LINEBREAK);
-		text = StringUtils.replace(text, "<br>", LINEBREAK);
-		text = StringUtils.replace(text, "<br/>", LINEBREAK);
-
-		StrBuilder sb = new StrBuilder(text);
+		WrapScanner scanner = new WrapScanner(input, this.getWrapMode()==WRAP_OPTIMAL, this.getHyphenator());
 		if(this.getTopSettings()!=null){
 			//we have a top request, do that one first
 			Validate.notNull(this.getTopSettings().getLeft());
 			Validate.notNull(this.getTopSettings().getRight());
 			Validate.isTrue(this.getTopSettings().getLeft()>0);
 			Validate.isTrue(this.getTopSettings().getRight()>0);
-
-			int topLines = this.getTopSettings().getLeft();
-			int topWidth = this.getTopSettings().getRight();
-			count = 0;
-
-			while(sb.size()>0 && topLines>0 && count++<200){
-				if(sb.startsWith(LINEBREAK)){
-					sb.replaceFirst(LINEBREAK, "");
-				}
-				String s = null;
-				boolean wln = false;
-				if(sb.indexOf(LINEBREAK)>0){
-					s = sb.substring(0, sb.indexOf(LINEBREAK));
-					wln = true;
-					//sb.replace(0, sb.indexOf(LINEBREAK) + LINEBREAK.length(), "");
-				}
-				else{
-					s = sb.toString();
-					//sb.clear();
-				}
-				String wrap = WordUtils.wrap(s, topWidth, LINEBREAK, true);
-				StrTokenizer tok = new StrTokenizer(wrap, LINEBREAK).setIgnoreEmptyTokens(false);
-				String[] ar = tok.getTokenArray();
-				if(ar.length<=topLines){
-					//all lines done, cleanup
-					for(String str : ar){
-						topList.add(str.trim());
-					}
-					if(wln==true){
-						//if we had a conditional linebreak there might be more text, remove the line we processed
-						sb.replace(0, sb.indexOf(LINEBREAK) + LINEBREAK.length(), "");
-					}
-					else{
-						//no conditional line break, clean builder
-						sb.clear();
-					}
-					topLines = 0;
-				}
-				else{
-					//we have more lines than we need, so remove the text we have from the builder and copy processed lines
-					StrBuilder replace = new StrBuilder();
-					for(int i=0; i<topLines; i++){
-						topList.add(ar[i].trim());
-						replace.appendSeparator(' ').append(ar[i]);
-					}
-					if(wln==true){
-						replace.append(LINEBREAK);
-					}
-					sb.replaceFirst(replace.toString(), "");
-					topLines = 0;
-				}
-			}
+			scanner.next(this.getTopSettings().getRight(), this.getTopSettings().getLeft(), topList::add);
 		}
 
-		//no top, simple wrapping with recognition of conditional line breaks
-		count = 0;
-		while(sb.size()>0 && count++<200){
-			if(sb.startsWith(LINEBREAK)){
-				sb.replaceFirst(LINEBREAK, "");
-			}
-			String s = null;
-			if(sb.indexOf(LINEBREAK)>0){
-				s = sb.substring(0, sb.indexOf(LINEBREAK));
-				sb.replace(0, sb.indexOf(LINEBREAK) + LINEBREAK.length(), "");
-			}
-			else{
-				s = sb.toString();
-				sb.clear();
-			}
-			s = WordUtils.wrap(s, this.getWidth(), LINEBREAK, true);
-			StrTokenizer tok = new StrTokenizer(s, LINEBREAK).setIgnoreEmptyTokens(false);
-			for(String str : tok.getTokenArray()){
-				bottomList.add(str.trim());
-			}
+		//simple wrapping with recognition of conditional line breaks
+		while(scanner.hasMore()){
+			scanner.next(this.getWidth(), Integer.MAX_VALUE, bottomList::add);
 		}
 
 		return Pair.of(topList, bottomList);
@@ -189,6 +156,64 @@ public interface Text_To_WrappedFormat extends IsTransformer<String, Pair<ArrayL
 		};
 	}
 
+	/**
+	 * Returns a new transformer.
+	 * @param width the width to wrap lines for
+	 * @param top the settings for top as pair of lines and width, null for no top settings
+	 * @param wrapMode the line breaking mode, one of {@link #WRAP_GREEDY} or {@link #WRAP_OPTIMAL}
+	 * @return new transformer
+	 */
+	static Text_To_WrappedFormat create(int width, Pair<Integer, Integer> top, int wrapMode){
+		return new Text_To_WrappedFormat() {
+			@Override
+			public int getWidth(){
+				return width;
+			}
+
+			@Override
+			public Pair<Integer, Integer> getTopSettings(){
+				return top;
+			}
+
+			@Override
+			public int getWrapMode(){
+				return wrapMode;
+			}
+		};
+	}
+
+	/**
+	 * Returns a new transformer.
+	 * @param width the width to wrap lines for
+	 * @param top the settings for top as pair of lines and width, null for no top settings
+	 * @param wrapMode the line breaking mode, one of {@link #WRAP_GREEDY} or {@link #WRAP_OPTIMAL}
+	 * @param hyphenator hyphenator for words at the end of greedy lines, null for no hyphenation
+	 * @return new transformer
+	 */
+	static Text_To_WrappedFormat create(int width, Pair<Integer, Integer> top, int wrapMode, Hyphenator hyphenator){
+		return new Text_To_WrappedFormat() {
+			@Override
+			public int getWidth(){
+				return width;
+			}
+
+			@Override
+			public Pair<Integer, Integer> getTopSettings(){
+				return top;
+			}
+
+			@Override
+			public int getWrapMode(){
+				return wrapMode;
+			}
+
+			@Override
+			public Hyphenator getHyphenator(){
+				return hyphenator;
+			}
+		};
+	}
+
 	/**
 	 * Transforms text to wrapped lines.
 	 * @param text the text to transform
@@ -209,4 +234,16 @@ public interface Text_To_WrappedFormat extends IsTransformer<String, Pair<ArrayL
 	static Pair<ArrayList<String>, ArrayList<String>> convert(String text, int width, Pair<Integer, Integer> top){
 		return create(width, top).transform(text);
 	}
+
+	/**
+	 * Transforms text to wrapped lines.
+	 * @param text the text to transform
+	 * @param width the width to wrap lines for
+	 * @param top the settings for top as pair of lines and width, null for no top settings
+	 * @param wrapMode the line breaking mode, one of {@link #WRAP_GREEDY} or {@link #WRAP_OPTIMAL}
+	 * @return transformed text
+	 */
+	static Pair<ArrayList<String>, ArrayList<String>> convert(String text, int width, Pair<Integer, Integer> top, int wrapMode){
+		return create(width, top, wrapMode).transform(text);
+	}
 }
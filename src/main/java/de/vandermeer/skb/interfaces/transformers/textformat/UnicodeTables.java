@@ -0,0 +1,276 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact lookup tables for display width and line break classes of Unicode code points.
+ * 
+ * Display width follows the usual terminal conventions: combining marks, format characters, and the zero width space have width 0,
+ * characters with East Asian Width wide (W) or full width (F) have width 2, all other characters have width 1.
+ * 
+ * Line break classes are a subset of Unicode Standard Annex #14 (UAX #14), sufficient for the line break opportunities used for wrapping:
+ * spaces, ideographic characters (CJK, Kana, Hangul, full width forms, wide emoji) with break opportunities before and after,
+ * combining marks attached to their base, opening and closing punctuation, non-starters (small Kana and iteration marks), glue characters (no break), zero width space, and break-after characters (Unicode spaces and dashes).
+ * ASCII characters other than space and punctuation are alphabetic, so ASCII text only has break opportunities at spaces.
+ * 
+ * The Basic Multilingual Plane is stored in a two-stage table: a page index for each block of 256 code points and a set of shared (deduplicated) pages with one byte per code point.
+ * Each byte holds the width (lower 2 bits) and the line break class (upper bits).
+ * The tables are computed once from range lists and the character types of the Java runtime, supplementary code points are computed directly.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class UnicodeTables {
+
+	/** Line break class alphabetic, no break opportunities between two of them. */
+	static final int AL = 0;
+
+	/** Line break class space, break opportunity after. */
+	static final int SP = 1;
+
+	/** Line break class ideographic, break opportunities before and after. */
+	static final int ID = 2;
+
+	/** Line break class combining mark, attached to the previous character. */
+	static final int CM = 3;
+
+	/** Line break class opening punctuation, no break after. */
+	static final int OP = 4;
+
+	/** Line break class closing punctuation (including exclamation and infix separators), no break before. */
+	static final int CL = 5;
+
+	/** Line break class non-starter, no break before. */
+	static final int NS = 6;
+
+	/** Line break class glue, no break before or after. */
+	static final int GL = 7;
+
+	/** Line break class zero width space, break opportunity after. */
+	static final int ZW = 8;
+
+	/** Line break class break-after, break opportunity after. */
+	static final int BA = 9;
+
+	/** Ranges of wide and full width code points (East Asian Width W and F), as pairs of first and last code point. */
+	private static final int[] WIDE = new int[]{
+		0x1100, 0x115F, 0x231A, 0x231B, 0x2329, 0x232A, 0x23E9, 0x23EC, 0x23F0, 0x23F0, 0x23F3, 0x23F3, 0x25FD, 0x25FE, 0x2614, 0x2615,
+		0x2648, 0x2653, 0x267F, 0x267F, 0x2693, 0x2693, 0x26A1, 0x26A1, 0x26AA, 0x26AB, 0x26BD, 0x26BE, 0x26C4, 0x26C5, 0x26CE, 0x26CE,
+		0x26D4, 0x26D4, 0x26EA, 0x26EA, 0x26F2, 0x26F3, 0x26F5, 0x26F5, 0x26FA, 0x26FA, 0x26FD, 0x26FD, 0x2705, 0x2705, 0x270A, 0x270B,
+		0x2728, 0x2728, 0x274C, 0x274C, 0x274E, 0x274E, 0x2753, 0x2755, 0x2757, 0x2757, 0x2795, 0x2797, 0x27B0, 0x27B0, 0x27BF, 0x27BF,
+		0x2B1B, 0x2B1C, 0x2B50, 0x2B50, 0x2B55, 0x2B55, 0x2E80, 0x303E, 0x3041, 0x33FF, 0x3400, 0x4DBF, 0x4E00, 0x9FFF, 0xA000, 0xA4CF,
+		0xA960, 0xA97F, 0xAC00, 0xD7A3, 0xF900, 0xFAFF, 0xFE10, 0xFE19, 0xFE30, 0xFE6F, 0xFF00, 0xFF60, 0xFFE0, 0xFFE6,
+		0x16FE0, 0x16FE4, 0x17000, 0x18AFF, 0x1B000, 0x1B2FF, 0x1F004, 0x1F004, 0x1F0CF, 0x1F0CF, 0x1F18E, 0x1F18E, 0x1F191, 0x1F19A,
+		0x1F200, 0x1F251, 0x1F300, 0x1F64F, 0x1F680, 0x1F6FF, 0x1F7E0, 0x1F7EB, 0x1F90C, 0x1F9FF, 0x1FA70, 0x1FAFF, 0x20000, 0x2FFFD, 0x30000, 0x3FFFD
+	};
+
+	/** Code points with zero width that are not marks or format characters, as pairs of first and last code point. */
+	private static final int[] ZERO = new int[]{
+		0x1160, 0x11FF, 0x200B, 0x200B
+	};
+
+	/** Glue characters (no break before or after), as pairs of first and last code point. */
+	private static final int[] GLUE = new int[]{
+		0x00A0, 0x00A0, 0x2007, 0x2007, 0x2011, 0x2011, 0x202F, 0x202F, 0x2060, 0x2060, 0xFEFF, 0xFEFF
+	};
+
+	/** Break-after characters (Unicode spaces and dashes), as pairs of first and last code point. */
+	private static final int[] BREAK_AFTER = new int[]{
+		0x00AD, 0x00AD, 0x1680, 0x1680, 0x2000, 0x2006, 0x2008, 0x200A, 0x2010, 0x2010, 0x2012, 0x2013, 0x205F, 0x205F, 0x3000, 0x3000
+	};
+
+	/** Closing punctuation not of type END_PUNCTUATION (exclamation, question mark, infix separators, ideographic comma and full stop), as pairs of first and last code point. */
+	private static final int[] CLOSE = new int[]{
+		0x0021, 0x0021, 0x002C, 0x002C, 0x002E, 0x002E, 0x003A, 0x003B, 0x003F, 0x003F, 0x3001, 0x3002, 0xFE50, 0xFE52,
+		0xFF01, 0xFF01, 0xFF0C, 0xFF0C, 0xFF0E, 0xFF0E, 0xFF1A, 0xFF1B, 0xFF1F, 0xFF1F, 0xFF61, 0xFF61, 0xFF64, 0xFF64
+	};
+
+	/** Non-starters (small Kana, prolonged sound mark, iteration marks), as pairs of first and last code point. */
+	private static final int[] NON_STARTER = new int[]{
+		0x3005, 0x3005, 0x301C, 0x301C, 0x303B, 0x303B, 0x3041, 0x3041, 0x3043, 0x3043, 0x3045, 0x3045, 0x3047, 0x3047, 0x3049, 0x3049,
+		0x3063, 0x3063, 0x3083, 0x3083, 0x3085, 0x3085, 0x3087, 0x3087, 0x308E, 0x308E, 0x3095, 0x3096, 0x309B, 0x309E, 0x30A0, 0x30A1,
+		0x30A3, 0x30A3, 0x30A5, 0x30A5, 0x30A7, 0x30A7, 0x30A9, 0x30A9, 0x30C3, 0x30C3, 0x30E3, 0x30E3, 0x30E5, 0x30E5, 0x30E7, 0x30E7,
+		0x30EE, 0x30EE, 0x30F5, 0x30F6, 0x30FB, 0x30FE, 0x31F0, 0x31FF, 0xFF67, 0xFF70
+	};
+
+	/** Page index for each block of 256 code points of the Basic Multilingual Plane. */
+	private static final char[] INDEX = new char[256];
+
+	/** Shared pages of properties, 256 bytes per page. */
+	private static final byte[] PAGES;
+
+	static{
+		List<byte[]> pages = new ArrayList<>();
+		byte[] page = new byte[256];
+		for(int block=0; block<256; block++){
+			for(int i=0; i<256; i++){
+				page[i] = compute((block << 8) | i);
+			}
+			int index = -1;
+			for(int p=0; p<pages.size(); p++){
+				if(Arrays.equals(pages.get(p), page)){
+					index = p;
+					break;
+				}
+			}
+			if(index<0){
+				index = pages.size();
+				pages.add(page.clone());
+			}
+			INDEX[block] = (char)index;
+		}
+		PAGES = new byte[pages.size() * 256];
+		for(int p=0; p<pages.size(); p++){
+			System.arraycopy(pages.get(p), 0, PAGES, p * 256, 256);
+		}
+	}
+
+	/**
+	 * Hidden constructor, no instances.
+	 */
+	private UnicodeTables(){}
+
+	/**
+	 * Returns the display width of a code point.
+	 * @param cp the code point
+	 * @return 0, 1, or 2
+	 */
+	static int width(int cp){
+		if(cp<0x80){
+			return 1;
+		}
+		return properties(cp) & 0x03;
+	}
+
+	/**
+	 * Returns the line break class of a code point.
+	 * @param cp the code point
+	 * @return the line break class
+	 */
+	static int breakClass(int cp){
+		if(cp<0x80 && cp!=' ' && cp!='!' && cp!=',' && cp!='.' && cp!=':' && cp!=';' && cp!='?' && cp!='(' && cp!='[' && cp!='{' && cp!=')' && cp!=']' && cp!='}'){
+			return AL;
+		}
+		return properties(cp) >> 2;
+	}
+
+	/**
+	 * Tests for a line break opportunity between two characters.
+	 * The rules are a subset of UAX #14, spaces are handled by the caller (a space is a break opportunity after it).
+	 * @param before line break class of the character before, the last non combining character
+	 * @param after line break class of the character after
+	 * @return true if a line break is allowed between the characters, false otherwise
+	 */
+	static boolean isBreakBetween(int before, int after){
+		if(after==CM){
+			return false;
+		}
+		if(before==ZW){
+			return true;
+		}
+		if(after==SP || after==ZW || before==GL || after==GL || after==CL || after==NS || before==OP){
+			return false;
+		}
+		return before==SP || before==BA || before==ID || after==ID;
+	}
+
+	/**
+	 * Returns the table properties of a code point.
+	 * @param cp the code point
+	 * @return width in the lower 2 bits, line break class in the upper bits
+	 */
+	private static int properties(int cp){
+		if(cp<0x10000){
+			return PAGES[(INDEX[cp >> 8] << 8) | (cp & 0xFF)];
+		}
+		return compute(cp);
+	}
+
+	/**
+	 * Computes the properties of a code point from the range lists and the character type.
+	 * @param cp the code point
+	 * @return width in the lower 2 bits, line break class in the upper bits
+	 */
+	private static byte compute(int cp){
+		int type = Character.getType(cp);
+		int width = 1;
+		if(cp>=0x80 && (type==Character.NON_SPACING_MARK || type==Character.ENCLOSING_MARK || (type==Character.FORMAT && cp!=0x00AD) || in(ZERO, cp))){
+			width = 0;
+		}
+		else if(in(WIDE, cp)){
+			width = 2;
+		}
+
+		int cls = AL;
+		if(cp==' '){
+			cls = SP;
+		}
+		else if(cp==0x200B){
+			cls = ZW;
+		}
+		else if(cp==0x200D || type==Character.NON_SPACING_MARK || type==Character.ENCLOSING_MARK || type==Character.COMBINING_SPACING_MARK){
+			cls = CM;
+		}
+		else if(in(GLUE, cp)){
+			cls = GL;
+		}
+		else if(in(BREAK_AFTER, cp)){
+			cls = BA;
+		}
+		else if(in(CLOSE, cp) || type==Character.END_PUNCTUATION){
+			cls = CL;
+		}
+		else if(type==Character.START_PUNCTUATION){
+			cls = OP;
+		}
+		else if(in(NON_STARTER, cp)){
+			cls = NS;
+		}
+		else if(width==2){
+			cls = ID;
+		}
+		return (byte)((cls << 2) | width);
+	}
+
+	/**
+	 * Tests if a code point is in a list of ranges.
+	 * @param ranges sorted pairs of first and last code point
+	 * @param cp the code point
+	 * @return true if the code point is in one of the ranges, false otherwise
+	 */
+	private static boolean in(int[] ranges, int cp){
+		int low = 0;
+		int high = ranges.length / 2 - 1;
+		while(low<=high){
+			int mid = (low + high) >>> 1;
+			if(cp<ranges[mid * 2]){
+				high = mid - 1;
+			}
+			else if(cp>ranges[mid * 2 + 1]){
+				low = mid + 1;
+			}
+			else{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,73 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+/**
+ * Replaces sequences of white space characters (see {@link String_To_NoWs#isWhitespace(char)}) by a single space.
+ * 
+ * This is the implementation for Java 8, testing every character once.
+ * The artifact is a multi-release JAR, Java 17 and newer runtimes use the implementation in `src/main/java17`,
+ * which searches for white space characters with `String.indexOf`, vectorized by newer runtimes, and copies the text between them in bulk.
+ * Both implementations have the same methods and the same results.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class WhitespaceScan {
+
+	/**
+	 * Hidden constructor.
+	 */
+	private WhitespaceScan(){}
+
+	/**
+	 * Returns a string with every sequence of white space characters replaced by a single space.
+	 * @param s input string, must not be null
+	 * @return string with excessive white spaces removed, the input if it had none
+	 */
+	static String collapse(String s){
+		int length = s.length();
+		int i = 0;
+		while(i<length){
+			char c = s.charAt(i);
+			if(String_To_NoWs.isWhitespace(c) && (c!=' ' || (i+1<length && String_To_NoWs.isWhitespace(s.charAt(i+1))))){
+				break;
+			}
+			i++;
+		}
+		if(i==length){
+			return s;
+		}
+
+		StringBuilder ret = new StringBuilder(length);
+		ret.append(s, 0, i);
+		while(i<length){
+			char c = s.charAt(i);
+			if(String_To_NoWs.isWhitespace(c)){
+				ret.append(' ');
+				do{
+					i++;
+				}while(i<length && String_To_NoWs.isWhitespace(s.charAt(i)));
+			}
+			else{
+				ret.append(c);
+				i++;
+			}
+		}
+		return ret.toString();
+	}
+}
@@ -0,0 +1,943 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+import de.vandermeer.skb.interfaces.transformers.String_To_ConditionalBreak;
+
+/**
+ * Single-pass wrap engine for {@link Text_To_WrappedFormat}.
+ * 
+ * The scanner walks the input text once, recognizing conditional line breaks in place (no replacement or tokenization of the input),
+ * and wraps each paragraph at spaces, splitting words longer than the width.
+ * Lines are trimmed and handed directly to a line consumer.
+ * 
+ * The width is measured in display columns (see {@link String_To_DisplayWidth}).
+ * Lines of pure ASCII text are wrapped by character index without any Unicode processing.
+ * Lines with other characters are measured by code point and wrapped at spaces and at the line break opportunities of {@link UnicodeTables},
+ * for instance between ideographic characters, never inside a surrogate pair or before a combining mark.
+ * 
+ * Two line breaking modes are supported:
+ * 
+ *     * greedy: every line takes as many words as fit, the default
+ *     * optimal: a total-fit line breaking in the style of Knuth and Plass, minimizing the sum of squared free space of all lines but the last line of a paragraph.
+ *       The dynamic program runs over a bounded window of {@link #WINDOW_LINES} lines, all but the last {@link #WINDOW_KEEP_LINES} lines of a window are final.
+ *       The cost is linear in the length of a paragraph, and the scanner still only looks one window ahead.
+ * 
+ * In terminal mode ANSI escape sequences (see {@link TerminalText}) have no width and are no break opportunity, they stay attached to the text before them
+ * (or to the text after them at the start of a word), and lines are only trimmed of spaces, never of escape sequences.
+ * 
+ * Greedy lines can be hyphenated: if a {@link Hyphenator} is set, the word at the end of a line is split at its last hyphenation point that fits the width (with a hyphen added to the line),
+ * if that point is after the break opportunity the line would otherwise end at, or if the line would otherwise be split inside a word.
+ * 
+ * Paragraph handling follows the original wrap loop:
+ * 
+ *     * one line break directly at the scan position is skipped, a paragraph is then wrapped up to the next line break
+ *     * if a second line break follows a skipped one, the remaining text is processed as a sequence of paragraphs
+ *       where every line break ends a paragraph and empty paragraphs result in empty lines
+ * 
+ * The scanner only looks at the text one line (one window for optimal line breaking) ahead of the scan position.
+ * Sub-classes can use that to provide the text as a window that is filled on demand (see {@link #fill(int)}) and cleared of already scanned text (see {@link #discard(int)}).
+ * 
+ * A scanner is not thread safe, it holds the scan position for one text.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+class WrapScanner {
+
+	/** Number of lines in a window for optimal line breaking. */
+	static final int WINDOW_LINES = 16;
+
+	/** Number of lines at the end of a window that are not final, they are wrapped again in the next window. */
+	static final int WINDOW_KEEP_LINES = 4;
+
+	/** The text to scan, or the current window of the text. */
+	final CharSequence text;
+
+	/** Flag for optimal line breaking, greedy if false. */
+	private final boolean optimal;
+
+	/** Hyphenator for words at the end of greedy lines, null for no hyphenation. */
+	private final Hyphenator hyphenator;
+
+	/** Flag for terminal mode, escape sequences have no width. */
+	private final boolean terminal;
+
+	/** Scanner for conditional line breaks if the text is a string, null for a window of the text. */
+	private final IntUnaryOperator breaks;
+
+	/** Number of characters of the text that are available. */
+	int length;
+
+	/** Current scan position. */
+	private int pos;
+
+	/** Flag for paragraph sequence mode, every line break ends a paragraph. */
+	private boolean sequence;
+
+	/** Flag for a paragraph pending after a line break in sequence mode, even at the end of the text. */
+	private boolean pending;
+
+	/** Scratch memory for the arrays of optimal line breaking. */
+	private final FormatScratch scratch;
+
+	/** Start of a range of the text known to contain only ASCII characters. */
+	private int asciiFrom;
+
+	/** End of a range of the text known to contain only ASCII characters. */
+	private int asciiTo;
+
+	/** End of the line (exclusive) if a line must be split, set by the line scans. */
+	private int splitEnd;
+
+	/** Start of the next line if a line must be split, set by the line scans. */
+	private int splitNext;
+
+	/** Flag for a split inside a word without a break opportunity, set by the line scans. */
+	private boolean splitHard;
+
+	/** Flag for a split at a hyphenation point, a hyphen is added to the line. */
+	private boolean splitHyphen;
+
+	/** Display width of the last word collected by {@link #unicodeWord(int, int, int)}. */
+	private int wordColumns;
+
+	/** Index up to which the last line scan read the text (exclusive), set by the line scans. */
+	private int scanEnd;
+
+	/**
+	 * Creates a new scanner with greedy line breaking.
+	 * @param text the text to scan, must not be null
+	 */
+	WrapScanner(CharSequence text){
+		this(text, false);
+	}
+
+	/**
+	 * Creates a new scanner.
+	 * @param text the text to scan, must not be null
+	 * @param optimal true for optimal line breaking, false for greedy line breaking
+	 */
+	WrapScanner(CharSequence text, boolean optimal){
+		this(text, optimal, null);
+	}
+
+	/**
+	 * Creates a new scanner.
+	 * @param text the text to scan, must not be null
+	 * @param optimal true for optimal line breaking, false for greedy line breaking
+	 * @param hyphenator hyphenator for words at the end of greedy lines, null for no hyphenation
+	 */
+	WrapScanner(CharSequence text, boolean optimal, Hyphenator hyphenator){
+		this(text, optimal, hyphenator, null);
+	}
+
+	/**
+	 * Creates a new scanner.
+	 * @param text the text to scan, must not be null
+	 * @param optimal true for optimal line breaking, false for greedy line breaking
+	 * @param hyphenator hyphenator for words at the end of greedy lines, null for no hyphenation
+	 * @param scratch scratch memory for the arrays of optimal line breaking, null to use memory of the scanner
+	 */
+	WrapScanner(CharSequence text, boolean optimal, Hyphenator hyphenator, FormatScratch scratch){
+		this(text, optimal, hyphenator, false, scratch);
+	}
+
+	/**
+	 * Creates a new scanner.
+	 * @param text the text to scan, must not be null
+	 * @param optimal true for optimal line breaking, false for greedy line breaking
+	 * @param hyphenator hyphenator for words at the end of greedy lines, null for no hyphenation
+	 * @param terminal true for terminal mode (escape sequences have no width), false otherwise
+	 * @param scratch scratch memory for the arrays of optimal line breaking, null to use memory of the scanner
+	 */
+	WrapScanner(CharSequence text, boolean optimal, Hyphenator hyphenator, boolean terminal, FormatScratch scratch){
+		this.text = text;
+		this.terminal = terminal;
+		this.scratch = (scratch==null)?new FormatScratch():scratch;
+		this.length = text.length();
+		this.optimal = optimal;
+		this.hyphenator = hyphenator;
+		this.breaks = (text instanceof String)?String_To_ConditionalBreak.breakScanner((String)text):null;
+	}
+
+	/**
+	 * Makes characters of the text available up to the given index, as far as the text has them.
+	 * The default does nothing, all characters are available.
+	 * @param to index up to which characters are requested (exclusive)
+	 */
+	void fill(int to){}
+
+	/**
+	 * Discards characters of the text before the given index.
+	 * The default does nothing.
+	 * @param from first index that must be kept
+	 * @return number of characters discarded, all indexes into the text move by this number
+	 */
+	int discard(int from){
+		return 0;
+	}
+
+	/**
+	 * Tests if there is more text to wrap.
+	 * @return true if more text is available, false otherwise
+	 */
+	boolean hasMore(){
+		this.fill(this.pos + 1);
+		return this.pos<this.length || this.pending;
+	}
+
+	/**
+	 * Wraps the next paragraph, or the next paragraphs in sequence mode, up to a maximum number of lines.
+	 * If the maximum number of lines is reached inside a paragraph, the next call continues with the rest of that paragraph.
+	 * @param width the width to wrap lines for, must be larger than 0
+	 * @param maxLines maximum number of lines to add
+	 * @param lines consumer for the wrapped lines
+	 */
+	void next(int width, int maxLines, Consumer<String> lines){
+		this.next(width, maxLines, strings(lines));
+	}
+
+	/**
+	 * Wraps the next paragraph, or the next paragraphs in sequence mode, up to a maximum number of lines, handing lines over as ranges of the text.
+	 * If the maximum number of lines is reached inside a paragraph, the next call continues with the rest of that paragraph.
+	 * @param width the width to wrap lines for, must be larger than 0
+	 * @param maxLines maximum number of lines to add
+	 * @param lines consumer for the wrapped lines
+	 */
+	void next(int width, int maxLines, LineRanges lines){
+		if(!this.sequence){
+			this.fill(ahead(this.pos, 12));
+			int bl = (this.pos<this.length)?String_To_ConditionalBreak.breakLength(this.text, this.pos):0;
+			if(bl>0){
+				this.pos += bl;
+				if(this.pos<this.length && String_To_ConditionalBreak.breakLength(this.text, this.pos)>0){
+					this.sequence = true;
+					this.pending = true;
+				}
+			}
+			if(!this.sequence){
+				if(this.pos<this.length){
+					this.paragraph(width, maxLines, lines, false);
+				}
+				return;
+			}
+		}
+
+		int added = 0;
+		while(this.hasMore() && added<maxLines){
+			added += this.paragraph(width, maxLines-added, lines, true);
+		}
+	}
+
+	/**
+	 * Wraps the paragraph starting at the scan position using the line breaking mode of the scanner, moves the scan position.
+	 * @param width the width to wrap lines for
+	 * @param maxLines maximum number of lines to add
+	 * @param lines consumer for the wrapped lines
+	 * @param emitEmpty flag to add an empty line for a paragraph without text
+	 * @return number of lines added
+	 */
+	private int paragraph(int width, int maxLines, LineRanges lines, boolean emitEmpty){
+		return (this.optimal)?this.optimalParagraph(width, maxLines, lines, emitEmpty):this.greedyParagraph(width, maxLines, lines, emitEmpty);
+	}
+
+	/**
+	 * Greedy wrap of the paragraph starting at the scan position, splitting words that are longer than the width, moves the scan position.
+	 * @param width the width to wrap lines for
+	 * @param maxLines maximum number of lines to add
+	 * @param lines consumer for the wrapped lines
+	 * @param emitEmpty flag to add an empty line for a paragraph without text
+	 * @return number of lines added
+	 */
+	private int greedyParagraph(int width, int maxLines, LineRanges lines, boolean emitEmpty){
+		int offset = this.pos;
+		int count = 0;
+		while(true){
+			offset -= this.shift(this.discard(offset));
+			this.fill(offset + 1);
+			while(offset<this.length && this.text.charAt(offset)==' '){
+				offset++;
+				this.fill(offset + 1);
+			}
+
+			//last line of the paragraph if a line break or the end of the text is within the width
+			int lookahead = ahead(offset, width);
+			this.fill(ahead(lookahead, 7));
+			int to = this.line(offset, lookahead, width);
+			if(to>=0){
+				if(offset<to || count>0 || emitEmpty){
+					this.addLine(offset, to, lines);
+					count++;
+				}
+				this.endParagraph(to);
+				return count;
+			}
+
+			this.hyphenate(offset, width);
+			this.addSplitLine(offset, lines);
+			offset = this.splitNext;
+			if(++count==maxLines){
+				return this.endLines(offset, count);
+			}
+		}
+	}
+
+	/**
+	 * Wraps a single greedy line starting at an offset, without moving the scan position.
+	 * The text must not contain conditional line breaks, it is a single paragraph.
+	 * The result is the same as for the respective line of {@link #next(int, int, Consumer)}, this is used for incremental reflow where wrapping restarts at a known line.
+	 * @param offset start of the line, before leading spaces are skipped
+	 * @param width the width to wrap the line for
+	 * @param first true for the first line of the paragraph (an empty last line is not added for the first line), false otherwise
+	 * @param lines consumer for the line
+	 * @return start of the next line, -1 if this line was the last line of the paragraph
+	 */
+	int greedyLine(int offset, int width, boolean first, Consumer<String> lines){
+		LineRanges ranges = strings(lines);
+		while(offset<this.length && this.text.charAt(offset)==' '){
+			offset++;
+		}
+		int lookahead = ahead(offset, width);
+		int to = this.line(offset, lookahead, width);
+		if(to>=0){
+			if(offset<to || !first){
+				this.addLine(offset, to, ranges);
+			}
+			return -1;
+		}
+		this.hyphenate(offset, width);
+		this.addSplitLine(offset, ranges);
+		return this.splitNext;
+	}
+
+	/**
+	 * Returns the index up to which the last line read the text, the line depends on no text at or after this index.
+	 * @return end index (exclusive) of the text read for the last line
+	 */
+	int getScanEnd(){
+		return this.scanEnd;
+	}
+
+	/**
+	 * Scans a line starting at an offset, using the fastest scan for the text of the line.
+	 * @param offset start of the line
+	 * @param lookahead index one width ahead of the start
+	 * @param width the width of the line in columns
+	 * @return end of the paragraph if a line break or the end of the text is within the width, -1 if the line must be split (at {@link #splitEnd}, continuing at {@link #splitNext})
+	 */
+	private int line(int offset, int lookahead, int width){
+		if(this.isAscii(offset, Math.min(this.length, ahead(lookahead, 1)))){
+			return this.asciiLine(offset, lookahead);
+		}
+		return (this.terminal)?this.terminalLine(offset, width):this.unicodeLine(offset, width);
+	}
+
+	/**
+	 * Scans a line of ASCII text with escape sequences in terminal mode, every character but escape sequences is one column.
+	 * The result is the same as for {@link #unicodeLine(int, int)}, which is used as soon as a non-ASCII character is found.
+	 * @param offset start of the line
+	 * @param width the width of the line in columns
+	 * @return end of the paragraph if a line break or the end of the text is within the width, -1 if the line must be split (at {@link #splitEnd}, continuing at {@link #splitNext})
+	 */
+	private int terminalLine(int offset, int width){
+		int cols = 0;
+		int space = -1;
+		int i = offset;
+		while(true){
+			this.fill(ahead(i, 8));
+			if(i>=this.length || this.isBreak(i)){
+				this.scanEnd = ahead(i, 7);
+				return i;
+			}
+			char c = this.text.charAt(i);
+			if(c>=0x80){
+				return this.unicodeLine(offset, width);
+			}
+			if(c==TerminalText.ESC){
+				i += TerminalText.escapeLength(this.text, i);
+				continue;
+			}
+			if(c==' '){
+				space = i;
+			}
+			if(cols==width){
+				break;
+			}
+			cols++;
+			i++;
+		}
+
+		this.scanEnd = ahead(i, 7);
+		this.splitHard = (space<=offset);
+		if(this.splitHard){
+			this.splitEnd = i;
+			this.splitNext = i;
+		}
+		else{
+			this.splitEnd = space;
+			this.splitNext = space + 1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Scans a line of ASCII text, every character is one column.
+	 * @param offset start of the line
+	 * @param lookahead index one width ahead of the start
+	 * @return end of the paragraph if a line break or the end of the text is within the width, -1 if the line must be split (at {@link #splitEnd}, continuing at {@link #splitNext})
+	 */
+	private int asciiLine(int offset, int lookahead){
+		this.scanEnd = ahead(lookahead, 7);
+		int brk;
+		if(this.breaks!=null){
+			brk = this.breaks.applyAsInt(offset);
+			brk = (brk>Math.min(this.length - 1, lookahead))?-1:brk;
+		}
+		else{
+			brk = String_To_ConditionalBreak.indexOfBreak(this.text, offset, Math.min(this.length, lookahead + 1));
+		}
+		if(brk>=0 || this.length<=lookahead){
+			return (brk<0)?this.length:brk;
+		}
+
+		int space = lookahead;
+		while(space>offset && this.text.charAt(space)!=' '){
+			space--;
+		}
+		this.splitHard = (space<=offset);
+		if(space>offset){
+			this.splitEnd = space;
+			this.splitNext = space + 1;
+		}
+		else{
+			this.splitEnd = lookahead;
+			this.splitNext = lookahead;
+		}
+		return -1;
+	}
+
+	/**
+	 * Scans a line of text with non-ASCII characters by display width.
+	 * The line is split at the last space or line break opportunity within the width, or after the last code point (with its combining marks) that fits.
+	 * @param offset start of the line
+	 * @param width the width of the line in columns
+	 * @return end of the paragraph if a line break or the end of the text is within the width, -1 if the line must be split (at {@link #splitEnd}, continuing at {@link #splitNext})
+	 */
+	private int unicodeLine(int offset, int width){
+		int cols = 0;
+		int fitEnd = offset;
+		this.splitEnd = -1;
+		int prev = -1;
+		int escapes = -1;
+		int i = offset;
+		while(true){
+			this.fill(ahead(i, 8));
+			this.scanEnd = ahead(i, 7);
+			if(i>=this.length || this.isBreak(i)){
+				if(cols<=width){
+					return i;
+				}
+				break;
+			}
+			if(cols>width){
+				break;
+			}
+			int el = this.escapeLength(i);
+			if(el>0){
+				//no width, attached to the last fitting code point
+				escapes = (escapes<0)?i:escapes;
+				i += el;
+				fitEnd = (fitEnd>offset)?i:fitEnd;
+				continue;
+			}
+			int cp = String_To_DisplayWidth.codePointAt(this.text, i, this.length);
+			int cls = UnicodeTables.breakClass(cp);
+			int w = UnicodeTables.width(cp);
+			if(cp==' '){
+				this.splitEnd = i;
+				this.splitNext = i + 1;
+			}
+			else if(prev>=0 && UnicodeTables.isBreakBetween(prev, cls)){
+				//escape sequences after a space start the next word
+				this.splitEnd = (escapes>=0 && prev==UnicodeTables.SP)?escapes:i;
+				this.splitNext = this.splitEnd;
+			}
+			escapes = -1;
+			if(cols+w<=width){
+				fitEnd = i + Character.charCount(cp);
+			}
+			cols += w;
+			if(cls!=UnicodeTables.CM || prev<0){
+				prev = (cls==UnicodeTables.CM)?UnicodeTables.AL:cls;
+			}
+			i += Character.charCount(cp);
+		}
+
+		this.splitHard = (this.splitEnd<=offset);
+		if(this.splitHard){
+			//no break opportunity, split after the last fitting code point, but at least one
+			if(fitEnd==offset){
+				while(this.escapeLength(fitEnd)>0){
+					fitEnd += this.escapeLength(fitEnd);
+				}
+				fitEnd += Character.charCount(String_To_DisplayWidth.codePointAt(this.text, fitEnd, this.length));
+				while(fitEnd<this.length && this.text.charAt(fitEnd)!=' ' && !this.isBreak(fitEnd)){
+					int el = this.escapeLength(fitEnd);
+					if(el==0 && UnicodeTables.width(String_To_DisplayWidth.codePointAt(this.text, fitEnd, this.length))!=0){
+						break;
+					}
+					fitEnd += (el>0)?el:Character.charCount(String_To_DisplayWidth.codePointAt(this.text, fitEnd, this.length));
+				}
+				this.scanEnd = Math.max(this.scanEnd, ahead(fitEnd, 7));
+			}
+			this.splitEnd = fitEnd;
+			this.splitNext = fitEnd;
+		}
+		return -1;
+	}
+
+	/**
+	 * Optimal wrap of the paragraph starting at the scan position, splitting words that are longer than the width, moves the scan position.
+	 * 
+	 * Words are collected up to the end of the paragraph, a word longer than the width, or the end of the window.
+	 * The best breaking of these words is the one with the least sum of squared free space per line, not counting the last line.
+	 * Lines of the best breaking are then added, all but the last {@link #WINDOW_KEEP_LINES} lines if the window ended inside the paragraph.
+	 * 
+	 * @param width the width to wrap lines for
+	 * @param maxLines maximum number of lines to add
+	 * @param lines consumer for the wrapped lines
+	 * @param emitEmpty flag to add an empty line for a paragraph without text
+	 * @return number of lines added
+	 */
+	private int optimalParagraph(int width, int maxLines, LineRanges lines, boolean emitEmpty){
+		int offset = this.pos;
+		int count = 0;
+		while(true){
+			offset -= this.shift(this.discard(offset));
+			int limit = ahead(offset, (width>Integer.MAX_VALUE/WINDOW_LINES)?Integer.MAX_VALUE:width*WINDOW_LINES);
+			this.fill(ahead(limit, ahead(width, 7)));
+
+			//collect words, stop at a line break (to), the end of the text (to), a long word (at), or the end of the window (at)
+			//words are separated by spaces, words with non-ASCII characters are further split at line break opportunities
+			int words = 0;
+			int to = -1;
+			int at = offset;
+			int col = 0;
+			boolean longWord = false;
+			while(true){
+				if(at>=this.length){
+					to = this.length;
+					break;
+				}
+				char c = this.text.charAt(at);
+				if(c==' '){
+					at++;
+					col++;
+					continue;
+				}
+				if(this.isBreak(at)){
+					to = at;
+					break;
+				}
+				if(at>=limit){
+					break;
+				}
+				int end = at;
+				while(end<this.length && end-at<=width && this.text.charAt(end)!=' ' && this.isPlain(this.text.charAt(end)) && !this.isBreak(end)){
+					end++;
+				}
+				int w = end - at;
+				if(end<this.length && w<=width && !this.isPlain(this.text.charAt(end))){
+					end = this.unicodeWord(at, end, width);
+					w = this.wordColumns;
+				}
+				if(w>width){
+					longWord = true;
+					break;
+				}
+				this.addWord(words++, at, end, col, col + w);
+				at = end;
+				col += w;
+			}
+
+			if(words==0){
+				if(longWord){
+					//long word at the start of a line, split as greedy
+					if(this.isAscii(at, ahead(at, width))){
+						this.splitNext = at + width;
+					}
+					else{
+						this.unicodeLine(at, width);
+					}
+					this.addLine(at, this.splitNext, lines);
+					offset = this.splitNext;
+					if(++count==maxLines){
+						return this.endLines(offset, count);
+					}
+					continue;
+				}
+				if(to<0){
+					//only spaces in the window
+					offset = at;
+					continue;
+				}
+				if(count==0 && emitEmpty){
+					this.addLine(to, to, lines);
+					count++;
+				}
+				this.endParagraph(to);
+				return count;
+			}
+
+			//best breaking of the words, the last line is free (it is either the last line of the paragraph or not final)
+			boolean complete = (to>=0 || longWord);
+			this.scratch.cost[0] = 0;
+			for(int j=1; j<=words; j++){
+				this.scratch.cost[j] = Double.MAX_VALUE;
+				for(int i=j-1; i>=0; i--){
+					int len = this.scratch.wordColEnd[j-1] - this.scratch.wordColStart[i];
+					if(len>width){
+						break;
+					}
+					double free = width - len;
+					double c = this.scratch.cost[i] + ((j==words)?0:free * free);
+					if(c<this.scratch.cost[j]){
+						this.scratch.cost[j] = c;
+						this.scratch.lineStart[j] = i;
+					}
+				}
+			}
+
+			//turn the backward line starts into forward line ends
+			int lineCount = 0;
+			for(int j=words; j>0; j=this.scratch.lineStart[j]){
+				lineCount++;
+			}
+			int[] ends = this.scratch.getLineEnds(lineCount);
+			for(int j=words, k=lineCount-1; j>0; j=this.scratch.lineStart[j], k--){
+				ends[k] = j;
+			}
+			int commit = (complete)?lineCount:Math.max(1, lineCount - WINDOW_KEEP_LINES);
+
+			int first = 0;
+			for(int k=0; k<commit; k++){
+				this.addLine(this.scratch.wordStart[first], this.scratch.wordEnd[ends[k]-1], lines);
+				first = ends[k];
+				count++;
+				if(first==words && to>=0){
+					this.endParagraph(to);
+					return count;
+				}
+				if(count==maxLines){
+					return this.endLines((first<words)?this.scratch.wordStart[first]:at, count);
+				}
+			}
+			offset = (first<words)?this.scratch.wordStart[first]:at;
+		}
+	}
+
+	/**
+	 * Ends wrapping when the maximum number of lines is reached, ends the paragraph if only a line break or the end of the text is left.
+	 * @param offset position after the last added line
+	 * @param count number of lines added
+	 * @return the number of lines added
+	 */
+	private int endLines(int offset, int count){
+		this.fill(ahead(offset, 7));
+		if(offset>=this.length || String_To_ConditionalBreak.breakLength(this.text, offset)>0){
+			this.endParagraph(offset);
+		}
+		else{
+			this.pos = offset;
+		}
+		return count;
+	}
+
+	/**
+	 * Tests if a character is an ASCII character of one column, in terminal mode ESC is not (it starts an escape sequence).
+	 * @param c the character to test
+	 * @return true if the character is measured as one column without further processing, false otherwise
+	 */
+	private boolean isPlain(char c){
+		return c<0x80 && (c!=TerminalText.ESC || !this.terminal);
+	}
+
+	/**
+	 * Tests if a character is trimmed from the start and end of lines: all control characters and spaces, in terminal mode only spaces (escape sequences are kept).
+	 * @param c the character to test
+	 * @return true if the character is trimmed, false otherwise
+	 */
+	private boolean isTrimmed(char c){
+		return (this.terminal)?c==' ':c<=' ';
+	}
+
+	/**
+	 * Returns the length of an escape sequence at an index in terminal mode.
+	 * @param index index to test
+	 * @return length of the escape sequence, 0 if there is none or the scanner is not in terminal mode
+	 */
+	private int escapeLength(int index){
+		if(!this.terminal || index>=this.length){
+			return 0;
+		}
+		return TerminalText.escapeLength(this.text, index);
+	}
+
+	/**
+	 * Tests for a conditional line break at an index.
+	 * @param index index to test, must be within the available text
+	 * @return true if a line break starts at the index, false otherwise
+	 */
+	private boolean isBreak(int index){
+		char c = this.text.charAt(index);
+		return (c=='\r' || c=='\n' || c=='<') && String_To_ConditionalBreak.breakLength(this.text, index)>0;
+	}
+
+	/**
+	 * Collects a word with non-ASCII characters (or escape sequences in terminal mode), ending at a space, a line break, a line break opportunity, or when it is longer than the width.
+	 * The display width of the word is stored in {@link #wordColumns}.
+	 * @param start start of the word
+	 * @param from index of the first non-ASCII character, all characters from `start` to here are ASCII characters of the word
+	 * @param width the width to wrap lines for
+	 * @return end of the word (exclusive)
+	 */
+	private int unicodeWord(int start, int from, int width){
+		int cols = from - start;
+		int prev = (from>start)?UnicodeTables.breakClass(this.text.charAt(from-1)):-1;
+		int i = from;
+		while(cols<=width){
+			this.fill(ahead(i, 8));
+			if(i>=this.length || this.text.charAt(i)==' ' || this.isBreak(i)){
+				break;
+			}
+			int el = this.escapeLength(i);
+			if(el>0){
+				i += el;
+				continue;
+			}
+			int cp = String_To_DisplayWidth.codePointAt(this.text, i, this.length);
+			int cls = UnicodeTables.breakClass(cp);
+			if(prev>=0 && UnicodeTables.isBreakBetween(prev, cls)){
+				break;
+			}
+			cols += UnicodeTables.width(cp);
+			i += Character.charCount(cp);
+			if(cls!=UnicodeTables.CM || prev<0){
+				prev = (cls==UnicodeTables.CM)?UnicodeTables.AL:cls;
+			}
+		}
+		this.wordColumns = cols;
+		return i;
+	}
+
+	/**
+	 * Tests if a range of the text contains only ASCII characters, in terminal mode ASCII characters other than ESC.
+	 * The scanned range is remembered, so that text is tested only once while the scan position moves forward.
+	 * @param from first index (inclusive)
+	 * @param to last index (exclusive)
+	 * @return true if the range contains only ASCII characters, false otherwise
+	 */
+	private boolean isAscii(int from, int to){
+		int i = from;
+		if(from>=this.asciiFrom && from<=this.asciiTo){
+			i = Math.max(from, this.asciiTo);
+		}
+		else{
+			this.asciiFrom = from;
+			this.asciiTo = from;
+		}
+		to = Math.min(to, this.length);
+		while(i<to){
+			if(!this.isPlain(this.text.charAt(i))){
+				this.asciiTo = i;
+				return false;
+			}
+			i++;
+		}
+		this.asciiTo = Math.max(this.asciiTo, to);
+		return true;
+	}
+
+	/**
+	 * Moves the remembered ASCII range after characters of the text have been discarded.
+	 * @param discarded number of characters discarded
+	 * @return the number of characters discarded
+	 */
+	private int shift(int discarded){
+		if(discarded>0){
+			this.asciiFrom = Math.max(this.asciiFrom - discarded, 0);
+			this.asciiTo = Math.max(this.asciiTo - discarded, 0);
+		}
+		return discarded;
+	}
+
+	/**
+	 * Adds a word to the window, growing the window arrays of the scratch memory as required.
+	 * @param index index of the word in the window
+	 * @param start start of the word (inclusive)
+	 * @param end end of the word (exclusive)
+	 * @param colStart start column of the word in the window
+	 * @param colEnd end column of the word in the window
+	 */
+	private void addWord(int index, int start, int end, int colStart, int colEnd){
+		this.scratch.ensureWords(index + 2);
+		this.scratch.wordStart[index] = start;
+		this.scratch.wordEnd[index] = end;
+		this.scratch.wordColStart[index] = colStart;
+		this.scratch.wordColEnd[index] = colEnd;
+	}
+
+	/**
+	 * Ends a paragraph at a line break or the end of the text, moves the scan position behind it.
+	 * @param at index of the line break or the end of the text
+	 */
+	private void endParagraph(int at){
+		if(at>=this.length){
+			this.pos = this.length;
+			this.pending = false;
+		}
+		else{
+			this.pos = at + String_To_ConditionalBreak.breakLength(this.text, at);
+			this.pending = this.sequence;
+		}
+	}
+
+	/**
+	 * Moves the split of a greedy line to a hyphenation point of the word at the end of the line, if the hyphenator has one that fits.
+	 * The split is moved if the line was split inside a word or if the hyphenation point is after the split.
+	 * @param offset start of the line
+	 * @param width the width of the line in columns
+	 */
+	private void hyphenate(int offset, int width){
+		this.splitHyphen = false;
+		if(this.hyphenator==null || width<2){
+			return;
+		}
+
+		//the word at the end of the line starts after the last space before the split, hyphenation uses its letters
+		int from = this.splitNext;
+		while(from>offset && this.text.charAt(from-1)!=' '){
+			from--;
+		}
+		this.fill(ahead(from, 8));
+		while(from<this.length && !Character.isLetter(this.text.charAt(from))){
+			if(this.text.charAt(from)==' ' || this.isBreak(from)){
+				return;
+			}
+			from += Math.max(this.escapeLength(from), 1);
+			this.fill(ahead(from, 8));
+		}
+		int to = from;
+		while(to<this.length && Character.isLetter(this.text.charAt(to))){
+			to++;
+			this.fill(ahead(to, 1));
+		}
+		this.scanEnd = Math.max(this.scanEnd, ahead(to, 7));
+
+		//the line with the hyphen must fit the width
+		int limit;
+		if(this.terminal){
+			limit = TerminalText.indexOfColumn(this.text, offset, width - 1);
+		}
+		else{
+			limit = (String_To_DisplayWidth.isAscii(this.text, offset, to))?offset + width - 1:String_To_DisplayWidth.indexOfColumn(this.text, offset, width - 1);
+		}
+		int point = this.hyphenator.lastPoint(this.text, from, to, limit);
+		if(point>offset && (this.splitHard || point>this.splitEnd)){
+			this.splitEnd = point;
+			this.splitNext = point;
+			this.splitHyphen = true;
+		}
+	}
+
+	/**
+	 * Adds the line up to the split to the consumer, trimmed and with a hyphen if the line was split at a hyphenation point.
+	 * @param from start of the line (inclusive)
+	 * @param lines consumer for the line
+	 */
+	private void addSplitLine(int from, LineRanges lines){
+		if(!this.splitHyphen){
+			this.addLine(from, this.splitEnd, lines);
+			return;
+		}
+		while(from<this.splitEnd && this.isTrimmed(this.text.charAt(from))){
+			from++;
+		}
+		lines.line(this.text, from, this.splitEnd, true);
+	}
+
+	/**
+	 * Adds a trimmed line to the consumer.
+	 * @param from start of the line (inclusive)
+	 * @param to end of the line (exclusive)
+	 * @param lines consumer for the line
+	 */
+	private void addLine(int from, int to, LineRanges lines){
+		while(from<to && this.isTrimmed(this.text.charAt(from))){
+			from++;
+		}
+		while(to>from && this.isTrimmed(this.text.charAt(to-1))){
+			to--;
+		}
+		lines.line(this.text, from, to, false);
+	}
+
+	/**
+	 * Returns a consumer for lines as ranges that copies every line into a string for a consumer of strings.
+	 * @param lines the consumer of strings
+	 * @return consumer for lines as ranges
+	 */
+	static LineRanges strings(Consumer<String> lines){
+		return (text, from, to, hyphen) -> {
+			if(hyphen){
+				lines.accept(new StringBuilder(to - from + 1).append(text, from, to).append(Hyphenator.HYPHEN).toString());
+			}
+			else{
+				lines.accept(text.subSequence(from, to).toString());
+			}
+		};
+	}
+
+	/**
+	 * Consumer for wrapped lines as ranges of the text, lines are handed over without being copied.
+	 */
+	interface LineRanges {
+
+		/**
+		 * Takes a wrapped line, trimmed.
+		 * @param text the text of the scanner (or the current window of the text), the range is only valid during the call
+		 * @param from start of the line (inclusive)
+		 * @param to end of the line (exclusive)
+		 * @param hyphen true if a hyphen must be added to the line (split at a hyphenation point), false otherwise
+		 */
+		void line(CharSequence text, int from, int to, boolean hyphen);
+	}
+
+	/**
+	 * Returns an index a number of characters ahead, without overflow.
+	 * @param index the start index
+	 * @param count number of characters
+	 * @return `index + count`, or the maximum integer value on overflow
+	 */
+	private static int ahead(int index, int count){
+		return (count>Integer.MAX_VALUE-index)?Integer.MAX_VALUE:index+count;
+	}
+}
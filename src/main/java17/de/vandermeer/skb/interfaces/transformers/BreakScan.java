@@ -0,0 +1,88 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+/**
+ * Finds the conditional line breaks of a string, for indexes that increase from call to call.
+ * 
+ * This is the implementation for Java 17 and newer runtimes in the multi-release JAR, see `src/main/java` for the Java 8 implementation.
+ * The characters that can start a line break (CR, LF, and `&lt;`) are searched with `String.indexOf`, which newer runtimes vectorize.
+ * The next index of each character is kept, so every character is searched only once while the indexes increase.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class BreakScan {
+
+	/** The string to scan. */
+	private final String s;
+
+	/** The index of the last call, a call with a smaller index scans again. */
+	private int from = Integer.MAX_VALUE;
+
+	/** Next LF at or after the index of the last call, -1 if there is none. */
+	private int lf;
+
+	/** Next CR at or after the index of the last call, -1 if there is none. */
+	private int cr;
+
+	/** Next `&lt;` starting a line break at or after the index of the last call, -1 if there is none. */
+	private int tag;
+
+	/**
+	 * Creates a new scanner.
+	 * @param s the string to scan, must not be null
+	 */
+	BreakScan(String s){
+		this.s = s;
+	}
+
+	/**
+	 * Returns the index of the first conditional line break at or after an index.
+	 * @param from first index to test, must not be negative
+	 * @return index of the first line break, -1 if there is none
+	 * @see String_To_ConditionalBreak#breakLength(CharSequence, int)
+	 */
+	int next(int from){
+		if(from<this.from){
+			//unknown, -1 is none
+			this.lf = -2;
+			this.cr = -2;
+			this.tag = -2;
+		}
+		this.from = from;
+
+		if(this.lf!=-1 && this.lf<from){
+			this.lf = this.s.indexOf('\n', from);
+		}
+		if(this.cr!=-1 && this.cr<from){
+			this.cr = this.s.indexOf('\r', from);
+		}
+		while(this.tag!=-1 && (this.tag<from || String_To_ConditionalBreak.breakLength(this.s, this.tag)==0)){
+			this.tag = this.s.indexOf('<', Math.max(from, this.tag + 1));
+		}
+
+		int ret = this.lf;
+		if(this.cr>=0 && (ret<0 || this.cr<ret)){
+			ret = this.cr;
+		}
+		if(this.tag>=0 && (ret<0 || this.tag<ret)){
+			ret = this.tag;
+		}
+		return ret;
+	}
+}
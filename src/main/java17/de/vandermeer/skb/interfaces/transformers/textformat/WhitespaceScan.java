@@ -0,0 +1,88 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+/**
+ * Replaces sequences of white space characters (see {@link String_To_NoWs#isWhitespace(char)}) by a single space.
+ * 
+ * This is the implementation for Java 17 and newer runtimes in the multi-release JAR, see `src/main/java` for the Java 8 implementation.
+ * White space characters other than space and two consecutive spaces are searched with `String.indexOf`, which newer runtimes vectorize.
+ * The next index of each is kept, so every character is searched only once, and the text between white space sequences is copied in bulk.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+final class WhitespaceScan {
+
+	/** The white space characters other than space. */
+	private static final char[] WHITESPACE = new char[]{'\t', '\n', '\u000B', '\f', '\r'};
+
+	/**
+	 * Hidden constructor.
+	 */
+	private WhitespaceScan(){}
+
+	/**
+	 * Returns a string with every sequence of white space characters replaced by a single space.
+	 * @param s input string, must not be null
+	 * @return string with excessive white spaces removed, the input if it had none
+	 */
+	static String collapse(String s){
+		//next index of each white space character and of two spaces, -2 for unknown, -1 for none
+		int[] next = new int[]{-2, -2, -2, -2, -2, -2};
+		int run = nextRun(s, 0, next);
+		if(run<0){
+			return s;
+		}
+
+		int length = s.length();
+		StringBuilder ret = new StringBuilder(length);
+		int from = 0;
+		while(run>=0){
+			ret.append(s, from, run).append(' ');
+			from = run + 1;
+			while(from<length && String_To_NoWs.isWhitespace(s.charAt(from))){
+				from++;
+			}
+			run = nextRun(s, from, next);
+		}
+		return ret.append(s, from, length).toString();
+	}
+
+	/**
+	 * Returns the start of the next sequence of white space characters that is not a single space.
+	 * @param s input string
+	 * @param from first index to test
+	 * @param next next index of each white space character other than space and of two spaces, updated if before `from`
+	 * @return start of the sequence, -1 if there is none
+	 */
+	private static int nextRun(String s, int from, int[] next){
+		int ret = -1;
+		for(int k=0; k<next.length; k++){
+			if(next[k]!=-1 && next[k]<from){
+				next[k] = (k<WHITESPACE.length)?s.indexOf(WHITESPACE[k], from):s.indexOf("  ", from);
+			}
+			if(next[k]>=0 && (ret<0 || next[k]<ret)){
+				ret = next[k];
+			}
+		}
+		if(ret>from && s.charAt(ret-1)==' '){
+			ret--;
+		}
+		return ret;
+	}
+}
@@ -44,6 +44,7 @@ public class Test_AntlrTransformers {
 
 		tk.setLine(20);
 		assertEquals(new Integer(20), Antlr_To_Line.create().transform(tk));
+		assertEquals(20, Antlr_To_Line.create().transformToInt(tk));
 	}
 
 	@Test
@@ -57,6 +58,7 @@ public class Test_AntlrTransformers {
 
 		tk.setCharPositionInLine(20);
 		assertEquals(new Integer(20), Antlr_To_Column.create().transform(tk));
+		assertEquals(20, Antlr_To_Column.create().transformToInt(tk));
 	}
 
 	@Test
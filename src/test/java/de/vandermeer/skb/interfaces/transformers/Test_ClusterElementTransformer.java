@@ -15,8 +15,22 @@
 
 package de.vandermeer.skb.interfaces.transformers;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
+import org.junit.Test;
+
+import de.vandermeer.skb.interfaces.strategies.collections.list.ArrayListStrategy;
+import de.vandermeer.skb.interfaces.strategies.collections.sortedset.TreeSetStrategy;
+
 public class Test_ClusterElementTransformer {
 
 	Predicate<String> predicate = new Predicate<String>() {
@@ -44,4 +58,70 @@ public class Test_ClusterElementTransformer {
 //		ad = mct.transform(al, Object_To_RenderedString.create(), predicate, ArrayDequeStrategy.create());
 //		System.err.println(ad);
 //	}
+
+	/** Transformer doubling a number. */
+	static final Transformer<Integer, Integer> TWICE = new Transformer<Integer, Integer>() {
+		@Override
+		public Integer transform(Integer i){
+			return i * 2;
+		}
+	};
+
+	@Test
+	public void testOrder(){
+		List<Integer> input = new ArrayList<>();
+		for(int i=0; i<10_000; i++){
+			input.add(i);
+		}
+		ClusterElementTransformer cet = ClusterElementTransformer.create();
+		ArrayList<Integer> expected = cet.transform(input, TWICE, i -> i%3!=0, ArrayListStrategy.create());
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try{
+			for(int threshold : new int[]{1, 7, 100, 20_000}){
+				assertEquals(expected, cet.transformParallel(input, TWICE, i -> i%3!=0, ArrayListStrategy.create(), pool, threshold));
+				assertEquals(expected, cet.transformParallel(new LinkedList<>(input), TWICE, i -> i%3!=0, ArrayListStrategy.create(), pool, threshold));
+				assertEquals(expected, cet.transformParallel(input.toArray(new Integer[0]), TWICE, i -> i%3!=0, ArrayListStrategy.create(), pool, threshold));
+				assertEquals(expected, cet.transformParallel(input.spliterator(), TWICE, i -> i%3!=0, ArrayListStrategy.create(), pool, threshold));
+			}
+		}
+		finally{
+			pool.shutdown();
+		}
+
+		assertEquals(cet.transform(input, TWICE, ArrayListStrategy.create()), cet.transformParallel(input, TWICE, ArrayListStrategy.create()));
+		assertEquals(new TreeSet<>(expected), cet.transformParallel(input, TWICE, i -> i%3!=0, TreeSetStrategy.create(), ForkJoinPool.commonPool(), 64));
+	}
+
+	@Test
+	public void testPrimitive(){
+		ClusterElementTransformer cet = ClusterElementTransformer.create();
+		List<String> input = Arrays.asList("1", "x", "-3", "12");
+
+		assertArrayEquals(new int[]{1, -1, -3, 12}, cet.transformToInt(input, Object_To_Target.createToInt(0, -1, true)));
+		assertArrayEquals(new long[]{1, -1, -3, 12}, cet.transformToLong(input, Object_To_Target.createToLong(0, -1, true)));
+		assertArrayEquals(new double[]{1, -1, -3, 12}, cet.transformToDouble(input, Object_To_Target.createToDouble(0, -1, true)), 0.0);
+		assertArrayEquals(new int[]{1, 2}, cet.transformToInt(() -> Arrays.asList("a", "bb").iterator(), String::length));
+		assertArrayEquals(new int[0], cet.transformToInt(new ArrayList<String>(), String::length));
+
+		assertEquals(Arrays.asList("I", "IV", "MMXVII"), cet.transform(new int[]{1, 4, 2017}, Integer_To_RomanLiteral.create(), ArrayListStrategy.create()));
+		assertEquals(cet.transform(new Integer[]{1, 4, 2017}, Integer_To_RomanLiteral.create(), ArrayListStrategy.create()), cet.transform(new int[]{1, 4, 2017}, Integer_To_RomanLiteral.create(), ArrayListStrategy.create()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testException(){
+		List<Integer> input = new ArrayList<>();
+		for(int i=0; i<1000; i++){
+			input.add(i);
+		}
+		ClusterElementTransformer.create().transformParallel(input, new Transformer<Integer, Integer>() {
+			@Override
+			public Integer transform(Integer i){
+				if(i==777){
+					throw new IllegalStateException("element " + i);
+				}
+				return i;
+			}
+		}, null, ArrayListStrategy.create(), ForkJoinPool.commonPool(), 10);
+	}
 }
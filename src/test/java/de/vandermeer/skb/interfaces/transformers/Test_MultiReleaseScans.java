@@ -0,0 +1,151 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.vandermeer.skb.interfaces.transformers.textformat.String_To_NoWs;
+import de.vandermeer.skb.interfaces.transformers.textformat.Text_To_WrappedFormat;
+
+/**
+ * Tests for the Java 17 scanners of the multi-release JAR (`src/main/java17`), compared with the Java 8 scanners and regular expressions.
+ *
+ * Tests run against the class directory, where the class loader ignores `META-INF/versions/17`.
+ * The versioned classes are loaded with a class loader that finds them before the Java 8 classes.
+ * The tests are skipped if the build did not compile the Java 17 scanners (building with a JDK older than 17).
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_MultiReleaseScans {
+
+	/** Package of the classes of the project, loaded by the versioned class loader. */
+	static String PACKAGE = "de.vandermeer.skb.interfaces.";
+
+	/** Class loader finding versioned classes first, null if there are none. */
+	static ClassLoader loader;
+
+	/** Directory of the versioned classes. */
+	static URL versioned;
+
+	@BeforeClass
+	public static void setup() throws URISyntaxException, MalformedURLException{
+		File classes = new File(BreakScan.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		File java17 = new File(classes, "META-INF/versions/17");
+		if(!new File(java17, "de/vandermeer/skb/interfaces/transformers/BreakScan.class").isFile()){
+			return;
+		}
+		versioned = java17.toURI().toURL();
+		loader = new URLClassLoader(new URL[]{versioned, classes.toURI().toURL()}, Test_MultiReleaseScans.class.getClassLoader()){
+			@Override
+			protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException{
+				if(!name.startsWith(PACKAGE)){
+					return super.loadClass(name, resolve);
+				}
+				synchronized(this.getClassLoadingLock(name)){
+					Class<?> ret = this.findLoadedClass(name);
+					if(ret==null){
+						ret = this.findClass(name);
+					}
+					if(resolve){
+						this.resolveClass(ret);
+					}
+					return ret;
+				}
+			}
+		};
+	}
+
+	@Test
+	public void testVersionedClasses() throws ReflectiveOperationException{
+		Assume.assumeTrue("no Java 17 scanners compiled", loader!=null);
+		assertEquals(versioned, loader.loadClass(PACKAGE + "transformers.BreakScan").getProtectionDomain().getCodeSource().getLocation());
+		assertEquals(versioned, loader.loadClass(PACKAGE + "transformers.textformat.WhitespaceScan").getProtectionDomain().getCodeSource().getLocation());
+	}
+
+	@Test
+	public void testSameResults() throws ReflectiveOperationException{
+		Assume.assumeTrue("no Java 17 scanners compiled", loader!=null);
+		Class<?> breaks = loader.loadClass(PACKAGE + "transformers.String_To_ConditionalBreak");
+		Method canonicalize = breaks.getMethod("canonicalize", String.class);
+		Method breakScanner = breaks.getMethod("breakScanner", String.class);
+		Method convert = breaks.getMethod("convert", String.class);
+		Method collapse = loader.loadClass(PACKAGE + "transformers.textformat.String_To_NoWs").getMethod("collapse", String.class);
+		Method wrap = loader.loadClass(PACKAGE + "transformers.textformat.Text_To_WrappedFormat").getMethod("convert", String.class, int.class);
+
+		String[] tokens = new String[]{"a", "bb", "ccc ddd", " ", "  ", "\t", "\n", "\r", "\r\n", "\u000B", "\f", "<", ">", "/", "<b", "<br", "<br>", "<br/>", "<br />", "<br / >", "<br\n>"};
+		Random random = new Random(17);
+		for(int i=0; i<20000; i++){
+			StringBuilder sb = new StringBuilder();
+			for(int k=random.nextInt(12); k>=0; k--){
+				sb.append(tokens[random.nextInt(tokens.length)]);
+			}
+			String s = sb.toString();
+
+			String canonical = (String)canonicalize.invoke(null, s);
+			assertEquals(s, String_To_ConditionalBreak.canonicalize(s), canonical);
+			assertEquals(s, s.replaceAll("\\r\\n|\\r|\\n|<br>|<br/>", String_To_ConditionalBreak.CANONICAL_BREAK), canonical);
+			assertArrayEquals(s, String_To_ConditionalBreak.convert(s), (String[])convert.invoke(null, s));
+
+			String collapsed = (String)collapse.invoke(null, s);
+			assertEquals(s, String_To_NoWs.collapse(s), collapsed);
+			assertEquals(s, s.replaceAll("\\s+", " "), collapsed);
+
+			//increasing indexes use the kept matches, a smaller index scans again
+			IntUnaryOperator scanner = (IntUnaryOperator)breakScanner.invoke(null, s);
+			for(int from=0; from<=s.length(); from++){
+				assertEquals(s + " @" + from, this.nextBreak(s, from), scanner.applyAsInt(from));
+			}
+			int from = random.nextInt(s.length() + 1);
+			assertEquals(s + " @" + from, this.nextBreak(s, from), scanner.applyAsInt(from));
+
+			if(s.trim().length()>0){
+				int width = 1 + random.nextInt(12);
+				assertEquals(s, Text_To_WrappedFormat.convert(s, width).toString(), wrap.invoke(null, s, width).toString());
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the first conditional line break at or after an index, testing every index.
+	 * @param s the string
+	 * @param from first index to test
+	 * @return index of the first line break, -1 if there is none
+	 */
+	private int nextBreak(String s, int from){
+		for(int i=from; i<s.length(); i++){
+			if(String_To_ConditionalBreak.breakLength(s, i)>0){
+				return i;
+			}
+		}
+		return -1;
+	}
+}
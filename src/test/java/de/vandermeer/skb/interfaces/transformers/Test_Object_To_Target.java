@@ -21,6 +21,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -166,6 +167,25 @@ public class Test_Object_To_Target {
 		assertEquals(new Long(-2), Object_To_Target.convert("1x", Long.class, new Long(-1), new Long(-2)));
 	}
 
+	@Test public void testConvertPrimitive(){
+		//same results as the boxed conversion
+		Object[] values = new Object[]{null, "", "1", "-10", "+7", "1x", "xxx", "2147483647", "2147483648", "-2147483648", "9223372036854775807", "-9223372036854775808", "9223372036854775808",
+				"1.1", "-2.5e3", "NaN", "0x1p3", 42, 42L, 4.2, Boolean.TRUE, Arrays.asList(null, "3"), new HashSet<Object>()};
+		for(Object value : values){
+			assertEquals(Object_To_Target.convert(value, Integer.class, -1, -2).intValue(), Object_To_Target.convertToInt(value, -1, -2));
+			assertEquals(Object_To_Target.convert(value, Long.class, -1L, -2L).longValue(), Object_To_Target.convertToLong(value, -1L, -2L));
+			assertEquals(Object_To_Target.convert(value, Double.class, -1.0, -2.0).doubleValue(), Object_To_Target.convertToDouble(value, -1.0, -2.0), 0.0);
+		}
+
+		//collections are used as they are without collFirst
+		ToIntTransformer<Object> toInt = Object_To_Target.createToInt(-1, -2, false);
+		assertEquals(-2, toInt.transformToInt(Arrays.asList("3")));
+		assertEquals(3, toInt.transformToInt("3"));
+		assertEquals(new Integer(-1), toInt.transform(null));
+		assertEquals(-2L, Object_To_Target.createToLong(-1L, -2L, false).applyAsLong(Arrays.asList("3")));
+		assertEquals(3.0, Object_To_Target.createToDouble(-1.0, -2.0, true).transformToDouble(Arrays.asList("3")), 0.0);
+	}
+
 	@Test public void test_Object2Target_General(){
 		//most other tests are done in Transformations
 		Transformer<Object, String> toStr = Object_To_Target.create(String.class, nullValue, falseValue, true);
@@ -187,4 +207,99 @@ public class Test_Object_To_Target {
 //		set.add(SetStrategy.HASH_SET);//TODO from refactoring unto utils
 //		assertEquals(falseValue, toStr.transform(set));//TODO from refactoring unto utils
 	}
+
+	@Test public void testConvertParsers(){
+		//the parsers must return the same values as valueOf, and null (the false value) where valueOf throws an exception
+		String[] common = new String[]{
+				"", "+", "-", "+-1", "1", "+1", "-1", "+0", "-0", "00012", "-00012",
+				" 1", "1 ", " 1 ", "\t2\n", "1e3", "1d", "1f", "1.5", "NaN", "Infinity", "0x10", "abc", "1x", "x1", "1_000", "\u0663"
+		};
+		String[] integers = new String[]{
+				"2147483647", "-2147483648", "2147483648", "-2147483649", "+2147483647", "+2147483648", "02147483647", "21474836470",
+				"9223372036854775807", "-9223372036854775808", "9223372036854775808", "-9223372036854775809", "+9223372036854775807",
+				"-09223372036854775808", "92233720368547758070"
+		};
+		String[] doubles = new String[]{
+				"1.5", "-1.5", "+1.5", " 1.5 ", "\t2.5\n", ".5", "5.", ".", "-.5", "1.5.1", "1,5",
+				"1e3", "1E3", "1e-3", "1E+3", "-2.5e3", "1e", "1e+", "e3", ".e3", "1e400", "-1e400", "1e-400", "1.7976931348623157E308",
+				"1.5d", "1.5D", "1.5f", "2F", "1.5df", "d", "1e3d", "1.5x",
+				"NaN", "+NaN", "-NaN", "NaNx", "nan", "Infinity", "+Infinity", "-Infinity", " Infinity ", "Infinityx", "infinity", "Inf",
+				"0x1p3", "0X1P3", "-0x1p-2", "0x1.8p1", "0x.8p1", "0x1p3d", "0x1", "0x1p", "0xp3", "0x1.8", "0xg"
+		};
+
+		for(String[] values : new String[][]{common, integers, doubles}){
+			for(String s : values){
+				assertEquals(s, valueOfInteger(s), Object_To_Target.convert(s, Integer.class, null, null));
+				assertEquals(s, valueOfLong(s), Object_To_Target.convert(s, Long.class, null, null));
+				assertEquals(s, valueOfDouble(s), Object_To_Target.convert(s, Double.class, null, null));
+
+				//primitive conversions with a false value, same results
+				assertEquals(s, (valueOfInteger(s)==null)?-7:valueOfInteger(s).intValue(), Object_To_Target.convertToInt(s, 0, -7));
+				assertEquals(s, (valueOfLong(s)==null)?-7L:valueOfLong(s).longValue(), Object_To_Target.convertToLong(s, 0, -7));
+				assertEquals(s, (valueOfDouble(s)==null)?-7.0:valueOfDouble(s).doubleValue(), Object_To_Target.convertToDouble(s, 0, -7), 0.0);
+			}
+		}
+
+		//the bounds and one past each bound
+		assertEquals(new Integer(Integer.MAX_VALUE), Object_To_Target.convert("2147483647", Integer.class, null, null));
+		assertEquals(new Integer(Integer.MIN_VALUE), Object_To_Target.convert("-2147483648", Integer.class, null, null));
+		assertNull(Object_To_Target.convert("2147483648", Integer.class, null, null));
+		assertNull(Object_To_Target.convert("-2147483649", Integer.class, null, null));
+		assertEquals(new Long(Long.MAX_VALUE), Object_To_Target.convert("9223372036854775807", Long.class, null, null));
+		assertEquals(new Long(Long.MIN_VALUE), Object_To_Target.convert("-9223372036854775808", Long.class, null, null));
+		assertNull(Object_To_Target.convert("9223372036854775808", Long.class, null, null));
+		assertNull(Object_To_Target.convert("-9223372036854775809", Long.class, null, null));
+		assertEquals(Long.MIN_VALUE, Object_To_Target.convertToLong("-9223372036854775808", 0, -7));
+		assertEquals(-7L, Object_To_Target.convertToLong("-9223372036854775809", 0, -7));
+
+		//special double values
+		assertTrue(Object_To_Target.convert("NaN", Double.class, null, null).isNaN());
+		assertEquals(new Double(Double.POSITIVE_INFINITY), Object_To_Target.convert("+Infinity", Double.class, null, null));
+		assertEquals(new Double(Double.NEGATIVE_INFINITY), Object_To_Target.convert("-Infinity", Double.class, null, null));
+		assertEquals(new Double(8.0), Object_To_Target.convert("0x1p3", Double.class, null, null));
+		assertEquals(new Double(1000.0), Object_To_Target.convert("1e3d", Double.class, null, null));
+		assertNull(Object_To_Target.convert("0x1p", Double.class, null, null));
+	}
+
+	/**
+	 * Returns the former conversion of a string to an Integer.
+	 * @param s the string
+	 * @return the value of `Integer.valueOf`, null if it throws an exception
+	 */
+	private static Integer valueOfInteger(String s){
+		try{
+			return Integer.valueOf(s);
+		}
+		catch(NumberFormatException ignore){
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the former conversion of a string to a Long.
+	 * @param s the string
+	 * @return the value of `Long.valueOf`, null if it throws an exception
+	 */
+	private static Long valueOfLong(String s){
+		try{
+			return Long.valueOf(s);
+		}
+		catch(NumberFormatException ignore){
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the former conversion of a string to a Double.
+	 * @param s the string
+	 * @return the value of `Double.valueOf`, null if it throws an exception
+	 */
+	private static Double valueOfDouble(String s){
+		try{
+			return Double.valueOf(s);
+		}
+		catch(NumberFormatException ignore){
+			return null;
+		}
+	}
 }
@@ -15,7 +15,12 @@
 
 package de.vandermeer.skb.interfaces.transformers;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.function.IntUnaryOperator;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.junit.Test;
@@ -66,4 +71,46 @@ public class Test_String_To_ConditionalBreak {
 //		ar = ArrayTransformations.WRAP_LINES(5, String_To_ConditionalBreak.convert(lf));
 		System.err.println(ArrayUtils.toString(ar));
 	}
+
+	@Test
+	public void test_Canonicalize(){
+		String s = "a<br />b";
+		assertSame(s, String_To_ConditionalBreak.canonicalize(s));
+		s = "no breaks at all";
+		assertSame(s, String_To_ConditionalBreak.canonicalize(s));
+
+		assertEquals("a<br />b<br />c<br />d<br />e<br />f<br />", String_To_ConditionalBreak.canonicalize("a\r\nb\rc\nd<br>e<br/>f<br />"));
+		assertEquals("<br<br />><br / >", String_To_ConditionalBreak.canonicalize("<br\n><br / >"));
+	}
+
+	@Test
+	public void test_BreakScanner(){
+		String s = "a <b> <br\r\nc\nd<br/>";
+		IntUnaryOperator breaks = String_To_ConditionalBreak.breakScanner(s);
+		assertEquals(9, breaks.applyAsInt(0));
+		assertEquals(9, breaks.applyAsInt(9));
+		assertEquals(10, breaks.applyAsInt(10));
+		assertEquals(12, breaks.applyAsInt(11));
+		assertEquals(14, breaks.applyAsInt(13));
+		assertEquals(-1, breaks.applyAsInt(15));
+
+		//smaller indexes scan again
+		assertEquals(9, breaks.applyAsInt(2));
+		assertEquals(-1, String_To_ConditionalBreak.breakScanner("no breaks").applyAsInt(0));
+	}
+
+	@Test
+	public void test_LineRanges(){
+		assertArrayEquals(new int[]{0, 0}, String_To_ConditionalBreak.lineRanges(""));
+		assertArrayEquals(new int[]{0, 9}, String_To_ConditionalBreak.lineRanges("no breaks"));
+		assertArrayEquals(new int[]{0, 1, 3, 4, 5, 6, 7, 7, 8, 8, 12, 13, 18, 18}, String_To_ConditionalBreak.lineRanges("a\r\nb\rc\n\n<br>d<br/>"));
+		assertArrayEquals(new String[]{"a", "b", "c", "", "", "d", ""}, String_To_ConditionalBreak.convert("a\r\nb\rc\n\n<br>d<br/>"));
+		assertArrayEquals(new String[]{"<br", "><br / >"}, String_To_ConditionalBreak.convert("<br\n><br / >"));
+
+		List<CharSequence> lines = String_To_ConditionalBreak.split("cell 1<br />cell 2\n");
+		assertEquals(3, lines.size());
+		assertEquals("cell 1", lines.get(0).toString());
+		assertEquals("cell 2", lines.get(1).toString());
+		assertEquals(0, lines.get(2).length());
+	}
 }
@@ -0,0 +1,113 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.vandermeer.skb.interfaces.strategies.collections.list.ArrayListStrategy;
+
+/**
+ * Tests for {@link TransformerPipeline}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_TransformerPipeline {
+
+	/** Transformer removing leading and trailing white space. */
+	static final Transformer<String, String> TRIM = new Transformer<String, String>() {
+		@Override
+		public String transform(String s){
+			return s.trim();
+		}
+	};
+
+	/** Transformer returning the length of a string. */
+	static final Transformer<String, Integer> LENGTH = new Transformer<String, Integer>() {
+		@Override
+		public Integer transform(String s){
+			return s.length();
+		}
+	};
+
+	/** Transformer splitting a string at spaces. */
+	static final Transformer<String, List<String>> SPLIT = new Transformer<String, List<String>>() {
+		@Override
+		public List<String> transform(String s){
+			return Arrays.asList(s.split(" "));
+		}
+	};
+
+	@Test
+	public void testStages(){
+		List<String> input = Arrays.asList(" one ", "two three", "  ", "four five six", "seven");
+
+		TransformerPipeline<String, Integer> pipeline = TransformerPipeline.<String>create().map(TRIM).filter(s -> !s.isEmpty()).map(LENGTH);
+		assertEquals(Arrays.asList(3, 9, 13, 5), pipeline.transform(input, ArrayListStrategy.create()));
+		assertEquals(Arrays.asList(3, 9, 13, 5), pipeline.transform(new LinkedList<>(input), ArrayListStrategy.create()));
+		assertEquals(Arrays.asList(3, 9, 13, 5), pipeline.transform(input.iterator(), ArrayListStrategy.create()));
+		assertEquals(Arrays.asList(3, 9, 13, 5), pipeline.transform(input.toArray(new String[0]), ArrayListStrategy.create()));
+		assertEquals(Arrays.asList(3, 9, 13, 5), ClusterElementTransformer.create().transform(input, pipeline, ArrayListStrategy.create()));
+
+		//adjacent stages are merged in order
+		assertEquals(Arrays.asList(9, 13), pipeline.filter(i -> i>3).filter(i -> i<20).limit(3).limit(2).transform(input, ArrayListStrategy.create()));
+
+		TransformerPipeline<String, String> words = TransformerPipeline.<String>create().map(TRIM).flatMap(SPLIT).filter(s -> !s.isEmpty());
+		assertEquals(Arrays.asList("one", "two", "three", "four", "five", "six", "seven"), words.transform(input, ArrayListStrategy.create()));
+		assertEquals(Arrays.asList("one", "two", "three", "four"), words.limit(4).transform(input, ArrayListStrategy.create()));
+		assertEquals(input, TransformerPipeline.<String>create().transform(input, ArrayListStrategy.create()));
+	}
+
+	@Test
+	public void testLimit(){
+		//a reached limit stops reading, a limit of 0 reads nothing
+		List<String> read = new ArrayList<>();
+		Iterator<String> input = Arrays.asList("a", "b", "c", "d", "e").iterator();
+		Iterator<String> counting = new Iterator<String>() {
+			@Override
+			public boolean hasNext(){
+				return input.hasNext();
+			}
+
+			@Override
+			public String next(){
+				String ret = input.next();
+				read.add(ret);
+				return ret;
+			}
+		};
+		assertEquals(Arrays.asList("A", "B"), TransformerPipeline.<String>create().map(new Transformer<String, String>() {
+			@Override
+			public String transform(String s){
+				return s.toUpperCase();
+			}
+		}).limit(2).transform(counting, ArrayListStrategy.create()));
+		assertEquals(Arrays.asList("a", "b"), read);
+
+		assertTrue(TransformerPipeline.<String>create().limit(0).map(TRIM).transform(counting, ArrayListStrategy.create()).isEmpty());
+		assertEquals(Arrays.asList("a", "b"), read);
+	}
+}
@@ -0,0 +1,126 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FormatScratch}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_FormatScratch {
+
+	@Test
+	public void testAcquire(){
+		FormatScratch scratch = FormatScratch.acquire();
+		FormatScratch nested = FormatScratch.acquire();
+		assertNotSame(scratch, nested);
+		nested.release();
+		scratch.release();
+		FormatScratch again = FormatScratch.acquire();
+		assertSame(scratch, again);
+
+		//line ranges are cleared on release, large buffers dropped
+		again.line("text", 0, 4, false);
+		again.ensureWords(FormatScratch.MAX_RETAINED + 1);
+		assertEquals(1, again.getLineCount());
+		again.release();
+		assertEquals(0, again.getLineCount());
+		assertEquals(null, again.wordStart);
+	}
+
+	@Test
+	public void testNoAlias(){
+		FormattedTextPlan plan = (FormattedTextPlan)Text_To_FormattedText.create(
+				20, Text_To_FormattedText.ALIGN_JUSTIFIED, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH,
+				null, null, null, 4, 0, null, 0, 0, null
+		).withWrapMode(Text_To_WrappedFormat.WRAP_OPTIMAL).compile();
+
+		List<String> first = plan.lines("the quick brown fox jumps over the lazy dog");
+		LineBuffer buffer = plan.toLineBuffer("the quick brown fox jumps over the lazy dog");
+		List<String> second = plan.lines("lorem ipsum dolor sit amet, consectetur adipiscing elit");
+		assertEquals(first, toStrings(plan.transform("the quick brown fox jumps over the lazy dog")));
+		assertEquals(first, toStrings(buffer.toCollection()));
+		assertEquals(second, toStrings(plan.transform("lorem ipsum dolor sit amet, consectetur adipiscing elit")));
+	}
+
+	@Test
+	public void testConcurrent() throws Exception{
+		Text_To_FormattedText plan = Text_To_FormattedText.create(
+				30, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH,
+				null, null, null, 2, 3, null, 0, 0, null
+		).withWrapMode(Text_To_WrappedFormat.WRAP_OPTIMAL).compile();
+
+		List<String> paragraphs = new ArrayList<>();
+		StrBuilder text = new StrBuilder();
+		for(int i=0; i<200; i++){
+			text.append("word").append(i % 17).append((i % 5==0)?"  ":" ").append((i % 3==0)?"longer words ":"");
+			paragraphs.add(text.toString());
+		}
+		List<List<String>> expected = new ArrayList<>();
+		for(String p : paragraphs){
+			expected.add(toStrings(plan.transform(p)));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try{
+			List<Future<List<List<String>>>> futures = new ArrayList<>();
+			for(int t=0; t<8; t++){
+				futures.add(executor.submit(() -> {
+					List<List<String>> ret = new ArrayList<>();
+					for(String p : paragraphs){
+						ret.add(toStrings(plan.transform(p)));
+						assertEquals(ret.get(ret.size()-1), toStrings(plan.toLineBuffer(p).toCollection()));
+					}
+					return ret;
+				}));
+			}
+			for(Future<List<List<String>>> f : futures){
+				assertEquals(expected, f.get());
+			}
+		}
+		finally{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the lines of formatted text as strings.
+	 * @param lines formatted lines
+	 * @return lines as strings
+	 */
+	static List<String> toStrings(Iterable<StrBuilder> lines){
+		List<String> ret = new ArrayList<>();
+		for(StrBuilder b : lines){
+			ret.add(b.toString());
+		}
+		return ret;
+	}
+}
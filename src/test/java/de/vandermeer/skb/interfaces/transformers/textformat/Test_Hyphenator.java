@@ -0,0 +1,113 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Hyphenator}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_Hyphenator {
+
+	/** Patterns from Liang's thesis for the word "hyphenation". */
+	static final Collection<String> PATTERNS = Arrays.asList("hy3ph", "he2n", "hena4", "hen5at", "1na", "n2at", "1tio", "2io", "o2n");
+
+	@Test
+	public void testPoints(){
+		Hyphenator h = Hyphenator.create(PATTERNS);
+		assertEquals("hy-phen-ation", h.hyphenate("hyphenation"));
+		assertEquals("Hy-phen-ation", h.hyphenate("Hyphenation"));
+		assertArrayEquals(new int[]{5, 9}, h.getPoints("a  hyphenation", 3, 14));
+		assertEquals(9, h.lastPoint("a  hyphenation", 3, 14, 10));
+		assertEquals(5, h.lastPoint("a  hyphenation", 3, 14, 8));
+		assertEquals(-1, h.lastPoint("a  hyphenation", 3, 14, 4));
+
+		//short words and words without patterns are not hyphenated
+		assertEquals("hyp", h.hyphenate("hyp"));
+		assertEquals("lorem", h.hyphenate("lorem"));
+
+		//minimum letters before and after a hyphen
+		assertEquals("hy-phenation", Hyphenator.create(PATTERNS, Collections.emptyList(), 2, 6).hyphenate("hyphenation"));
+		assertEquals("hyphen-ation", Hyphenator.create(PATTERNS, Collections.emptyList(), 3, 3).hyphenate("hyphenation"));
+	}
+
+	@Test
+	public void testExceptions() throws IOException{
+		Hyphenator h = Hyphenator.create(PATTERNS, Arrays.asList("hyph-en-ation", "ta-ble"), 1, 1);
+		assertEquals("hyph-en-ation", h.hyphenate("hyphenation"));
+		assertEquals("ta-ble", h.hyphenate("table"));
+
+		h = Hyphenator.create(new StringReader(
+				"% Liang's example\n"
+				+ "\\patterns{ % patterns\n"
+				+ "hy3ph he2n hena4 hen5at\n"
+				+ "1na n2at 1tio 2io o2n }\n"
+				+ "\\hyphenation{ ta-ble }\n"
+		));
+		assertEquals("hy-phen-ation", h.hyphenate("hyphenation"));
+		assertEquals("ta-ble", h.hyphenate("table"));
+	}
+
+	@Test
+	public void testWrap(){
+		Hyphenator h = Hyphenator.create(PATTERNS);
+		Pair<ArrayList<String>, ArrayList<String>> lines = Text_To_WrappedFormat.create(10, null, Text_To_WrappedFormat.WRAP_GREEDY, h).transform("the hyphenation of text");
+		assertEquals(Arrays.asList("the hy-", "phenation", "of text"), lines.getRight());
+
+		//words longer than the line are split at a hyphenation point before being split hard
+		lines = Text_To_WrappedFormat.create(6, null, Text_To_WrappedFormat.WRAP_GREEDY, h).transform("hyphenation");
+		assertEquals(Arrays.asList("hy-", "phen-", "ation"), lines.getRight());
+
+		//a hyphenation point must be after the end of a line without hyphenation
+		lines = Text_To_WrappedFormat.create(14, null, Text_To_WrappedFormat.WRAP_GREEDY, h).transform("the text hyphenation");
+		assertEquals(Arrays.asList("the text hy-", "phenation"), lines.getRight());
+
+		//optimal line breaking ignores the hyphenator
+		lines = Text_To_WrappedFormat.create(10, null, Text_To_WrappedFormat.WRAP_OPTIMAL, h).transform("the hyphenation of text");
+		assertEquals(Text_To_WrappedFormat.convert("the hyphenation of text", 10, null, Text_To_WrappedFormat.WRAP_OPTIMAL).getRight(), lines.getRight());
+
+		Text_To_FormattedText tr = Text_To_FormattedText.create(10, Text_To_FormattedText.ALIGN_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).withHyphenator(h);
+		ArrayList<String> formatted = new ArrayList<>();
+		for(StrBuilder sb : tr.transform("the hyphenation of text")){
+			formatted.add(sb.toString());
+		}
+		assertEquals(Arrays.asList("the hy-   ", "phenation ", "of text   "), formatted);
+		assertEquals(formatted, tr.compile().layouts("the hyphenation of text").lines(10));
+		assertEquals(formatted, tr.compile().incremental("the hyphenation of text").getLines());
+
+		//cached text is not shared between settings with and without hyphenation
+		FormattedTextCache cache = FormattedTextCache.create(16);
+		assertEquals(formatted, cache.lines(tr, "the hyphenation of text"));
+		assertTrue(!formatted.equals(cache.lines(Text_To_FormattedText.create(10, Text_To_FormattedText.ALIGN_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null), "the hyphenation of text")));
+	}
+}
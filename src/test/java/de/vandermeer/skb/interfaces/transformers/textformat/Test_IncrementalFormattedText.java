@@ -0,0 +1,129 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.junit.Test;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Tests for {@link IncrementalFormattedText}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_IncrementalFormattedText {
+
+	@Test
+	public void testEquivalence(){
+		String[] dropCap = new String[]{"###", "# #", "###"};
+		String[] inserts = new String[]{"word", " ", "  more words  ", "averyveryverylongwordthatmustbesplitacrosslines", "漢字 漢字", "\n", "<br />", "é"};
+		int[] formats = new int[]{
+				Text_To_FormattedText.FORMAT_NONE, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH, Text_To_FormattedText.FORMAT_FIRST_LINE,
+				Text_To_FormattedText.FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH, Text_To_FormattedText.FORMAT_DROPCAP, Text_To_FormattedText.FORMAT_DROPCAP_WITH_PADDING
+		};
+		Random random = new Random(11);
+		String start = new LoremIpsum().getWords(60);
+
+		for(int alignment=1; alignment<=6; alignment++){
+			for(int format : formats){
+				Text_To_FormattedText tr = Text_To_FormattedText.create(30, alignment, format, null, null, null, 0, 0, dropCap, 0, 0, null);
+				IncrementalFormattedText text = tr.incremental(start);
+				assertEquals(lines(tr, start), text.getLines());
+
+				for(int i=0; i<60; i++){
+					String s = text.getText();
+					int from = random.nextInt(s.length() + 1);
+					int to = Math.min(s.length(), from + random.nextInt(12));
+					String replacement = (random.nextBoolean())?"":inserts[random.nextInt(inserts.length)];
+					if(s.length()<200){
+						to = from;
+					}
+					String edited = s.substring(0, from) + replacement + s.substring(to);
+					List<String> expected = null;
+					try{
+						expected = lines(tr, edited);
+					}
+					catch(IllegalArgumentException ex){
+						//not enough lines for the top part, the edit must fail and keep the text
+						try{
+							text.edit(from, to, replacement);
+						}
+						catch(IllegalArgumentException ex2){
+							assertEquals(s, text.getText());
+							continue;
+						}
+						fail("expected exception for edited text");
+					}
+					text.edit(from, to, replacement);
+					assertEquals(edited, text.getText());
+					assertEquals(expected, text.getLines());
+				}
+
+				text.setText(start);
+				assertEquals(lines(tr, start), text.getLines());
+				text.setTextWidth(45);
+				assertEquals(lines(Text_To_FormattedText.create(45, alignment, format, null, null, null, 0, 0, dropCap, 0, 0, null), start), text.getLines());
+			}
+		}
+	}
+
+	@Test
+	public void testReflow(){
+		Text_To_FormattedText tr = Text_To_FormattedText.create(40, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH, null, null, null, 0, 0, null, 0, 0, null);
+		String start = new LoremIpsum().getWords(500);
+		IncrementalFormattedText text = tr.incremental(start);
+		int size = text.getLines().size();
+		assertEquals(size, text.getReflowedLines());
+
+		//a word added in the middle reflows a few lines only
+		int middle = start.indexOf(' ', start.length() / 2);
+		text.edit(middle, middle, " added");
+		assertEquals(lines(tr, text.getText()), text.getLines());
+		assertTrue(text.getReflowedLines()<size / 10);
+
+		//and removed again, the same lines as before
+		text.edit(middle, middle + 6, "");
+		assertEquals(lines(tr, start), text.getLines());
+		assertTrue(text.getReflowedLines()<size / 10);
+
+		//an edit in the last line reflows only the last line
+		text.edit(start.length(), start.length(), ".");
+		assertEquals(lines(tr, text.getText()), text.getLines());
+		assertEquals(1, text.getReflowedLines());
+
+		assertEquals(text.getLines().size(), text.toCollection().size());
+		assertEquals(text.getLines().get(0), ((ArrayList<StrBuilder>)text.toCollection()).get(0).toString());
+	}
+
+	private static List<String> lines(Text_To_FormattedText tr, String text){
+		List<String> ret = new ArrayList<>();
+		for(StrBuilder b : tr.transform(text)){
+			ret.add(b.toString());
+		}
+		return ret;
+	}
+}
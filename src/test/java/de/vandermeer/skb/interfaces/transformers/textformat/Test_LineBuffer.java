@@ -0,0 +1,73 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.junit.Test;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Tests for {@link LineBuffer}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_LineBuffer {
+
+	@Test
+	public void testLines() throws IOException{
+		LineBuffer lb = LineBuffer.create(1, 4);
+		lb.add("first").add(new StrBuilder("café")).add("");
+		assertTrue(lb.isLatin1());
+		CharSequence first = lb.get(0);
+
+		lb.add("漢字 text");
+		assertFalse(lb.isLatin1());
+		assertEquals(4, lb.size());
+		assertEquals("first", first.toString());
+		assertEquals("café", lb.get(1).toString());
+		assertEquals(0, lb.length(2));
+		assertEquals("字 t", lb.get(3).subSequence(1, 4).toString());
+		assertEquals('x', lb.get(3).charAt(5));
+		assertEquals("[first, café, , 漢字 text]", lb.trimToSize().toString());
+		assertEquals(lb.toString(), lb.toCollection().toString());
+
+		StringWriter sw = new StringWriter();
+		lb.writeTo(sw, "\n");
+		assertEquals("first\ncafé\n\n漢字 text\n", sw.toString());
+	}
+
+	@Test
+	public void testFormattedText(){
+		String words = new LoremIpsum().getWords(200);
+		for(int alignment=Text_To_FormattedText.ALIGN_LEFT; alignment<=Text_To_FormattedText.ALIGN_JUSTIFIED_RIGHT; alignment++){
+			Text_To_FormattedText tr = Text_To_FormattedText.create(30, alignment, Text_To_FormattedText.FORMAT_FIRST_LINE, null, null, null, 0, 0, null, 0, 0, null);
+			LineBuffer lb = tr.toLineBuffer(words);
+			assertEquals(tr.transform(words).toString(), lb.toString());
+			assertEquals(tr.transform(words).toString(), lb.toCollection().toString());
+			assertEquals(lb.toString(), tr.cached(FormattedTextCache.create()).toLineBuffer(words).toString());
+		}
+	}
+}
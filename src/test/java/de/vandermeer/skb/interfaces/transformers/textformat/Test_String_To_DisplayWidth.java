@@ -0,0 +1,94 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Tests for {@link String_To_DisplayWidth} and display width in padding and wrapping.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_String_To_DisplayWidth {
+
+	@Test
+	public void testWidth(){
+		assertEquals(5, String_To_DisplayWidth.convert("hello"));
+		assertEquals(4, String_To_DisplayWidth.width("漢字"));
+		assertEquals(4, String_To_DisplayWidth.width("한국"));
+		assertEquals(4, String_To_DisplayWidth.width("ＡＢ"));
+		assertEquals(4, String_To_DisplayWidth.width("caf\u00E9"));
+		assertEquals(4, String_To_DisplayWidth.width("cafe\u0301"));
+		assertEquals(2, String_To_DisplayWidth.width("😀"));
+		assertEquals(2, String_To_DisplayWidth.width("𠀀"));
+		assertEquals(0, String_To_DisplayWidth.width("\u200B"));
+		assertEquals(3, String_To_DisplayWidth.width("x漢y", 1, 3));
+		assertTrue(String_To_DisplayWidth.isAscii("plain text", 0, 10));
+		assertFalse(String_To_DisplayWidth.isAscii("café", 0, 4));
+	}
+
+	@Test
+	public void testPadding(){
+		assertEquals("漢字  ", String_To_LeftPadded.convert("漢字", 6).toString());
+		assertEquals("漢字 ", String_To_LeftPadded.convert("漢字テ", 5).toString());
+		assertEquals("  漢字", String_To_RightPadded.convert("漢字", 6).toString());
+		assertEquals(" 字テ", String_To_RightPadded.convert("漢字テ", 5).toString());
+		assertEquals(" cafe\u0301 ", String_To_Centered.convert("cafe\u0301", 6).toString());
+		assertEquals("漢字   ab", String_To_Justified.convert("漢字 ab", 9).toString());
+
+		//ASCII is unchanged
+		assertEquals("abc  ", String_To_LeftPadded.convert("abc", 5).toString());
+		assertEquals("bcd", String_To_RightPadded.convert("abcd", 3).toString());
+	}
+
+	@Test
+	public void testWrap(){
+		ArrayList<String> lines = Text_To_WrappedFormat.convert("日本語のテキストは、折り返されます。", 10).getRight();
+		assertEquals(Arrays.asList("日本語のテ", "キストは、", "折り返され", "ます。"), lines);
+
+		lines = Text_To_WrappedFormat.convert("mixed 漢字 and 😀 emoji", 8).getRight();
+		assertEquals(Arrays.asList("mixed 漢", "字 and", "😀 emoji"), lines);
+
+		lines = Text_To_WrappedFormat.convert("ab café de", 6).getRight();
+		assertEquals(Arrays.asList("ab", "café", "de"), lines);
+
+		for(int mode : new int[]{Text_To_WrappedFormat.WRAP_GREEDY, Text_To_WrappedFormat.WRAP_OPTIMAL}){
+			for(String line : Text_To_WrappedFormat.convert("全角の文字と、半角の文字が混ざった長い文章を、指定された幅で折り返す。", 12, null, mode).getRight()){
+				assertTrue(String_To_DisplayWidth.width(line)<=12);
+			}
+		}
+	}
+
+	@Test
+	public void testAsciiLength(){
+		String text = new LoremIpsum().getWords(100);
+		assertEquals(text.length(), String_To_DisplayWidth.width(text));
+		for(String line : Text_To_WrappedFormat.convert(text, 30).getRight()){
+			assertTrue(line.length()<=30);
+		}
+	}
+}
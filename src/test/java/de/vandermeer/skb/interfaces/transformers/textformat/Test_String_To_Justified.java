@@ -0,0 +1,52 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link String_To_Justified}.
+ *
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_String_To_Justified {
+
+	@Test
+	public void testGaps(){
+		assertEquals("a   b    c", String_To_Justified.convert("a b c", 10).toString());
+		assertEquals("a~~~b~~~~c", String_To_Justified.convert(" a\tb  c ", 10, '~').toString());
+		assertEquals("one       ", String_To_Justified.convert("one", 10).toString());
+		assertEquals("onetwo", String_To_Justified.convert("one two", 5).toString());
+	}
+
+	@Test
+	public void testBlank(){
+		assertEquals("     ", String_To_Justified.convert("", 5).toString());
+		assertEquals("     ", String_To_Justified.convert(" \t ", 5).toString());
+	}
+
+	@Test
+	public void testBuilder(){
+		StrBuilder sb = new StrBuilder("x");
+		String_To_Justified.convert("a b", 6, sb);
+		assertEquals("xa    b", sb.toString());
+	}
+}
@@ -0,0 +1,52 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import de.svenjacobs.loremipsum.LoremIpsum;
+
+/**
+ * Tests for {@link String_To_NoWs} and {@link String_To_NoHorWs}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_String_To_NoWs {
+
+	@Test
+	public void testNoWs(){
+		assertEquals(" a b c ", String_To_NoWs.convert("\t a\r\nb \u000B\fc\n"));
+		assertEquals("a  b", String_To_NoWs.convert("a   b"));
+
+		String words = new LoremIpsum().getWords(50);
+		assertSame(words, String_To_NoWs.convert(words));
+		assertEquals(words.replaceAll("\\s+", " "), String_To_NoWs.convert(words.replace(" ", " \t\n ")));
+	}
+
+	@Test
+	public void testNoHorWs(){
+		assertEquals(" a b\n\nc ", String_To_NoHorWs.convert("\t a  b\n\nc\u3000 "));
+
+		String words = new LoremIpsum().getWords(50);
+		assertSame(words, String_To_NoHorWs.convert(words));
+		assertEquals(words.replaceAll("\\h+", " "), String_To_NoHorWs.convert(words.replace(" ", " \t ")));
+	}
+}
@@ -0,0 +1,131 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TerminalText} and terminal text in {@link Text_To_FormattedText}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_TerminalText {
+
+	/** Red foreground. */
+	static final String RED = "\u001B[1;31m";
+
+	/** Reset of all attributes. */
+	static final String RESET = "\u001B[0m";
+
+	@Test
+	public void testEscapeLength(){
+		assertEquals(0, TerminalText.escapeLength("a" + RED, 0));
+		assertEquals(RED.length(), TerminalText.escapeLength("a" + RED, 1));
+		assertEquals(RESET.length(), TerminalText.escapeLength(RESET + "a", 0));
+		assertEquals(11, TerminalText.escapeLength("\u001B]8;;x.org\u0007link", 0));
+		assertEquals(12, TerminalText.escapeLength("\u001B]8;;x.org\u001B\\link", 0));
+		assertEquals(2, TerminalText.escapeLength("\u001B7", 0));
+
+		//incomplete sequences
+		assertEquals(1, TerminalText.escapeLength("\u001B", 0));
+		assertEquals(1, TerminalText.escapeLength("\u001B[31", 0));
+		assertEquals(1, TerminalText.escapeLength("\u001B]8;; x", 0));
+	}
+
+	@Test
+	public void testWidth(){
+		String s = RED + "red" + RESET + " 中";
+		assertEquals(6, TerminalText.width(s, 0, s.length()));
+		assertTrue(TerminalText.hasEscape(s, 0, s.length()));
+		assertFalse(TerminalText.hasEscape(s, RED.length(), RED.length() + 3));
+		assertEquals(RED.length() + 2, TerminalText.indexOfColumn(s, 0, 2));
+		assertEquals(RED.length() + 3 + RESET.length(), TerminalText.indexOfColumn(s, 0, 3));
+	}
+
+	@Test
+	public void testNormalize(){
+		assertEquals("a b c", TerminalText.normalize("a  b\nc", 4));
+		assertEquals("a   b", TerminalText.normalize("a\tb", 4));
+		assertEquals("abcd    e", TerminalText.normalize("abcd\te", 4));
+		assertEquals(RED + "a" + RESET + "   b", TerminalText.normalize(RED + "a" + RESET + " \tb", 4));
+		assertEquals("ab  c<br>a   b", TerminalText.normalize("ab\tc<br>a\tb", 4));
+	}
+
+	@Test
+	public void testFormat(){
+		String text = "The " + RED + "quick brown" + RESET + " fox jumps over the " + RED + "lazy" + RESET + " dog";
+		for(int alignment=Text_To_FormattedText.ALIGN_LEFT; alignment<=Text_To_FormattedText.ALIGN_JUSTIFIED_RIGHT; alignment++){
+			for(int wrapMode : new int[]{Text_To_WrappedFormat.WRAP_GREEDY, Text_To_WrappedFormat.WRAP_OPTIMAL}){
+				List<String> lines = this.format(text, 20, alignment, wrapMode);
+				assertEquals(3, lines.size());
+				for(String line : lines){
+					assertEquals(20, TerminalText.width(line, 0, line.length()));
+				}
+				assertTrue(lines.get(0).contains(RED + "quick brown" + RESET));
+				assertTrue(lines.get(1).contains(RED + "lazy" + RESET));
+			}
+		}
+
+		//escape sequences go with their words when wrapping, also when words are split
+		assertEquals("The ", this.format("The " + RED + "quick", 6, Text_To_FormattedText.ALIGN_LEFT, Text_To_WrappedFormat.WRAP_GREEDY).get(0).substring(0, 4));
+		List<String> lines = this.format(RED + "abcdefghijkl" + RESET, 5, Text_To_FormattedText.ALIGN_LEFT, Text_To_WrappedFormat.WRAP_GREEDY);
+		assertEquals(RED + "abcde", lines.get(0));
+		assertEquals("fghij", lines.get(1));
+		assertEquals("kl" + RESET + "   ", lines.get(2));
+
+		//display mode counts escape sequences as characters
+		Collection<StrBuilder> display = Text_To_FormattedText.left(RED + "abc" + RESET, 20);
+		assertEquals(20, display.iterator().next().length());
+	}
+
+	@Test
+	public void testTabs(){
+		Text_To_FormattedText terminal = Text_To_FormattedText.create(20, Text_To_FormattedText.ALIGN_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).withMeasureMode(Text_To_FormattedText.MEASURE_TERMINAL).withTabSize(4);
+		assertEquals("name    value       ", terminal.transform("name\tvalue").iterator().next().toString());
+		assertEquals("name    value       ", terminal.toLineBuffer("name\tvalue").get(0).toString());
+		assertEquals("name value          ", Text_To_FormattedText.left("name\tvalue", 20).iterator().next().toString());
+		assertEquals(4, terminal.compile().getTabSize());
+		assertEquals(Text_To_FormattedText.MEASURE_TERMINAL, terminal.compile().getMeasureMode());
+	}
+
+	/**
+	 * Formats terminal text to strings.
+	 * @param text the text
+	 * @param width the text width
+	 * @param alignment the alignment
+	 * @param wrapMode the line breaking mode
+	 * @return formatted lines
+	 */
+	private List<String> format(String text, int width, int alignment, int wrapMode){
+		Text_To_FormattedText tr = Text_To_FormattedText.create(width, alignment, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).withWrapMode(wrapMode).withMeasureMode(Text_To_FormattedText.MEASURE_TERMINAL);
+		List<String> ret = new ArrayList<>();
+		for(StrBuilder b : tr.transform(text)){
+			ret.add(b.toString());
+		}
+		return ret;
+	}
+}
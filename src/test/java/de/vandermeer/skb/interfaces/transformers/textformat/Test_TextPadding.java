@@ -0,0 +1,67 @@
+/* Copyright 2016 Sven van der Meer <vdmeer.sven@mykolab.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.vandermeer.skb.interfaces.transformers.textformat;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.lang3.text.StrBuilder;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TextPadding}.
+ * 
+ * @author     Sven van der Meer &lt;vdmeer.sven@mykolab.com&gt;
+ * @version    v0.0.2 build 170502 (02-May-17) for Java 1.8
+ * @since      v0.0.2
+ */
+public class Test_TextPadding {
+
+	@Test
+	public void testPad(){
+		StrBuilder sb = new StrBuilder("x");
+		TextPadding.pad(sb, "a b c", 1, 5, '~', 2, '<', 3, '>');
+		assertEquals("x<<~b~c>>>", sb.toString());
+
+		char[] chars = new char[10];
+		chars[0] = 'x';
+		assertEquals(10, TextPadding.pad(chars, 1, "a b c", 1, 5, '~', 2, '<', 3, '>'));
+		assertEquals(sb.toString(), new String(chars));
+
+		sb = new StrBuilder();
+		TextPadding.appendPadding(sb, TextPadding.RUN_LENGTH * 2 + 1, '-');
+		TextPadding.appendPadding(sb, 2, '─');
+		TextPadding.appendPadding(sb, -1, '-');
+		assertEquals(new StrBuilder().appendPadding(TextPadding.RUN_LENGTH * 2 + 1, '-').appendPadding(2, '─').toString(), sb.toString());
+	}
+
+	@Test
+	public void testTransformers(){
+		assertEquals("a~b*****", String_To_LeftPadded.convert("a b", 8, '*', '~').toString());
+		assertEquals("a~b~", String_To_LeftPadded.convert("a b c", 4, '*', '~').toString());
+		assertEquals("*****a~b", String_To_RightPadded.convert("a b", 8, '*', '~').toString());
+		assertEquals("~b~c", String_To_RightPadded.convert("a b c", 4, '*', '~').toString());
+		assertEquals("漢字*", String_To_LeftPadded.convert("漢字漢", 5, '*').toString());
+		assertEquals("*字漢", String_To_RightPadded.convert("漢字漢", 5, '*').toString());
+
+		//centered: spaces at the start and end of the text are padding as well
+		assertEquals("<<<a~b>>>>", String_To_Centered.convert("a b", 10, '<', '>', '~').toString());
+		assertEquals("<<<<a b>>>>", String_To_Centered.convert("  a b  ", 11, '<', '>', ' ').toString());
+		assertEquals("<>>>", String_To_Centered.convert("  ", 4, '<', '>', ' ').toString());
+		assertEquals("<<<<", String_To_Centered.convert("", 4, '<', ' ', ' ').toString());
+		assertEquals("a~b~c", String_To_Centered.convert("a b c", 3, '<', '>', '~').toString());
+		assertEquals("<漢字>>", String_To_Centered.convert("漢字", 7, '<', '>', ' ').toString());
+	}
+}
@@ -15,8 +15,26 @@
 
 package de.vandermeer.skb.interfaces.transformers.textformat;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.StrBuilder;
 import org.junit.Test;
 
@@ -90,4 +108,477 @@ public class Test_Text_To_FormattedText {
 			System.err.println(sb);
 		}
 	}
+
+	@Test
+	public void testTextAfterBreaks(){
+		//no characters are lost after a line break, repeated line breaks are never copied into the lines
+		assertEquals("[ffffff    ]", Text_To_FormattedText.left("<br> ffffff", 10).toString());
+		assertEquals("[a         , ccc       ]", Text_To_FormattedText.left("a <br /> ccc", 10).toString());
+		assertEquals("[ffffff, ccca  , ccc   ]", Text_To_FormattedText.left("ffffff<br /> ccca ccc", 6).toString());
+		assertEquals("[            , ff          , ff          ]", Text_To_FormattedText.left("<br><br />ff<br>ff", 12).toString());
+		assertEquals("[x     , dddddd, dddddd, ccc   ]", Text_To_FormattedText.left("x<br />dddddddddddd\nccc", 6).toString());
+	}
+
+	@Test
+	public void testCompile(){
+		String words = new LoremIpsum().getWords(50);
+		String[] dropCap = new String[]{"###", "# #", "###"};
+		int[] formats = new int[]{
+				Text_To_FormattedText.FORMAT_NONE, Text_To_FormattedText.FORMAT_FIRST_LINE, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH,
+				Text_To_FormattedText.FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH, Text_To_FormattedText.FORMAT_DROPCAP, Text_To_FormattedText.FORMAT_DROPCAP_WITH_PADDING
+		};
+		for(int alignment=Text_To_FormattedText.ALIGN_LEFT; alignment<=Text_To_FormattedText.ALIGN_JUSTIFIED_RIGHT; alignment++){
+			for(int format : formats){
+				Text_To_FormattedText tr = Text_To_FormattedText.create(30, alignment, format, null, null, null, 0, 0, dropCap, 0, 0, null);
+				Text_To_FormattedText plan = tr.compile();
+				assertSame(plan, plan.compile());
+				assertEquals(tr.transform(words).toString(), plan.transform(words).toString());
+				assertEquals(tr.transform(words).toString(), plan.transform(words).toString());
+			}
+		}
+	}
+
+	@Test
+	public void testStream() throws IOException{
+		LoremIpsum li = new LoremIpsum();
+		String words = li.getWords(50) + " <br />" + li.getParagraphs(10);
+		String[] dropCap = new String[]{"###", "# #", "###"};
+		int[] formats = new int[]{
+				Text_To_FormattedText.FORMAT_NONE, Text_To_FormattedText.FORMAT_FIRST_LINE, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH,
+				Text_To_FormattedText.FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH, Text_To_FormattedText.FORMAT_DROPCAP, Text_To_FormattedText.FORMAT_DROPCAP_WITH_PADDING
+		};
+		for(int alignment=Text_To_FormattedText.ALIGN_LEFT; alignment<=Text_To_FormattedText.ALIGN_JUSTIFIED_RIGHT; alignment++){
+			for(int format : formats){
+				Text_To_FormattedText tr = Text_To_FormattedText.create(30, alignment, format, null, null, null, 0, 0, dropCap, 0, 0, null);
+				StrBuilder expected = new StrBuilder();
+				for(StrBuilder sb : tr.transform(words)){
+					expected.append(sb).append('\n');
+				}
+				StringWriter out = new StringWriter();
+				tr.transform(new StringReader(words), out, "\n");
+				assertEquals(expected.toString(), out.toString());
+			}
+		}
+
+		StringWriter out = new StringWriter();
+		Text_To_FormattedText.create(30, Text_To_FormattedText.ALIGN_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).transform(new StringReader(" \n\t "), out, "\n");
+		assertEquals(StringUtils.repeat(' ', 30) + "\n", out.toString());
+	}
+
+	@Test
+	public void testTransformAll(){
+		LoremIpsum li = new LoremIpsum();
+		List<String> paragraphs = new ArrayList<>();
+		for(int i=0; i<500; i++){
+			paragraphs.add(li.getWords(1 + i % 50, i % 50));
+		}
+		Text_To_FormattedText tr = Text_To_FormattedText.create(30, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH, null, null, null, 0, 0, null, 0, 0, null);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try{
+			List<Collection<StrBuilder>> batch = tr.transformAll(paragraphs, executor, 8);
+			assertEquals(paragraphs.size(), batch.size());
+			for(int i=0; i<paragraphs.size(); i++){
+				assertEquals(tr.transform(paragraphs.get(i)).toString(), batch.get(i).toString());
+			}
+		}
+		finally{
+			executor.shutdown();
+		}
+		assertEquals(tr.transformAll(paragraphs).toString(), tr.transformAll(paragraphs.toArray(new String[0])).toString());
+		assertEquals(tr.transformAll(paragraphs).toString(), tr.transformAll(paragraphs.stream()).toString());
+	}
+
+	@Test
+	public void testTransformAllFailure() throws InterruptedException{
+		LoremIpsum li = new LoremIpsum();
+		List<String> texts = new ArrayList<>();
+		for(int i=0; i<400; i++){
+			texts.add(li.getWords(100 + i % 50, i % 50));
+		}
+		Text_To_FormattedText tr = Text_To_FormattedText.create(30, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_DROPCAP, null, null, null, 0, 0, new String[]{"###", "###", "###"}, 1, 0, null);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try{
+			//the failing paragraph in the chunk of the calling thread, then in a chunk of the executor
+			for(int failing : new int[]{0, texts.size() - 1}){
+				AtomicInteger reads = new AtomicInteger();
+				List<String> paragraphs = new ReadCountingList(texts, reads);
+				texts.set(failing, "Ab");
+				try{
+					tr.transformAll(paragraphs, executor, 8);
+					fail("expected an exception for a dropped capital letter with too little text");
+				}
+				catch(IllegalArgumentException expected){
+					//no chunk reads paragraphs after the exception was thrown
+					int count = reads.get();
+					Thread.sleep(200);
+					assertEquals(count, reads.get());
+				}
+				texts.set(failing, li.getWords(100));
+			}
+
+			//an error in a chunk of the executor is thrown as it is
+			AtomicInteger reads = new AtomicInteger();
+			try{
+				tr.transformAll(new ReadCountingList(texts, reads, texts.size() - 1), executor, 8);
+				fail("expected an error for the last paragraph");
+			}
+			catch(ReadError expected){
+				int count = reads.get();
+				Thread.sleep(200);
+				assertEquals(count, reads.get());
+			}
+
+			//a chunk that cannot be submitted stops the chunks submitted before
+			AtomicInteger submitted = new AtomicInteger();
+			Executor rejecting = task -> {
+				if(submitted.incrementAndGet()>1){
+					throw new RejectedExecutionException("rejected");
+				}
+				executor.execute(task);
+			};
+			reads.set(0);
+			try{
+				tr.transformAll(new ReadCountingList(texts, reads), rejecting, 8);
+				fail("expected a rejected chunk");
+			}
+			catch(RejectedExecutionException expected){
+				int count = reads.get();
+				Thread.sleep(200);
+				assertEquals(count, reads.get());
+				//one read of each paragraph for validation, then not all paragraphs are formatted
+				assertTrue(count<2 * texts.size());
+			}
+		}
+		finally{
+			executor.shutdown();
+		}
+	}
+
+	/** An error thrown by {@link ReadCountingList}. */
+	static final class ReadError extends Error {
+
+		private static final long serialVersionUID = 1L;
+	}
+
+	/** A list counting the reads of its elements. */
+	static final class ReadCountingList extends AbstractList<String> implements RandomAccess {
+
+		/** The elements. */
+		private final List<String> list;
+
+		/** The number of reads. */
+		private final AtomicInteger reads;
+
+		/** Index of the element throwing an error when read for formatting, -1 for none. */
+		private final int errorIndex;
+
+		/**
+		 * Creates a new list.
+		 * @param list the elements
+		 * @param reads counter for reads
+		 */
+		ReadCountingList(List<String> list, AtomicInteger reads){
+			this(list, reads, -1);
+		}
+
+		/**
+		 * Creates a new list with an element throwing an error.
+		 * @param list the elements
+		 * @param reads counter for reads
+		 * @param errorIndex index of the element throwing an error when read for formatting, -1 for none
+		 */
+		ReadCountingList(List<String> list, AtomicInteger reads, int errorIndex){
+			this.list = list;
+			this.reads = reads;
+			this.errorIndex = errorIndex;
+		}
+
+		@Override
+		public String get(int index){
+			//validation reads every element once before formatting starts
+			if(this.reads.incrementAndGet()>this.list.size() && index==this.errorIndex){
+				throw new ReadError();
+			}
+			return this.list.get(index);
+		}
+
+		@Override
+		public int size(){
+			return this.list.size();
+		}
+	}
+
+	@Test
+	public void testWith(){
+		Text_To_FormattedText tr = Text_To_FormattedText.create(40, Text_To_FormattedText.ALIGN_RIGHT, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH, '<', '>', '~', 3, 0, null, 0, 0, null);
+		Text_To_FormattedText copy = tr.withWrapMode(Text_To_WrappedFormat.WRAP_OPTIMAL).withMeasureMode(Text_To_FormattedText.MEASURE_TERMINAL).withTabSize(0).withMaxLines(2).withEllipsis("...");
+
+		//the copy has the new settings and all other settings of the source
+		assertEquals(Text_To_WrappedFormat.WRAP_OPTIMAL, copy.getWrapMode());
+		assertEquals(Text_To_FormattedText.MEASURE_TERMINAL, copy.getMeasureMode());
+		assertEquals(Text_To_FormattedText.DEFAULT_TAB_SIZE, copy.getTabSize());
+		assertEquals(2, copy.getMaxLines());
+		assertEquals("...", copy.getEllipsis());
+		assertEquals(null, copy.getHyphenator());
+		assertEquals(40, copy.getTextWidth());
+		assertEquals(Text_To_FormattedText.ALIGN_RIGHT, copy.getAlignment());
+		assertEquals(Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH, copy.getFormat());
+		assertEquals(Character.valueOf('<'), copy.getLeftPaddingChar());
+		assertEquals(Character.valueOf('>'), copy.getRightPaddingChar());
+		assertEquals(Character.valueOf('~'), copy.getInnerWsChar());
+		assertEquals(3, copy.getHangingIndentation());
+		assertEquals(tr.getFirstlineIndentation(), copy.getFirstlineIndentation());
+		assertSame(tr.getCollectionStrategy(), copy.getCollectionStrategy());
+
+		//the source is not changed
+		assertEquals(Text_To_WrappedFormat.WRAP_GREEDY, tr.getWrapMode());
+		assertEquals(0, tr.getMaxLines());
+		assertEquals(null, tr.getEllipsis());
+
+		String text = new LoremIpsum().getWords(40);
+		assertEquals(tr.withMaxLines(2).transform(text).toString(), tr.compile().withMaxLines(2).transform(text).toString());
+		assertEquals(2, copy.compile().transform(text).size());
+	}
+
+	@Test
+	public void testCached(){
+		LoremIpsum li = new LoremIpsum();
+		FormattedTextCache cache = FormattedTextCache.create(2);
+		Text_To_FormattedText tr = Text_To_FormattedText.create(40, Text_To_FormattedText.ALIGN_JUSTIFIED, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH, null, null, null, 0, 0, null, 0, 0, null);
+		Text_To_FormattedText cached = tr.cached(cache);
+
+		String text = li.getWords(40);
+		Collection<StrBuilder> first = cached.transform(text);
+		assertEquals(tr.transform(text).toString(), first.toString());
+		first.iterator().next().append("changed");
+		assertEquals(tr.transform(text).toString(), cached.transform(text).toString());
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getHits());
+
+		//same text, different settings
+		assertEquals(Text_To_FormattedText.left(text, 30).toString(), Text_To_FormattedText.left(text, 30, cache).toString());
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.size());
+
+		cached.transform(li.getWords(10));
+		assertEquals(3, cache.getMisses());
+		assertEquals(1, cache.getEvictions());
+		assertEquals(2, cache.size());
+
+		//least recently used was the first text
+		Text_To_FormattedText.left(text, 30, cache);
+		assertEquals(2, cache.getHits());
+		assertEquals(tr.transform(text).toString(), cached.transform(text).toString());
+		assertEquals(4, cache.getMisses());
+		assertEquals(2, cache.getEvictions());
+	}
+
+	@Test
+	public void testCachedPlanReuse(){
+		//records the settings of each lookup, a hit must not compile a new plan
+		FormattedTextCache lru = FormattedTextCache.create();
+		List<Text_To_FormattedText> lookups = new ArrayList<>();
+		FormattedTextCache cache = new FormattedTextCache() {
+			@Override
+			public List<String> lines(Text_To_FormattedText settings, String text){
+				lookups.add(settings);
+				return lru.lines(settings, text);
+			}
+
+			@Override
+			public int getMaxSize(){
+				return lru.getMaxSize();
+			}
+
+			@Override
+			public int size(){
+				return lru.size();
+			}
+
+			@Override
+			public long getHits(){
+				return lru.getHits();
+			}
+
+			@Override
+			public long getMisses(){
+				return lru.getMisses();
+			}
+
+			@Override
+			public long getEvictions(){
+				return lru.getEvictions();
+			}
+
+			@Override
+			public void clear(){
+				lru.clear();
+			}
+		};
+
+		String text = new LoremIpsum().getWords(20);
+		for(int i=0; i<3; i++){
+			assertEquals(Text_To_FormattedText.left(text, 30).toString(), Text_To_FormattedText.left(text, 30, cache).toString());
+		}
+		assertEquals(3, lookups.size());
+		assertSame(FormattedTextPlan.left(30), lookups.get(0));
+		assertSame(lookups.get(0), lookups.get(1));
+		assertSame(lookups.get(0), lookups.get(2));
+		assertEquals(1, lru.getMisses());
+		assertEquals(2, lru.getHits());
+
+		//a compiled transformer is used as it is
+		lookups.clear();
+		Text_To_FormattedText plan = Text_To_FormattedText.create(40, Text_To_FormattedText.ALIGN_JUSTIFIED, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH, null, null, null, 0, 0, null, 0, 0, null).compile();
+		assertEquals(plan.transform(text).toString(), cache.transform(plan, text).toString());
+		assertEquals(plan.transform(text).toString(), cache.transform(plan, text).toString());
+		assertEquals(2, lookups.size());
+		assertSame(plan, lookups.get(0));
+		assertSame(plan, lookups.get(1));
+
+		//widths without a shared plan are still formatted
+		assertEquals(Text_To_FormattedText.left(text, 300).toString(), Text_To_FormattedText.left(text, 300, cache).toString());
+	}
+
+	@Test
+	public void testLayouts(){
+		String[] dropCap = new String[]{"###", "# #", "###"};
+		int[] formats = new int[]{
+				Text_To_FormattedText.FORMAT_NONE, Text_To_FormattedText.FORMAT_HANGING_PARAGRAPH, Text_To_FormattedText.FORMAT_FIRST_LINE,
+				Text_To_FormattedText.FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH, Text_To_FormattedText.FORMAT_DROPCAP, Text_To_FormattedText.FORMAT_DROPCAP_WITH_PADDING
+		};
+		String[] texts = new String[]{
+				new LoremIpsum().getWords(150), "  short  text  ", "a " + StringUtils.repeat('x', 50) + " b", "with\nline breaks<br>and\r\n\r\nparagraphs", "mixed 漢字 text 😀 " + new LoremIpsum().getWords(20)
+		};
+		for(int alignment=1; alignment<=6; alignment++){
+			for(int format : formats){
+				Text_To_FormattedText tr = Text_To_FormattedText.create(80, alignment, format, null, null, null, 0, 0, dropCap, 0, 0, null);
+				for(String text : texts){
+					if(format>=Text_To_FormattedText.FORMAT_DROPCAP && text.length()<600){
+						continue;
+					}
+					FormattedTextLayouts layouts = tr.layouts(text);
+					for(int width : new int[]{20, 33, 80, 120}){
+						Text_To_FormattedText w = Text_To_FormattedText.create(width, alignment, format, null, null, null, 0, 0, dropCap, 0, 0, null);
+						assertEquals(w.transform(text).toString(), layouts.lines(width).toString());
+						assertEquals(w.transform(text).toString(), layouts.transform(width).toString());
+					}
+				}
+			}
+		}
+
+		FormattedTextLayouts layouts = Text_To_FormattedText.create(40, Text_To_FormattedText.ALIGN_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).layouts("a b c");
+		assertEquals("[20, 40]", layouts.lines(20, 40).keySet().toString());
+		assertEquals(layouts.lines(30), layouts.renderAsCollection(30));
+	}
+
+	@Test
+	public void testColumns(){
+		String words = new LoremIpsum().getWords(100);
+		Text_To_FormattedText tr = Text_To_FormattedText.create(20, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).compile();
+		List<String> lines = new ArrayList<>();
+		for(StrBuilder b : tr.transform(words)){
+			lines.add(b.toString());
+		}
+		for(int columns=1; columns<=5; columns++){
+			LineBuffer rows = tr.toColumns(words, columns, 3);
+			assertEquals((lines.size() + columns - 1) / columns, rows.size());
+
+			//columns read top to bottom and left to right give the formatted lines, blank lines only at the bottom of short columns
+			List<String> flow = new ArrayList<>();
+			for(int c=0; c<columns; c++){
+				for(int r=0; r<rows.size(); r++){
+					String row = rows.get(r).toString();
+					assertEquals(columns * 20 + (columns - 1) * 3, row.length());
+					String line = row.substring(c * 23, c * 23 + 20);
+					if(!StringUtils.isBlank(line)){
+						flow.add(line);
+					}
+				}
+			}
+			assertEquals(lines, flow);
+		}
+
+		//heights differ by at most one line, the first columns are the longer ones
+		LineBuffer rows = Text_To_FormattedText.create(5, Text_To_FormattedText.ALIGN_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).toColumns("aaaa bbbb cccc dddd eeee ffff gggg", 3, 1);
+		assertEquals(3, rows.size());
+		assertEquals("aaaa  dddd  ffff ", rows.get(0).toString());
+		assertEquals("bbbb  eeee  gggg ", rows.get(1).toString());
+		assertEquals("cccc             ", rows.get(2).toString());
+	}
+
+	@Test
+	public void testMaxLines() throws IOException{
+		String words = new LoremIpsum().getWords(200);
+		List<String> lines = new ArrayList<>();
+		for(StrBuilder b : Text_To_FormattedText.create(30, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_FIRST_LINE, null, null, null, 0, 0, null, 0, 0, null).transform(words)){
+			lines.add(b.toString());
+		}
+
+		//without an ellipsis the lines are the first lines of the text formatted without a limit
+		for(int max=1; max<=lines.size()+1; max++){
+			Text_To_FormattedText tr = Text_To_FormattedText.create(30, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_FIRST_LINE, null, null, null, 0, 0, null, 0, 0, null).withMaxLines(max).compile();
+			List<String> limited = new ArrayList<>();
+			for(StrBuilder b : tr.transform(words)){
+				limited.add(b.toString());
+			}
+			assertEquals(lines.subList(0, Math.min(max, lines.size())), limited);
+
+			StringWriter out = new StringWriter();
+			tr.transform(new StringReader(words), out, "\n");
+			assertEquals(StringUtils.join(limited, '\n') + "\n", out.toString());
+		}
+
+		//with an ellipsis the last line ends with it, only if text was left out
+		Text_To_FormattedText tr = Text_To_FormattedText.create(30, Text_To_FormattedText.ALIGN_JUSTIFIED_LEFT, Text_To_FormattedText.FORMAT_FIRST_LINE, null, null, null, 0, 0, null, 0, 0, null).withMaxLines(3).withEllipsis("...");
+		List<String> limited = new ArrayList<>();
+		for(StrBuilder b : tr.transform(words)){
+			limited.add(b.toString());
+		}
+		assertEquals(3, limited.size());
+		assertEquals(lines.subList(0, 2), limited.subList(0, 2));
+		assertEquals(30, limited.get(2).length());
+		assertTrue(limited.get(2).trim().endsWith("..."));
+
+		tr = Text_To_FormattedText.create(10, Text_To_FormattedText.ALIGN_LEFT, Text_To_FormattedText.FORMAT_NONE, null, null, null, 0, 0, null, 0, 0, null).withMaxLines(2).withEllipsis("...");
+		assertEquals("[aaaa bbbb , cccc dddd ]", tr.transform("aaaa bbbb cccc dddd").toString());
+		assertEquals("[aaaa bbbb , cccc dddd ]", tr.transform("aaaa bbbb cccc dddd<br>").toString());
+		assertEquals("[aaaa bbbb , cccc dd...]", tr.transform("aaaa bbbb cccc dddd eeee").toString());
+	}
+
+	@Test
+	public void testMaxLinesTrailingWhitespace() throws IOException{
+		//trailing white space can add an empty last line, the limited lines must still be the first lines of the text formatted without a limit
+		String[] texts = new String[]{
+				"zbhxnrrg jsqnev gymmwnt nlpoeuxh wico  pz baemad zhmii jxser ",
+				"zbhxnrrg jsqnev gymmwnt nlpoeuxh wico  pz baemad zhmii jxser   ",
+				"zbhxnrrg jsqnev gymmwnt nlpoeuxh wico  pz baemad zhmii jxser \n",
+				"zbhxnrrg jsqnev gymmwnt nlpoeuxh wico<br>pz baemad zhmii jxser <br> ",
+				"\u00fcberl\u00e4nge jsqnev gymmwnt nlpoeuxh wico  pz baemad zhmii \u65e5\u672c\u8a9e "
+		};
+		for(String text : texts){
+			for(int wrapMode : new int[]{Text_To_WrappedFormat.WRAP_GREEDY, Text_To_WrappedFormat.WRAP_OPTIMAL}){
+				for(int measureMode : new int[]{Text_To_FormattedText.MEASURE_DISPLAY, Text_To_FormattedText.MEASURE_TERMINAL}){
+					List<String> lines = new ArrayList<>();
+					for(StrBuilder b : Text_To_FormattedText.create(25, Text_To_FormattedText.ALIGN_JUSTIFIED_RIGHT, Text_To_FormattedText.FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH, ' ', '>', '~', 0, 0, null, 0, 0, null).withWrapMode(wrapMode).withMeasureMode(measureMode).transform(text)){
+						lines.add(b.toString());
+					}
+					for(int max=1; max<=lines.size()+1; max++){
+						Text_To_FormattedText tr = Text_To_FormattedText.create(25, Text_To_FormattedText.ALIGN_JUSTIFIED_RIGHT, Text_To_FormattedText.FORMAT_FIRSTLINE_AND_HANGINGPARAGRAPH, ' ', '>', '~', 0, 0, null, 0, 0, null).withWrapMode(wrapMode).withMeasureMode(measureMode).withMaxLines(max).compile();
+						List<String> limited = new ArrayList<>();
+						for(StrBuilder b : tr.transform(text)){
+							limited.add(b.toString());
+						}
+						assertEquals(lines.subList(0, Math.min(max, lines.size())), limited);
+
+						StringWriter out = new StringWriter();
+						tr.transform(new StringReader(text), out, "\n");
+						assertEquals(StringUtils.join(limited, '\n') + "\n", out.toString());
+					}
+				}
+			}
+		}
+	}
 }
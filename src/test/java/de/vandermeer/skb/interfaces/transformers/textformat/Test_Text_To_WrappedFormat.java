@@ -16,10 +16,13 @@
 package de.vandermeer.skb.interfaces.transformers.textformat;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.text.StrBuilder;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Test;
 
@@ -66,4 +69,97 @@ public class Test_Text_To_WrappedFormat {
 		}
 	}
 
+	@Test
+	public void test_LineBreaks(){
+		Pair<ArrayList<String>, ArrayList<String>> textPair;
+
+		for(String lb : new String[]{"\r\n", "\r", "\n", "<br>", "<br/>", "<br />"}){
+			textPair = Text_To_WrappedFormat.convert("one two three" + lb + "four five", 9);
+			assertEquals(Arrays.asList("one two", "three", "four five"), textPair.getRight());
+		}
+
+		//leading line break is skipped, the second of two line breaks is swallowed, every further one adds an empty line
+		textPair = Text_To_WrappedFormat.convert("<br>one<br><br>two<br><br><br>three", 10);
+		assertEquals(Arrays.asList("one", "two", "", "three"), textPair.getRight());
+	}
+
+	@Test
+	public void test_TextAfterBreaks(){
+		//no characters are lost after a line break, repeated line breaks are never copied into the lines
+		assertEquals(Arrays.asList("ffffff"), Text_To_WrappedFormat.convert("<br> ffffff", 10).getRight());
+		assertEquals(Arrays.asList("a", "ccc"), Text_To_WrappedFormat.convert("a <br /> ccc", 10).getRight());
+		assertEquals(Arrays.asList("ffffff", "ccca", "ccc"), Text_To_WrappedFormat.convert("ffffff<br /> ccca ccc", 6).getRight());
+		assertEquals(Arrays.asList("", "ff", "ff"), Text_To_WrappedFormat.convert("<br><br />ff<br>ff", 12).getRight());
+		assertEquals(Arrays.asList("x", "dddddd", "dddddd", "ccc"), Text_To_WrappedFormat.convert("x<br />dddddddddddd\nccc", 6).getRight());
+	}
+
+	@Test
+	public void test_LongWords(){
+		Pair<ArrayList<String>, ArrayList<String>> textPair = Text_To_WrappedFormat.convert("a abcdefghijklmnopqrstuvwxyz b", 10);
+		assertEquals(Arrays.asList("a", "abcdefghij", "klmnopqrst", "uvwxyz b"), textPair.getRight());
+	}
+
+	@Test
+	public void test_Top(){
+		Pair<ArrayList<String>, ArrayList<String>> textPair = Text_To_WrappedFormat.convert("one two three four five six<br>seven eight", 12, Pair.of(2, 8));
+		assertEquals(Arrays.asList("one two", "three"), textPair.getLeft());
+		assertEquals(Arrays.asList("four five", "six", "seven eight"), textPair.getRight());
+	}
+
+	@Test
+	public void test_LargeInput(){
+		LoremIpsum lorem = new LoremIpsum();
+		StrBuilder text = new StrBuilder();
+		int words = 0;
+		for(int i=0; i<5000; i++){
+			text.appendSeparator(LINEBREAK).append(lorem.getWords(40, i%50));
+			words += 40;
+		}
+
+		Pair<ArrayList<String>, ArrayList<String>> textPair = Text_To_WrappedFormat.convert(text.toString(), 30);
+		assertEquals(0, textPair.getLeft().size());
+		assertTrue(textPair.getRight().size()>5000);
+
+		int count = 0;
+		for(String s : textPair.getRight()){
+			assertTrue(s.length()<=30);
+			count += StringUtils.split(s).length;
+		}
+		assertEquals(words, count);
+	}
+
+	@Test
+	public void test_Optimal(){
+		Pair<ArrayList<String>, ArrayList<String>> textPair;
+
+		textPair = Text_To_WrappedFormat.convert("aaa bb cc ddddd", 6, null, Text_To_WrappedFormat.WRAP_GREEDY);
+		assertEquals(Arrays.asList("aaa bb", "cc", "ddddd"), textPair.getRight());
+		textPair = Text_To_WrappedFormat.convert("aaa bb cc ddddd", 6, null, Text_To_WrappedFormat.WRAP_OPTIMAL);
+		assertEquals(Arrays.asList("aaa", "bb cc", "ddddd"), textPair.getRight());
+
+		//long paragraphs go over several windows, lines must fit and cost no more than greedy lines
+		String text = new LoremIpsum().getWords(500);
+		ArrayList<String> greedy = Text_To_WrappedFormat.convert(text, 30, null, Text_To_WrappedFormat.WRAP_GREEDY).getRight();
+		ArrayList<String> optimal = Text_To_WrappedFormat.convert(text, 30, null, Text_To_WrappedFormat.WRAP_OPTIMAL).getRight();
+		for(String s : optimal){
+			assertTrue(s.length()<=30);
+		}
+		assertEquals(text, StringUtils.join(optimal, ' '));
+		assertTrue(this.cost(optimal, 30)<=this.cost(greedy, 30));
+	}
+
+	/**
+	 * Returns the sum of squared free space of all lines but the last one.
+	 * @param lines the lines
+	 * @param width the width
+	 * @return cost of the lines
+	 */
+	private long cost(ArrayList<String> lines, int width){
+		long ret = 0;
+		for(int i=0; i<lines.size()-1; i++){
+			ret += (width - lines.get(i).length()) * (width - lines.get(i).length());
+		}
+		return ret;
+	}
+
 }